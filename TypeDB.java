@@ -70,6 +70,11 @@ public interface TypeDB {
 
         String ruleSchema();
 
+        /**
+         * Makes the data committed by bulk-load transactions visible, by ingesting everything they staged.
+         */
+        void ingestBulkLoad();
+
         void delete();
     }
 
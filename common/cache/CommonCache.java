@@ -21,6 +21,7 @@ package com.vaticle.typedb.core.common.cache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -55,6 +56,10 @@ public class CommonCache<KEY, VALUE> {
 
     public VALUE getIfPresent(KEY key) { return cache.getIfPresent(key); }
 
+    public void forEach(BiConsumer<KEY, VALUE> consumer) {
+        cache.asMap().forEach(consumer);
+    }
+
     public void clear() {
         cache.invalidateAll();
     }
@@ -65,6 +65,10 @@ public abstract class ByteArray implements Comparable<ByteArray> {
         return Base.EMPTY;
     }
 
+    public static ByteArray.Direct direct(ByteBuffer buffer) {
+        return new ByteArray.Direct(buffer);
+    }
+
     public abstract byte[] getBytes();
 
     public abstract byte[] cloneBytes();
@@ -308,6 +312,7 @@ public abstract class ByteArray implements Comparable<ByteArray> {
 
     @Override
     public int compareTo(ByteArray that) {
+        if (that.getClass() == Direct.class) return -((Direct) that).compareTo(this);
         return UnsignedBytes.lexicographicalComparator().compare(getBytes(), that.getBytes());
     }
 
@@ -317,6 +322,7 @@ public abstract class ByteArray implements Comparable<ByteArray> {
         if (o == null) return false;
         if (o.getClass() == Base.class) return equalsBase((Base) o);
         else if (o.getClass() == View.class) return equalsView((View) o);
+        else if (o.getClass() == Direct.class) return equalsDirect((Direct) o);
         else return false;
     }
 
@@ -324,6 +330,14 @@ public abstract class ByteArray implements Comparable<ByteArray> {
 
     abstract boolean equalsBase(Base o);
 
+    boolean equalsDirect(Direct o) {
+        if (length() != o.length()) return false;
+        for (int i = 0; i < length(); i++) {
+            if (get(i) != o.get(i)) return false;
+        }
+        return true;
+    }
+
     @Override
     public final int hashCode() {
         if (hash == 0) {
@@ -562,4 +576,151 @@ public abstract class ByteArray implements Comparable<ByteArray> {
             return true;
         }
     }
+
+    /**
+     * A byte array that views the first {@code length()} bytes of a (typically off-heap) {@code ByteBuffer}.
+     *
+     * The underlying buffer is owned by the caller, and may be rewritten and re-wrapped between reads, so a
+     * {@code Direct} byte array must never be retained: anything that needs to outlive the current read should
+     * be materialised onto the heap with {@code copy()}.
+     */
+    public static class Direct extends ByteArray {
+
+        private ByteBuffer buffer;
+        private int length;
+        private byte[] arrayCache;
+
+        private Direct(ByteBuffer buffer) {
+            super(null);
+            wrap(buffer, 0);
+        }
+
+        public void wrap(ByteBuffer buffer, int length) {
+            assert length <= buffer.capacity();
+            this.buffer = buffer;
+            this.length = length;
+            this.arrayCache = null;
+            ((ByteArray) this).hash = 0;
+        }
+
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        public ByteArray.Base copy() {
+            return new ByteArray.Base(cloneBytes());
+        }
+
+        @Override
+        public byte[] getBytes() {
+            if (arrayCache == null) arrayCache = cloneBytes();
+            return arrayCache;
+        }
+
+        @Override
+        public byte[] cloneBytes() {
+            byte[] bytes = new byte[length];
+            copyTo(bytes, 0);
+            return bytes;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return length == 0;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public byte get(int index) {
+            if (index >= length) throw new ArrayIndexOutOfBoundsException();
+            return buffer.get(index);
+        }
+
+        @Override
+        public ByteArray.Base copyRange(int from, int to) {
+            if (from >= length || to > length) throw new ArrayIndexOutOfBoundsException();
+            byte[] bytes = new byte[to - from];
+            buffer.duplicate().position(from).get(bytes, 0, to - from);
+            return new ByteArray.Base(bytes);
+        }
+
+        @Override
+        public ByteArray.View view(int from, int to) {
+            if (from >= length || to > length) throw new ArrayIndexOutOfBoundsException();
+            return new View(getBytes(), from, to - from);
+        }
+
+        @Override
+        public void copyTo(byte[] destination, int destinationPos) {
+            assert destinationPos + length <= destination.length;
+            buffer.duplicate().position(0).get(destination, destinationPos, length);
+        }
+
+        @Override
+        public String decodeString(Charset encoding) {
+            return new String(getBytes(), encoding);
+        }
+
+        @Override
+        public int decodeUnsignedShort() {
+            assert length == SHORT_SIZE;
+            return ((buffer.get(0) << 8) & 0xff00) | (buffer.get(1) & 0xff);
+        }
+
+        @Override
+        public long decodeLong() {
+            assert length == LONG_SIZE;
+            return buffer.duplicate().order(LITTLE_ENDIAN).getLong(0);
+        }
+
+        @Override
+        public int decodeInt() {
+            assert length == INTEGER_SIZE;
+            return buffer.duplicate().order(LITTLE_ENDIAN).getInt(0);
+        }
+
+        @Override
+        public UUID decodeUUID() {
+            ByteBuffer view = buffer.duplicate().position(0);
+            long firstLong = view.getLong();
+            long secondLong = view.getLong();
+            return new UUID(firstLong, secondLong);
+        }
+
+        @Override
+        public boolean hasPrefix(ByteArray prefix) {
+            if (length < prefix.length()) return false;
+            for (int i = 0; i < prefix.length(); i++) {
+                if (buffer.get(i) != prefix.get(i)) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Compares against the buffer in place, rather than through a heap copy of it.
+         */
+        @Override
+        public int compareTo(ByteArray that) {
+            int common = Math.min(length, that.length());
+            for (int i = 0; i < common; i++) {
+                int compare = UnsignedBytes.compare(buffer.get(i), that.get(i));
+                if (compare != 0) return compare;
+            }
+            return Integer.compare(length, that.length());
+        }
+
+        @Override
+        boolean equalsBase(Base o) {
+            return o.equalsDirect(this);
+        }
+
+        @Override
+        boolean equalsView(View o) {
+            return o.equalsDirect(this);
+        }
+    }
 }
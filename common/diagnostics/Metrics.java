@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.common.diagnostics;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide registry of counters, summaries and gauges, rendered in the Prometheus text exposition format.
+ *
+ * Recording into a counter or summary is a striped add, so instrumentation is always on. Metrics that are costly
+ * to collect at their source (such as RocksDB tickers) should only be registered when {@link #isEnabled()}.
+ */
+@ThreadSafe
+public class Metrics {
+
+    private static final ConcurrentNavigableMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+    private static volatile boolean enabled = false;
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static Counter counter(String name, String help) {
+        return counter(name, "", help);
+    }
+
+    public static Counter counter(String name, String labels, String help) {
+        return (Counter) metrics.computeIfAbsent(key(name, labels), k -> new Counter(name, labels, help));
+    }
+
+    public static Summary summary(String name, String help) {
+        return summary(name, "", help);
+    }
+
+    public static Summary summary(String name, String labels, String help) {
+        return (Summary) metrics.computeIfAbsent(key(name, labels), k -> new Summary(name, labels, help));
+    }
+
+    public static void gauge(String name, String labels, String help, LongSupplier supplier) {
+        metrics.put(key(name, labels), new Gauge(name, labels, help, supplier, "gauge"));
+    }
+
+    public static void counterGauge(String name, String labels, String help, LongSupplier supplier) {
+        metrics.put(key(name, labels), new Gauge(name, labels, help, supplier, "counter"));
+    }
+
+    public static void remove(String name, String labels) {
+        metrics.remove(key(name, labels));
+    }
+
+    public static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static String key(String name, String labels) {
+        return name + "{" + labels + "}";
+    }
+
+    public static String prometheus() {
+        StringBuilder builder = new StringBuilder();
+        String family = null;
+        for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+            Metric metric = entry.getValue();
+            if (!metric.name.equals(family)) {
+                family = metric.name;
+                builder.append("# HELP ").append(metric.name).append(" ").append(metric.help).append("\n");
+                builder.append("# TYPE ").append(metric.name).append(" ").append(metric.type()).append("\n");
+            }
+            metric.write(builder);
+        }
+        return builder.toString();
+    }
+
+    private static abstract class Metric {
+
+        final String name;
+        final String labels;
+        final String help;
+
+        private Metric(String name, String labels, String help) {
+            this.name = name;
+            this.labels = labels;
+            this.help = help;
+        }
+
+        abstract String type();
+
+        abstract void write(StringBuilder builder);
+
+        void sample(StringBuilder builder, String suffix, Object value) {
+            builder.append(name).append(suffix);
+            if (!labels.isEmpty()) builder.append("{").append(labels).append("}");
+            builder.append(" ").append(value).append("\n");
+        }
+    }
+
+    public static class Counter extends Metric {
+
+        private final LongAdder count;
+
+        private Counter(String name, String labels, String help) {
+            super(name, labels, help);
+            count = new LongAdder();
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long value) {
+            count.add(value);
+        }
+
+        @Override
+        String type() {
+            return "counter";
+        }
+
+        @Override
+        void write(StringBuilder builder) {
+            sample(builder, "", count.sum());
+        }
+    }
+
+    /**
+     * A count and a sum of observations, which is enough to derive rates and means. Durations are observed in
+     * seconds, following Prometheus convention.
+     */
+    public static class Summary extends Metric {
+
+        private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+        private final LongAdder count;
+        private final DoubleAdder sum;
+
+        private Summary(String name, String labels, String help) {
+            super(name, labels, help);
+            count = new LongAdder();
+            sum = new DoubleAdder();
+        }
+
+        public void observe(double value) {
+            count.increment();
+            sum.add(value);
+        }
+
+        public void observeNanosSince(long startNanos) {
+            observe((System.nanoTime() - startNanos) / NANOS_PER_SECOND);
+        }
+
+        @Override
+        String type() {
+            return "summary";
+        }
+
+        @Override
+        void write(StringBuilder builder) {
+            sample(builder, "_count", count.sum());
+            sample(builder, "_sum", sum.sum());
+        }
+    }
+
+    private static class Gauge extends Metric {
+
+        private final LongSupplier supplier;
+        private final String type;
+
+        private Gauge(String name, String labels, String help, LongSupplier supplier, String type) {
+            super(name, labels, help);
+            this.supplier = supplier;
+            this.type = type;
+        }
+
+        @Override
+        String type() {
+            return type;
+        }
+
+        @Override
+        void write(StringBuilder builder) {
+            sample(builder, "", supplier.getAsLong());
+        }
+    }
+}
@@ -143,6 +143,8 @@ public abstract class ErrorMessage extends com.vaticle.typedb.common.exception.E
                 new Internal(14, "Unexpected optimiser value.");
         public static final Internal UNIMPLEMENTED =
                 new Internal(15, "This functionality is not yet implemented.");
+        public static final Internal DISTINCT_SPILL_FAILED =
+                new Internal(16, "Failed to spill distinct answers to, or read them back from, the temporary file '%s'.");
 
         private static final String codePrefix = "INT";
         private static final String messagePrefix = "Invalid Internal State";
@@ -285,6 +287,10 @@ public abstract class ErrorMessage extends com.vaticle.typedb.common.exception.E
                 new Pattern(18, "The pattern '%s' can never be satisfied in the current schema, due to contradicting types for '%s'.");
         public static final Pattern UNSATISFIABLE_PATTERN_VARIABLE_VALUE =
                 new Pattern(19, "The pattern '%s' can never be satisfied in the current schema, due to contradicting attribute value types for '%s'.");
+        public static final Pattern UNKNOWN_PREPARED_PARAMETER =
+                new Pattern(20, "The variable '%s' is not a named variable of the prepared query.");
+        public static final Pattern UNSUPPORTED_PREPARED_VALUE =
+                new Pattern(21, "The variable '%s' cannot be bound to a value of type '%s'.");
 
         private static final String codePrefix = "QRY";
         private static final String messagePrefix = "Invalid Query Pattern";
@@ -605,6 +611,8 @@ public abstract class ErrorMessage extends com.vaticle.typedb.common.exception.E
                 new Reasoner(6, "Reasoner tracing file could not be found.");
         public static final Reasoner REASONER_TRACING_WRITE_FAILED =
                 new Reasoner(7, "Reasoner tracing failed to write to file.");
+        public static final Reasoner SORT_SPILL_FAILED =
+                new Reasoner(8, "Sorting failed to spill answers to, or read them back from, a file in '%s'.");
 
         private static final String codePrefix = "RSN";
         private static final String messagePrefix = "Reasoner Error";
@@ -635,6 +643,8 @@ public abstract class ErrorMessage extends com.vaticle.typedb.common.exception.E
                 new Migrator(9, "The data being imported is invalid - the header is missing.");
         public static final Migrator IMPORT_CHECKSUM_MISMATCH =
                 new Migrator(10, "The import has finished but mismatches the required checksums: '%s");
+        public static final Migrator BULK_LOAD_DATABASE_NOT_EMPTY =
+                new Migrator(11, "A bulk load can only import into a database with no data, but '%s' already contains data.");
 
         private static final String codePrefix = "MIG";
         private static final String messagePrefix = "Migrator failure";
@@ -45,6 +45,8 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     public static final boolean DEFAULT_QUERY_READ_PREFETCH = true;
     public static final boolean DEFAULT_QUERY_WRITE_PREFETCH = false;
     public static final boolean DEFAULT_READ_ANY_REPLICA = false;
+    public static final boolean DEFAULT_BULK_LOAD = false;
+    public static final long DEFAULT_SORT_MEMORY_LIMIT = 256L * 1024 * 1024;
 
     private PARENT parent;
     private Boolean infer = null;
@@ -56,6 +58,7 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     private Long transactionTimeoutMillis = null;
     private Long schemaLockAcquireTimeoutMillis = null;
     private Boolean readAnyReplica = null;
+    private Long sortMemoryLimit = null;
     protected Boolean prefetch = null;
     protected Path typeDBDir = null;
     protected Path dataDir = null;
@@ -169,6 +172,20 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    /**
+     * The estimated number of bytes of answers a sort holds in memory before spilling them to temporary files.
+     */
+    public long sortMemoryLimit() {
+        if (sortMemoryLimit != null) return sortMemoryLimit;
+        else if (parent != null) return parent.sortMemoryLimit();
+        else return DEFAULT_SORT_MEMORY_LIMIT;
+    }
+
+    public SELF sortMemoryLimit(long sortMemoryLimit) {
+        this.sortMemoryLimit = sortMemoryLimit;
+        return getThis();
+    }
+
     public Path typeDBDir() {
         if (typeDBDir != null) return typeDBDir;
         else if (parent != null) return parent.typeDBDir();
@@ -246,11 +263,27 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
 
     public static class Transaction extends Options<Session, Transaction> {
 
+        private Boolean bulkLoad = null;
+
         @Override
         Transaction getThis() {
             return this;
         }
 
+        /**
+         * Whether a write transaction should be committed by ingesting SST files instead of through a RocksDB
+         * transaction. Only safe when loading into an empty database with no other writers.
+         */
+        public boolean bulkLoad() {
+            if (bulkLoad != null) return bulkLoad;
+            else return DEFAULT_BULK_LOAD;
+        }
+
+        public Transaction bulkLoad(boolean bulkLoad) {
+            this.bulkLoad = bulkLoad;
+            return this;
+        }
+
         @Override
         public Transaction sessionIdleTimeoutMillis(long idleTimeoutMillis) {
             throw TypeDBException.of(SESSION_IDLE_TIMEOUT_NOT_CONFIGURABLE, className(getClass()));
@@ -39,6 +39,7 @@ import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.encoding.iid.VertexIID;
 import com.vaticle.typedb.core.graph.vertex.ThingVertex;
 import com.vaticle.typedb.core.graph.vertex.TypeVertex;
+import com.vaticle.typedb.core.graph.vertex.Vertex;
 import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
 
@@ -79,14 +80,16 @@ public final class ConceptManager {
 
     private Map<Retrievable, Concept> toConcepts(VertexMap vertexMap) {
         Map<Retrievable, Concept> map = new HashMap<>();
-        vertexMap.forEach((id, vertex) -> {
-            if (vertex.isThing()) map.put(id, ThingImpl.of(vertex.asThing()));
-            else if (vertex.isType()) map.put(id, TypeImpl.of(graphMgr, vertex.asType()));
-            else throw exception(TypeDBException.of(ILLEGAL_STATE));
-        });
+        vertexMap.forEach((id, vertex) -> map.put(id, concept(vertex)));
         return map;
     }
 
+    public Concept concept(Vertex<?, ?> vertex) {
+        if (vertex.isThing()) return ThingImpl.of(vertex.asThing());
+        else if (vertex.isType()) return TypeImpl.of(graphMgr, vertex.asType());
+        else throw exception(TypeDBException.of(ILLEGAL_STATE));
+    }
+
     public GraphManager graph() {
         return graphMgr;
     }
@@ -18,10 +18,13 @@
 
 package com.vaticle.typedb.core.concept.type;
 
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator.Forwardable;
 import com.vaticle.typedb.core.common.parameters.Order;
 import com.vaticle.typedb.core.concept.thing.Thing;
 
+import java.util.List;
+
 public interface ThingType extends Type {
 
     @Override
@@ -40,6 +43,12 @@ public interface ThingType extends Type {
 
     Forwardable<? extends Thing, Order.Asc> getInstancesExplicit();
 
+    /**
+     * Split the explicit instances of this type into at most {@code ranges} contiguous, disjoint IID ranges of
+     * roughly equal size, that can be iterated independently of each other.
+     */
+    List<FunctionalIterator<? extends Thing>> getInstancesExplicit(int ranges);
+
     void setAbstract();
 
     void unsetAbstract();
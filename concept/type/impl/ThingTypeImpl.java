@@ -24,6 +24,7 @@ import com.vaticle.typedb.core.common.iterator.Iterators;
 import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator.Forwardable;
 import com.vaticle.typedb.core.common.parameters.Order;
 import com.vaticle.typedb.core.concept.thing.Attribute;
+import com.vaticle.typedb.core.concept.thing.Thing;
 import com.vaticle.typedb.core.concept.thing.impl.AttributeImpl;
 import com.vaticle.typedb.core.concept.thing.impl.EntityImpl;
 import com.vaticle.typedb.core.concept.thing.impl.RelationImpl;
@@ -39,6 +40,7 @@ import com.vaticle.typedb.core.graph.vertex.ThingVertex;
 import com.vaticle.typedb.core.graph.vertex.TypeVertex;
 import com.vaticle.typeql.lang.common.TypeQLToken;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -220,6 +222,14 @@ public abstract class ThingTypeImpl extends TypeImpl implements ThingType {
         return graphMgr.data().getReadable(vertex, ASC).mapSorted(thingConstructor, ThingImpl::readableVertex, ASC);
     }
 
+    @Override
+    public List<FunctionalIterator<? extends Thing>> getInstancesExplicit(int ranges) {
+        assert ranges > 0;
+        List<FunctionalIterator<? extends Thing>> iterators = new ArrayList<>();
+        graphMgr.data().getReadableRanges(vertex, ranges).forEach(vertices -> iterators.add(vertices.map(ThingImpl::of)));
+        return iterators;
+    }
+
     @Override
     public void setOwns(AttributeType attributeType) {
         validateIsNotDeleted();
@@ -88,6 +88,10 @@ public class ActorExecutor {
         return task;
     }
 
+    public int queueDepth() {
+        return submittedTasks.size();
+    }
+
     public void await() throws InterruptedException {
         thread.join();
     }
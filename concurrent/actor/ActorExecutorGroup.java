@@ -42,6 +42,12 @@ public class ActorExecutorGroup {
         return executors[nextIndexAndIncrement()];
     }
 
+    public long queueDepth() {
+        long depth = 0;
+        for (ActorExecutor executor : executors) depth += executor.queueDepth();
+        return depth;
+    }
+
     public void await() throws InterruptedException {
         for (int i = 0; i < executors.length; i++) {
             executors[i].await();
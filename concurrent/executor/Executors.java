@@ -19,6 +19,7 @@
 package com.vaticle.typedb.core.concurrent.executor;
 
 import com.vaticle.typedb.common.concurrent.NamedThreadFactory;
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.concurrent.actor.ActorExecutorGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -68,6 +69,8 @@ public class Executors {
                                                               threadFactory(TYPEDB_CORE_SCHEDULED_THREAD_NAME));
         serialService = java.util.concurrent.Executors.newSingleThreadExecutor(threadFactory(TYPEDB_CORE_SERIAL_THREAD_NAME));
         scheduledThreadPool.setRemoveOnCancelPolicy(true);
+        Metrics.gauge("typedb_actor_queue_depth", "", "Tasks submitted to actor executors and not yet started.",
+                      actorExecutorService::queueDepth);
     }
 
     private NamedThreadFactory threadFactory(String threadNamePrefix) {
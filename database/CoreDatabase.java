@@ -22,13 +22,16 @@ import com.vaticle.typedb.common.collection.ConcurrentSet;
 import com.vaticle.typedb.common.collection.Pair;
 import com.vaticle.typedb.core.TypeDB;
 import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.iterator.Iterators;
 import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concurrent.executor.Executors;
 import com.vaticle.typedb.core.encoding.key.Key;
+import com.vaticle.typedb.core.graph.ThingGraph;
 import com.vaticle.typedb.core.graph.TypeGraph;
 import com.vaticle.typedb.core.encoding.Encoding;
 import com.vaticle.typedb.core.encoding.key.KeyGenerator;
@@ -39,11 +42,13 @@ import com.vaticle.typedb.core.graph.vertex.AttributeVertex;
 import com.vaticle.typedb.core.graph.vertex.ThingVertex;
 import com.vaticle.typedb.core.graph.vertex.TypeVertex;
 import com.vaticle.typedb.core.logic.LogicCache;
+import com.vaticle.typedb.core.query.QueryCache;
 import com.vaticle.typedb.core.traversal.TraversalCache;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.TickerType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -96,6 +101,7 @@ import static com.vaticle.typedb.core.common.parameters.Arguments.Session.Type.S
 import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.READ;
 import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.WRITE;
 import static com.vaticle.typedb.core.concurrent.executor.Executors.serial;
+import static com.vaticle.typedb.core.encoding.Encoding.Edge.Thing.Optimised.ROLEPLAYER;
 import static com.vaticle.typedb.core.encoding.Encoding.ENCODING_VERSION;
 import static com.vaticle.typedb.core.encoding.Encoding.System.ENCODING_VERSION_KEY;
 import static java.util.Comparator.reverseOrder;
@@ -106,6 +112,8 @@ public class CoreDatabase implements TypeDB.Database {
 
     private static final Logger LOG = LoggerFactory.getLogger(CoreDatabase.class);
     private static final int ROCKS_LOG_PERIOD = 300;
+    private static final String BLOCK_CACHE_HITS = "typedb_rocksdb_block_cache_hit_total";
+    private static final String BLOCK_CACHE_MISSES = "typedb_rocksdb_block_cache_miss_total";
 
     private final CoreDatabaseManager databaseMgr;
     private final Factory.Session sessionFactory;
@@ -126,6 +134,8 @@ public class CoreDatabase implements TypeDB.Database {
     protected CorePartitionManager.Data rocksDataPartitionMgr;
     protected CoreSession.Data statisticsBackgroundCounterSession;
     protected ScheduledExecutorService scheduledPropertiesLogger;
+    protected RocksPlanStore planStore;
+    protected RocksStorage.BulkLoad.Staging bulkLoadStaging;
     private Cache cache;
 
     protected CoreDatabase(CoreDatabaseManager databaseMgr, String name, Factory.Session sessionFactory) {
@@ -180,6 +190,7 @@ public class CoreDatabase implements TypeDB.Database {
             }
         }
         statisticsCorrector.initialise();
+        statisticsCorrector.mayBackfill();
     }
 
     protected void openSchema() {
@@ -220,6 +231,9 @@ public class CoreDatabase implements TypeDB.Database {
             throw TypeDBException.of(e);
         }
         mayInitRocksDataLogger();
+        mayRegisterRocksDataMetrics();
+        openPlanStore();
+        openBulkLoadStaging();
     }
 
     protected CorePartitionManager.Data createPartitionMgrData(List<ColumnFamilyDescriptor> dataDescriptors,
@@ -257,6 +271,17 @@ public class CoreDatabase implements TypeDB.Database {
             throw TypeDBException.of(e);
         }
         mayInitRocksDataLogger();
+        mayRegisterRocksDataMetrics();
+        openPlanStore();
+        openBulkLoadStaging();
+    }
+
+    private void openPlanStore() {
+        planStore = new RocksPlanStore(rocksData, rocksDataPartitionMgr.get(Key.Partition.METADATA));
+    }
+
+    private void openBulkLoadStaging() {
+        bulkLoadStaging = new RocksStorage.BulkLoad.Staging(rocksData, rocksDataPartitionMgr, directory());
     }
 
     private void mayInitRocksDataLogger() {
@@ -271,6 +296,22 @@ public class CoreDatabase implements TypeDB.Database {
         }
     }
 
+    private void mayRegisterRocksDataMetrics() {
+        rocksConfiguration.data().statistics().ifPresent(statistics -> {
+            String database = Metrics.label("database", name);
+            Metrics.counterGauge(BLOCK_CACHE_HITS, database, "RocksDB data block cache hits.",
+                    () -> statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT));
+            Metrics.counterGauge(BLOCK_CACHE_MISSES, database, "RocksDB data block cache misses.",
+                    () -> statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS));
+        });
+    }
+
+    private void unregisterRocksDataMetrics() {
+        String database = Metrics.label("database", name);
+        Metrics.remove(BLOCK_CACHE_HITS, database);
+        Metrics.remove(BLOCK_CACHE_MISSES, database);
+    }
+
     protected void initialiseEncodingVersion() {
         try {
             rocksSchema.put(
@@ -346,6 +387,22 @@ public class CoreDatabase implements TypeDB.Database {
         }
     }
 
+    /**
+     * Replaces the cache after a schema commit, carrying over the cached plans, type inference results and query
+     * patterns that do not depend on any of the modified types. The stored plans that may depend on them are removed.
+     */
+    synchronized void cacheInvalidate(Set<Label> modifiedTypes) {
+        if (!isOpen.get()) throw TypeDBException.of(DATABASE_CLOSED, name);
+
+        planStore.invalidate(modifiedTypes);
+
+        if (cache != null) {
+            Cache previous = cache;
+            previous.invalidate();
+            cache = new Cache(this, previous, modifiedTypes);
+        }
+    }
+
     protected synchronized void cacheClose() {
         if (cache != null) cache.close();
     }
@@ -358,6 +415,10 @@ public class CoreDatabase implements TypeDB.Database {
         return databaseMgr.directory().resolve(name);
     }
 
+    protected Path spillDirectory() {
+        return directory().resolve(Encoding.SPILL);
+    }
+
     public Options.Database options() {
         return databaseMgr.options();
     }
@@ -374,6 +435,10 @@ public class CoreDatabase implements TypeDB.Database {
         return isolationMgr;
     }
 
+    RocksStorage.BulkLoad.Staging bulkLoadStaging() {
+        return bulkLoadStaging;
+    }
+
     protected StatisticsCorrector statisticsCorrector() {
         return statisticsCorrector;
     }
@@ -433,6 +498,11 @@ public class CoreDatabase implements TypeDB.Database {
         }
     }
 
+    @Override
+    public void ingestBulkLoad() {
+        bulkLoadStaging.ingest();
+    }
+
     void closed(CoreSession session) {
         if (session != statisticsBackgroundCounterSession) {
             long lock = sessions.remove(session.uuid()).second();
@@ -443,6 +513,7 @@ public class CoreDatabase implements TypeDB.Database {
     protected void close() {
         if (isOpen.compareAndSet(true, false)) {
             if (scheduledPropertiesLogger != null) shutdownRocksPropertiesLogger();
+            unregisterRocksDataMetrics();
             closeResources();
         }
     }
@@ -462,6 +533,8 @@ public class CoreDatabase implements TypeDB.Database {
         statisticsCorrector.close();
         sessions.values().forEach(p -> p.first().close());
         cacheClose();
+        planStore.close();
+        bulkLoadStaging.close();
         rocksDataPartitionMgr.close();
         rocksData.close();
         rocksSchemaPartitionMgr.close();
@@ -481,8 +554,22 @@ public class CoreDatabase implements TypeDB.Database {
 
     public static class IsolationManager {
 
+        private static final String CONFLICTS = "typedb_isolation_conflicts_total";
+        private static final String CONFLICTS_HELP = "Data transaction commits rejected by isolation validation.";
+        private static final Metrics.Counter MODIFY_DELETE_CONFLICTS =
+                Metrics.counter(CONFLICTS, Metrics.label("kind", "modify-delete"), CONFLICTS_HELP);
+        private static final Metrics.Counter DELETE_MODIFY_CONFLICTS =
+                Metrics.counter(CONFLICTS, Metrics.label("kind", "delete-modify"), CONFLICTS_HELP);
+        private static final Metrics.Counter EXCLUSIVE_CREATE_CONFLICTS =
+                Metrics.counter(CONFLICTS, Metrics.label("kind", "exclusive-create"), CONFLICTS_HELP);
+
         private final ConcurrentMap<CoreTransaction.Data, CommitState> commitStates;
         private final ConcurrentNavigableMap<Long, Set<CoreTransaction.Data>> commitTimeline;
+        private final Set<CoreTransaction.Data> committing;
+        private final ConcurrentMap<CoreTransaction.Data, Claims> claims;
+        private final ConcurrentMap<ByteArray, Set<CoreTransaction.Data>> modifiedIndex;
+        private final ConcurrentMap<ByteArray, Set<CoreTransaction.Data>> deletedIndex;
+        private final ConcurrentMap<ByteArray, Set<CoreTransaction.Data>> exclusiveIndex;
         private final AtomicBoolean cleanupRunning;
 
         private enum CommitState {UNCOMMITTED, COMMITTING, COMMITTED}
@@ -491,53 +578,149 @@ public class CoreDatabase implements TypeDB.Database {
             this.cleanupRunning = new AtomicBoolean(false);
             this.commitStates = new ConcurrentHashMap<>();
             this.commitTimeline = new ConcurrentSkipListMap<>();
+            this.committing = ConcurrentHashMap.newKeySet();
+            this.claims = new ConcurrentHashMap<>();
+            this.modifiedIndex = new ConcurrentHashMap<>();
+            this.deletedIndex = new ConcurrentHashMap<>();
+            this.exclusiveIndex = new ConcurrentHashMap<>();
         }
 
         void opened(CoreTransaction.Data transaction) {
             commitStates.put(transaction, CommitState.UNCOMMITTED);
         }
 
+        /**
+         * Validates a committing transaction against every transaction that is committing, or that committed after
+         * it opened, by probing the shared key indexes with its own tracked keys only. Validation is serialised, and a
+         * transaction is only published as committing once it has passed, so of two conflicting transactions the
+         * first to validate always wins.
+         */
         public Set<CoreTransaction.Data> validateOverlappingAndStartCommit(CoreTransaction.Data txn) {
-            Set<CoreTransaction.Data> transactions;
+            if (!txn.dataStorage.hasTrackedWrite()) {
+                committing.add(txn);
+                commitStates.put(txn, CommitState.COMMITTING);
+                return set();
+            }
+            Claims claimed = new Claims(txn.dataStorage);
             synchronized (this) {
-                transactions = commitMayConflict(txn);
-                transactions.forEach(other -> validateIsolation(txn, other));
+                validateIsolation(txn, claimed);
+                claims.put(txn, claimed);
+                claimed.register(txn);
+                Set<CoreTransaction.Data> mayConflict = commitMayConflict(txn);
+                committing.add(txn);
                 commitStates.put(txn, CommitState.COMMITTING);
+                return mayConflict;
             }
-            return transactions;
         }
 
         private Set<CoreTransaction.Data> commitMayConflict(CoreTransaction.Data txn) {
-            if (!txn.dataStorage.hasTrackedWrite()) return set();
-            return iterate(commitStates.entrySet())
-                    .filter(e -> e.getValue() == CommitState.COMMITTING ||
-                            (e.getValue() == CommitState.COMMITTED && e.getKey().snapshotEnd().get() > txn.snapshotStart()))
-                    .map(Map.Entry::getKey)
-                    .toSet();
+            // committing transactions are added to the timeline before they leave the committing set
+            Set<CoreTransaction.Data> mayConflict = new HashSet<>(committing);
+            commitTimeline.tailMap(txn.snapshotStart(), false).values().forEach(mayConflict::addAll);
+            mayConflict.remove(txn);
+            return mayConflict;
+        }
+
+        private boolean mayConflict(CoreTransaction.Data txn, CoreTransaction.Data other) {
+            CommitState state = commitStates.get(other);
+            return state == CommitState.COMMITTING ||
+                    (state == CommitState.COMMITTED && other.snapshotEnd().get() > txn.snapshotStart());
         }
 
-        private void validateIsolation(CoreTransaction.Data txn, CoreTransaction.Data mayConflict) {
-            if (txn.dataStorage.modifyDeleteConflict(mayConflict.dataStorage)) {
+        private void validateIsolation(CoreTransaction.Data txn, Claims claimed) {
+            if (anyConflict(txn, claimed.modified, deletedIndex)) {
+                MODIFY_DELETE_CONFLICTS.increment();
                 throw TypeDBException.of(TRANSACTION_ISOLATION_MODIFY_DELETE_VIOLATION);
-            } else if (txn.dataStorage.deleteModifyConflict(mayConflict.dataStorage)) {
+            } else if (anyConflict(txn, claimed.deleted, modifiedIndex)) {
+                DELETE_MODIFY_CONFLICTS.increment();
                 throw TypeDBException.of(TRANSACTION_ISOLATION_DELETE_MODIFY_VIOLATION);
-            } else if (txn.dataStorage.exclusiveCreateConflict(mayConflict.dataStorage)) {
+            } else if (anyConflict(txn, claimed.exclusive, exclusiveIndex)) {
+                EXCLUSIVE_CREATE_CONFLICTS.increment();
                 throw TypeDBException.of(TRANSACTION_ISOLATION_EXCLUSIVE_CREATE_VIOLATION);
             }
         }
 
+        private boolean anyConflict(CoreTransaction.Data txn, ByteArray[] keys,
+                                    ConcurrentMap<ByteArray, Set<CoreTransaction.Data>> index) {
+            for (ByteArray key : keys) {
+                Set<CoreTransaction.Data> holders = index.get(key);
+                if (holders == null) continue;
+                for (CoreTransaction.Data holder : holders) {
+                    if (holder != txn && mayConflict(txn, holder)) return true;
+                }
+            }
+            return false;
+        }
+
+        private class Claims {
+
+            private final ByteArray[] modified;
+            private final ByteArray[] deleted;
+            private final ByteArray[] exclusive;
+
+            private Claims(RocksStorage.Data storage) {
+                // copied, since the storage clears its tracked keys when the transaction is deleted
+                modified = storage.modifiedKeys().toArray(new ByteArray[0]);
+                deleted = storage.deletedKeys().toArray(new ByteArray[0]);
+                exclusive = storage.exclusiveBytes().toArray(new ByteArray[0]);
+            }
+
+            private void register(CoreTransaction.Data txn) {
+                register(txn, modified, modifiedIndex);
+                register(txn, deleted, deletedIndex);
+                register(txn, exclusive, exclusiveIndex);
+            }
+
+            private void register(CoreTransaction.Data txn, ByteArray[] keys,
+                                  ConcurrentMap<ByteArray, Set<CoreTransaction.Data>> index) {
+                for (ByteArray key : keys) {
+                    index.compute(key, (k, holders) -> {
+                        if (holders == null) holders = ConcurrentHashMap.newKeySet();
+                        holders.add(txn);
+                        return holders;
+                    });
+                }
+            }
+
+            private void deregister(CoreTransaction.Data txn) {
+                deregister(txn, modified, modifiedIndex);
+                deregister(txn, deleted, deletedIndex);
+                deregister(txn, exclusive, exclusiveIndex);
+            }
+
+            private void deregister(CoreTransaction.Data txn, ByteArray[] keys,
+                                    ConcurrentMap<ByteArray, Set<CoreTransaction.Data>> index) {
+                for (ByteArray key : keys) {
+                    index.computeIfPresent(key, (k, holders) -> {
+                        holders.remove(txn);
+                        return holders.isEmpty() ? null : holders;
+                    });
+                }
+            }
+        }
+
+        private void release(CoreTransaction.Data txn) {
+            Claims claimed = claims.remove(txn);
+            if (claimed != null) claimed.deregister(txn);
+        }
+
         public void committed(CoreTransaction.Data txn) {
             assert commitStates.get(txn) == CommitState.COMMITTING && txn.snapshotEnd().isPresent();
-            commitStates.put(txn, CommitState.COMMITTED);
             commitTimeline.compute(txn.snapshotEnd().get(), (snapshot, committed) -> {
-                if (committed == null) committed = new HashSet<>();
+                if (committed == null) committed = ConcurrentHashMap.newKeySet();
                 committed.add(txn);
                 return committed;
             });
+            commitStates.put(txn, CommitState.COMMITTED);
+            committing.remove(txn);
         }
 
         void closed(CoreTransaction.Data txn) {
-            if (commitStates.get(txn) != CommitState.COMMITTED) commitStates.remove(txn);
+            if (commitStates.get(txn) != CommitState.COMMITTED) {
+                committing.remove(txn);
+                release(txn);
+                commitStates.remove(txn);
+            }
             cleanupCommitted();
         }
 
@@ -549,6 +732,7 @@ public class CoreDatabase implements TypeDB.Database {
                 else deletable = commitTimeline.headMap(oldestUncommittedSnapshot.get());
                 iterate(deletable.values()).flatMap(Iterators::iterate)
                         .forEachRemaining(txn -> {
+                            release(txn);
                             txn.delete();
                             commitStates.remove(txn);
                         });
@@ -594,6 +778,7 @@ public class CoreDatabase implements TypeDB.Database {
             LOG.debug("Cleaning up statistics metadata.");
             correctMiscounts();
             deleteCorrectionMetadata();
+            mayBackfill();
             LOG.debug("Statistics are ready and up to date.");
             if (LOG.isDebugEnabled()) logSummary();
         }
@@ -607,6 +792,35 @@ public class CoreDatabase implements TypeDB.Database {
             }
         }
 
+        /**
+         * Bring statistics written by an older version up to the current one. Until this has run, the role player
+         * counts only reflect the commits since they were introduced, and are treated as missing.
+         */
+        protected void mayBackfill() {
+            try (CoreTransaction.Data txn = session.transaction(WRITE)) {
+                if (txn.graphMgr.data().stats().hasRolePlayerCounts()) return;
+                LOG.debug("Counting role players of existing relations.");
+                txn.dataStorage.iterate(StatisticsKey.rolePlayerCountPrefix()).forEachRemaining(kv ->
+                        txn.dataStorage.deleteUntracked(kv.key())
+                );
+                txn.graphMgr.schema().relationTypes().forEachRemaining(relationType -> {
+                    Map<Pair<VertexIID.Type, VertexIID.Type>, Long> counts = new HashMap<>();
+                    txn.graphMgr.data().getReadable(relationType).forEachRemaining(relation ->
+                            relation.outs().edge(ROLEPLAYER).get().forEachRemaining(edge -> counts.merge(
+                                    pair(edge.optimised().get().type().iid(), edge.toIID().type()), 1L, Long::sum
+                            ))
+                    );
+                    counts.forEach((rolePlayer, count) -> txn.dataStorage.putUntracked(
+                            StatisticsKey.rolePlayerCount(relationType.iid(), rolePlayer.first(), rolePlayer.second()),
+                            encodeLong(count)
+                    ));
+                });
+                txn.dataStorage.putUntracked(StatisticsKey.version(), encodeLong(ThingGraph.Statistics.VERSION));
+                txn.dataStorage.mergeUntracked(StatisticsKey.snapshot(), encodeLong(1));
+                txn.commit();
+            }
+        }
+
         private void logSummary() {
             try (CoreTransaction.Data txn = session.transaction(READ)) {
                 LOG.debug("Total 'thing' count: " +
@@ -685,6 +899,7 @@ public class CoreDatabase implements TypeDB.Database {
                     deletableTxnIDs.removeAll(txnIDsCausingMiscount);
                 }
             });
+            if (txn.graphMgr.data().stats().refreshHistograms()) modified[0] = true;
             if (!deletableTxnIDs.isEmpty()) {
                 for (Long txnID : deletableTxnIDs) {
                     txn.dataStorage.deleteUntracked(StatisticsKey.txnCommitted(txnID));
@@ -700,11 +915,17 @@ public class CoreDatabase implements TypeDB.Database {
 
         private void correctMiscount(StatisticsKey.Miscountable miscount, CoreTransaction.Data txn) {
             if (miscount.isAttrOvertcount()) {
-                VertexIID.Type type = miscount.getMiscountableAttribute().type();
-                txn.dataStorage.mergeUntracked(StatisticsKey.vertexCount(type), encodeLong(-1));
+                VertexIID.Attribute<?> attIID = miscount.getMiscountableAttribute();
+                txn.dataStorage.mergeUntracked(StatisticsKey.vertexCount(attIID.type()), encodeLong(-1));
+                txn.graphMgr.data().stats().histogramBucket(attIID).ifPresent(bucket ->
+                        txn.dataStorage.mergeUntracked(bucket, encodeLong(-1))
+                );
             } else if (miscount.isAttrUndercount()) {
-                VertexIID.Type type = miscount.getMiscountableAttribute().type();
-                txn.dataStorage.mergeUntracked(StatisticsKey.vertexCount(type), encodeLong(1));
+                VertexIID.Attribute<?> attIID = miscount.getMiscountableAttribute();
+                txn.dataStorage.mergeUntracked(StatisticsKey.vertexCount(attIID.type()), encodeLong(1));
+                txn.graphMgr.data().stats().histogramBucket(attIID).ifPresent(bucket ->
+                        txn.dataStorage.mergeUntracked(bucket, encodeLong(1))
+                );
             } else if (miscount.isHasEdgeOvercount()) {
                 Pair<VertexIID.Thing, VertexIID.Attribute<?>> has = miscount.getMiscountableHasEdge();
                 txn.dataStorage.mergeUntracked(
@@ -817,6 +1038,7 @@ public class CoreDatabase implements TypeDB.Database {
 
         private final TraversalCache traversalCache;
         private final LogicCache logicCache;
+        private final QueryCache queryCache;
         private final TypeGraph typeGraph;
         private final RocksStorage schemaStorage;
         private long borrowerCount;
@@ -825,8 +1047,19 @@ public class CoreDatabase implements TypeDB.Database {
         private Cache(CoreDatabase database) {
             schemaStorage = new RocksStorage.Cache(database.rocksSchema, database.rocksSchemaPartitionMgr);
             typeGraph = new TypeGraph(schemaStorage, true);
-            traversalCache = new TraversalCache();
+            traversalCache = new TraversalCache(database.planStore);
             logicCache = new LogicCache();
+            queryCache = new QueryCache();
+            borrowerCount = 0L;
+            invalidated = false;
+        }
+
+        private Cache(CoreDatabase database, Cache previous, Set<Label> modifiedTypes) {
+            schemaStorage = new RocksStorage.Cache(database.rocksSchema, database.rocksSchemaPartitionMgr);
+            typeGraph = new TypeGraph(schemaStorage, true);
+            traversalCache = new TraversalCache(previous.traversalCache, modifiedTypes);
+            logicCache = new LogicCache(previous.logicCache, modifiedTypes);
+            queryCache = new QueryCache(previous.queryCache, modifiedTypes);
             borrowerCount = 0L;
             invalidated = false;
         }
@@ -839,6 +1072,10 @@ public class CoreDatabase implements TypeDB.Database {
             return logicCache;
         }
 
+        public QueryCache query() {
+            return queryCache;
+        }
+
         public TypeGraph typeGraph() {
             return typeGraph;
         }
@@ -105,7 +105,11 @@ public final class CoreFactory implements Factory {
 
                 @Override
                 public RocksStorage.Data storageData(CoreDatabase database, CoreTransaction transaction) {
-                    return new RocksStorage.Data(database, transaction);
+                    if (transaction.type().isWrite() && transaction.context().options().bulkLoad()) {
+                        return new RocksStorage.BulkLoad(database, transaction);
+                    } else {
+                        return new RocksStorage.Data(database, transaction);
+                    }
                 }
             };
         }
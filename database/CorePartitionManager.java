@@ -23,6 +23,8 @@ import com.vaticle.typedb.core.encoding.key.Key;
 import org.rocksdb.AbstractImmutableNativeReference;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 
@@ -63,6 +65,15 @@ public abstract class CorePartitionManager {
 
     public abstract ColumnFamilyHandle get(Key.Partition partition);
 
+    /**
+     * @return options to read and write SST files of the partition outside of the database, to be closed by the caller
+     */
+    Options sstOptions(Key.Partition partition) {
+        try (DBOptions dbOptions = new DBOptions()) {
+            return new Options(dbOptions, descriptors.get(handles.indexOf(get(partition))).getOptions());
+        }
+    }
+
     abstract Set<Key.Partition> partitions();
 
     protected void close() {
@@ -21,10 +21,12 @@ package com.vaticle.typedb.core.database;
 import com.vaticle.typedb.common.collection.Pair;
 import com.vaticle.typedb.core.TypeDB;
 import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Context;
+import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concept.ConceptManager;
 import com.vaticle.typedb.core.graph.GraphManager;
@@ -32,12 +34,14 @@ import com.vaticle.typedb.core.graph.ThingGraph;
 import com.vaticle.typedb.core.graph.TypeGraph;
 import com.vaticle.typedb.core.logic.LogicCache;
 import com.vaticle.typedb.core.logic.LogicManager;
+import com.vaticle.typedb.core.query.QueryCache;
 import com.vaticle.typedb.core.query.QueryManager;
 import com.vaticle.typedb.core.reasoner.Reasoner;
 import com.vaticle.typedb.core.traversal.TraversalCache;
 import com.vaticle.typedb.core.traversal.TraversalEngine;
 import org.rocksdb.RocksDBException;
 
+import javax.annotation.Nullable;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -51,6 +55,15 @@ import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.
 
 public abstract class CoreTransaction implements TypeDB.Transaction {
 
+    private static final Metrics.Counter OPENED = Metrics.counter(
+            "typedb_transaction_opened_total", "Transactions opened.");
+    private static final Metrics.Summary COMMITTED = Metrics.summary(
+            "typedb_transaction_commit_seconds", "Latency of successful transaction commits.");
+    private static final Metrics.Counter COMMIT_FAILED = Metrics.counter(
+            "typedb_transaction_commit_failed_total", "Transaction commits that failed, including isolation conflicts.");
+    private static final Metrics.Summary ROLLED_BACK = Metrics.summary(
+            "typedb_transaction_rollback_seconds", "Latency of transaction rollbacks.");
+
     protected final CoreSession session;
     protected final Context.Transaction context;
     protected GraphManager graphMgr;
@@ -66,14 +79,16 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
         this.context = new Context.Transaction(session.context(), options)
                 .type(type)
                 .id(this.session.database().nextTransactionID());
+        OPENED.increment();
     }
 
-    void initialise(GraphManager graphMgr, TraversalCache traversalCache, LogicCache logicCache) {
+    void initialise(GraphManager graphMgr, TraversalCache traversalCache, LogicCache logicCache,
+                    @Nullable QueryCache queryCache) {
         traversalEng = new TraversalEngine(graphMgr, traversalCache);
         conceptMgr = new ConceptManager(graphMgr);
         logicMgr = new LogicManager(graphMgr, conceptMgr, traversalEng, logicCache);
-        reasoner = new Reasoner(conceptMgr, logicMgr, traversalEng, context);
-        queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context);
+        reasoner = new Reasoner(conceptMgr, logicMgr, traversalEng, context, session.database().spillDirectory());
+        queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context, queryCache);
         isOpen = new AtomicBoolean(true);
     }
 
@@ -173,7 +188,7 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
             ThingGraph thingGraph = new ThingGraph(dataStorage, typeGraph);
 
             graphMgr = new GraphManager(typeGraph, thingGraph);
-            initialise(graphMgr, new TraversalCache(), new LogicCache());
+            initialise(graphMgr, new TraversalCache(), new LogicCache(), null);
         }
 
         @Override
@@ -223,18 +238,24 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
         @Override
         public void commit() {
             if (isOpen.compareAndSet(true, false)) {
+                long start = System.nanoTime();
+                boolean committed = false;
                 try {
                     if (type().isRead()) throw TypeDBException.of(ILLEGAL_COMMIT);
                     else if (graphMgr.data().isModified()) throw TypeDBException.of(SESSION_SCHEMA_VIOLATION);
 
                     conceptMgr.validateTypes();
                     logicMgr.revalidateAndReindexRules();
+                    Set<Label> modifiedTypes = graphMgr.schema().modifiedTypes();
                     graphMgr.schema().commit();
                     schemaStorage.commit();
-                    session.database().cacheInvalidate();
+                    session.database().cacheInvalidate(modifiedTypes);
+                    committed = true;
                 } catch (RocksDBException e) {
                     throw TypeDBException.of(e);
                 } finally {
+                    if (committed) COMMITTED.observeNanosSince(start);
+                    else COMMIT_FAILED.increment();
                     closeResources();
                     notifyClosed();
                     delete();
@@ -246,12 +267,14 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
 
         @Override
         public void rollback() {
+            long start = System.nanoTime();
             try {
                 graphMgr.clear();
                 schemaStorage.rollback();
             } catch (RocksDBException e) {
                 throw TypeDBException.of(e);
             }
+            ROLLED_BACK.observeNanosSince(start);
         }
 
         @Override
@@ -283,7 +306,7 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
             this.graphMgr = new GraphManager(cache.typeGraph(), thingGraph);
 
             if (type().isWrite()) session.database().isolationMgr().opened(this);
-            initialise(graphMgr, cache.traversal(), cache.logic());
+            initialise(graphMgr, cache.traversal(), cache.logic(), cache.query());
         }
 
         @Override
@@ -316,6 +339,8 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
         @Override
         public void commit() {
             if (isOpen.compareAndSet(true, false)) {
+                long start = System.nanoTime();
+                boolean committed = false;
                 try {
                     if (type().isRead()) throw TypeDBException.of(ILLEGAL_COMMIT);
                     else if (graphMgr.schema().isModified()) throw TypeDBException.of(SESSION_DATA_VIOLATION);
@@ -328,6 +353,7 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
                     dataStorage.commit();
                     session.database().isolationMgr().committed(this);
                     session.database().statisticsCorrector().committed(this);
+                    committed = true;
                 } catch (TypeDBException e) {
                     delete();
                     throw e;
@@ -335,6 +361,8 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
                     delete();
                     throw TypeDBException.of(e);
                 } finally {
+                    if (committed) COMMITTED.observeNanosSince(start);
+                    else COMMIT_FAILED.increment();
                     closeResources();
                     notifyClosed();
                 }
@@ -345,12 +373,14 @@ public abstract class CoreTransaction implements TypeDB.Transaction {
 
         @Override
         public void rollback() {
+            long start = System.nanoTime();
             try {
                 graphMgr.data().clear();
                 dataStorage.rollback();
             } catch (RocksDBException e) {
                 throw TypeDBException.of(e);
             }
+            ROLLED_BACK.observeNanosSince(start);
         }
 
         @Override
@@ -18,6 +18,7 @@
 
 package com.vaticle.typedb.core.database;
 
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
 import com.vaticle.typedb.core.encoding.key.Key;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.BloomFilter;
@@ -28,6 +29,8 @@ import org.rocksdb.LRUCache;
 import org.rocksdb.Statistics;
 import org.rocksdb.UInt64AddOperator;
 
+import java.util.Optional;
+
 import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.core.common.collection.Bytes.KB;
 import static com.vaticle.typedb.core.common.collection.Bytes.MB;
@@ -91,11 +94,17 @@ public class RocksConfiguration {
         private final LRUCache blockCache;
         private final boolean logStatistics;
         private final int logStatisticsPeriodSec;
+        private final Statistics statistics;
 
         Data(long dataCacheSize, long indexCacheSize, boolean logStatistics, int logStatisticsPeriodSec) {
             this.blockCache = lruCache(dataCacheSize, indexCacheSize);
             this.logStatistics = logStatistics;
             this.logStatisticsPeriodSec = logStatisticsPeriodSec;
+            this.statistics = logStatistics || Metrics.isEnabled() ? new Statistics() : null;
+        }
+
+        Optional<Statistics> statistics() {
+            return Optional.ofNullable(statistics);
         }
 
         /**
@@ -127,7 +136,7 @@ public class RocksConfiguration {
         org.rocksdb.DBOptions dbOptions() {
             DBOptions dbOptions = new DBOptions().setCreateIfMissing(true);
             configureWriteConcurrency(dbOptions);
-            if (logStatistics) configureStatistics(dbOptions);
+            if (statistics != null) configureStatistics(dbOptions);
             return dbOptions;
         }
 
@@ -151,10 +160,12 @@ public class RocksConfiguration {
          * We can make RocksDB print statistics for block cache, filtering, get/write timing statistics, we have to set two options:
          * `setStatistics(new Statistics())` is required, and one can read the the Java statistics option to get the values back.
          * However, if we want RocksDB to print the statistics into its own LOG file with `statsDumpPeriodSec`.
+         *
+         * Statistics are also collected, without being dumped, when server metrics are enabled.
          */
         private void configureStatistics(DBOptions options) {
-            options.setStatistics(new Statistics());
-            options.setStatsDumpPeriodSec(logStatisticsPeriodSec);
+            options.setStatistics(statistics);
+            if (logStatistics) options.setStatsDumpPeriodSec(logStatisticsPeriodSec);
         }
 
         /*
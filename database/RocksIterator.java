@@ -27,6 +27,7 @@ import com.vaticle.typedb.core.common.iterator.sorted.SortedIterators;
 import com.vaticle.typedb.core.common.parameters.Order;
 import com.vaticle.typedb.core.encoding.key.Key;
 
+import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -47,6 +48,10 @@ public abstract class RocksIterator<T extends Key, ORDER extends Order>
     KeyValue<T, ByteArray> last;
     private boolean isClosed;
     org.rocksdb.RocksIterator internalRocksIterator;
+    ByteBuffer keyBuffer;
+    ByteBuffer valueBuffer;
+    private ByteArray.Direct keyView;
+    private ByteArray.Direct valueView;
 
     private enum State {INIT, OPENED, UNFETCHED, FORWARDED, FETCHED, COMPLETED}
 
@@ -64,7 +69,7 @@ public abstract class RocksIterator<T extends Key, ORDER extends Order>
             if (isClosed) throw TypeDBException.of(RESOURCE_CLOSED);
             else throw new NoSuchElementException();
         }
-        return next;
+        return materialiseNext();
     }
 
     @Override
@@ -73,11 +78,24 @@ public abstract class RocksIterator<T extends Key, ORDER extends Order>
             if (isClosed) throw TypeDBException.of(RESOURCE_CLOSED);
             else throw new NoSuchElementException();
         }
-        last = next;
+        last = materialiseNext();
         state = State.UNFETCHED;
         return last;
     }
 
+    /**
+     * The fetched entry is held as views over the direct buffers, which the next fetch overwrites, so it is only
+     * copied onto the heap once it is handed out to the caller, who may retain it.
+     */
+    private KeyValue<T, ByteArray> materialiseNext() {
+        assert state == State.FETCHED;
+        if (next == null) {
+            ByteArray value = valueView.isEmpty() ? ByteArray.empty() : valueView.copy();
+            next = KeyValue.of(prefix.builder().build(keyView.copy()), value);
+        }
+        return next;
+    }
+
     @Override
     public final boolean hasNext() {
         switch (state) {
@@ -114,6 +132,10 @@ public abstract class RocksIterator<T extends Key, ORDER extends Order>
     void initialiseInternalIterator() {
         assert state == State.INIT;
         this.internalRocksIterator = storage.getInternalRocksIterator(prefix.partition(), usePrefixBloom());
+        this.keyBuffer = storage.getDirectBuffer(prefix.bytes().length());
+        this.valueBuffer = storage.getDirectBuffer(0);
+        this.keyView = ByteArray.direct(keyBuffer);
+        this.valueView = ByteArray.direct(valueBuffer);
         state = State.OPENED;
     }
 
@@ -126,16 +148,40 @@ public abstract class RocksIterator<T extends Key, ORDER extends Order>
 
     synchronized boolean hasValidNext() {
         assert state != State.COMPLETED;
-        ByteArray key;
-        if (!internalRocksIterator.isValid() || !((key = ByteArray.of(internalRocksIterator.key())).hasPrefix(prefix.bytes()))) {
+        if (!internalRocksIterator.isValid() || !readKey().hasPrefix(prefix.bytes())) {
             recycle();
             return false;
         }
-        next = KeyValue.of(prefix.builder().build(key), ByteArray.of(internalRocksIterator.value()));
+        readValue();
+        next = null;
         state = State.FETCHED;
         return true;
     }
 
+    private ByteArray.Direct readKey() {
+        keyBuffer.clear();
+        int length = internalRocksIterator.key(keyBuffer);
+        if (length > keyBuffer.capacity()) {
+            storage.recycle(keyBuffer);
+            keyBuffer = storage.getDirectBuffer(length);
+            internalRocksIterator.key(keyBuffer);
+        }
+        keyView.wrap(keyBuffer, length);
+        return keyView;
+    }
+
+    private ByteArray.Direct readValue() {
+        valueBuffer.clear();
+        int length = internalRocksIterator.value(valueBuffer);
+        if (length > valueBuffer.capacity()) {
+            storage.recycle(valueBuffer);
+            valueBuffer = storage.getDirectBuffer(length);
+            internalRocksIterator.value(valueBuffer);
+        }
+        valueView.wrap(valueBuffer, length);
+        return valueView;
+    }
+
     @Override
     public void recycle() {
         close();
@@ -236,7 +282,7 @@ public abstract class RocksIterator<T extends Key, ORDER extends Order>
                 if (order().inOrder(target.key(), prefix)) return;
                 else initialiseInternalIterator();
             } else if (state == State.FETCHED) {
-                if (order().inOrder(target, next)) return;
+                if (order().inOrder(target.key().bytes(), keyView)) return;
             } else if (state == State.UNFETCHED || state == State.FORWARDED) {
                 if (order().inOrder(target, last)) return;
             } else throw TypeDBException.of(ILLEGAL_STATE);
@@ -284,7 +330,7 @@ public abstract class RocksIterator<T extends Key, ORDER extends Order>
                 if (order().inOrderNotEq(target.key().bytes().view(0, prefix.bytes().length()), prefix.bytes())) return;
                 else initialiseInternalIterator();
             } else if (state == State.FETCHED) {
-                if (order().inOrder(target, next)) return;
+                if (order().inOrder(target.key().bytes(), keyView)) return;
             } else if (state == State.UNFETCHED || state == State.FORWARDED) {
                 if (order().inOrder(target, last)) return;
             } else throw TypeDBException.of(ILLEGAL_STATE);
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.database;
+
+import com.vaticle.typedb.core.common.cache.CommonCache;
+import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.encoding.Encoding;
+import com.vaticle.typedb.core.traversal.planner.PlanStore;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Transaction;
+import org.rocksdb.WriteOptions;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeLong;
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeString;
+import static com.vaticle.typedb.core.common.collection.ByteArray.join;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Persists optimal query plans in the metadata partition of the data storage, so that the traversal cache of a
+ * reopened database does not have to optimise them again. Plans are read from storage when first asked for, and
+ * the most recently read or written are kept in memory.
+ *
+ * Each plan is stored with the sequence number of its last write, and indexed by that sequence number, so that
+ * only the plans written in the last {@code maxPlans} sequence numbers are kept: each write removes the plan whose
+ * sequence number has fallen out of that window, if it is still there.
+ */
+@ThreadSafe
+class RocksPlanStore implements PlanStore {
+
+    static final int MAX_PLANS = 10_000;
+    private static final int CACHED_PLANS = 1_000;
+    private static final ByteArray PLAN_PREFIX = Encoding.Prefix.METADATA_PLAN.bytes();
+    private static final ByteArray ORDER_PREFIX = Encoding.Prefix.METADATA_PLAN_ORDER.bytes();
+
+    private final OptimisticTransactionDB rocksData;
+    private final ColumnFamilyHandle partition;
+    private final int maxPlans;
+    private final ReadOptions readOptions;
+    private final WriteOptions writeOptions;
+    private final CommonCache<String, Optional<Stored>> plans;
+    private long firstSequence;
+    private long nextSequence;
+    private volatile boolean isOpen;
+
+    RocksPlanStore(OptimisticTransactionDB rocksData, ColumnFamilyHandle partition) {
+        this(rocksData, partition, MAX_PLANS);
+    }
+
+    RocksPlanStore(OptimisticTransactionDB rocksData, ColumnFamilyHandle partition, int maxPlans) {
+        this.rocksData = rocksData;
+        this.partition = partition;
+        this.maxPlans = maxPlans;
+        this.readOptions = new ReadOptions();
+        this.writeOptions = new WriteOptions();
+        this.plans = new CommonCache<>(CACHED_PLANS);
+        this.isOpen = true;
+        loadSequences();
+    }
+
+    private void loadSequences() {
+        try (RocksIterator iterator = rocksData.newIterator(partition)) {
+            iterator.seek(ORDER_PREFIX.getBytes());
+            if (!iterator.isValid() || !ByteArray.of(iterator.key()).hasPrefix(ORDER_PREFIX)) {
+                firstSequence = nextSequence = 0;
+                return;
+            }
+            firstSequence = sequence(ByteArray.of(iterator.key()));
+            iterator.seekForPrev(orderKey(Long.MAX_VALUE).getBytes());
+            assert iterator.isValid() && ByteArray.of(iterator.key()).hasPrefix(ORDER_PREFIX);
+            nextSequence = sequence(ByteArray.of(iterator.key())) + 1;
+        }
+    }
+
+    @Override
+    public Optional<Plan> get(String fingerprint) {
+        if (!isOpen) return Optional.empty();
+        return plans.get(fingerprint, this::read).map(stored -> stored.plan);
+    }
+
+    @Override
+    public synchronized void put(String fingerprint, Plan plan) {
+        if (!isOpen) return;
+        Optional<Stored> previous = plans.get(fingerprint, this::read);
+        if (previous.isPresent() && previous.get().plan.equals(plan)) return;
+        long sequence = nextSequence;
+        try (Transaction txn = rocksData.beginTransaction(writeOptions)) {
+            if (previous.isPresent()) txn.delete(partition, orderKey(previous.get().sequence).getBytes());
+            txn.put(partition, orderKey(sequence).getBytes(), encodeString(fingerprint, UTF_8).getBytes());
+            txn.put(partition, planKey(fingerprint).getBytes(), join(encodeLong(sequence), plan.encode()).getBytes());
+            if (sequence + 1 - firstSequence > maxPlans) mayEvict(txn, firstSequence);
+            txn.commit();
+        } catch (RocksDBException e) {
+            throw TypeDBException.of(e);
+        }
+        nextSequence = sequence + 1;
+        if (nextSequence - firstSequence > maxPlans) firstSequence++;
+        plans.put(fingerprint, Optional.of(new Stored(sequence, plan)));
+    }
+
+    private void mayEvict(Transaction txn, long sequence) throws RocksDBException {
+        byte[] evicted = txn.get(partition, readOptions, orderKey(sequence).getBytes());
+        if (evicted == null) return;
+        String fingerprint = ByteArray.of(evicted).decodeString(UTF_8);
+        txn.delete(partition, orderKey(sequence).getBytes());
+        txn.delete(partition, planKey(fingerprint).getBytes());
+        plans.invalidate(fingerprint);
+    }
+
+    @Override
+    public synchronized void invalidate(Set<Label> modifiedTypes) {
+        if (!isOpen || modifiedTypes.isEmpty()) return;
+        try (Transaction txn = rocksData.beginTransaction(writeOptions);
+             RocksIterator iterator = rocksData.newIterator(partition)) {
+            for (iterator.seek(PLAN_PREFIX.getBytes()); iterator.isValid(); iterator.next()) {
+                ByteArray key = ByteArray.of(iterator.key());
+                if (!key.hasPrefix(PLAN_PREFIX)) break;
+                Stored stored = Stored.decode(ByteArray.of(iterator.value()));
+                if (stored.plan.isAffectedBy(modifiedTypes)) {
+                    txn.delete(partition, key.getBytes());
+                    txn.delete(partition, orderKey(stored.sequence).getBytes());
+                    plans.invalidate(key.view(PLAN_PREFIX.length()).decodeString(UTF_8));
+                }
+            }
+            txn.commit();
+        } catch (RocksDBException e) {
+            throw TypeDBException.of(e);
+        }
+    }
+
+    private Optional<Stored> read(String fingerprint) {
+        try {
+            byte[] value = rocksData.get(partition, planKey(fingerprint).getBytes());
+            return value == null ? Optional.empty() : Optional.of(Stored.decode(ByteArray.of(value)));
+        } catch (RocksDBException e) {
+            throw TypeDBException.of(e);
+        }
+    }
+
+    private static ByteArray planKey(String fingerprint) {
+        return join(PLAN_PREFIX, encodeString(fingerprint, UTF_8));
+    }
+
+    private static ByteArray orderKey(long sequence) {
+        assert sequence >= 0;
+        return join(ORDER_PREFIX, encodeLong(sequence));
+    }
+
+    private static long sequence(ByteArray orderKey) {
+        return orderKey.view(ORDER_PREFIX.length()).decodeLong();
+    }
+
+    synchronized void close() {
+        if (isOpen) {
+            isOpen = false;
+            readOptions.close();
+            writeOptions.close();
+        }
+    }
+
+    private static class Stored {
+
+        private final long sequence;
+        private final Plan plan;
+
+        private Stored(long sequence, Plan plan) {
+            this.sequence = sequence;
+            this.plan = plan;
+        }
+
+        private static Stored decode(ByteArray bytes) {
+            return new Stored(bytes.view(0, 8).decodeLong(), Plan.decode(bytes.view(8)));
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.vaticle.typedb.core.common.collection.ByteArray;
 import com.vaticle.typedb.core.common.collection.KeyValue;
 import com.vaticle.typedb.core.common.exception.ErrorMessage;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.Iterators;
 import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator;
 import com.vaticle.typedb.core.common.parameters.Order;
 import com.vaticle.typedb.core.encoding.Storage;
@@ -30,28 +31,52 @@ import com.vaticle.typedb.core.encoding.key.Key;
 import com.vaticle.typedb.core.encoding.key.Key.Partition;
 import com.vaticle.typedb.core.encoding.key.KeyGenerator;
 import org.rocksdb.AbstractImmutableNativeReference;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.OptimisticTransactionOptions;
+import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Snapshot;
+import org.rocksdb.SstFileReader;
+import org.rocksdb.SstFileReaderIterator;
+import org.rocksdb.SstFileWriter;
 import org.rocksdb.Transaction;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.StampedLock;
 
-import static com.vaticle.typedb.common.collection.Collections.hasIntersection;
+import static com.vaticle.typedb.common.collection.Collections.list;
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeLong;
+import static com.vaticle.typedb.core.common.collection.Bytes.LONG_SIZE;
+import static com.vaticle.typedb.core.common.collection.Bytes.MB;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.RESOURCE_CLOSED;
@@ -63,7 +88,14 @@ import static com.vaticle.typedb.core.encoding.Encoding.System.TRANSACTION_DUMMY
 public abstract class RocksStorage implements Storage {
 
     private static final Logger LOG = LoggerFactory.getLogger(RocksStorage.class);
-
+    private static final int DIRECT_BUFFER_SIZE = 256;
+    private static final int READ_OPTIONS_RECYCLE_LIMIT = 1024;
+    private static final ConcurrentLinkedQueue<ReadOptions> recycledReadOptions = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<ReadOptions> recycledReadOptionsWithPrefixBloom = new ConcurrentLinkedQueue<>();
+
+    protected final OptimisticTransactionDB rocksDB;
+    // null when read-only: reads go straight to the database snapshot, with no transaction object
+    @Nullable
     protected final Transaction rocksTransaction;
     // TODO: use a single read options when 'setAutoPrefixMode(true)' is available on ReadOptions API
     protected final ReadOptions readOptions;
@@ -75,29 +107,53 @@ public abstract class RocksStorage implements Storage {
     // TODO: use a single set of iterators when 'setAutoPrefixMode(true)' is available on ReadOptions API
     protected final ConcurrentMap<Partition, ConcurrentLinkedQueue<org.rocksdb.RocksIterator>> recycled;
     protected final ConcurrentMap<Partition, ConcurrentLinkedQueue<org.rocksdb.RocksIterator>> recycledWithPrefixBloom;
+    protected final ConcurrentLinkedQueue<ByteBuffer> recycledBuffers;
     protected final boolean isReadOnly;
+    @Nullable
     private final OptimisticTransactionOptions transactionOptions;
+    @Nullable
     private final WriteOptions writeOptions;
     private final AtomicBoolean isOpen;
 
     private RocksStorage(OptimisticTransactionDB rocksDB, CorePartitionManager partitionMgr, boolean isReadOnly) {
+        this.rocksDB = rocksDB;
         this.isReadOnly = isReadOnly;
         this.partitionMgr = partitionMgr;
         iterators = new ConcurrentSet<>();
         recycled = new ConcurrentHashMap<>();
         recycledWithPrefixBloom = new ConcurrentHashMap<>();
+        recycledBuffers = new ConcurrentLinkedQueue<>();
         partitionMgr.partitions().forEach(partition -> recycled.put(partition, new ConcurrentLinkedQueue<>()));
         partitionMgr.partitions().forEach(partition -> recycledWithPrefixBloom.put(partition, new ConcurrentLinkedQueue<>()));
-        writeOptions = new WriteOptions();
-        transactionOptions = new OptimisticTransactionOptions().setSetSnapshot(true);
-        rocksTransaction = rocksDB.beginTransaction(writeOptions, transactionOptions);
-        snapshot = rocksTransaction.getSnapshot();
-        readOptions = new ReadOptions().setSnapshot(snapshot).setTotalOrderSeek(true);
-        readOptionsWithPrefixBloom = new ReadOptions().setSnapshot(snapshot).setTotalOrderSeek(false);
+        if (isReadOnly) {
+            writeOptions = null;
+            transactionOptions = null;
+            rocksTransaction = null;
+            snapshot = rocksDB.getSnapshot();
+        } else {
+            writeOptions = new WriteOptions();
+            transactionOptions = new OptimisticTransactionOptions().setSetSnapshot(true);
+            rocksTransaction = rocksDB.beginTransaction(writeOptions, transactionOptions);
+            snapshot = rocksTransaction.getSnapshot();
+        }
+        readOptions = readOptions(recycledReadOptions, true).setSnapshot(snapshot);
+        readOptionsWithPrefixBloom = readOptions(recycledReadOptionsWithPrefixBloom, false).setSnapshot(snapshot);
         deleteCloseSchemaWriteLock = new StampedLock().asReadWriteLock();
         isOpen = new AtomicBoolean(true);
     }
 
+    private static ReadOptions readOptions(ConcurrentLinkedQueue<ReadOptions> recycled, boolean totalOrderSeek) {
+        ReadOptions options = recycled.poll();
+        if (options != null) return options;
+        else return new ReadOptions().setTotalOrderSeek(totalOrderSeek);
+    }
+
+    private static void recycle(ReadOptions options, ConcurrentLinkedQueue<ReadOptions> recycled) {
+        // the queue size is only approximate under contention, which is fine for a soft limit
+        if (recycled.size() < READ_OPTIONS_RECYCLE_LIMIT) recycled.add(options.setSnapshot(null));
+        else options.close();
+    }
+
     @Override
     public boolean isOpen() {
         return isOpen.get();
@@ -131,14 +187,32 @@ public abstract class RocksStorage implements Storage {
         if (usePrefixBloom) {
             org.rocksdb.RocksIterator iterator = recycledWithPrefixBloom.get(partition).poll();
             if (iterator != null) return iterator;
-            else return rocksTransaction.getIterator(readOptionsWithPrefixBloom, partitionMgr.get(partition));
+            else return newRocksIterator(readOptionsWithPrefixBloom, partition);
         } else {
             org.rocksdb.RocksIterator iterator = recycled.get(partition).poll();
             if (iterator != null) return iterator;
-            else return rocksTransaction.getIterator(readOptions, partitionMgr.get(partition));
+            else return newRocksIterator(readOptions, partition);
         }
     }
 
+    org.rocksdb.RocksIterator newRocksIterator(ReadOptions options, Partition partition) {
+        if (rocksTransaction == null) return rocksDB.newIterator(partitionMgr.get(partition), options);
+        else return rocksTransaction.getIterator(options, partitionMgr.get(partition));
+    }
+
+    @Nullable
+    byte[] getValue(Key key) throws RocksDBException {
+        if (rocksTransaction == null) return rocksDB.get(partitionMgr.get(key.partition()), readOptions, key.bytes().getBytes());
+        else return rocksTransaction.get(partitionMgr.get(key.partition()), readOptions, key.bytes().getBytes());
+    }
+
+    ByteBuffer getDirectBuffer(int minCapacity) {
+        ByteBuffer buffer = recycledBuffers.poll();
+        if (buffer != null && buffer.capacity() >= minCapacity) return buffer;
+        if (buffer != null) recycledBuffers.add(buffer);
+        return ByteBuffer.allocateDirect(Math.max(minCapacity, DIRECT_BUFFER_SIZE));
+    }
+
     <T extends Key, ORDER extends Order> RocksIterator<T, ORDER> createIterator(Key.Prefix<T> prefix, ORDER order) {
         RocksIterator<T, ORDER> iterator;
         // TODO how else can we convert an enumerated data tag ('order') into the type without casting
@@ -155,6 +229,13 @@ public abstract class RocksStorage implements Storage {
         } else {
             recycled.get(rocksIterator.partition()).add(rocksIterator.internalRocksIterator);
         }
+        recycle(rocksIterator.keyBuffer);
+        recycle(rocksIterator.valueBuffer);
+    }
+
+    void recycle(ByteBuffer buffer) {
+        buffer.clear();
+        recycledBuffers.add(buffer);
     }
 
     void remove(RocksIterator<?, ?> iterator) {
@@ -188,12 +269,17 @@ public abstract class RocksStorage implements Storage {
                 recycledWithPrefixBloom.clear();
                 recycled.values().forEach(iters -> iters.forEach(AbstractImmutableNativeReference::close));
                 recycled.clear();
-                rocksTransaction.close();
+                recycledBuffers.clear();
+                recycle(readOptionsWithPrefixBloom, recycledReadOptionsWithPrefixBloom);
+                recycle(readOptions, recycledReadOptions);
+                if (rocksTransaction == null) {
+                    rocksDB.releaseSnapshot(snapshot);
+                } else {
+                    rocksTransaction.close();
+                    transactionOptions.close();
+                    writeOptions.close();
+                }
                 snapshot.close();
-                transactionOptions.close();
-                readOptionsWithPrefixBloom.close();
-                readOptions.close();
-                writeOptions.close();
             }
         } finally {
             deleteCloseSchemaWriteLock.writeLock().unlock();
@@ -211,7 +297,7 @@ public abstract class RocksStorage implements Storage {
             try {
                 deleteCloseSchemaWriteLock.readLock().lock();
                 if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
-                byte[] value = rocksTransaction.get(partitionMgr.get(key.partition()), readOptions, key.bytes().getBytes());
+                byte[] value = getValue(key);
                 if (value == null) return null;
                 else return ByteArray.of(value);
             } catch (RocksDBException e) {
@@ -247,7 +333,7 @@ public abstract class RocksStorage implements Storage {
             try {
                 deleteCloseSchemaWriteLock.readLock().lock();
                 if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
-                byte[] value = rocksTransaction.get(partitionMgr.get(key.partition()), readOptions, key.bytes().getBytes());
+                byte[] value = getValue(key);
                 if (value == null) return null;
                 else return ByteArray.of(value);
             } catch (RocksDBException e) {
@@ -266,9 +352,9 @@ public abstract class RocksStorage implements Storage {
 
             org.rocksdb.RocksIterator iterator;
             if (prefix.isFixedStartInPartition()) {
-                iterator = rocksTransaction.getIterator(readOptionsWithPrefixBloom, partitionMgr.get(prefix.partition()));
+                iterator = newRocksIterator(readOptionsWithPrefixBloom, prefix.partition());
             } else {
-                iterator = rocksTransaction.getIterator(readOptions, partitionMgr.get(prefix.partition()));
+                iterator = newRocksIterator(readOptions, prefix.partition());
             }
             try {
                 deleteCloseSchemaWriteLock.readLock().lock();
@@ -330,6 +416,7 @@ public abstract class RocksStorage implements Storage {
         }
 
         public void commit() throws RocksDBException {
+            assert !isReadOnly;
             // We disable RocksDB indexing of uncommitted writes, as we're only about to write and never again reading
             // TODO: We should benchmark this
             rocksTransaction.disableIndexing();
@@ -337,7 +424,7 @@ public abstract class RocksStorage implements Storage {
         }
 
         public void rollback() throws RocksDBException {
-            rocksTransaction.rollback();
+            if (rocksTransaction != null) rocksTransaction.rollback();
         }
     }
 
@@ -377,7 +464,7 @@ public abstract class RocksStorage implements Storage {
     @NotThreadSafe
     public static class Data extends TransactionBounded implements Storage.Data {
 
-        private final CoreDatabase database;
+        protected final CoreDatabase database;
         private final KeyGenerator.Data dataKeyGenerator;
 
         private final ConcurrentSkipListSet<ByteArray> modifiedKeys;
@@ -404,6 +491,11 @@ public abstract class RocksStorage implements Storage {
             return dataKeyGenerator;
         }
 
+        @Override
+        public Path spillDirectory() {
+            return database.spillDirectory();
+        }
+
         @Override
         public void putTracked(Key key) {
             putTracked(key, ByteArray.empty());
@@ -518,16 +610,352 @@ public abstract class RocksStorage implements Storage {
             return !modifiedKeys.isEmpty() || !deletedKeys.isEmpty() || !exclusiveBytes.isEmpty();
         }
 
-        boolean modifyDeleteConflict(RocksStorage.Data otherStorage) {
-            return hasIntersection(modifiedKeys, otherStorage.deletedKeys);
+        Set<ByteArray> modifiedKeys() {
+            return modifiedKeys;
+        }
+
+        Set<ByteArray> deletedKeys() {
+            return deletedKeys;
+        }
+
+        Set<ByteArray> exclusiveBytes() {
+            return exclusiveBytes;
+        }
+    }
+
+    /**
+     * A write storage for loading data into an empty database, without going through the RocksDB transaction.
+     *
+     * Writes are buffered in key order for each partition, and on commit each partition's buffer is handed to the
+     * database's {@link Staging} as a sorted run, to be ingested later together with the runs of every other bulk-load
+     * transaction. Statistics merges on the same key are folded together in the buffer, so the counts are computed in
+     * the same pass. No keys are tracked for isolation: a bulk load must be the only writer to the database, and its
+     * writes are not visible to anyone until the staged runs are ingested.
+     */
+    public static class BulkLoad extends Data {
+
+        private final ConcurrentMap<Partition, ConcurrentSkipListMap<ByteArray, Write>> buffers;
+
+        public BulkLoad(CoreDatabase database, CoreTransaction transaction) {
+            super(database, transaction);
+            assert !isReadOnly;
+            this.buffers = new ConcurrentHashMap<>();
+        }
+
+        private ConcurrentSkipListMap<ByteArray, Write> buffer(Partition partition) {
+            return buffers.computeIfAbsent(partition, p -> new ConcurrentSkipListMap<>());
+        }
+
+        @Override
+        public void putUntracked(Key key, ByteArray value) {
+            assert isOpen();
+            if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
+            buffer(key.partition()).put(key.bytes(), Write.put(value));
+        }
+
+        @Override
+        public void mergeUntracked(Key key, ByteArray value) {
+            assert isOpen();
+            if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
+            buffer(key.partition()).merge(key.bytes(), Write.merge(value.decodeLong()), Write::then);
+        }
+
+        @Override
+        public void deleteTracked(Key key) {
+            deleteUntracked(key);
+        }
+
+        @Override
+        public void deleteUntracked(Key key) {
+            assert isOpen();
+            if (!isOpen()) throw TypeDBException.of(RESOURCE_CLOSED);
+            buffer(key.partition()).put(key.bytes(), Write.DELETE);
+        }
+
+        @Override
+        public void trackModified(ByteArray key) {
+        }
+
+        @Override
+        public void trackExclusiveBytes(ByteArray bytes) {
+        }
+
+        @Override
+        public void commit() throws RocksDBException {
+            for (Partition partition : partitionMgr.partitions()) {
+                ConcurrentSkipListMap<ByteArray, Write> buffer = buffers.get(partition);
+                if (buffer != null && !buffer.isEmpty()) database.bulkLoadStaging().stage(partition, buffer);
+            }
+            buffers.clear();
+            super.commit();
         }
 
-        boolean deleteModifyConflict(RocksStorage.Data otherStorage) {
-            return hasIntersection(deletedKeys, otherStorage.modifiedKeys);
+        @Override
+        public void rollback() throws RocksDBException {
+            buffers.clear();
+            super.rollback();
         }
 
-        boolean exclusiveCreateConflict(RocksStorage.Data otherStorage) {
-            return hasIntersection(exclusiveBytes, otherStorage.exclusiveBytes);
+        @Override
+        void delete() {
+            buffers.clear();
+            super.delete();
+        }
+
+        /**
+         * The sorted runs committed by bulk-load transactions that are not yet ingested. The puts of each run are
+         * written out as an SST file, while the few merges and deletes are folded in memory, in commit order.
+         *
+         * Ingesting merges the runs of each partition into a sequence of large, non-overlapping SST files, written
+         * with the partition's own options, and ingests them in one go. Ingesting once per import phase, rather than
+         * once per transaction, avoids flooding level 0 with small files that overlap each other.
+         */
+        public static class Staging {
+
+            private static final String SST_DIRECTORY = "bulk-load";
+            private static final long TARGET_FILE_SIZE = 256 * MB;
+
+            private final OptimisticTransactionDB rocksData;
+            private final CorePartitionManager partitionMgr;
+            private final Path directory;
+            private final Map<Partition, List<Path>> runs;
+            private final Map<Partition, ConcurrentSkipListMap<ByteArray, Write>> pending;
+            private final AtomicLong nextFileID;
+
+            Staging(OptimisticTransactionDB rocksData, CorePartitionManager partitionMgr, Path directory) {
+                this.rocksData = rocksData;
+                this.partitionMgr = partitionMgr;
+                this.directory = directory.resolve(SST_DIRECTORY);
+                this.runs = new HashMap<>();
+                this.pending = new HashMap<>();
+                this.nextFileID = new AtomicLong(0);
+            }
+
+            private void stage(Partition partition, ConcurrentSkipListMap<ByteArray, Write> buffer) throws RocksDBException {
+                Path run = null;
+                if (buffer.values().stream().anyMatch(Write::isPut)) {
+                    run = newFile();
+                    try (Options options = partitionMgr.sstOptions(partition);
+                         EnvOptions envOptions = new EnvOptions();
+                         SstFileWriter writer = new SstFileWriter(envOptions, options)) {
+                        writer.open(run.toString());
+                        for (Map.Entry<ByteArray, Write> entry : buffer.entrySet()) {
+                            if (entry.getValue().isPut()) entry.getValue().writeTo(writer, entry.getKey().getBytes());
+                        }
+                        writer.finish();
+                    }
+                }
+                synchronized (this) {
+                    if (run != null) runs.computeIfAbsent(partition, p -> new ArrayList<>()).add(run);
+                    ConcurrentSkipListMap<ByteArray, Write> folded = pending.computeIfAbsent(partition, p -> new ConcurrentSkipListMap<>());
+                    buffer.forEach((key, write) -> {
+                        // a put overrides earlier merges and deletes, which are always applied after the runs
+                        if (write.isPut()) folded.remove(key);
+                        else if (write.isMerge) folded.merge(key, write, Write::then);
+                        else folded.put(key, write);
+                    });
+                }
+            }
+
+            private Path newFile() {
+                try {
+                    Files.createDirectories(directory);
+                } catch (IOException e) {
+                    throw TypeDBException.of(e);
+                }
+                return directory.resolve(nextFileID.getAndIncrement() + ".sst");
+            }
+
+            public synchronized void ingest() {
+                try {
+                    for (Partition partition : partitionMgr.partitions()) {
+                        List<Path> files = merge(partition);
+                        if (files.isEmpty()) continue;
+                        try (IngestExternalFileOptions options = new IngestExternalFileOptions().setMoveFiles(true)) {
+                            rocksData.ingestExternalFile(partitionMgr.get(partition),
+                                    Iterators.iterate(files).map(Path::toString).toList(), options);
+                        } finally {
+                            for (Path file : files) Files.deleteIfExists(file);
+                        }
+                    }
+                } catch (RocksDBException | IOException e) {
+                    throw TypeDBException.of(e);
+                } finally {
+                    clear();
+                }
+            }
+
+            private List<Path> merge(Partition partition) throws RocksDBException {
+                List<Path> partitionRuns = runs.getOrDefault(partition, list());
+                ConcurrentSkipListMap<ByteArray, Write> folded = pending.getOrDefault(partition, new ConcurrentSkipListMap<>());
+                List<Path> files = new ArrayList<>();
+                if (partitionRuns.isEmpty() && folded.isEmpty()) return files;
+
+                List<Run> opened = new ArrayList<>();
+                try (Options options = partitionMgr.sstOptions(partition);
+                     EnvOptions envOptions = new EnvOptions();
+                     ReadOptions readOptions = new ReadOptions()) {
+                    // of the runs holding the same key, the one committed last comes first
+                    PriorityQueue<Run> queue = new PriorityQueue<>(Comparator.comparing((Run run) -> run.key)
+                            .thenComparing(Comparator.comparingInt((Run run) -> run.order).reversed()));
+                    for (int i = 0; i < partitionRuns.size(); i++) {
+                        Run run = new Run(i, partitionRuns.get(i), options, readOptions);
+                        opened.add(run);
+                        if (run.isValid()) queue.add(run);
+                    }
+                    Iterator<Map.Entry<ByteArray, Write>> foldedIterator = folded.entrySet().iterator();
+                    Map.Entry<ByteArray, Write> nextFolded = foldedIterator.hasNext() ? foldedIterator.next() : null;
+
+                    SstFileWriter writer = null;
+                    long fileSize = 0;
+                    try {
+                        while (!queue.isEmpty() || nextFolded != null) {
+                            ByteArray key;
+                            if (nextFolded == null) key = queue.peek().key;
+                            else if (queue.isEmpty()) key = nextFolded.getKey();
+                            else if (queue.peek().key.compareTo(nextFolded.getKey()) <= 0) key = queue.peek().key;
+                            else key = nextFolded.getKey();
+
+                            Write write = null;
+                            if (!queue.isEmpty() && queue.peek().key.equals(key)) {
+                                write = Write.put(queue.peek().value);
+                                while (!queue.isEmpty() && queue.peek().key.equals(key)) {
+                                    Run run = queue.poll();
+                                    if (run.next()) queue.add(run);
+                                }
+                            }
+                            if (nextFolded != null && nextFolded.getKey().equals(key)) {
+                                Write later = nextFolded.getValue();
+                                write = write != null && later.isMerge ? write.then(later) : later;
+                                nextFolded = foldedIterator.hasNext() ? foldedIterator.next() : null;
+                            }
+
+                            if (writer == null || fileSize >= TARGET_FILE_SIZE) {
+                                if (writer != null) {
+                                    writer.finish();
+                                    writer.close();
+                                }
+                                Path file = newFile();
+                                files.add(file);
+                                writer = new SstFileWriter(envOptions, options);
+                                writer.open(file.toString());
+                                fileSize = 0;
+                            }
+                            write.writeTo(writer, key.getBytes());
+                            fileSize += key.length() + (write.value == null ? LONG_SIZE : write.value.length());
+                        }
+                        if (writer != null) writer.finish();
+                    } finally {
+                        if (writer != null) writer.close();
+                    }
+                } finally {
+                    opened.forEach(Run::close);
+                }
+                return files;
+            }
+
+            private synchronized void clear() {
+                Iterators.iterate(runs.values()).flatMap(Iterators::iterate).forEachRemaining(run -> {
+                    try {
+                        Files.deleteIfExists(run);
+                    } catch (IOException e) {
+                        LOG.warn("Failed to delete bulk-load run: " + run, e);
+                    }
+                });
+                runs.clear();
+                pending.clear();
+            }
+
+            void close() {
+                clear();
+            }
+
+            private static class Run {
+
+                private final int order;
+                private final SstFileReader reader;
+                private final SstFileReaderIterator iterator;
+                private ByteArray key;
+                private ByteArray value;
+
+                private Run(int order, Path file, Options options, ReadOptions readOptions) throws RocksDBException {
+                    this.order = order;
+                    this.reader = new SstFileReader(options);
+                    this.reader.open(file.toString());
+                    this.iterator = reader.newIterator(readOptions);
+                    this.iterator.seekToFirst();
+                    read();
+                }
+
+                private boolean isValid() {
+                    return key != null;
+                }
+
+                private boolean next() {
+                    iterator.next();
+                    read();
+                    return isValid();
+                }
+
+                private void read() {
+                    if (iterator.isValid()) {
+                        key = ByteArray.of(iterator.key());
+                        value = ByteArray.of(iterator.value());
+                    } else {
+                        key = null;
+                        value = null;
+                    }
+                }
+
+                private void close() {
+                    iterator.close();
+                    reader.close();
+                }
+            }
+        }
+
+        private static class Write {
+
+            private static final Write DELETE = new Write(null, 0, false);
+
+            @Nullable
+            private final ByteArray value;
+            private final long delta;
+            private final boolean isMerge;
+
+            private Write(@Nullable ByteArray value, long delta, boolean isMerge) {
+                this.value = value;
+                this.delta = delta;
+                this.isMerge = isMerge;
+            }
+
+            static Write put(ByteArray value) {
+                return new Write(value, 0, false);
+            }
+
+            static Write merge(long delta) {
+                return new Write(null, delta, true);
+            }
+
+            /**
+             * Folds a later merge into this write, following the uint64 add operator that the data partitions use.
+             */
+            Write then(Write merge) {
+                assert merge.isMerge;
+                if (isMerge) return merge(delta + merge.delta);
+                else if (value == null) return put(encodeLong(merge.delta));
+                else return put(encodeLong(value.decodeLong() + merge.delta));
+            }
+
+            boolean isPut() {
+                return !isMerge && value != null;
+            }
+
+            void writeTo(SstFileWriter writer, byte[] key) throws RocksDBException {
+                if (isMerge) writer.merge(key, encodeLong(delta).getBytes());
+                else if (value == null) writer.delete(key);
+                else writer.put(key, value.getBytes());
+            }
         }
     }
 }
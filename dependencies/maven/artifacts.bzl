@@ -38,6 +38,8 @@ artifacts = [
     "io.grpc:grpc-stub",
     "io.netty:netty-all",
     "junit:junit",
+    "org.openjdk.jmh:jmh-core",
+    "org.openjdk.jmh:jmh-generator-annprocess",
     "org.rocksdb:rocksdbjni",
     "org.rocksdb:rocksdbjni-dev-mac",
     "org.slf4j:slf4j-api",
@@ -55,6 +55,7 @@ public class Encoding {
 
     public static final String ROCKS_DATA = "data";
     public static final String ROCKS_SCHEMA = "schema";
+    public static final String SPILL = "spill";
     public static final int ENCODING_VERSION = 2;
 
     public enum Partition {
@@ -155,6 +156,8 @@ public class Encoding {
         INDEX_TYPE(20, PrefixType.INDEX),
         INDEX_RULE(21, PrefixType.INDEX),
         METADATA_STATISTICS(60, PrefixType.METADATA),
+        METADATA_PLAN(61, PrefixType.METADATA),
+        METADATA_PLAN_ORDER(62, PrefixType.METADATA),
         VERTEX_THING_TYPE(100, PrefixType.TYPE),
         VERTEX_ENTITY_TYPE(110, PrefixType.TYPE),
         VERTEX_ATTRIBUTE_TYPE(111, PrefixType.TYPE),
@@ -171,6 +174,8 @@ public class Encoding {
                 pair(INDEX_TYPE.key, INDEX_TYPE),
                 pair(INDEX_RULE.key, INDEX_RULE),
                 pair(METADATA_STATISTICS.key, METADATA_STATISTICS),
+                pair(METADATA_PLAN.key, METADATA_PLAN),
+                pair(METADATA_PLAN_ORDER.key, METADATA_PLAN_ORDER),
                 pair(VERTEX_THING_TYPE.key, VERTEX_THING_TYPE),
                 pair(VERTEX_ENTITY_TYPE.key, VERTEX_ENTITY_TYPE),
                 pair(VERTEX_ATTRIBUTE_TYPE.key, VERTEX_ATTRIBUTE_TYPE),
@@ -1025,8 +1030,12 @@ public class Encoding {
             enum Prefix {
 
                 SNAPSHOT(0),
+                VERSION(1),
                 VERTEX_COUNT(10),
                 HAS_EDGE_COUNT(20),
+                ROLE_PLAYER_COUNT(30),
+                HISTOGRAM(40),
+                HISTOGRAM_BUCKET(41),
                 MISCOUNTABLE(50),
                 TXN_COMMITTED_ID(60);
 
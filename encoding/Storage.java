@@ -27,6 +27,8 @@ import com.vaticle.typedb.core.common.parameters.Order;
 import com.vaticle.typedb.core.encoding.key.Key;
 import com.vaticle.typedb.core.encoding.key.KeyGenerator;
 
+import java.nio.file.Path;
+
 import static com.vaticle.typedb.common.util.Objects.className;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 
@@ -79,6 +81,11 @@ public interface Storage {
 
         KeyGenerator.Data dataKeyGenerator();
 
+        /**
+         * @return the directory in which queries spill what does not fit in memory
+         */
+        Path spillDirectory();
+
         void putTracked(Key key);
 
         void putTracked(Key key, ByteArray value);
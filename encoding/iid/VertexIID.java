@@ -248,6 +248,10 @@ public abstract class VertexIID extends PartitionedIID {
 
         public abstract VALUE value();
 
+        public ByteArray valueBytes() {
+            return bytes.view(VALUE_INDEX);
+        }
+
         public Encoding.ValueType<VALUE> valueType() {
             return valueType;
         }
@@ -63,10 +63,44 @@ public class StatisticsKey implements Key {
         ));
     }
 
+    public static StatisticsKey rolePlayerCount(VertexIID.Type relationTypeIID, VertexIID.Type roleTypeIID,
+                                                VertexIID.Type playerTypeIID) {
+        return new StatisticsKey(join(
+                Statistics.Prefix.ROLE_PLAYER_COUNT.bytes(),
+                relationTypeIID.bytes(),
+                roleTypeIID.bytes(),
+                playerTypeIID.bytes()
+        ));
+    }
+
+    public static Prefix<StatisticsKey> rolePlayerCountPrefix() {
+        return new Prefix<>(Statistics.Prefix.ROLE_PLAYER_COUNT.bytes(), Partition.METADATA, StatisticsKey::new);
+    }
+
+    public static StatisticsKey histogram(VertexIID.Type attTypeIID) {
+        return new StatisticsKey(join(
+                Statistics.Prefix.HISTOGRAM.bytes(),
+                attTypeIID.bytes()
+        ));
+    }
+
+    public static StatisticsKey histogramBucket(VertexIID.Type attTypeIID, int bucket) {
+        assert bucket >= 0 && bucket <= Byte.MAX_VALUE;
+        return new StatisticsKey(join(
+                Statistics.Prefix.HISTOGRAM_BUCKET.bytes(),
+                attTypeIID.bytes(),
+                ByteArray.of((byte) bucket)
+        ));
+    }
+
     public static StatisticsKey snapshot() {
         return new StatisticsKey(Statistics.Prefix.SNAPSHOT.bytes());
     }
 
+    public static StatisticsKey version() {
+        return new StatisticsKey(Statistics.Prefix.VERSION.bytes());
+    }
+
     public static StatisticsKey txnCommitted(long txnID) {
         return new StatisticsKey(join(
                 Statistics.Prefix.TXN_COMMITTED_ID.bytes(),
@@ -41,21 +41,33 @@ import com.vaticle.typedb.core.graph.vertex.TypeVertex;
 import com.vaticle.typedb.core.graph.vertex.impl.AttributeVertexImpl;
 import com.vaticle.typedb.core.graph.vertex.impl.ThingVertexImpl;
 
+import javax.annotation.Nullable;
+import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
 import java.util.stream.Stream;
 
 import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.common.collection.Collections.pair;
+import static com.vaticle.typedb.core.common.collection.Bytes.LONG_SIZE;
+import static com.vaticle.typedb.core.common.collection.Bytes.SHORT_SIZE;
 import static com.vaticle.typedb.core.common.collection.ByteArray.empty;
 import static com.vaticle.typedb.core.common.collection.ByteArray.encodeLong;
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeUnsignedShort;
 import static com.vaticle.typedb.core.common.collection.ByteArray.join;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingWrite.ILLEGAL_STRING_SIZE;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
@@ -235,6 +247,73 @@ public class ThingGraph {
         }
     }
 
+    /**
+     * Splits the instances of a type into at most {@code ranges} contiguous, disjoint IID ranges, in ascending order.
+     * Fewer ranges are returned when the type has too few instances to fill them all.
+     */
+    public List<Forwardable<ThingVertex, Order.Asc>> getReadableRanges(TypeVertex typeVertex, int ranges) {
+        assert ranges > 0;
+        List<VertexIID.Thing> lowerBounds = rangeLowerBounds(typeVertex, ranges);
+        List<Forwardable<ThingVertex, Order.Asc>> iterators = new ArrayList<>(lowerBounds.size());
+        for (int i = 0; i < lowerBounds.size(); i++) {
+            VertexIID.Thing upperBound = i + 1 < lowerBounds.size() ? lowerBounds.get(i + 1) : null;
+            iterators.add(getReadable(typeVertex, lowerBounds.get(i), upperBound));
+        }
+        return iterators;
+    }
+
+    public Forwardable<ThingVertex, Order.Asc> getReadable(TypeVertex typeVertex, VertexIID.Thing lowerBound,
+                                                          @Nullable VertexIID.Thing upperBound) {
+        Forwardable<ThingVertex, Order.Asc> vertices = getReadable(typeVertex, ASC);
+        vertices.forward(ThingVertexImpl.Target.of(this, lowerBound));
+        if (upperBound == null) return vertices;
+        ByteArray upper = upperBound.bytes();
+        return vertices.takeWhile(v -> v.iid().bytes().compareTo(upper) < 0);
+    }
+
+    /**
+     * Interpolates evenly between the first and last instance IIDs, and seeks to the first instance at or after each
+     * interpolated IID to find the start of each range. Instance keys are sequential for entities and relations, so
+     * the ranges come out close to equal; attribute keys are their values, so the split is only as even as the values.
+     */
+    public List<VertexIID.Thing> rangeLowerBounds(TypeVertex typeVertex, int ranges) {
+        Optional<ThingVertex> first = getReadable(typeVertex, ASC).first();
+        if (first.isEmpty()) return new ArrayList<>();
+        ThingVertex last = getReadable(typeVertex, Order.Desc.DESC).first().get();
+        ByteArray prefix = first.get().iid().bytes().view(0, VertexIID.Thing.PREFIX_W_TYPE_LENGTH);
+        ByteArray firstKey = first.get().iid().bytes().view(VertexIID.Thing.PREFIX_W_TYPE_LENGTH);
+        ByteArray lastKey = last.iid().bytes().view(VertexIID.Thing.PREFIX_W_TYPE_LENGTH);
+        int keyLength = Math.max(firstKey.length(), lastKey.length());
+        BigInteger from = unsignedPadded(firstKey, keyLength);
+        BigInteger span = unsignedPadded(lastKey, keyLength).subtract(from);
+
+        List<VertexIID.Thing> lowerBounds = new ArrayList<>();
+        lowerBounds.add(first.get().iid());
+        for (int i = 1; i < ranges; i++) {
+            BigInteger key = from.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(ranges)));
+            VertexIID.Thing target = VertexIID.Thing.of(join(prefix, fixedLength(key, keyLength)));
+            Forwardable<ThingVertex, Order.Asc> vertices = getReadable(typeVertex, ASC);
+            vertices.forward(ThingVertexImpl.Target.of(this, target));
+            Optional<ThingVertex> found = vertices.first();
+            if (found.isPresent() && found.get().iid().bytes().compareTo(lowerBounds.get(lowerBounds.size() - 1).bytes()) > 0) {
+                lowerBounds.add(found.get().iid());
+            }
+        }
+        return lowerBounds;
+    }
+
+    private static BigInteger unsignedPadded(ByteArray key, int length) {
+        return new BigInteger(1, Arrays.copyOf(key.getBytes(), length));
+    }
+
+    private static ByteArray fixedLength(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[length];
+        int copied = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copied, fixed, length - copied, copied);
+        return ByteArray.of(fixed);
+    }
+
     public AttributeVertex<Boolean> getReadable(TypeVertex type, boolean value) {
         assert storage.isOpen();
         assert type.isAttributeType();
@@ -449,6 +528,10 @@ public class ThingGraph {
     }
 
     public void edgeCreated(ThingEdge edge) {
+        if (edge.encoding() == Encoding.Edge.Thing.Optimised.ROLEPLAYER && !isPersisted(edge)) {
+            statistics.rolePlayerCreated(edge.fromIID().type(), edge.optimised().get().type().iid(),
+                    edge.toIID().type(), edge.isInferred());
+        }
         if (edge.encoding() != Encoding.Edge.Thing.Base.HAS || isPersisted(edge)) return;
         statistics.hasEdgeCreated(edge.from().asWrite(), edge.to().asAttribute().asWrite(), edge.isInferred());
 
@@ -467,7 +550,10 @@ public class ThingGraph {
     }
 
     public void edgeDeleted(ThingEdge edge) {
-        if (edge.encoding() == Encoding.Edge.Thing.Base.HAS) {
+        if (edge.encoding() == Encoding.Edge.Thing.Optimised.ROLEPLAYER) {
+            statistics.rolePlayerDeleted(edge.fromIID().type(), edge.optimised().get().type().iid(),
+                    edge.toIID().type(), edge.isInferred());
+        } else if (edge.encoding() == Encoding.Edge.Thing.Base.HAS) {
             statistics.hasEdgeDeleted(edge.from().asWrite(), edge.to().asAttribute().asWrite(), edge.isInferred());
             if (hasEdgeCreated.contains(edge)) {
                 // if the edge has already been created, and we are deleting it, we just reverse the creation
@@ -540,7 +626,7 @@ public class ThingGraph {
         }); // thingsByIID no longer contains valid mapping from IID to TypeVertex
         thingsByIID.values().stream().filter(v -> !v.isInferred()).forEach(ThingVertex.Write::commit);
         attributesByIID.valuesIterator().forEachRemaining(AttributeVertex.Write::commit);
-        statistics.commit();
+        statistics.commit(attributesCreated, attributesDeleted);
     }
 
     private static class AttributesByIID {
@@ -599,26 +685,41 @@ public class ThingGraph {
 
     public static class Statistics {
 
+        /**
+         * Version 1 counts the role players of every relation, including those committed before the counts were kept.
+         */
+        public static final long VERSION = 1;
+
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexCount;
-        private final ConcurrentMap<VertexIID.Type, Long> deltaVertexCount;
-        private final ConcurrentMap<VertexIID.Type, Long> inferredVertexCount;
+        private final TypeCounts deltaVertexCount;
+        private final TypeCounts inferredVertexCount;
         private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> persistedHasEdgeCount;
-        private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> deltaHasEdgeCount;
-        private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> inferredHasEdgeCount;
+        private final ConcurrentMap<VertexIID.Type, TypeCounts> deltaHasEdgeCount;
+        private final ConcurrentMap<VertexIID.Type, TypeCounts> inferredHasEdgeCount;
+        private final ConcurrentMap<ByteArray, Long> persistedRolePlayerCount;
+        private final ConcurrentMap<VertexIID.Type, ConcurrentMap<VertexIID.Type, TypeCounts>> deltaRolePlayerCount;
+        private final ConcurrentMap<VertexIID.Type, ConcurrentMap<VertexIID.Type, TypeCounts>> inferredRolePlayerCount;
+        private final ConcurrentMap<VertexIID.Type, Optional<Histogram>> histograms;
 
         private final TypeGraph typeGraph;
         private final Storage.Data storage;
         private final long snapshot;
+        private final long version;
 
         Statistics(TypeGraph typeGraph, Storage.Data storage) {
             persistedVertexCount = new ConcurrentHashMap<>();
-            deltaVertexCount = new ConcurrentHashMap<>();
-            inferredVertexCount = new ConcurrentHashMap<>();
+            deltaVertexCount = new TypeCounts();
+            inferredVertexCount = new TypeCounts();
             persistedHasEdgeCount = new ConcurrentHashMap<>();
             deltaHasEdgeCount = new ConcurrentHashMap<>();
             inferredHasEdgeCount = new ConcurrentHashMap<>();
+            persistedRolePlayerCount = new ConcurrentHashMap<>();
+            deltaRolePlayerCount = new ConcurrentHashMap<>();
+            inferredRolePlayerCount = new ConcurrentHashMap<>();
+            histograms = new ConcurrentHashMap<>();
 
             snapshot = bytesToLongOrZero(storage.get(StatisticsKey.snapshot()));
+            version = bytesToLongOrZero(storage.get(StatisticsKey.version()));
             this.typeGraph = typeGraph;
             this.storage = storage;
         }
@@ -675,6 +776,145 @@ public class ThingGraph {
             return owners.stream().map(owner -> hasEdgeCount(owner, attribute)).mapToLong(l -> l).sum();
         }
 
+        public long hasEdgeSum(Set<Label> owners, Set<Label> attributes) {
+            long sum = 0;
+            for (Label owner : owners) {
+                TypeVertex ownerType = typeGraph.getType(owner);
+                for (Label attribute : attributes) sum += hasEdgeCount(ownerType, typeGraph.getType(attribute));
+            }
+            return sum;
+        }
+
+        public boolean hasRolePlayerCounts() {
+            return version >= VERSION;
+        }
+
+        public long rolePlayerSum(Set<Label> relations, Set<Label> roles, Set<Label> players) {
+            long sum = 0;
+            for (Label relation : relations) {
+                TypeVertex relationType = typeGraph.getType(relation);
+                for (Label role : roles) {
+                    TypeVertex roleType = typeGraph.getType(role);
+                    for (Label player : players) {
+                        sum += rolePlayerCount(relationType, roleType, typeGraph.getType(player));
+                    }
+                }
+            }
+            return sum;
+        }
+
+        public long rolePlayerCount(TypeVertex relationType, TypeVertex roleType, TypeVertex playerType) {
+            return rolePlayerCount(relationType.iid(), roleType.iid(), playerType.iid());
+        }
+
+        private long rolePlayerCount(VertexIID.Type relationTypeIID, VertexIID.Type roleTypeIID,
+                                     VertexIID.Type playerTypeIID) {
+            StatisticsKey key = StatisticsKey.rolePlayerCount(relationTypeIID, roleTypeIID, playerTypeIID);
+            long persisted = persistedRolePlayerCount.computeIfAbsent(key.bytes(), k -> bytesToLongOrZero(storage.get(key)));
+            return persisted + rolePlayerCount(deltaRolePlayerCount, relationTypeIID, roleTypeIID, playerTypeIID) +
+                    rolePlayerCount(inferredRolePlayerCount, relationTypeIID, roleTypeIID, playerTypeIID);
+        }
+
+        /**
+         * Attributes are unique by value, so the number of distinct values of an attribute type is its instance count.
+         */
+        public long distinctValueCount(TypeVertex attType) {
+            assert attType.isAttributeType();
+            return thingVertexCount(attType);
+        }
+
+        /**
+         * Estimate the number of values of an attribute type between two sorted value encodings, where a null bound
+         * is open. Buckets that only partially overlap the range are counted as half full. Types without a histogram
+         * are estimated by their total count.
+         */
+        public long valueRangeEstimate(TypeVertex attType, @Nullable ByteArray lower, @Nullable ByteArray upper) {
+            Optional<Histogram> histogram = histogram(attType.iid());
+            if (!histogram.isPresent()) return thingVertexCount(attType);
+            int first = lower == null ? 0 : histogram.get().bucket(lower);
+            int last = upper == null ? histogram.get().bucketCount() - 1 : histogram.get().bucket(upper);
+            double estimate = 0;
+            for (int bucket = first; bucket <= last; bucket++) {
+                long count = bytesToLongOrZero(storage.get(StatisticsKey.histogramBucket(attType.iid(), bucket)));
+                if ((bucket == first && lower != null) || (bucket == last && upper != null)) estimate += count / 2.0;
+                else estimate += count;
+            }
+            return Math.round(estimate);
+        }
+
+        public Optional<StatisticsKey> histogramBucket(VertexIID.Attribute<?> attIID) {
+            return bucket(attIID).map(bucket -> StatisticsKey.histogramBucket(attIID.type(), bucket));
+        }
+
+        private Optional<Integer> bucket(VertexIID.Attribute<?> attIID) {
+            return histogram(attIID.type()).map(histogram -> histogram.bucket(attIID.valueBytes()));
+        }
+
+        private Optional<Histogram> histogram(VertexIID.Type attTypeIID) {
+            return histograms.computeIfAbsent(attTypeIID, iid ->
+                    Optional.ofNullable(storage.get(StatisticsKey.histogram(iid))).map(Histogram::decode));
+        }
+
+        /**
+         * Rebuild the histograms of sortable attribute types that have none yet, or whose number of values has
+         * drifted too far from the number the histogram was built with.
+         *
+         * @return true if any histogram was written
+         */
+        public boolean refreshHistograms() {
+            boolean refreshed = false;
+            for (TypeVertex attType : typeGraph.getSubtypes(typeGraph.rootAttributeType())) {
+                if (attType.isAbstract() || !Histogram.isApplicable(attType.valueType())) continue;
+                long count = thingVertexCount(attType);
+                Optional<Histogram> histogram = histogram(attType.iid());
+                if (histogram.map(h -> h.isStale(count)).orElse(count >= Histogram.MIN_VALUES)) {
+                    buildHistogram(attType, count);
+                    refreshed = true;
+                }
+            }
+            return refreshed;
+        }
+
+        private void buildHistogram(TypeVertex attType, long count) {
+            long depth = Math.max(1, count / Histogram.BUCKETS);
+            List<ByteArray> boundaries = new ArrayList<>();
+            long[] bucketCounts = new long[Histogram.BUCKETS];
+            long scanned = 0;
+            FunctionalIterator<KeyValue<VertexIID.Thing, ByteArray>> attributes =
+                    storage.iterate(VertexIID.Thing.prefix(attType.iid()));
+            while (attributes.hasNext()) {
+                VertexIID.Attribute<?> attIID = attributes.next().key().asAttribute();
+                bucketCounts[boundaries.size()]++;
+                scanned++;
+                if (scanned % depth == 0 && boundaries.size() < Histogram.BUCKETS - 1) {
+                    boundaries.add(attIID.valueBytes());
+                }
+            }
+            Histogram histogram = new Histogram(scanned, boundaries);
+            int previousBuckets = histogram(attType.iid()).map(Histogram::bucketCount).orElse(0);
+            storage.putTracked(StatisticsKey.histogram(attType.iid()), histogram.encode());
+            // bucket counts are merged as deltas, like the other counts, so that commits since our snapshot are kept
+            for (int bucket = 0; bucket < Math.max(histogram.bucketCount(), previousBuckets); bucket++) {
+                StatisticsKey key = StatisticsKey.histogramBucket(attType.iid(), bucket);
+                long count = bucket < histogram.bucketCount() ? bucketCounts[bucket] : 0;
+                long delta = count - bytesToLongOrZero(storage.get(key));
+                if (delta != 0) storage.mergeUntracked(key, encodeLong(delta));
+            }
+            histograms.put(attType.iid(), Optional.of(histogram));
+        }
+
+        /**
+         * Attribute and has edge counts may be transiently miscounted by concurrent commits, until the
+         * statistics corrector has processed the miscount records visible to this snapshot.
+         */
+        public boolean mayMiscount() {
+            Forwardable<KeyValue<StatisticsKey.Miscountable, ByteArray>, Order.Asc> miscounts =
+                    storage.iterate(StatisticsKey.Miscountable.prefix());
+            boolean mayMiscount = miscounts.hasNext();
+            miscounts.recycle();
+            return mayMiscount;
+        }
+
         public long hasEdgeCount(Label thing, Label attribute) {
             return hasEdgeCount(typeGraph.getType(thing), typeGraph.getType(attribute));
         }
@@ -689,37 +929,65 @@ public class ThingGraph {
         }
 
         private void vertexCreated(VertexIID.Type type, boolean inferred) {
-            if (inferred) inferredVertexCount.compute(type, (k, v) -> (v == null ? 0 : v) + 1);
-            else deltaVertexCount.compute(type, (k, v) -> (v == null ? 0 : v) + 1);
+            if (inferred) inferredVertexCount.add(type, 1);
+            else deltaVertexCount.add(type, 1);
         }
 
         private void vertexDeleted(VertexIID.Type type, boolean inferred) {
-            if (inferred) inferredVertexCount.compute(type, (k, v) -> (v == null ? 0 : v) - 1);
-            else deltaVertexCount.compute(type, (k, v) -> (v == null ? 0 : v) - 1);
+            if (inferred) inferredVertexCount.add(type, -1);
+            else deltaVertexCount.add(type, -1);
         }
 
         private void hasEdgeCreated(ThingVertex.Write thing, AttributeVertex.Write<?> attribute, boolean inferred) {
-            if (inferred) {
-                inferredHasEdgeCount.compute(new Pair<>(thing.type().iid(), attribute.type().iid()), (k, v) -> (v == null ? 0 : v) + 1);
-            } else {
-                deltaHasEdgeCount.compute(new Pair<>(thing.type().iid(), attribute.type().iid()), (k, v) -> (v == null ? 0 : v) + 1);
-            }
+            hasEdgeCounts(inferred ? inferredHasEdgeCount : deltaHasEdgeCount, thing.type().iid())
+                    .add(attribute.type().iid(), 1);
         }
 
         private void hasEdgeDeleted(ThingVertex.Write thing, AttributeVertex.Write<?> attribute, boolean inferred) {
-            if (inferred) {
-                inferredHasEdgeCount.compute(new Pair<>(thing.type().iid(), attribute.type().iid()), (k, v) -> (v == null ? 0 : v) - 1);
-            } else {
-                deltaHasEdgeCount.compute(new Pair<>(thing.type().iid(), attribute.type().iid()), (k, v) -> (v == null ? 0 : v) - 1);
-            }
+            hasEdgeCounts(inferred ? inferredHasEdgeCount : deltaHasEdgeCount, thing.type().iid())
+                    .add(attribute.type().iid(), -1);
+        }
+
+        private void rolePlayerCreated(VertexIID.Type relationTypeIID, VertexIID.Type roleTypeIID,
+                                       VertexIID.Type playerTypeIID, boolean inferred) {
+            rolePlayerCounts(inferred ? inferredRolePlayerCount : deltaRolePlayerCount, relationTypeIID, roleTypeIID)
+                    .add(playerTypeIID, 1);
+        }
+
+        private void rolePlayerDeleted(VertexIID.Type relationTypeIID, VertexIID.Type roleTypeIID,
+                                       VertexIID.Type playerTypeIID, boolean inferred) {
+            rolePlayerCounts(inferred ? inferredRolePlayerCount : deltaRolePlayerCount, relationTypeIID, roleTypeIID)
+                    .add(playerTypeIID, -1);
+        }
+
+        private static TypeCounts rolePlayerCounts(ConcurrentMap<VertexIID.Type, ConcurrentMap<VertexIID.Type, TypeCounts>> counts,
+                                                   VertexIID.Type relationTypeIID, VertexIID.Type roleTypeIID) {
+            ConcurrentMap<VertexIID.Type, TypeCounts> roleCounts = counts.get(relationTypeIID);
+            if (roleCounts == null) roleCounts = counts.computeIfAbsent(relationTypeIID, iid -> new ConcurrentHashMap<>());
+            return hasEdgeCounts(roleCounts, roleTypeIID);
+        }
+
+        private static long rolePlayerCount(ConcurrentMap<VertexIID.Type, ConcurrentMap<VertexIID.Type, TypeCounts>> counts,
+                                            VertexIID.Type relationTypeIID, VertexIID.Type roleTypeIID,
+                                            VertexIID.Type playerTypeIID) {
+            ConcurrentMap<VertexIID.Type, TypeCounts> roleCounts = counts.get(relationTypeIID);
+            if (roleCounts == null) return 0;
+            TypeCounts playerCounts = roleCounts.get(roleTypeIID);
+            return playerCounts == null ? 0 : playerCounts.get(playerTypeIID);
+        }
+
+        private static TypeCounts hasEdgeCounts(ConcurrentMap<VertexIID.Type, TypeCounts> counts, VertexIID.Type thingTypeIID) {
+            TypeCounts attributeCounts = counts.get(thingTypeIID);
+            if (attributeCounts == null) attributeCounts = counts.computeIfAbsent(thingTypeIID, iid -> new TypeCounts());
+            return attributeCounts;
         }
 
         private long deltaVertexCount(VertexIID.Type typeIID) {
-            return deltaVertexCount.getOrDefault(typeIID, 0L);
+            return deltaVertexCount.get(typeIID);
         }
 
         private long inferredVertexCount(VertexIID.Type typeIID) {
-            return inferredVertexCount.getOrDefault(typeIID, 0L);
+            return inferredVertexCount.get(typeIID);
         }
 
         private long persistedVertexCount(VertexIID.Type typeIID) {
@@ -733,25 +1001,42 @@ public class ThingGraph {
         }
 
         private long deltaHasEdgeCount(VertexIID.Type thingTypeIID, VertexIID.Type attTypeIID) {
-            return deltaHasEdgeCount.getOrDefault(pair(thingTypeIID, attTypeIID), 0L);
+            TypeCounts attributeCounts = deltaHasEdgeCount.get(thingTypeIID);
+            return attributeCounts == null ? 0 : attributeCounts.get(attTypeIID);
         }
 
         private long inferredHasEdgeCount(VertexIID.Type thingTypeIID, VertexIID.Type attTypeIID) {
-            return inferredHasEdgeCount.getOrDefault(pair(thingTypeIID, attTypeIID), 0L);
+            TypeCounts attributeCounts = inferredHasEdgeCount.get(thingTypeIID);
+            return attributeCounts == null ? 0 : attributeCounts.get(attTypeIID);
         }
 
         private long bytesToLongOrZero(ByteArray bytes) {
             return bytes != null ? bytes.decodeLong() : 0;
         }
 
-        private void commit() {
+        private void commit(Set<AttributeVertex.Write<?>> attributesCreated, Set<AttributeVertex<?>> attributesDeleted) {
             deltaVertexCount.forEach((typeIID, delta) ->
                     storage.mergeUntracked(StatisticsKey.vertexCount(typeIID), encodeLong(delta))
             );
-            deltaHasEdgeCount.forEach((ownership, delta) ->
-                    storage.mergeUntracked(StatisticsKey.hasEdgeCount(ownership.first(), ownership.second()), encodeLong(delta))
-            );
-            if (!deltaVertexCount.isEmpty() || !deltaHasEdgeCount.isEmpty()) {
+            deltaHasEdgeCount.forEach((thingTypeIID, attributeCounts) -> attributeCounts.forEach((attTypeIID, delta) ->
+                    storage.mergeUntracked(StatisticsKey.hasEdgeCount(thingTypeIID, attTypeIID), encodeLong(delta))
+            ));
+            deltaRolePlayerCount.forEach((relationTypeIID, roleCounts) -> roleCounts.forEach((roleTypeIID, playerCounts) ->
+                    playerCounts.forEach((playerTypeIID, delta) -> storage.mergeUntracked(
+                            StatisticsKey.rolePlayerCount(relationTypeIID, roleTypeIID, playerTypeIID), encodeLong(delta)
+                    ))
+            ));
+            Map<Pair<VertexIID.Type, Integer>, Long> bucketDeltas = new HashMap<>();
+            attributesCreated.forEach(att -> bucket(att.iid()).ifPresent(bucket ->
+                    bucketDeltas.merge(pair(att.iid().type(), bucket), 1L, Long::sum)
+            ));
+            attributesDeleted.forEach(att -> bucket(att.iid()).ifPresent(bucket ->
+                    bucketDeltas.merge(pair(att.iid().type(), bucket), -1L, Long::sum)
+            ));
+            bucketDeltas.forEach((bucket, delta) -> storage.mergeUntracked(
+                    StatisticsKey.histogramBucket(bucket.first(), bucket.second()), encodeLong(delta)
+            ));
+            if (!deltaVertexCount.isEmpty() || !deltaHasEdgeCount.isEmpty() || !deltaRolePlayerCount.isEmpty()) {
                 storage.mergeUntracked(StatisticsKey.snapshot(), encodeLong(1));
             }
         }
@@ -763,6 +1048,147 @@ public class ThingGraph {
             persistedHasEdgeCount.clear();
             deltaHasEdgeCount.clear();
             inferredHasEdgeCount.clear();
+            persistedRolePlayerCount.clear();
+            deltaRolePlayerCount.clear();
+            inferredRolePlayerCount.clear();
+            histograms.clear();
+        }
+
+        /**
+         * Equi-depth histogram over the sorted value encodings of an attribute type. Bucket boundaries are chosen
+         * when the histogram is built by the statistics corrector, while the number of values in each bucket is
+         * maintained by every commit. Since attributes are unique by value, bucket counts are distinct value counts.
+         */
+        private static class Histogram {
+
+            private static final int BUCKETS = 64;
+            private static final long MIN_VALUES = BUCKETS * 16;
+            private static final int STALE_FACTOR = 2;
+
+            private final long builtCount;
+            private final List<ByteArray> boundaries; // inclusive upper bounds of all but the last bucket
+
+            private Histogram(long builtCount, List<ByteArray> boundaries) {
+                this.builtCount = builtCount;
+                this.boundaries = boundaries;
+            }
+
+            private static boolean isApplicable(Encoding.ValueType<?> valueType) {
+                return valueType == LONG || valueType == DOUBLE || valueType == DATETIME;
+            }
+
+            private static Histogram decode(ByteArray bytes) {
+                long builtCount = bytes.view(0, LONG_SIZE).decodeLong();
+                List<ByteArray> boundaries = new ArrayList<>();
+                int pos = LONG_SIZE;
+                while (pos < bytes.length()) {
+                    int length = bytes.view(pos, pos + SHORT_SIZE).decodeUnsignedShort();
+                    pos += SHORT_SIZE;
+                    boundaries.add(bytes.view(pos, pos + length));
+                    pos += length;
+                }
+                return new Histogram(builtCount, boundaries);
+            }
+
+            private ByteArray encode() {
+                List<ByteArray> parts = new ArrayList<>();
+                parts.add(encodeLong(builtCount));
+                for (ByteArray boundary : boundaries) {
+                    parts.add(encodeUnsignedShort(boundary.length()));
+                    parts.add(boundary);
+                }
+                return join(parts.toArray(new ByteArray[0]));
+            }
+
+            private int bucketCount() {
+                return boundaries.size() + 1;
+            }
+
+            private int bucket(ByteArray value) {
+                int low = 0, high = boundaries.size();
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (boundaries.get(mid).compareTo(value) < 0) low = mid + 1;
+                    else high = mid;
+                }
+                return low;
+            }
+
+            private boolean isStale(long count) {
+                return count > builtCount * STALE_FACTOR || count * STALE_FACTOR < builtCount;
+            }
+        }
+
+        /**
+         * Lock-free table of count deltas, indexed by the 3 bytes of a type IID. Each byte selects a slot in one
+         * level of the table, and the levels are only allocated once a type under them is counted, so a transaction
+         * pays for the types it writes rather than for the whole key space.
+         */
+        private static class TypeCounts {
+
+            private static final int LEVEL_SIZE = 256;
+
+            private final AtomicReferenceArray<AtomicReferenceArray<AtomicLongArray>> counts;
+            private volatile boolean isEmpty;
+
+            private TypeCounts() {
+                counts = new AtomicReferenceArray<>(LEVEL_SIZE);
+                isEmpty = true;
+            }
+
+            private void add(VertexIID.Type typeIID, long delta) {
+                ByteArray bytes = typeIID.bytes();
+                int prefix = bytes.get(0) & 0xFF;
+                AtomicReferenceArray<AtomicLongArray> keys = counts.get(prefix);
+                if (keys == null) {
+                    counts.compareAndSet(prefix, null, new AtomicReferenceArray<>(LEVEL_SIZE));
+                    keys = counts.get(prefix);
+                }
+                int keyHigh = bytes.get(1) & 0xFF;
+                AtomicLongArray keyCounts = keys.get(keyHigh);
+                if (keyCounts == null) {
+                    keys.compareAndSet(keyHigh, null, new AtomicLongArray(LEVEL_SIZE));
+                    keyCounts = keys.get(keyHigh);
+                }
+                keyCounts.addAndGet(bytes.get(2) & 0xFF, delta);
+                if (isEmpty) isEmpty = false;
+            }
+
+            private long get(VertexIID.Type typeIID) {
+                ByteArray bytes = typeIID.bytes();
+                AtomicReferenceArray<AtomicLongArray> keys = counts.get(bytes.get(0) & 0xFF);
+                if (keys == null) return 0;
+                AtomicLongArray keyCounts = keys.get(bytes.get(1) & 0xFF);
+                if (keyCounts == null) return 0;
+                return keyCounts.get(bytes.get(2) & 0xFF);
+            }
+
+            private boolean isEmpty() {
+                return isEmpty;
+            }
+
+            private void forEach(ObjLongConsumer<VertexIID.Type> consumer) {
+                for (int prefix = 0; prefix < LEVEL_SIZE; prefix++) {
+                    AtomicReferenceArray<AtomicLongArray> keys = counts.get(prefix);
+                    if (keys == null) continue;
+                    for (int keyHigh = 0; keyHigh < LEVEL_SIZE; keyHigh++) {
+                        AtomicLongArray keyCounts = keys.get(keyHigh);
+                        if (keyCounts == null) continue;
+                        for (int keyLow = 0; keyLow < LEVEL_SIZE; keyLow++) {
+                            long count = keyCounts.get(keyLow);
+                            if (count == 0) continue;
+                            consumer.accept(VertexIID.Type.of(ByteArray.of(
+                                    new byte[]{(byte) prefix, (byte) keyHigh, (byte) keyLow}
+                            )), count);
+                        }
+                    }
+                }
+            }
+
+            private void clear() {
+                for (int prefix = 0; prefix < LEVEL_SIZE; prefix++) counts.set(prefix, null);
+                isEmpty = true;
+            }
         }
     }
 }
@@ -101,6 +101,7 @@ public class TypeGraph {
     private final Statistics statistics;
     private final Cache cache;
     private final Map<VertexIID.Type, VertexIID.Type> committedIIDs;
+    private final Set<Label> removedLabels;
     private final boolean isReadOnly;
     private boolean isModified;
 
@@ -116,6 +117,7 @@ public class TypeGraph {
         statistics = new Statistics();
         cache = new Cache();
         committedIIDs = new HashMap<>();
+        removedLabels = ConcurrentHashMap.newKeySet();
         isModified = false;
     }
 
@@ -530,6 +532,7 @@ public class TypeGraph {
             if (type != null) throw TypeDBException.of(INVALID_SCHEMA_WRITE, newScopedLabel);
             typesByLabel.remove(oldScopedLabel);
             typesByLabel.put(newScopedLabel, vertex);
+            removedLabels.add(Label.of(oldLabel, oldScope));
             cache.clear();
             return vertex;
         } finally {
@@ -546,6 +549,7 @@ public class TypeGraph {
 
             typesByLabel.remove(vertex.scopedLabel());
             typesByIID.remove(vertex.iid());
+            removedLabels.add(vertex.properLabel());
             cache.clear();
         } finally {
             singleLabelLocks.get(vertex.scopedLabel()).writeLock().unlock();
@@ -565,6 +569,19 @@ public class TypeGraph {
         return iterate(typesByIID.values()).anyMatch(TypeVertex::isModified);
     }
 
+    /**
+     * Returns the labels of every type that was created, modified, renamed or deleted, together with all of their
+     * supertypes, since the answers to a pattern over a supertype include its subtypes. This must be called before
+     * {@link #commit()}, which clears the modified types.
+     */
+    public Set<Label> modifiedTypes() {
+        Set<Label> labels = new HashSet<>(removedLabels);
+        iterate(typesByIID.values()).filter(TypeVertex::isModified).forEachRemaining(type -> {
+            if (!type.isDeleted()) getSupertypes(type).forEach(supertype -> labels.add(supertype.properLabel()));
+        });
+        return labels;
+    }
+
     public FunctionalIterator<Pair<ByteArray, ByteArray>> committedIIDs() {
         return iterate(committedIIDs.entrySet()).map(committed ->
                 new Pair<>(committed.getKey().bytes(), committed.getValue().bytes())
@@ -596,6 +613,7 @@ public class TypeGraph {
     public void clear() {
         typesByIID.clear();
         typesByLabel.clear();
+        removedLabels.clear();
         rules.clear();
     }
 
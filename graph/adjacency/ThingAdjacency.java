@@ -84,6 +84,10 @@ public interface ThingAdjacency {
             this.edgeIterator = edgeIterator;
         }
 
+        public FunctionalIterator<ThingEdge> get() {
+            return edgeIterator;
+        }
+
         public FunctionalIterator<ThingVertex> from() {
             return edgeIterator.map(Edge::from);
         }
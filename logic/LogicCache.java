@@ -23,10 +23,13 @@ import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.traversal.GraphTraversal;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+
 public class LogicCache {
 
     private final CommonCache<GraphTraversal.Type, Optional<Map<Identifier.Variable.Retrievable, Set<Label>>>> typeInferenceCache;
@@ -42,6 +45,22 @@ public class LogicCache {
         this.typeInferenceCache = new CommonCache<>(size, timeOutMinutes);
     }
 
+    /**
+     * Creates the cache for a new schema, carrying over the type inference results of the previous cache that do
+     * not depend on any of the modified types. Rules are not carried over, as they are revalidated on every schema
+     * commit.
+     */
+    public LogicCache(LogicCache previous, Set<Label> modifiedTypes) {
+        this();
+        previous.typeInferenceCache.forEach((traversal, inferred) -> {
+            Optional<Set<Label>> dependencies = traversal.structure().typeDependencies();
+            if (dependencies.isPresent() && Collections.disjoint(dependencies.get(), modifiedTypes) &&
+                    inferred.map(types -> iterate(types.values()).allMatch(labels -> Collections.disjoint(labels, modifiedTypes))).orElse(true)) {
+                typeInferenceCache.put(traversal, inferred);
+            }
+        });
+    }
+
     public CommonCache<GraphTraversal.Type, Optional<Map<Identifier.Variable.Retrievable, Set<Label>>>> inference() {
         return typeInferenceCache;
     }
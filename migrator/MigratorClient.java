@@ -41,10 +41,11 @@ public class MigratorClient {
         stub = MigratorGrpc.newStub(channel);
     }
 
-    public boolean importData(String database, Path file) {
+    public boolean importData(String database, Path file, boolean bulkLoad) {
         MigratorProto.Import.Req req = MigratorProto.Import.Req.newBuilder()
                 .setDatabase(database)
                 .setFilename(file.toAbsolutePath().toString())
+                .setBulkLoad(bulkLoad)
                 .build();
         ResponseObserver.Import streamObserver = new ResponseObserver.Import(new ProgressPrinter.Import());
         stub.importData(req, streamObserver);
@@ -52,10 +53,12 @@ public class MigratorClient {
         return streamObserver.success();
     }
 
-    public boolean exportData(String database, Path file) {
+    public boolean exportData(String database, Path file, int shardsPerType, boolean compress) {
         MigratorProto.Export.Req req = MigratorProto.Export.Req.newBuilder()
                 .setDatabase(database)
                 .setFilename(file.toAbsolutePath().toString())
+                .setShardsPerType(shardsPerType)
+                .setCompress(compress)
                 .build();
         ResponseObserver.Export streamObserver = new ResponseObserver.Export(new ProgressPrinter.Export());
         stub.exportData(req, streamObserver);
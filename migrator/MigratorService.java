@@ -43,7 +43,8 @@ public class MigratorService extends MigratorGrpc.MigratorImplBase {
     @Override
     public void exportData(MigratorProto.Export.Req request, StreamObserver<MigratorProto.Export.Progress> responseObserver) {
         try {
-            DataExporter exporter = new DataExporter(databaseMgr, request.getDatabase(), Paths.get(request.getFilename()), version);
+            DataExporter exporter = new DataExporter(databaseMgr, request.getDatabase(), Paths.get(request.getFilename()), version,
+                    request.getShardsPerType(), request.getCompress());
             CompletableFuture<Void> migratorJob = CompletableFuture.runAsync(exporter::run);
             while (!migratorJob.isDone()) {
                 Thread.sleep(1000);
@@ -61,7 +62,8 @@ public class MigratorService extends MigratorGrpc.MigratorImplBase {
     public void importData(MigratorProto.Import.Req request, StreamObserver<MigratorProto.Import.Progress> responseObserver) {
         DataImporter importer = null;
         try {
-            importer = new DataImporter(databaseMgr, request.getDatabase(), Paths.get(request.getFilename()), version);
+            importer = new DataImporter(databaseMgr, request.getDatabase(), Paths.get(request.getFilename()), version,
+                    request.getBulkLoad());
             CompletableFuture<Void> migratorJob = CompletableFuture.runAsync(importer::run);
             while (!migratorJob.isDone()) {
                 Thread.sleep(1000);
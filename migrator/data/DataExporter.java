@@ -37,10 +37,12 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Migrator.DATABASE_NOT_FOUND;
@@ -49,26 +51,49 @@ import static com.vaticle.typedb.core.common.exception.ErrorMessage.Migrator.FIL
 public class DataExporter {
     private static final Logger LOG = LoggerFactory.getLogger(DataExporter.class);
 
+    private static final String SHARD_SUFFIX = ".shard-";
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
     private final TypeDB.DatabaseManager databaseMgr;
     private final String database;
     private final Path filename;
     private final String version;
+    private final int shardsPerType;
+    private final boolean compress;
     private final Status status;
     private long totalEntityCount;
     private long totalAttributeCount;
     private long totalRelationCount;
 
     public DataExporter(TypeDB.DatabaseManager databaseMgr, String database, Path filename, String version) {
+        this(databaseMgr, database, filename, version, 0, false);
+    }
+
+    /**
+     * @param shardsPerType when positive, export every concrete type in up to this many IID ranges in parallel,
+     *                      each into its own shard file, and write {@code filename} as a manifest of the shards
+     * @param compress      whether to gzip the shard files
+     */
+    public DataExporter(TypeDB.DatabaseManager databaseMgr, String database, Path filename, String version,
+                        int shardsPerType, boolean compress) {
         if (!databaseMgr.contains(database)) throw TypeDBException.of(DATABASE_NOT_FOUND, database);
         this.databaseMgr = databaseMgr;
         this.database = database;
         this.filename = filename;
         this.version = version;
+        this.shardsPerType = shardsPerType;
+        this.compress = compress;
         this.status = new Status();
     }
 
     public void run() {
         LOG.info("Exporting {} from TypeDB {}", database, version);
+        if (shardsPerType > 0) exportSharded();
+        else exportSingleFile();
+        LOG.info("Exported " + status.toString());
+    }
+
+    private void exportSingleFile() {
         try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(filename))) {
             export(outputStream, header());
             try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.DATA);
@@ -85,7 +110,57 @@ public class DataExporter {
         } catch (IOException e) {
             throw TypeDBException.of(FILE_NOT_WRITABLE, filename.toString());
         }
-        LOG.info("Exported " + status.toString());
+    }
+
+    private void exportSharded() {
+        try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.DATA);
+             TypeDB.Transaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+            totalEntityCount = tx.concepts().getRootEntityType().getInstancesCount();
+            totalAttributeCount = tx.concepts().getRootAttributeType().getInstancesCount();
+            totalRelationCount = tx.concepts().getRootRelationType().getInstancesCount();
+
+            List<Shard> shards = new ArrayList<>();
+            tx.concepts().getRootThingType().getSubtypes().filter(type -> !type.isAbstract()).forEachRemaining(type -> {
+                for (FunctionalIterator<? extends Thing> range : type.getInstancesExplicit(shardsPerType)) {
+                    String shardName = filename.getFileName() + SHARD_SUFFIX + shards.size() + (compress ? COMPRESSED_SUFFIX : "");
+                    shards.add(new Shard(filename.resolveSibling(shardName), range));
+                }
+            });
+            shards.parallelStream().forEach(Shard::export);
+
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(filename))) {
+                export(outputStream, header());
+                export(outputStream, manifest(shards));
+                export(outputStream, checksums());
+            }
+        } catch (IOException e) {
+            throw TypeDBException.of(FILE_NOT_WRITABLE, filename.toString());
+        }
+    }
+
+    private class Shard {
+
+        private final Path file;
+        private final FunctionalIterator<? extends Thing> things;
+
+        private Shard(Path file, FunctionalIterator<? extends Thing> things) {
+            this.file = file;
+            this.things = things;
+        }
+
+        private void export() {
+            try (OutputStream outputStream = open()) {
+                while (things.hasNext()) item(things.next()).writeDelimitedTo(outputStream);
+            } catch (IOException e) {
+                throw TypeDBException.of(FILE_NOT_WRITABLE, file.toString());
+            }
+        }
+
+        private OutputStream open() throws IOException {
+            OutputStream outputStream = Files.newOutputStream(file);
+            if (compress) return new BufferedOutputStream(new GZIPOutputStream(outputStream));
+            else return new BufferedOutputStream(outputStream);
+        }
     }
 
     public MigratorProto.Export.Progress getProgress() {
@@ -120,6 +195,19 @@ public class DataExporter {
         ).build();
     }
 
+    private DataProto.Item manifest(List<Shard> shards) {
+        DataProto.Item.Manifest.Builder manifest = DataProto.Item.Manifest.newBuilder().setCompressed(compress);
+        shards.forEach(shard -> manifest.addShard(shard.file.getFileName().toString()));
+        return DataProto.Item.newBuilder().setManifest(manifest).build();
+    }
+
+    private DataProto.Item item(Thing thing) {
+        if (thing.isEntity()) return entity(thing.asEntity());
+        else if (thing.isRelation()) return relation(thing.asRelation());
+        else if (thing.isAttribute()) return attribute(thing.asAttribute());
+        else throw TypeDBException.of(ILLEGAL_STATE);
+    }
+
     private DataProto.Item entity(Entity entity) {
         status.entityCount.incrementAndGet();
         DataProto.Item.Entity.Builder entityBuilder = DataProto.Item.Entity.newBuilder()
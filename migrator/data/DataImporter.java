@@ -23,6 +23,7 @@ import com.vaticle.typedb.core.TypeDB;
 import com.vaticle.typedb.core.common.collection.ByteArray;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concept.thing.Attribute;
 import com.vaticle.typedb.core.concept.thing.Entity;
 import com.vaticle.typedb.core.concept.thing.Relation;
@@ -46,23 +47,29 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
+import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.core.common.collection.Bytes.unsignedByte;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Migrator.BULK_LOAD_DATABASE_NOT_EMPTY;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Migrator.FILE_NOT_FOUND;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Migrator.IMPORT_CHECKSUM_MISMATCH;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Migrator.INVALID_DATA;
@@ -73,6 +80,7 @@ import static com.vaticle.typedb.core.common.exception.ErrorMessage.Migrator.TYP
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typedb.core.encoding.Encoding.ValueType.STRING_ENCODING;
 import static com.vaticle.typedb.core.migrator.data.DataProto.Item.ItemCase.HEADER;
+import static com.vaticle.typedb.core.migrator.data.DataProto.Item.ItemCase.MANIFEST;
 import static java.util.Comparator.reverseOrder;
 
 public class DataImporter {
@@ -86,21 +94,43 @@ public class DataImporter {
     private final int parallelisation;
 
     private final Path dataFile;
+    private final List<Path> shardFiles;
+    private final boolean compressedShards;
     private final ConceptTracker conceptTracker;
     private final String version;
+    private final Options.Transaction transactionOptions;
+    private final ConcurrentLinkedQueue<Runnable> stagedMappings;
     private final Status status;
     private final AtomicBoolean skippedRelations;
     private Checksum checksum;
 
     public DataImporter(TypeDB.DatabaseManager typedb, String database, Path dataFile, String version) {
+        this(typedb, database, dataFile, version, false);
+    }
+
+    /**
+     * @param bulkLoad commit each batch by ingesting SST files rather than through a RocksDB transaction, which
+     *                 requires the database to be empty and not written to by anyone else during the import
+     */
+    public DataImporter(TypeDB.DatabaseManager typedb, String database, Path dataFile, String version, boolean bulkLoad) {
         if (!Files.exists(dataFile)) throw TypeDBException.of(FILE_NOT_FOUND, dataFile);
         this.session = typedb.session(database, Arguments.Session.Type.DATA);
         this.dataFile = dataFile;
+        Optional<DataProto.Item.Manifest> manifest = readManifest(dataFile);
+        if (manifest.isPresent()) {
+            this.shardFiles = iterate(manifest.get().getShardList()).map(dataFile::resolveSibling).toList();
+            this.compressedShards = manifest.get().getCompressed();
+        } else {
+            this.shardFiles = list();
+            this.compressedShards = false;
+        }
         this.version = version;
+        this.transactionOptions = new Options.Transaction().bulkLoad(bulkLoad);
+        this.stagedMappings = new ConcurrentLinkedQueue<>();
         assert com.vaticle.typedb.core.concurrent.executor.Executors.isInitialised();
         this.parallelisation = com.vaticle.typedb.core.concurrent.executor.Executors.PARALLELISATION_FACTOR;
         this.importExecutor = Executors.newFixedThreadPool(parallelisation * 2);
-        this.readerExecutor = Executors.newSingleThreadExecutor();
+        this.readerExecutor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelisation, shardFiles.size())));
         this.conceptTracker = new ConceptTracker(database);
         this.skippedRelations = new AtomicBoolean(false);
         this.status = new Status();
@@ -110,6 +140,7 @@ public class DataImporter {
         try {
             Instant start = Instant.now();
             validateHeader();
+            if (transactionOptions.bulkLoad()) validateEmpty();
             new ParallelImport(AttributesAndChecksum::new).executeImport();
             new ParallelImport(EntitiesAndOwnerships::new).executeImport();
             importRelations();
@@ -128,6 +159,34 @@ public class DataImporter {
         conceptTracker.close();
     }
 
+    /**
+     * A sharded export starts with a header and a manifest, and the items are read from the shards it lists as well
+     * as from the manifest file itself, which holds the checksums.
+     */
+    private static Optional<DataProto.Item.Manifest> readManifest(Path dataFile) {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(dataFile))) {
+            DataProto.Item header = ITEM_PARSER.parseDelimitedFrom(inputStream);
+            DataProto.Item item = header == null ? null : ITEM_PARSER.parseDelimitedFrom(inputStream);
+            if (item != null && item.getItemCase() == MANIFEST) return Optional.of(item.getManifest());
+            else return Optional.empty();
+        } catch (IOException e) {
+            throw TypeDBException.of(e);
+        }
+    }
+
+    private List<Path> dataFiles() {
+        List<Path> files = new ArrayList<>();
+        files.add(dataFile);
+        files.addAll(shardFiles);
+        return files;
+    }
+
+    private InputStream open(Path file) throws IOException {
+        InputStream inputStream = Files.newInputStream(file);
+        if (compressedShards && !file.equals(dataFile)) return new BufferedInputStream(new GZIPInputStream(inputStream));
+        else return new BufferedInputStream(inputStream);
+    }
+
     private void validateHeader() {
         try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(dataFile))) {
             DataProto.Item item = ITEM_PARSER.parseDelimitedFrom(inputStream);
@@ -140,6 +199,14 @@ public class DataImporter {
         }
     }
 
+    private void validateEmpty() {
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+            if (transaction.concepts().getRootThingType().getInstances().first().isPresent()) {
+                throw TypeDBException.of(BULK_LOAD_DATABASE_NOT_EMPTY, session.database().name());
+            }
+        }
+    }
+
     public MigratorProto.Import.Progress getProgress() {
         if (checksum != null) {
             return MigratorProto.Import.Progress.newBuilder()
@@ -182,20 +249,23 @@ public class DataImporter {
             } catch (CompletionException exception) {
                 throw TypeDBException.of(exception);
             }
+            mayIngestBulkLoad();
         }
 
         private BlockingQueue<DataProto.Item> asyncItemReader() {
             BlockingQueue<DataProto.Item> queue = new ArrayBlockingQueue<>(4000);
-            CompletableFuture.runAsync(() -> {
-                try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(dataFile))) {
-                    DataProto.Item item;
-                    while ((item = ITEM_PARSER.parseDelimitedFrom(inputStream)) != null) {
-                        queue.put(item);
+            for (Path file : dataFiles()) {
+                CompletableFuture.runAsync(() -> {
+                    try (InputStream inputStream = open(file)) {
+                        DataProto.Item item;
+                        while ((item = ITEM_PARSER.parseDelimitedFrom(inputStream)) != null) {
+                            queue.put(item);
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        throw TypeDBException.of(e);
                     }
-                } catch (IOException | InterruptedException e) {
-                    throw TypeDBException.of(e);
-                }
-            }, readerExecutor);
+                }, readerExecutor);
+            }
             return queue;
         }
     }
@@ -223,11 +293,11 @@ public class DataImporter {
             int count = 0;
             DataProto.Item item;
             try {
-                transaction = session.transaction(Arguments.Transaction.Type.WRITE);
+                transaction = session.transaction(Arguments.Transaction.Type.WRITE, transactionOptions);
                 while ((item = items.poll(1, TimeUnit.SECONDS)) != null) {
                     if (count >= BATCH_SIZE) {
                         commitBatch();
-                        transaction = session.transaction(Arguments.Transaction.Type.WRITE);
+                        transaction = session.transaction(Arguments.Transaction.Type.WRITE, transactionOptions);
                         count = 0;
                     }
                     count += importItem(item);
@@ -243,14 +313,22 @@ public class DataImporter {
         private void commitBatch() {
             assert originalToBufferedIDs.keySet().containsAll(incompleteIDs);
             transaction.commit();
-            transaction.committedIIDs().forEachRemaining(pair -> {
-                String originalID = bufferedToOriginalIDs.get(pair.first());
-                conceptTracker.recordMapped(originalID, pair.second());
-                if (incompleteIDs.contains(originalID)) conceptTracker.recordIncomplete(originalID);
-            });
+            Map<String, ByteArray> committed = new HashMap<>();
+            transaction.committedIIDs().forEachRemaining(pair -> committed.put(bufferedToOriginalIDs.get(pair.first()), pair.second()));
+            Set<String> incomplete = new HashSet<>(incompleteIDs);
+            Set<String> completed = new HashSet<>(completedIDs);
+            Runnable recordMappings = () -> {
+                committed.forEach((originalID, newIID) -> {
+                    conceptTracker.recordMapped(originalID, newIID);
+                    if (incomplete.contains(originalID)) conceptTracker.recordIncomplete(originalID);
+                });
+                completed.forEach(conceptTracker::deleteIncomplete);
+            };
+            // bulk-loaded concepts can only be read back once ingested, so until then they must not be found
+            if (transactionOptions.bulkLoad()) stagedMappings.add(recordMappings);
+            else recordMappings.run();
             bufferedToOriginalIDs.clear();
             originalToBufferedIDs.clear();
-            completedIDs.forEach(conceptTracker::deleteIncomplete);
         }
 
         void recordMapping(ByteArray newIID, String originalID) {
@@ -479,17 +557,33 @@ public class DataImporter {
 
     private void loadCyclicalRelations() {
         // Load all relations that have only relation role players in cycles in one transaction
-        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+        try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE, transactionOptions)) {
             createCyclicalRelationsAndOwnerships(transaction);
             addRolePlayers(transaction);
             transaction.commit();
         } catch (IOException e) {
             throw TypeDBException.of(e);
         }
+        mayIngestBulkLoad();
+    }
+
+    /**
+     * Ingests the data staged by the bulk-load transactions of an import phase as a whole, and only then records the
+     * concepts they created, so that later phases find them.
+     */
+    private void mayIngestBulkLoad() {
+        if (!transactionOptions.bulkLoad()) return;
+        session.database().ingestBulkLoad();
+        Runnable recordMappings;
+        while ((recordMappings = stagedMappings.poll()) != null) recordMappings.run();
     }
 
     private void createCyclicalRelationsAndOwnerships(TypeDB.Transaction transaction) throws IOException {
-        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(dataFile))) {
+        for (Path file : dataFiles()) createCyclicalRelationsAndOwnerships(transaction, file);
+    }
+
+    private void createCyclicalRelationsAndOwnerships(TypeDB.Transaction transaction, Path file) throws IOException {
+        try (InputStream inputStream = open(file)) {
             DataProto.Item item;
             while ((item = ITEM_PARSER.parseDelimitedFrom(inputStream)) != null) {
                 if (item.getItemCase() == DataProto.Item.ItemCase.RELATION) {
@@ -511,7 +605,11 @@ public class DataImporter {
     }
 
     private void addRolePlayers(TypeDB.Transaction transaction) throws IOException {
-        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(dataFile))) {
+        for (Path file : dataFiles()) addRolePlayers(transaction, file);
+    }
+
+    private void addRolePlayers(TypeDB.Transaction transaction, Path file) throws IOException {
+        try (InputStream inputStream = open(file)) {
             DataProto.Item item;
             while ((item = ITEM_PARSER.parseDelimitedFrom(inputStream)) != null) {
                 if (item.getItemCase() == DataProto.Item.ItemCase.RELATION && conceptTracker.isIncomplete(item.getRelation().getId())) {
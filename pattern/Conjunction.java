@@ -39,6 +39,7 @@ import com.vaticle.typeql.lang.pattern.Conjunctable;
 import com.vaticle.typeql.lang.pattern.variable.BoundVariable;
 
 import javax.annotation.Nullable;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -55,6 +56,7 @@ import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.common.collection.Collections.set;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Pattern.UNBOUNDED_NEGATION;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Pattern.UNSUPPORTED_PREPARED_VALUE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingRead.CONTRADICTORY_BOUND_VARIABLE;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typeql.lang.common.TypeQLToken.Char.CURLY_CLOSE;
@@ -62,6 +64,7 @@ import static com.vaticle.typeql.lang.common.TypeQLToken.Char.CURLY_OPEN;
 import static com.vaticle.typeql.lang.common.TypeQLToken.Char.NEW_LINE;
 import static com.vaticle.typeql.lang.common.TypeQLToken.Char.SEMICOLON;
 import static com.vaticle.typeql.lang.common.TypeQLToken.Char.SPACE;
+import static com.vaticle.typeql.lang.common.TypeQLToken.Predicate.Equality.EQ;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
@@ -144,6 +147,31 @@ public class Conjunction implements Pattern, Cloneable {
         isBounded = true;
     }
 
+    /**
+     * Binds thing variables to literal values, as equality value predicates, so that only the values of the
+     * predicates are traversal parameters and the traversal structure does not depend on them.
+     */
+    public void boundValues(Map<Retrievable, Object> values) {
+        variableSet.forEach(var -> {
+            if (!var.id().isRetrievable() || !values.containsKey(var.id().asRetrievable())) return;
+            if (!var.isThing()) throw TypeDBException.of(CONTRADICTORY_BOUND_VARIABLE, var);
+            Object value = values.get(var.id().asRetrievable());
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                var.asThing().valueLong(EQ, ((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                var.asThing().valueDouble(EQ, ((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                var.asThing().valueBoolean(EQ, (Boolean) value);
+            } else if (value instanceof String) {
+                var.asThing().valueString(EQ, (String) value);
+            } else if (value instanceof LocalDateTime) {
+                var.asThing().valueDateTime(EQ, (LocalDateTime) value);
+            } else {
+                throw TypeDBException.of(UNSUPPORTED_PREPARED_VALUE, var.id(), value == null ? null : value.getClass().getSimpleName());
+            }
+        });
+    }
+
     public Variable variable(Identifier.Variable identifier) {
         return variableMap.get(identifier);
     }
@@ -203,8 +231,10 @@ public class Conjunction implements Pattern, Cloneable {
 
     @Override
     public Conjunction clone() {
-        return new Conjunction(VariableCloner.cloneFromConjunction(this).variables(),
+        Conjunction clone = new Conjunction(VariableCloner.cloneFromConjunction(this).variables(),
                 iterate(this.negations).map(Negation::clone).toList());
+        clone.setCoherent(isCoherent);
+        return clone;
     }
 
     @Override
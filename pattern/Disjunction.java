@@ -40,10 +40,12 @@ public class Disjunction implements Pattern, Cloneable {
     private static final String TRACE_PREFIX = "disjunction.";
     private final List<Conjunction> conjunctions;
     private final int hash;
+    private boolean isTypeInferred;
 
     public Disjunction(List<Conjunction> conjunctions) {
         this.conjunctions = conjunctions;
         this.hash = Objects.hash(conjunctions);
+        this.isTypeInferred = false;
     }
 
     public static Disjunction create(
@@ -69,6 +71,18 @@ public class Disjunction implements Pattern, Cloneable {
         return iterate(conjunctions).allMatch(Conjunction::isCoherent);
     }
 
+    /**
+     * Marks the types of every variable as already inferred and validated against the current schema, so the
+     * reasoner may skip type inference. This is not carried over by {@link #clone()}, since clones may be bounded.
+     */
+    public void setTypeInferred() {
+        this.isTypeInferred = true;
+    }
+
+    public boolean isTypeInferred() {
+        return isTypeInferred;
+    }
+
     @Override
     public Disjunction clone() {
         return new Disjunction(iterate(conjunctions).map(Conjunction::clone).toList());
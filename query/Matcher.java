@@ -19,16 +19,25 @@
 package com.vaticle.typedb.core.query;
 
 import com.vaticle.typedb.common.collection.Either;
+import com.vaticle.typedb.common.collection.Pair;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Context;
+import com.vaticle.typedb.core.concept.Concept;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concept.answer.ConceptMapGroup;
 import com.vaticle.typedb.core.concept.answer.Numeric;
 import com.vaticle.typedb.core.concept.answer.NumericGroup;
 import com.vaticle.typedb.core.concept.thing.Attribute;
+import com.vaticle.typedb.core.graph.vertex.AttributeVertex;
+import com.vaticle.typedb.core.graph.vertex.ThingVertex;
+import com.vaticle.typedb.core.graph.vertex.TypeVertex;
 import com.vaticle.typedb.core.pattern.Disjunction;
 import com.vaticle.typedb.core.reasoner.Reasoner;
+import com.vaticle.typedb.core.traversal.common.Identifier;
+import com.vaticle.typedb.core.traversal.common.Modifiers;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typeql.lang.common.TypeQLToken;
 import com.vaticle.typeql.lang.pattern.variable.UnboundVariable;
 import com.vaticle.typeql.lang.query.TypeQLMatch;
@@ -37,7 +46,13 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -47,15 +62,25 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
 
+import static com.vaticle.typedb.common.collection.Collections.list;
+import static com.vaticle.typedb.common.collection.Collections.map;
+import static com.vaticle.typedb.common.collection.Collections.pair;
 import static com.vaticle.typedb.common.collection.Collections.set;
-import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.ThingRead.AGGREGATE_ATTRIBUTE_NOT_NUMBER;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+import static com.vaticle.typedb.core.common.iterator.Iterators.single;
 import static com.vaticle.typedb.core.common.parameters.Arguments.Query.Producer.EXHAUSTIVE;
+import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
+import static com.vaticle.typedb.core.common.parameters.Order.Desc.DESC;
+import static com.vaticle.typedb.core.concurrent.executor.Executors.PARALLELISATION_FACTOR;
+import static com.vaticle.typedb.core.concurrent.executor.Executors.async2;
+import static com.vaticle.typedb.core.concurrent.producer.Producers.async;
+import static com.vaticle.typedb.core.concurrent.producer.Producers.produce;
+import static com.vaticle.typedb.core.encoding.Encoding.ValueType.LONG;
 import static com.vaticle.typedb.core.query.Matcher.Aggregator.aggregator;
 import static java.lang.Math.sqrt;
-import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
 
 public class Matcher {
 
@@ -69,9 +94,13 @@ public class Matcher {
     }
 
     public Matcher(Reasoner reasoner, TypeQLMatch query, @Nullable Context.Query context) {
+        this(reasoner, query, Disjunction.create(query.conjunction().normalise()), context);
+    }
+
+    private Matcher(Reasoner reasoner, TypeQLMatch query, Disjunction disjunction, @Nullable Context.Query context) {
         this.reasoner = reasoner;
         this.query = query;
-        this.disjunction = Disjunction.create(query.conjunction().normalise());
+        this.disjunction = disjunction;
         this.context = context;
     }
 
@@ -83,18 +112,37 @@ public class Matcher {
         return new Matcher(reasoner, query, context);
     }
 
+    public static Matcher create(Reasoner reasoner, TypeQLMatch query, Disjunction disjunction, Context.Query context) {
+        return new Matcher(reasoner, query, disjunction, context);
+    }
+
     public static Matcher.Aggregator create(Reasoner reasoner, TypeQLMatch.Aggregate query, Context.Query context) {
-        Matcher matcher = new Matcher(reasoner, query.match());
+        return create(reasoner, query, Disjunction.create(query.match().conjunction().normalise()), context);
+    }
+
+    public static Matcher.Aggregator create(Reasoner reasoner, TypeQLMatch.Aggregate query, Disjunction disjunction,
+                                            Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, query.match(), disjunction, null);
         return new Aggregator(matcher, query, context);
     }
 
     public static Matcher.Group create(Reasoner reasoner, TypeQLMatch.Group query, Context.Query context) {
-        Matcher matcher = new Matcher(reasoner, query.match());
+        return create(reasoner, query, Disjunction.create(query.match().conjunction().normalise()), context);
+    }
+
+    public static Matcher.Group create(Reasoner reasoner, TypeQLMatch.Group query, Disjunction disjunction,
+                                       Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, query.match(), disjunction, null);
         return new Group(matcher, query, context);
     }
 
     public static Matcher.Group.Aggregator create(Reasoner reasoner, TypeQLMatch.Group.Aggregate query, Context.Query context) {
-        Matcher matcher = new Matcher(reasoner, query.group().match());
+        return create(reasoner, query, Disjunction.create(query.group().match().conjunction().normalise()), context);
+    }
+
+    public static Matcher.Group.Aggregator create(Reasoner reasoner, TypeQLMatch.Group.Aggregate query,
+                                                  Disjunction disjunction, Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, query.group().match(), disjunction, null);
         Group group = new Group(matcher, query.group(), context);
         return new Group.Aggregator(group, query);
     }
@@ -108,6 +156,20 @@ public class Matcher {
         return reasoner.execute(disjunction, query.modifiers(), context);
     }
 
+    public Optional<FunctionalIterator<VertexBatch>> executeBatched() {
+        assert context != null;
+        return reasoner.executeBatched(disjunction, query.modifiers(), context);
+    }
+
+    Optional<Long> countFromStatistics(Context.Query context) {
+        return reasoner.countFromStatistics(disjunction, query.modifiers(), context);
+    }
+
+    Optional<Set<TypeVertex>> numericAttributeScan(UnboundVariable var, Context.Query context) {
+        Identifier.Variable.Retrievable attribute = Identifier.Variable.of(var.reference().asName());
+        return reasoner.numericAttributeScan(disjunction, query.modifiers(), attribute, context);
+    }
+
     public static class Aggregator {
 
         private final Matcher matcher;
@@ -122,12 +184,63 @@ public class Matcher {
         }
 
         public Numeric execute() {
-            FunctionalIterator<? extends ConceptMap> answers = matcher.execute(context);
             TypeQLToken.Aggregate.Method method = query.method();
             UnboundVariable var = query.var();
+            Optional<Numeric> pushedDown = aggregateNatively(method, var);
+            if (pushedDown.isPresent()) return pushedDown.get();
+            FunctionalIterator<? extends ConceptMap> answers = matcher.execute(context);
             return aggregate(answers, method, var);
         }
 
+        private Optional<Numeric> aggregateNatively(TypeQLToken.Aggregate.Method method, UnboundVariable var) {
+            switch (method) {
+                case COUNT:
+                    return matcher.countFromStatistics(context).map(Numeric::ofLong);
+                case MAX:
+                case MIN:
+                case MEAN:
+                case SUM:
+                    return matcher.numericAttributeScan(var, context).map(types -> aggregateScan(types, method));
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        private Numeric aggregateScan(Set<TypeVertex> types, TypeQLToken.Aggregate.Method method) {
+            if (method == TypeQLToken.Aggregate.Method.MAX) {
+                return iterate(types).map(type -> matcher.reasoner.instances(type, DESC).first())
+                        .filter(Optional::isPresent).map(vertex -> numeric(vertex.get().asAttribute()))
+                        .stream().max(NumericComparator.natural()).orElse(Numeric.ofNaN());
+            } else if (method == TypeQLToken.Aggregate.Method.MIN) {
+                return iterate(types).map(type -> matcher.reasoner.instances(type, ASC).first())
+                        .filter(Optional::isPresent).map(vertex -> numeric(vertex.get().asAttribute()))
+                        .stream().min(NumericComparator.natural()).orElse(Numeric.ofNaN());
+            }
+            long count = 0;
+            long longSum = 0;
+            double doubleSum = 0;
+            boolean isDouble = false;
+            for (TypeVertex type : types) {
+                FunctionalIterator<ThingVertex> instances = matcher.reasoner.instances(type, ASC);
+                if (type.valueType() == LONG) {
+                    while (instances.hasNext()) {
+                        longSum += instances.next().asAttribute().asLong().value();
+                        count++;
+                    }
+                } else {
+                    while (instances.hasNext()) {
+                        doubleSum += instances.next().asAttribute().asDouble().value();
+                        isDouble = true;
+                        count++;
+                    }
+                }
+            }
+            if (count == 0) return Numeric.ofNaN();
+            else if (method == TypeQLToken.Aggregate.Method.MEAN) return Numeric.ofDouble((longSum + doubleSum) / count);
+            else if (isDouble) return Numeric.ofDouble(longSum + doubleSum);
+            else return Numeric.ofLong(longSum);
+        }
+
         static Numeric aggregate(FunctionalIterator<? extends ConceptMap> answers,
                                  TypeQLToken.Aggregate.Method method, UnboundVariable var) {
             return answers.stream().collect(aggregator(method, var));
@@ -287,9 +400,7 @@ public class Matcher {
 
                 @Override
                 public BinaryOperator<MedianCalculator> combiner() {
-                    return (t, u) -> {
-                        throw TypeDBException.of(ILLEGAL_OPERATION);
-                    };
+                    return MedianCalculator::merge;
                 }
 
                 @Override
@@ -355,9 +466,7 @@ public class Matcher {
 
                 @Override
                 public BinaryOperator<STDCalculator> combiner() {
-                    return (t, u) -> {
-                        throw TypeDBException.of(ILLEGAL_OPERATION);
-                    };
+                    return STDCalculator::merge;
                 }
 
                 @Override
@@ -415,6 +524,11 @@ public class Matcher {
             else throw TypeDBException.of(AGGREGATE_ATTRIBUTE_NOT_NUMBER, var);
         }
 
+        private static Numeric numeric(AttributeVertex<?> attribute) {
+            if (attribute.isLong()) return Numeric.ofLong(attribute.asLong().value());
+            else return Numeric.ofDouble(attribute.asDouble().value());
+        }
+
         private static Numeric sum(Numeric x, Numeric y) {
             // This method is necessary because Number doesn't support '+' because java!
             if (x.isLong() && y.isLong()) return Numeric.ofLong(x.asLong() + y.asLong());
@@ -442,6 +556,12 @@ public class Matcher {
                 }
             }
 
+            MedianCalculator merge(MedianCalculator other) {
+                other.maxHeap.forEach(this::accumulate);
+                other.minHeap.forEach(this::accumulate);
+                return this;
+            }
+
             Numeric median() {
                 if (maxHeap.isEmpty() && minHeap.isEmpty()) {
                     return Numeric.ofNaN();
@@ -472,6 +592,20 @@ public class Matcher {
                 M2 += delta * delta2;
             }
 
+            /**
+             * Combine two partial results using the parallel algorithm by Chan et al.
+             * https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Parallel_algorithm
+             */
+            STDCalculator merge(STDCalculator other) {
+                if (other.n == 0) return this;
+                long combinedN = n + other.n;
+                double delta = other.mean - mean;
+                M2 += other.M2 + delta * delta * ((double) n * other.n / combinedN);
+                mean += delta * other.n / combinedN;
+                n = combinedN;
+                return this;
+            }
+
             Numeric std() {
                 if (n < 2) return Numeric.ofNaN();
                 else return Numeric.ofDouble(sqrt(M2 / (double) (n - 1)));
@@ -531,6 +665,8 @@ public class Matcher {
 
     public static class Group {
 
+        private static final int PARALLELISATION_BATCH_SIZE = 256;
+
         private final Matcher matcher;
         private final TypeQLMatch.Group query;
         private final Context.Query context;
@@ -543,11 +679,69 @@ public class Matcher {
         }
 
         public FunctionalIterator<ConceptMapGroup> execute() {
-            // TODO: Replace this temporary implementation of TypeQL Match Group query with a native grouping traversal
-            List<ConceptMapGroup> answerGroups = new ArrayList<>();
-            matcher.execute(context).stream().collect(groupingBy(a -> a.get(query.var())))
-                    .forEach((o, cm) -> answerGroups.add(new ConceptMapGroup(o, cm)));
-            return iterate(answerGroups);
+            FunctionalIterator<? extends ConceptMap> answers = matcher.execute(context);
+            if (isSortedByOwner()) {
+                return new SortedGroupIterator<>(answers, query.var(), groupComparator(), toList())
+                        .map(group -> new ConceptMapGroup(group.first(), group.second()));
+            }
+            Map<Concept, List<ConceptMap>> groups;
+            if (context.options().parallel()) groups = groupParallel(answers, query.var(), toList());
+            else groups = group(answers, query.var(), toList());
+            return iterate(groups.entrySet()).map(group -> new ConceptMapGroup(group.getKey(), group.getValue()));
+        }
+
+        /**
+         * When the answers are sorted by the group variable, the traversal starts from the group variable, so each
+         * group is complete as soon as an answer with a different value of it arrives, and can be emitted straight away.
+         */
+        private boolean isSortedByOwner() {
+            return query.match().modifiers().sort().map(sorting -> sorting.variables().get(0).equals(query.var())).orElse(false);
+        }
+
+        private ConceptMap.Comparator groupComparator() {
+            Identifier.Variable.Retrievable var = Identifier.Variable.of(query.var().reference().asName());
+            return ConceptMap.Comparator.create(Modifiers.Sorting.create(list(var), map(pair(var, ASC))));
+        }
+
+        private static <A, R> Map<Concept, R> group(FunctionalIterator<? extends ConceptMap> answers,
+                                                    UnboundVariable var, Collector<ConceptMap, A, R> collector) {
+            Map<Concept, A> accumulators = new LinkedHashMap<>();
+            answers.forEachRemaining(answer -> accumulate(accumulators, answer, var, collector));
+            return finish(accumulators, collector);
+        }
+
+        /**
+         * Answers are handed out in batches to parallel workers, which each keep one running accumulator per group.
+         * The partial accumulators are then merged using the collector's combiner.
+         */
+        private static <A, R> Map<Concept, R> groupParallel(FunctionalIterator<? extends ConceptMap> answers,
+                                                            UnboundVariable var, Collector<ConceptMap, A, R> collector) {
+            FunctionalIterator<FunctionalIterator<Map<Concept, A>>> partialJobs = new BatchIterator<ConceptMap>(answers, PARALLELISATION_BATCH_SIZE)
+                    .map(batch -> single(batch).map(b -> {
+                        Map<Concept, A> partial = new HashMap<>();
+                        b.forEach(answer -> accumulate(partial, answer, var, collector));
+                        return partial;
+                    }));
+            FunctionalIterator<Map<Concept, A>> partials = produce(
+                    async(partialJobs, PARALLELISATION_FACTOR), Either.first(EXHAUSTIVE), async2()
+            );
+            Map<Concept, A> accumulators = new LinkedHashMap<>();
+            partials.forEachRemaining(partial -> partial.forEach((owner, accumulator) -> accumulators.merge(
+                    owner, accumulator, (acc1, acc2) -> collector.combiner().apply(acc1, acc2)
+            )));
+            return finish(accumulators, collector);
+        }
+
+        private static <A> void accumulate(Map<Concept, A> accumulators, ConceptMap answer,
+                                           UnboundVariable var, Collector<ConceptMap, A, ?> collector) {
+            A accumulator = accumulators.computeIfAbsent(answer.get(var), owner -> collector.supplier().get());
+            collector.accumulator().accept(accumulator, answer);
+        }
+
+        private static <A, R> Map<Concept, R> finish(Map<Concept, A> accumulators, Collector<ConceptMap, A, R> collector) {
+            Map<Concept, R> groups = new LinkedHashMap<>();
+            accumulators.forEach((owner, accumulator) -> groups.put(owner, collector.finisher().apply(accumulator)));
+            return groups;
         }
 
         public static class Aggregator {
@@ -561,12 +755,107 @@ public class Matcher {
             }
 
             public FunctionalIterator<NumericGroup> execute() {
-                // TODO: Replace this temporary implementation of TypeQL Match Group query with a native grouping traversal
-                List<NumericGroup> numericGroups = new ArrayList<>();
-                group.matcher.execute(group.context).stream()
-                        .collect(groupingBy(a -> a.get(query.group().var()), aggregator(query.method(), query.var())))
-                        .forEach((o, n) -> numericGroups.add(new NumericGroup(o, n)));
-                return iterate(numericGroups);
+                FunctionalIterator<? extends ConceptMap> answers = group.matcher.execute(group.context);
+                UnboundVariable var = query.group().var();
+                if (group.isSortedByOwner()) {
+                    return new SortedGroupIterator<>(answers, var, group.groupComparator(), aggregator(query.method(), query.var()))
+                            .map(numeric -> new NumericGroup(numeric.first(), numeric.second()));
+                }
+                Map<Concept, Numeric> numerics;
+                if (group.context.options().parallel()) {
+                    numerics = groupParallel(answers, var, aggregator(query.method(), query.var()));
+                } else {
+                    numerics = group(answers, var, aggregator(query.method(), query.var()));
+                }
+                return iterate(numerics.entrySet()).map(numeric -> new NumericGroup(numeric.getKey(), numeric.getValue()));
+            }
+        }
+
+        /**
+         * Answers with equal values of the group variable may still belong to different groups, such as attributes
+         * of different types with the same value, and come in no particular order among each other. So all answers
+         * of a run of equal values are grouped together, and the groups of a run are emitted once it ends.
+         */
+        private static class SortedGroupIterator<A, R> extends AbstractFunctionalIterator<Pair<Concept, R>> {
+
+            private final FunctionalIterator<? extends ConceptMap> answers;
+            private final UnboundVariable var;
+            private final ConceptMap.Comparator comparator;
+            private final Collector<ConceptMap, A, R> collector;
+            private final Map<Concept, A> run;
+            private Iterator<Map.Entry<Concept, A>> finished;
+            private ConceptMap pending;
+
+            private SortedGroupIterator(FunctionalIterator<? extends ConceptMap> answers, UnboundVariable var,
+                                        ConceptMap.Comparator comparator, Collector<ConceptMap, A, R> collector) {
+                this.answers = answers;
+                this.var = var;
+                this.comparator = comparator;
+                this.collector = collector;
+                this.run = new LinkedHashMap<>();
+                this.finished = Collections.emptyIterator();
+                this.pending = null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return finished.hasNext() || pending != null || answers.hasNext();
+            }
+
+            @Override
+            public Pair<Concept, R> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                if (!finished.hasNext()) {
+                    run.clear();
+                    ConceptMap first = pending != null ? pending : answers.next();
+                    pending = null;
+                    accumulate(run, first, var, collector);
+                    while (answers.hasNext()) {
+                        ConceptMap answer = answers.next();
+                        if (comparator.compare(first, answer) == 0) accumulate(run, answer, var, collector);
+                        else {
+                            pending = answer;
+                            break;
+                        }
+                    }
+                    finished = run.entrySet().iterator();
+                }
+                Map.Entry<Concept, A> group = finished.next();
+                return new Pair<>(group.getKey(), collector.finisher().apply(group.getValue()));
+            }
+
+            @Override
+            public void recycle() {
+                answers.recycle();
+            }
+        }
+
+        private static class BatchIterator<T> extends AbstractFunctionalIterator<List<T>> {
+
+            private final FunctionalIterator<? extends T> iterator;
+            private final int batchSize;
+
+            private BatchIterator(FunctionalIterator<? extends T> iterator, int batchSize) {
+                this.iterator = iterator;
+                this.batchSize = batchSize;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                List<T> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && iterator.hasNext()) batch.add(iterator.next());
+                return batch;
+            }
+
+            @Override
+            public void recycle() {
+                iterator.recycle();
             }
         }
     }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.query;
+
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.common.parameters.Context;
+import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.pattern.Conjunction;
+import com.vaticle.typedb.core.pattern.Disjunction;
+import com.vaticle.typedb.core.reasoner.Reasoner;
+import com.vaticle.typedb.core.traversal.common.Identifier;
+import com.vaticle.typeql.lang.query.TypeQLMatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Pattern.UNKNOWN_PREPARED_PARAMETER;
+import static com.vaticle.typedb.core.common.iterator.Iterators.empty;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+
+/**
+ * A match query that has been parsed and type-inferred once, to be executed many times with some of its named
+ * variables bound to concepts or to literal values. Bound things become IID parameters of the traversal, and bound
+ * values become the values of equality predicates, rather than part of its structure, so every execution shares the
+ * same cached plan.
+ */
+public class PreparedMatch {
+
+    private final Reasoner reasoner;
+    private final TypeQLMatch query;
+    private final Disjunction disjunction;
+
+    PreparedMatch(Reasoner reasoner, TypeQLMatch query, Disjunction disjunction) {
+        assert disjunction.isTypeInferred();
+        this.reasoner = reasoner;
+        this.query = query;
+        this.disjunction = disjunction;
+    }
+
+    public TypeQLMatch query() {
+        return query;
+    }
+
+    FunctionalIterator<? extends ConceptMap> execute(ConceptMap parameters, Map<Identifier.Variable.Name, Object> values,
+                                                     Context.Query context) {
+        return matcher(parameters, values, context).map(Matcher::execute).orElse(empty());
+    }
+
+    /**
+     * @return the matcher of the query with the given parameters bound, or nothing if no answer can satisfy them
+     */
+    Optional<Matcher> matcher(ConceptMap parameters, Map<Identifier.Variable.Name, Object> values, Context.Query context) {
+        validate(parameters.concepts().keySet());
+        validate(values.keySet());
+        Map<Identifier.Variable.Retrievable, Object> boundValues = new HashMap<>(values);
+        List<Conjunction> bounded = new ArrayList<>();
+        for (Conjunction conjunction : disjunction.conjunctions()) {
+            Conjunction bound = reasoner.bound(conjunction, parameters);
+            bound.boundValues(boundValues);
+            if (bound.isCoherent()) bounded.add(bound);
+        }
+        if (bounded.isEmpty()) return Optional.empty();
+        Disjunction boundDisjunction = new Disjunction(bounded);
+        boundDisjunction.setTypeInferred();
+        return Optional.of(Matcher.create(reasoner, query, boundDisjunction, context));
+    }
+
+    private void validate(Set<? extends Identifier.Variable.Retrievable> ids) {
+        for (Identifier.Variable.Retrievable id : ids) {
+            if (!id.isName() || iterate(disjunction.conjunctions()).noneMatch(conj -> conj.retrieves().contains(id))) {
+                throw TypeDBException.of(UNKNOWN_PREPARED_PARAMETER, id);
+            }
+        }
+    }
+}
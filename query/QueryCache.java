@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.query;
+
+import com.vaticle.typedb.core.common.cache.CommonCache;
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.pattern.Disjunction;
+import com.vaticle.typedb.core.pattern.Negation;
+import com.vaticle.typeql.lang.TypeQL;
+import com.vaticle.typeql.lang.pattern.Conjunction;
+import com.vaticle.typeql.lang.pattern.Pattern;
+import com.vaticle.typeql.lang.query.TypeQLMatch;
+import com.vaticle.typeql.lang.query.TypeQLQuery;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Caches, per database, the parsed form of query strings and the normalised, type-inferred pattern of match
+ * clauses. Inferred types depend on the schema, so this cache must be discarded whenever the schema changes.
+ */
+public class QueryCache {
+
+    private static final String LOOKUPS = "typedb_query_cache_lookups_total";
+    private static final String LOOKUPS_HELP = "Compiled query cache lookups by stage and outcome.";
+    private static final Metrics.Counter PARSE_HITS = counter("parse", "hit");
+    private static final Metrics.Counter PARSE_MISSES = counter("parse", "miss");
+    private static final Metrics.Counter PATTERN_HITS = counter("pattern", "hit");
+    private static final Metrics.Counter PATTERN_MISSES = counter("pattern", "miss");
+
+    private final CommonCache<String, TypeQLQuery> parsed;
+    private final CommonCache<Conjunction<? extends Pattern>, Disjunction> patterns;
+
+    public QueryCache() {
+        parsed = new CommonCache<>();
+        patterns = new CommonCache<>();
+    }
+
+    /**
+     * Creates the cache for a new schema, carrying over all parsed queries, and the patterns of the previous cache
+     * that do not depend on any of the modified types.
+     */
+    public QueryCache(QueryCache previous, Set<Label> modifiedTypes) {
+        this();
+        previous.parsed.forEach(parsed::put);
+        previous.patterns.forEach((conjunction, disjunction) -> {
+            Optional<Set<Label>> dependencies = typeDependencies(disjunction);
+            if (dependencies.isPresent() && Collections.disjoint(dependencies.get(), modifiedTypes)) {
+                patterns.put(conjunction, disjunction);
+            }
+        });
+    }
+
+    /**
+     * Returns every type the pattern's traversals are constrained by, including through its negations, if each of
+     * those traversals is anchored to its types. Otherwise, its inferred types depend on the whole schema.
+     */
+    private static Optional<Set<Label>> typeDependencies(Disjunction disjunction) {
+        Set<Label> labels = new HashSet<>();
+        for (com.vaticle.typedb.core.pattern.Conjunction conjunction : disjunction.conjunctions()) {
+            Optional<Set<Label>> dependencies = conjunction.traversal().structure().typeDependencies();
+            if (dependencies.isEmpty()) return Optional.empty();
+            labels.addAll(dependencies.get());
+            for (Negation negation : conjunction.negations()) {
+                Optional<Set<Label>> negated = typeDependencies(negation.disjunction());
+                if (negated.isEmpty()) return Optional.empty();
+                labels.addAll(negated.get());
+            }
+        }
+        return Optional.of(labels);
+    }
+
+    private static Metrics.Counter counter(String stage, String result) {
+        return Metrics.counter(LOOKUPS, Metrics.label("stage", stage) + "," + Metrics.label("result", result), LOOKUPS_HELP);
+    }
+
+    public TypeQLQuery parse(String query) {
+        TypeQLQuery cached = parsed.getIfPresent(query);
+        if (cached != null) {
+            PARSE_HITS.increment();
+            return cached;
+        }
+        PARSE_MISSES.increment();
+        TypeQLQuery parsedQuery = TypeQL.parseQuery(query);
+        parsed.put(query, parsedQuery);
+        return parsedQuery;
+    }
+
+    /**
+     * Returns a private copy of the match clause's disjunction, with its types already inferred. The cached
+     * original is only ever cloned, so it may be shared by concurrent transactions.
+     */
+    public Disjunction disjunction(TypeQLMatch query, Consumer<Disjunction> inferTypes) {
+        Disjunction cached = patterns.getIfPresent(query.conjunction());
+        if (cached != null) {
+            PATTERN_HITS.increment();
+        } else {
+            PATTERN_MISSES.increment();
+            cached = Disjunction.create(query.conjunction().normalise());
+            inferTypes.accept(cached);
+            patterns.put(query.conjunction(), cached);
+        }
+        Disjunction disjunction = cached.clone();
+        disjunction.setTypeInferred();
+        return disjunction;
+    }
+}
@@ -19,6 +19,7 @@
 package com.vaticle.typedb.core.query;
 
 import com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.ThreadTrace;
+import com.vaticle.typedb.common.collection.Either;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Context;
 import com.vaticle.typedb.core.common.parameters.Options;
@@ -28,22 +29,33 @@ import com.vaticle.typedb.core.concept.answer.ConceptMapGroup;
 import com.vaticle.typedb.core.concept.answer.Numeric;
 import com.vaticle.typedb.core.concept.answer.NumericGroup;
 import com.vaticle.typedb.core.logic.LogicManager;
+import com.vaticle.typedb.core.pattern.Disjunction;
 import com.vaticle.typedb.core.reasoner.Reasoner;
 import com.vaticle.typedb.core.reasoner.answer.Explanation;
+import com.vaticle.typedb.core.traversal.common.Identifier;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
+import com.vaticle.typeql.lang.TypeQL;
 import com.vaticle.typeql.lang.query.TypeQLDefine;
 import com.vaticle.typeql.lang.query.TypeQLDelete;
 import com.vaticle.typeql.lang.query.TypeQLInsert;
 import com.vaticle.typeql.lang.query.TypeQLMatch;
+import com.vaticle.typeql.lang.query.TypeQLQuery;
 import com.vaticle.typeql.lang.query.TypeQLUndefine;
 import com.vaticle.typeql.lang.query.TypeQLUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Optional;
+
 import static com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.traceOnThread;
+import static com.vaticle.typedb.common.collection.Collections.map;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.SESSION_DATA_VIOLATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.SESSION_SCHEMA_VIOLATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.TRANSACTION_DATA_READ_VIOLATION;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Transaction.TRANSACTION_SCHEMA_READ_VIOLATION;
+import static com.vaticle.typedb.core.common.iterator.Iterators.empty;
 
 public class QueryManager {
 
@@ -55,12 +67,29 @@ public class QueryManager {
     private final Reasoner reasoner;
     private final ConceptManager conceptMgr;
     private final Context.Query defaultContext;
+    private final QueryCache queryCache;
 
     public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner, Context.Transaction context) {
+        this(conceptMgr, logicMgr, reasoner, context, null);
+    }
+
+    public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner, Context.Transaction context,
+                        @Nullable QueryCache queryCache) {
         this.conceptMgr = conceptMgr;
         this.logicMgr = logicMgr;
         this.reasoner = reasoner;
         this.defaultContext = new Context.Query(context, new Options.Query());
+        this.queryCache = queryCache;
+    }
+
+    public TypeQLQuery parse(String query) {
+        if (queryCache == null) return TypeQL.parseQuery(query);
+        else return queryCache.parse(query);
+    }
+
+    private Disjunction disjunction(TypeQLMatch query) {
+        if (queryCache == null) return Disjunction.create(query.conjunction().normalise());
+        else return queryCache.disjunction(query, reasoner::inferAndValidateTypes);
     }
 
     public FunctionalIterator<? extends ConceptMap> match(TypeQLMatch query) {
@@ -69,7 +98,91 @@ public class QueryManager {
 
     public FunctionalIterator<? extends ConceptMap> match(TypeQLMatch query, Context.Query context) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match")) {
-            return Matcher.create(reasoner, query, context).execute().onError(conceptMgr::exception);
+            return Matcher.create(reasoner, query, disjunction(query), context).execute().onError(conceptMgr::exception);
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
+    public Optional<FunctionalIterator<VertexBatch>> matchBatched(TypeQLMatch query) {
+        return matchBatched(query, defaultContext);
+    }
+
+    /**
+     * Answers the query as batches of vertices, when it needs no reasoning, negation, sorting or paging.
+     */
+    public Optional<FunctionalIterator<VertexBatch>> matchBatched(TypeQLMatch query, Context.Query context) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_batched")) {
+            return Matcher.create(reasoner, query, disjunction(query), context).executeBatched()
+                    .map(batches -> batches.onError(conceptMgr::exception));
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
+    /**
+     * Answers the query as batches of vertices where {@link #matchBatched(TypeQLMatch, Context.Query)} would, and as
+     * concept maps otherwise, building the query's pattern and inferring its types only once for either.
+     */
+    public Either<FunctionalIterator<VertexBatch>, FunctionalIterator<? extends ConceptMap>> matchBatchedOrAnswers(
+            TypeQLMatch query, Context.Query context
+    ) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_batched_or_answers")) {
+            return batchedOrAnswers(Matcher.create(reasoner, query, disjunction(query), context));
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
+    /**
+     * Answers the prepared query, with the given parameters bound, as {@link #matchBatchedOrAnswers(TypeQLMatch,
+     * Context.Query)} answers an unprepared one.
+     */
+    public Either<FunctionalIterator<VertexBatch>, FunctionalIterator<? extends ConceptMap>> matchBatchedOrAnswers(
+            PreparedMatch prepared, ConceptMap parameters, Context.Query context
+    ) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_prepared_batched_or_answers")) {
+            Optional<Matcher> matcher = prepared.matcher(parameters, map(), context);
+            if (matcher.isPresent()) return batchedOrAnswers(matcher.get());
+            else return Either.second(empty());
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
+    private Either<FunctionalIterator<VertexBatch>, FunctionalIterator<? extends ConceptMap>> batchedOrAnswers(Matcher matcher) {
+        Optional<FunctionalIterator<VertexBatch>> batches = matcher.executeBatched();
+        if (batches.isPresent()) return Either.first(batches.get().onError(conceptMgr::exception));
+        else return Either.second(matcher.execute().onError(conceptMgr::exception));
+    }
+
+    public PreparedMatch prepare(TypeQLMatch query) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "prepare")) {
+            Disjunction disjunction = disjunction(query);
+            reasoner.inferAndValidateTypes(disjunction);
+            return new PreparedMatch(reasoner, query, disjunction);
+        } catch (Exception exception) {
+            throw conceptMgr.exception(exception);
+        }
+    }
+
+    public FunctionalIterator<? extends ConceptMap> match(PreparedMatch prepared, ConceptMap parameters) {
+        return match(prepared, parameters, defaultContext);
+    }
+
+    public FunctionalIterator<? extends ConceptMap> match(PreparedMatch prepared, ConceptMap parameters, Context.Query context) {
+        return match(prepared, parameters, map(), context);
+    }
+
+    public FunctionalIterator<? extends ConceptMap> match(PreparedMatch prepared, ConceptMap parameters,
+                                                          Map<Identifier.Variable.Name, Object> values) {
+        return match(prepared, parameters, values, defaultContext);
+    }
+
+    public FunctionalIterator<? extends ConceptMap> match(PreparedMatch prepared, ConceptMap parameters,
+                                                          Map<Identifier.Variable.Name, Object> values, Context.Query context) {
+        try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_prepared")) {
+            return prepared.execute(parameters, values, context).onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -85,7 +198,7 @@ public class QueryManager {
 
     public Numeric match(TypeQLMatch.Aggregate query, Context.Query queryContext) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_aggregate")) {
-            return Matcher.create(reasoner, query, queryContext).execute();
+            return Matcher.create(reasoner, query, disjunction(query.match()), queryContext).execute();
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -97,7 +210,7 @@ public class QueryManager {
 
     public FunctionalIterator<ConceptMapGroup> match(TypeQLMatch.Group query, Context.Query queryContext) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_group")) {
-            return Matcher.create(reasoner, query, queryContext).execute().onError(conceptMgr::exception);
+            return Matcher.create(reasoner, query, disjunction(query.match()), queryContext).execute().onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -109,7 +222,7 @@ public class QueryManager {
 
     public FunctionalIterator<NumericGroup> match(TypeQLMatch.Group.Aggregate query, Context.Query queryContext) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_group_aggregate")) {
-            return Matcher.create(reasoner, query, queryContext).execute().onError(conceptMgr::exception);
+            return Matcher.create(reasoner, query, disjunction(query.group().match()), queryContext).execute().onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
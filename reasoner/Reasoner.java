@@ -19,11 +19,13 @@
 package com.vaticle.typedb.core.reasoner;
 
 import com.vaticle.typedb.common.collection.Either;
+import com.vaticle.typedb.common.collection.Pair;
 import com.vaticle.typedb.core.common.collection.ByteArray;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.iterator.Iterators;
 import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator;
+import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator.Forwardable;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Context;
 import com.vaticle.typedb.core.common.parameters.Label;
@@ -33,27 +35,47 @@ import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concept.type.AttributeType;
 import com.vaticle.typedb.core.concept.type.ThingType;
 import com.vaticle.typedb.core.concurrent.producer.Producer;
+import com.vaticle.typedb.core.graph.ThingGraph;
+import com.vaticle.typedb.core.graph.vertex.ThingVertex;
+import com.vaticle.typedb.core.graph.vertex.TypeVertex;
 import com.vaticle.typedb.core.logic.LogicManager;
 import com.vaticle.typedb.core.logic.resolvable.Concludable;
 import com.vaticle.typedb.core.pattern.Conjunction;
 import com.vaticle.typedb.core.pattern.Disjunction;
 import com.vaticle.typedb.core.pattern.Negation;
+import com.vaticle.typedb.core.pattern.constraint.Constraint;
+import com.vaticle.typedb.core.pattern.constraint.thing.HasConstraint;
+import com.vaticle.typedb.core.pattern.constraint.thing.ThingConstraint;
+import com.vaticle.typedb.core.pattern.variable.ThingVariable;
+import com.vaticle.typedb.core.pattern.variable.TypeVariable;
 import com.vaticle.typedb.core.pattern.variable.Variable;
 import com.vaticle.typedb.core.reasoner.answer.Explanation;
+import com.vaticle.typedb.core.reasoner.common.ExternalSort;
 import com.vaticle.typedb.core.reasoner.controller.ControllerRegistry;
+import com.vaticle.typedb.core.traversal.GraphTraversal;
 import com.vaticle.typedb.core.traversal.TraversalEngine;
 import com.vaticle.typedb.core.traversal.common.Identifier;
+import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
 import com.vaticle.typedb.core.traversal.common.Modifiers.Filter;
 import com.vaticle.typedb.core.traversal.common.Modifiers.Sorting;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
+import com.vaticle.typedb.core.traversal.common.VertexMap;
 import com.vaticle.typeql.lang.query.TypeQLMatch;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.common.collection.Collections.set;
@@ -68,19 +90,29 @@ import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
 import static com.vaticle.typedb.core.concurrent.executor.Executors.PARALLELISATION_FACTOR;
 import static com.vaticle.typedb.core.concurrent.executor.Executors.actor;
 import static com.vaticle.typedb.core.concurrent.executor.Executors.async1;
+import static com.vaticle.typedb.core.concurrent.producer.Producers.async;
 import static com.vaticle.typedb.core.concurrent.producer.Producers.produce;
+import static com.vaticle.typedb.core.encoding.Encoding.ValueType.DOUBLE;
+import static com.vaticle.typedb.core.encoding.Encoding.ValueType.LONG;
 
 public class Reasoner {
 
+    private static final int NEGATION_HASH_JOIN_MAX_BOUNDS = 2;
+    private static final long NEGATION_HASH_JOIN_MAX_SIZE = 1_000_000;
+    private static final long TOP_K_MAX_SIZE = 1_000_000;
+    private static final int ANSWER_BATCH_SIZE = 64;
+
     private final TraversalEngine traversalEng;
     private final ConceptManager conceptMgr;
     private final LogicManager logicMgr;
     private final ControllerRegistry controllerRegistry;
     private final ExplainablesManager explainablesManager;
+    private final Path directory;
 
-    public Reasoner(ConceptManager conceptMgr, LogicManager logicMgr,
-                    TraversalEngine traversalEng, Context.Transaction context) {
+    public Reasoner(ConceptManager conceptMgr, LogicManager logicMgr, TraversalEngine traversalEng,
+                    Context.Transaction context, Path directory) {
         this.conceptMgr = conceptMgr;
+        this.directory = directory;
         this.traversalEng = traversalEng;
         this.logicMgr = logicMgr;
         this.controllerRegistry = new ControllerRegistry(actor(), traversalEng, conceptMgr, logicMgr, context);
@@ -99,13 +131,14 @@ public class Reasoner {
         sorting.ifPresent(value -> validateSorting(disjunction, value));
         if (mayReason(disjunction, context)) {
             answers = executeReasoner(disjunction, filter, context);
-            if (sorting.isPresent()) answers = eagerSort(answers, sorting.get());
+            if (sorting.isPresent()) answers = eagerSort(answers, sorting.get(), modifiers, context);
         } else if (sorting.isPresent() && isNativelySortable(disjunction, sorting.get())) {
-            answers = executeTraversalSorted(disjunction, filter, sorting.get());
+            int parallelisation = context.options().parallel() ? PARALLELISATION_FACTOR : 1;
+            answers = executeTraversalSorted(disjunction, filter, sorting.get(), parallelisation);
         } else {
             if (sorting.isPresent()) {
                 answers = executeTraversal(disjunction, context.producer(Either.first(EXHAUSTIVE)), filter);
-                answers = eagerSort(answers, sorting.get());
+                answers = eagerSort(answers, sorting.get(), modifiers, context);
             } else if (modifiers.limit().isPresent()) {
                 answers = executeTraversal(disjunction, context.producer(Either.second(modifiers.offset().orElse(0L) + modifiers.limit().get())), filter);
             } else {
@@ -118,7 +151,130 @@ public class Reasoner {
         return answers;
     }
 
-    private void inferAndValidateTypes(Disjunction disjunction) {
+    /**
+     * Answers a match that needs no reasoning, negation, sorting or paging as batches of vertices straight from the
+     * traversal, so that answers which are only streamed back to the client are never built into concepts.
+     */
+    public Optional<FunctionalIterator<VertexBatch>> executeBatched(Disjunction disjunction,
+                                                                    TypeQLMatch.Modifiers modifiers,
+                                                                    Context.Query context) {
+        if (disjunction.conjunctions().size() != 1 || modifiers.sort().isPresent() ||
+                modifiers.offset().isPresent() || modifiers.limit().isPresent()) {
+            return Optional.empty();
+        }
+        Conjunction conjunction = disjunction.conjunctions().get(0);
+        if (!conjunction.negations().isEmpty()) return Optional.empty();
+
+        inferAndValidateTypes(disjunction);
+        if (mayReason(disjunction, context) || !conjunction.isCoherent()) return Optional.empty();
+        GraphTraversal.Thing traversal = conjunction.traversal(Filter.create(modifiers.filter()));
+        if (!context.options().parallel()) {
+            return Optional.of(traversalEng.batchIterator(traversal, ANSWER_BATCH_SIZE));
+        } else {
+            return Optional.of(produce(
+                    traversalEng.batchProducer(traversal, PARALLELISATION_FACTOR, ANSWER_BATCH_SIZE),
+                    context.producer(), async1()
+            ));
+        }
+    }
+
+    /**
+     * Answer the number of matches from the type statistics, without iterating any answers, when the pattern is a
+     * single thing variable with an isa constraint, or a single has edge between two thing variables.
+     */
+    public Optional<Long> countFromStatistics(Disjunction disjunction, TypeQLMatch.Modifiers modifiers,
+                                              Context.Query context) {
+        Optional<List<ThingVariable>> things = simpleThingVariables(disjunction, modifiers);
+        if (!things.isPresent() || !(isSingleIsa(things.get()) || isSingleHas(things.get()))) return Optional.empty();
+
+        inferAndValidateTypes(disjunction);
+        if (mayReason(disjunction, context)) return Optional.empty();
+        ThingGraph.Statistics statistics = traversalEng.graph().data().stats();
+        if (things.get().size() == 1) {
+            ThingVariable thing = things.get().get(0);
+            if (statistics.mayMiscount() && iterate(thing.inferredTypes())
+                    .anyMatch(label -> traversalEng.graph().schema().getType(label).isAttributeType())) {
+                return Optional.empty();
+            }
+            return Optional.of(statistics.thingVertexSum(thing.inferredTypes()));
+        } else {
+            if (statistics.mayMiscount()) return Optional.empty();
+            ThingVariable owner = iterate(things.get()).filter(thing -> !thing.has().isEmpty()).first().get();
+            ThingVariable attribute = owner.has().iterator().next().attribute();
+            return Optional.of(statistics.hasEdgeSum(owner.inferredTypes(), attribute.inferredTypes()));
+        }
+    }
+
+    /**
+     * Returns the types to scan when the pattern is a single attribute variable, constrained only by an isa, whose
+     * instances are all numeric and can therefore be read in value order directly from each attribute type.
+     */
+    public Optional<Set<TypeVertex>> numericAttributeScan(Disjunction disjunction, TypeQLMatch.Modifiers modifiers,
+                                                          Retrievable attribute, Context.Query context) {
+        Optional<List<ThingVariable>> things = simpleThingVariables(disjunction, modifiers);
+        if (!things.isPresent() || !isSingleIsa(things.get()) || !things.get().get(0).id().equals(attribute)) {
+            return Optional.empty();
+        }
+
+        inferAndValidateTypes(disjunction);
+        if (mayReason(disjunction, context)) return Optional.empty();
+        Set<TypeVertex> types = new HashSet<>();
+        for (Label label : things.get().get(0).inferredTypes()) {
+            TypeVertex type = traversalEng.graph().schema().getType(label);
+            if (type.isAbstract()) continue;
+            else if (!type.isAttributeType() || (type.valueType() != LONG && type.valueType() != DOUBLE)) {
+                return Optional.empty();
+            }
+            types.add(type);
+        }
+        return Optional.of(types);
+    }
+
+    public <ORDER extends Order> Forwardable<ThingVertex, ORDER> instances(TypeVertex type, ORDER order) {
+        return traversalEng.graph().data().getReadable(type, order);
+    }
+
+    private static Optional<List<ThingVariable>> simpleThingVariables(Disjunction disjunction,
+                                                                      TypeQLMatch.Modifiers modifiers) {
+        if (disjunction.conjunctions().size() != 1 || modifiers.sort().isPresent() ||
+                modifiers.offset().isPresent() || modifiers.limit().isPresent()) {
+            return Optional.empty();
+        }
+        Conjunction conjunction = disjunction.conjunctions().get(0);
+        if (!conjunction.negations().isEmpty()) return Optional.empty();
+        Set<Retrievable> filter = Filter.create(modifiers.filter()).variables();
+        if (!filter.isEmpty() && !filter.containsAll(conjunction.retrieves())) return Optional.empty();
+
+        List<ThingVariable> things = new ArrayList<>();
+        for (Variable variable : conjunction.variables()) {
+            if (variable.isType()) {
+                TypeVariable type = variable.asType();
+                if (!type.id().isLabel() || type.constraints().size() != 1) return Optional.empty();
+            } else {
+                if (!variable.id().isName()) return Optional.empty();
+                things.add(variable.asThing());
+            }
+        }
+        return Optional.of(things);
+    }
+
+    private static boolean isSingleIsa(List<ThingVariable> things) {
+        return things.size() == 1 && things.get(0).isa().isPresent() && things.get(0).constraints().size() == 1;
+    }
+
+    private static boolean isSingleHas(List<ThingVariable> things) {
+        if (things.size() != 2) return false;
+        List<ThingVariable> owners = iterate(things).filter(thing -> !thing.has().isEmpty()).toList();
+        if (owners.size() != 1 || owners.get(0).has().size() != 1) return false;
+        ThingVariable owner = owners.get(0);
+        ThingVariable attribute = owner.has().iterator().next().attribute();
+        return attribute != owner && things.contains(attribute) &&
+                iterate(owner.constraints()).allMatch(c -> c.isHas() || c.isIsa()) &&
+                iterate(attribute.constraints()).allMatch(ThingConstraint::isIsa);
+    }
+
+    public void inferAndValidateTypes(Disjunction disjunction) {
+        if (disjunction.isTypeInferred()) return;
         logicMgr.typeInference().applyCombination(disjunction);
         if (!disjunction.isCoherent()) {
             Set<Conjunction> causes = incoherentConjunctions(disjunction);
@@ -128,6 +284,7 @@ public class Reasoner {
                 throw TypeDBException.of(UNSATISFIABLE_SUB_PATTERN, disjunction, causes);
             }
         }
+        disjunction.setTypeInferred();
     }
 
     private Set<Conjunction> incoherentConjunctions(Disjunction disjunction) {
@@ -197,9 +354,40 @@ public class Reasoner {
         return true;
     }
 
-    private FunctionalIterator<? extends ConceptMap> eagerSort(FunctionalIterator<? extends ConceptMap> answers, Sorting sorting) {
+    /**
+     * When the query is limited, only the first offset + limit answers are kept, in a bounded heap. Otherwise, the
+     * answers are sorted externally, spilling to files in the database directory past the sort memory limit.
+     */
+    private FunctionalIterator<? extends ConceptMap> eagerSort(FunctionalIterator<? extends ConceptMap> answers,
+                                                               Sorting sorting, TypeQLMatch.Modifiers modifiers,
+                                                               Context.Query context) {
         Comparator<ConceptMap> comparator = ConceptMap.Comparator.create(sorting);
-        return iterate(answers.stream().sorted(comparator).iterator());
+        if (modifiers.limit().isPresent()) {
+            long size = modifiers.offset().orElse(0L) + modifiers.limit().get();
+            if (size <= TOP_K_MAX_SIZE) return topK(answers, comparator, size);
+        }
+        long memoryLimit = context.options().explain() ? Long.MAX_VALUE : context.options().sortMemoryLimit();
+        return ExternalSort.sort(answers, comparator, conceptMgr, directory, memoryLimit);
+    }
+
+    private static FunctionalIterator<ConceptMap> topK(FunctionalIterator<? extends ConceptMap> answers,
+                                                       Comparator<ConceptMap> comparator, long size) {
+        if (size == 0) {
+            answers.recycle();
+            return Iterators.empty();
+        }
+        PriorityQueue<ConceptMap> heap = new PriorityQueue<>(comparator.reversed());
+        while (answers.hasNext()) {
+            ConceptMap answer = answers.next();
+            if (heap.size() < size) heap.add(answer);
+            else if (comparator.compare(answer, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(answer);
+            }
+        }
+        List<ConceptMap> sorted = new ArrayList<>(heap);
+        sorted.sort(comparator);
+        return iterate(sorted);
     }
 
     public FunctionalIterator<ConceptMap> executeReasoner(Disjunction disjunction, Filter filter, Context.Query context) {
@@ -212,68 +400,154 @@ public class Reasoner {
     public FunctionalIterator<ConceptMap> executeTraversal(Disjunction disjunction, Context.Query context, Filter filter) {
         FunctionalIterator<ConceptMap> answers;
         FunctionalIterator<Conjunction> conjs = iterate(disjunction.conjunctions());
-        if (!context.options().parallel()) answers = conjs.flatMap(conj -> iterator(conj, filter));
-        else answers = produce(conjs.map(c -> producer(c, filter)).toList(), context.producer(), async1());
+        Negations negations = new Negations();
+        if (!context.options().parallel()) answers = conjs.flatMap(conj -> iterator(conj, filter, negations));
+        else answers = produce(conjs.map(c -> producer(c, filter, negations)).toList(), context.producer(), async1());
         if (disjunction.conjunctions().size() > 1) answers = answers.distinct();
         return answers;
     }
 
     public SortedIterator<ConceptMap.Sortable, Order.Asc> executeTraversalSorted(Disjunction disjunction, Filter filter,
                                                                                  Sorting sorting) {
-        // TODO: parallelised sorted queries
+        return executeTraversalSorted(disjunction, filter, sorting, 1);
+    }
+
+    public SortedIterator<ConceptMap.Sortable, Order.Asc> executeTraversalSorted(Disjunction disjunction, Filter filter,
+                                                                                 Sorting sorting, int parallelisation) {
         FunctionalIterator<Conjunction> conjs = iterate(disjunction.conjunctions());
-        SortedIterator<ConceptMap.Sortable, Order.Asc> answers = conjs.mergeMap(conj -> iteratorSorted(conj, filter, sorting), ASC);
+        Negations negations = new Negations();
+        SortedIterator<ConceptMap.Sortable, Order.Asc> answers = conjs.mergeMap(
+                conj -> iteratorSorted(conj, filter, sorting, parallelisation, negations), ASC
+        );
         if (disjunction.conjunctions().size() > 1) answers = answers.distinct();
         return answers;
     }
 
-    private Producer<ConceptMap> producer(Conjunction conjunction, Filter filter) {
+    private Producer<ConceptMap> producer(Conjunction conjunction, Filter filter, Negations negations) {
         if (conjunction.negations().isEmpty()) {
             return traversalEng.producer(conjunction.traversal(filter), PARALLELISATION_FACTOR)
                     .map(conceptMgr::conceptMap);
         } else {
             return traversalEng.producer(conjunction.traversal(), PARALLELISATION_FACTOR)
-                    .map(conceptMgr::conceptMap).filter(answer -> !isNegated(answer, conjunction.negations()))
+                    .map(conceptMgr::conceptMap).filter(negations.filter(conjunction))
                     .map(answer -> answer.filter(filter)).distinct();
         }
     }
 
-    private boolean isNegated(ConceptMap answer, List<Negation> negations) {
-        return iterate(negations).flatMap(n -> iterator(n.disjunction(), answer)).first().isPresent();
+    private boolean isNegated(ConceptMap answer, Negation negation, Negations negations) {
+        return iterator(negation.disjunction(), answer, negations).first().isPresent();
     }
 
-    private FunctionalIterator<ConceptMap> iterator(Disjunction disjunction, ConceptMap bounds) {
-        return iterate(disjunction.conjunctions()).flatMap(c -> iterator(c, bounds));
+    /**
+     * A negation is executed as a hash anti-join when it shares only a few thing variables with the conjunction,
+     * every branch of the negation binds all of them, and the statistics estimate that the negation has fewer
+     * distinct bindings of them than the conjunction has answers, so that answering the negation once is cheaper
+     * than probing it once per outer answer. Otherwise, the negation is probed per answer.
+     */
+    private Optional<List<Retrievable>> hashJoinIds(Conjunction conjunction, Negation negation) {
+        List<Retrievable> joinIds = new ArrayList<>();
+        for (Retrievable id : conjunction.retrieves()) {
+            if (iterate(negation.disjunction().conjunctions()).anyMatch(conj -> conj.retrieves().contains(id))) {
+                joinIds.add(id);
+            }
+        }
+        if (joinIds.isEmpty() || joinIds.size() > NEGATION_HASH_JOIN_MAX_BOUNDS) return Optional.empty();
+        for (Retrievable id : joinIds) {
+            if (!conjunction.variable(id).isThing()) return Optional.empty();
+            for (Conjunction negated : negation.disjunction().conjunctions()) {
+                Variable variable = negated.variable(id);
+                if (variable == null || !variable.isThing() || !negated.negations().isEmpty()) return Optional.empty();
+            }
+        }
+        ThingGraph.Statistics statistics = traversalEng.graph().data().stats();
+        long negationEstimate = iterate(negation.disjunction().conjunctions())
+                .map(conj -> joinKeyEstimate(conj, joinIds, statistics)).reduce(0L, Long::sum);
+        if (negationEstimate > NEGATION_HASH_JOIN_MAX_SIZE || negationEstimate >= answerEstimate(conjunction, statistics)) {
+            return Optional.empty();
+        }
+        return Optional.of(joinIds);
+    }
+
+    private long joinKeyEstimate(Conjunction conjunction, List<Retrievable> joinIds, ThingGraph.Statistics statistics) {
+        long estimate = 1;
+        for (Retrievable id : joinIds) {
+            estimate *= distinctEstimate(conjunction.variable(id).asThing(), statistics);
+            if (estimate > NEGATION_HASH_JOIN_MAX_SIZE) break;
+        }
+        return estimate;
+    }
+
+    /**
+     * Estimates the number of distinct things a variable takes in the answers of its conjunction, which is at most
+     * the number of instances of its types, and at most the number of has edges it is the owner or attribute of.
+     */
+    private long distinctEstimate(ThingVariable variable, ThingGraph.Statistics statistics) {
+        if (variable.iid().isPresent()) return 1L;
+        long estimate = statistics.thingVertexSum(variable.inferredTypes());
+        for (HasConstraint has : variable.has()) {
+            estimate = Math.min(estimate, statistics.hasEdgeSum(variable.inferredTypes(), has.attribute().inferredTypes()));
+        }
+        for (Constraint constraint : variable.constraining()) {
+            if (constraint.isThing() && constraint.asThing().isHas()) {
+                Set<Label> owners = constraint.asThing().owner().inferredTypes();
+                estimate = Math.min(estimate, statistics.hasEdgeSum(owners, variable.inferredTypes()));
+            }
+        }
+        return estimate;
+    }
+
+    private long answerEstimate(Conjunction conjunction, ThingGraph.Statistics statistics) {
+        return iterate(conjunction.variables()).filter(Variable::isThing).map(variable -> {
+            if (variable.asThing().iid().isPresent()) return 1L;
+            else return statistics.thingVertexSum(variable.inferredTypes());
+        }).stream().max(Comparator.naturalOrder()).orElse(0L);
+    }
+
+    private FunctionalIterator<ConceptMap> iterator(Disjunction disjunction, ConceptMap bounds, Negations negations) {
+        return iterate(disjunction.conjunctions()).flatMap(c -> iterator(c, bounds, negations));
     }
 
-    private FunctionalIterator<ConceptMap> iterator(Conjunction conjunction, ConceptMap bounds) {
-        return iterator(bound(conjunction, bounds), Filter.create(list()));
+    private FunctionalIterator<ConceptMap> iterator(Conjunction conjunction, ConceptMap bounds, Negations negations) {
+        return iterator(bound(conjunction, bounds), Filter.create(list()), negations);
     }
 
-    private FunctionalIterator<ConceptMap> iterator(Conjunction conjunction, Filter filter) {
+    private FunctionalIterator<ConceptMap> iterator(Conjunction conjunction, Filter filter, Negations negations) {
         if (!conjunction.isCoherent()) return Iterators.empty();
         FunctionalIterator<ConceptMap> answers = traversalEng.iterator(conjunction.traversal(filter)).map(conceptMgr::conceptMap);
         if (conjunction.negations().isEmpty()) return answers;
         else {
             return traversalEng.iterator(conjunction.traversal()).map(conceptMgr::conceptMap)
-                    .filter(ans -> !isNegated(ans, conjunction.negations()))
+                    .filter(negations.filter(conjunction))
                     .map(conceptMap -> conceptMap.filter(filter)).distinct();
         }
     }
 
-    private SortedIterator<ConceptMap.Sortable, Order.Asc> iteratorSorted(Conjunction conjunction,
-                                                                          Filter filter, Sorting sorting) {
+    /**
+     * With more than one partition, each partition is answered by its own producer, and the individually sorted
+     * partitions are merged back into one sorted iterator.
+     */
+    private SortedIterator<ConceptMap.Sortable, Order.Asc> iteratorSorted(Conjunction conjunction, Filter filter,
+                                                                          Sorting sorting, int parallelisation,
+                                                                          Negations negations) {
         ConceptMap.Sortable.Comparator comparator = ConceptMap.Comparator.create(sorting);
-        SortedIterator<ConceptMap.Sortable, Order.Asc> answers = traversalEng.iterator(conjunction.traversal(filter, sorting))
-                .mapSorted(vertexMap -> conceptMgr.conceptMapOrdered(vertexMap, comparator), ASC);
-        if (conjunction.negations().isEmpty()) return answers;
-        else {
-            return answers.filter(ans -> !isNegated(ans, conjunction.negations()))
-                    .mapSorted(conceptMap -> conceptMap.filter(filter), ASC).distinct();
+        List<FunctionalIterator<VertexMap>> partitions = traversalEng.iterators(conjunction.traversal(filter, sorting), parallelisation);
+        Predicate<ConceptMap> negationFilter = conjunction.negations().isEmpty() ? null : negations.filter(conjunction);
+        SortedIterator<ConceptMap.Sortable, Order.Asc> answers;
+        if (partitions.size() == 1) {
+            answers = partitions.get(0).mapSorted(vertexMap -> conceptMgr.conceptMapOrdered(vertexMap, comparator), ASC);
+            if (negationFilter != null) answers = answers.filter(negationFilter::test).mapSorted(conceptMap -> conceptMap.filter(filter), ASC);
+        } else {
+            answers = iterate(partitions).mergeMap(partition -> {
+                FunctionalIterator<ConceptMap.Sortable> partitionAnswers = partition.map(vertexMap -> conceptMgr.conceptMapOrdered(vertexMap, comparator));
+                if (negationFilter != null) partitionAnswers = partitionAnswers.filter(negationFilter::test).map(conceptMap -> conceptMap.filter(filter));
+                return produce(async(partitionAnswers), Either.first(INCREMENTAL), async1()).mapSorted(Function.identity(), ASC);
+            }, ASC);
         }
+        if (negationFilter != null) answers = answers.distinct();
+        return answers;
     }
 
-    private Conjunction bound(Conjunction conjunction, ConceptMap bounds) {
+    public Conjunction bound(Conjunction conjunction, ConceptMap bounds) {
         Conjunction clone = conjunction.clone();
         Map<Identifier.Variable.Retrievable, Either<Label, ByteArray>> converted = new HashMap<>();
         iterate(bounds.concepts().entrySet()).forEachRemaining(e -> converted.put(
@@ -298,4 +572,86 @@ public class Reasoner {
     public void close() {
         controllerRegistry.close();
     }
+
+    /**
+     * The negation filters of one query. The hash set of a negation that is executed as a hash anti-join is built
+     * once for the query, and shared by every conjunction, partition and nested probe that filters by the negation.
+     */
+    private class Negations {
+
+        private final ConcurrentMap<Pair<Negation, List<Retrievable>>, NegationHashSet> hashSets;
+
+        private Negations() {
+            this.hashSets = new ConcurrentHashMap<>();
+        }
+
+        private Predicate<ConceptMap> filter(Conjunction conjunction) {
+            List<Predicate<ConceptMap>> filters = new ArrayList<>();
+            for (Negation negation : conjunction.negations()) {
+                Optional<List<Retrievable>> joinIds = hashJoinIds(conjunction, negation);
+                if (joinIds.isPresent()) {
+                    NegationHashSet negated = hashSets.computeIfAbsent(
+                            new Pair<>(negation, joinIds.get()), key -> new NegationHashSet(negation, joinIds.get(), this)
+                    );
+                    filters.add(answer -> !negated.contains(answer));
+                } else {
+                    filters.add(answer -> !isNegated(answer, negation, this));
+                }
+            }
+            return answer -> iterate(filters).allMatch(filter -> filter.test(answer));
+        }
+    }
+
+    /**
+     * The join keys of the answers of a negation, built on first use. If the negation turns out to have more than
+     * NEGATION_HASH_JOIN_MAX_SIZE answers, no keys are kept, and the negation is probed per answer instead.
+     */
+    private class NegationHashSet {
+
+        private final Negation negation;
+        private final List<Retrievable> joinIds;
+        private final Negations negations;
+        private volatile boolean isBuilt;
+        private Set<ByteArray> negated;
+
+        private NegationHashSet(Negation negation, List<Retrievable> joinIds, Negations negations) {
+            this.negation = negation;
+            this.joinIds = joinIds;
+            this.negations = negations;
+            this.isBuilt = false;
+        }
+
+        boolean contains(ConceptMap answer) {
+            if (!isBuilt) build();
+            if (negated == null) return isNegated(answer, negation, negations);
+            return negated.contains(joinKey(answer));
+        }
+
+        private synchronized void build() {
+            if (isBuilt) return;
+            Filter filter = Filter.create(set(joinIds));
+            FunctionalIterator<ConceptMap> answers = iterate(negation.disjunction().conjunctions())
+                    .flatMap(conj -> iterator(conj, filter, negations));
+            Set<ByteArray> keys = new HashSet<>();
+            long count = 0;
+            while (answers.hasNext() && keys != null) {
+                if (++count > NEGATION_HASH_JOIN_MAX_SIZE) {
+                    answers.recycle();
+                    keys = null;
+                } else {
+                    keys.add(joinKey(answers.next()));
+                }
+            }
+            negated = keys;
+            isBuilt = true;
+        }
+
+        private ByteArray joinKey(ConceptMap answer) {
+            ByteArray[] iids = new ByteArray[joinIds.size()];
+            for (int i = 0; i < iids.length; i++) {
+                iids[i] = answer.get(joinIds.get(i)).asThing().getIID();
+            }
+            return ByteArray.join(iids);
+        }
+    }
 }
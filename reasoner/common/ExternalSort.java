@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.reasoner.common;
+
+import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.concept.Concept;
+import com.vaticle.typedb.core.concept.ConceptManager;
+import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.concept.thing.impl.ThingImpl;
+import com.vaticle.typedb.core.concept.type.Type;
+import com.vaticle.typedb.core.encoding.iid.VertexIID;
+import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Reasoner.SORT_SPILL_FAILED;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
+import static com.vaticle.typedb.core.concurrent.executor.Executors.async2;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Sorts answers in runs, each sorted in the background as soon as it is collected. Once the answers held in memory
+ * pass the memory limit, the runs are merged and spilled to a file in the given directory as a single run of
+ * encoded answers. All runs, in memory and on disk, are merged once the answers are exhausted.
+ *
+ * A spilled answer is written as variable and type indices into dictionaries kept in memory, and the IIDs of its
+ * things, so it is read back without touching storage.
+ */
+public class ExternalSort {
+
+    private static final int RUN_SIZE = 16_384;
+    private static final int ANSWER_MEMORY_ESTIMATE = 64;
+    private static final int CONCEPT_MEMORY_ESTIMATE = 96;
+    private static final String FILE_PREFIX = "typedb-sort-";
+    private static final int THING_CODE = 0;
+
+    private final ConceptManager conceptMgr;
+    private final Path directory;
+    private final Comparator<ConceptMap> comparator;
+    private final long memoryLimit;
+    private final List<Retrievable> variables;
+    private final Map<Retrievable, Integer> variableIndices;
+    private final List<Type> types;
+    private final Map<Type, Integer> typeIndices;
+    private final List<CompletableFuture<List<ConceptMap>>> runs;
+    private final List<SpilledRun> spilledRuns;
+    private long memory;
+
+    private ExternalSort(ConceptManager conceptMgr, Path directory, Comparator<ConceptMap> comparator, long memoryLimit) {
+        this.conceptMgr = conceptMgr;
+        this.directory = directory;
+        this.comparator = comparator;
+        this.memoryLimit = memoryLimit;
+        this.variables = new ArrayList<>();
+        this.variableIndices = new HashMap<>();
+        this.types = new ArrayList<>();
+        this.typeIndices = new HashMap<>();
+        this.runs = new ArrayList<>();
+        this.spilledRuns = new ArrayList<>();
+        this.memory = 0;
+    }
+
+    /**
+     * Answers that carry explainables cannot be spilled, so they should be sorted with a memory limit of
+     * {@link Long#MAX_VALUE}.
+     */
+    public static FunctionalIterator<ConceptMap> sort(FunctionalIterator<? extends ConceptMap> answers,
+                                                     Comparator<ConceptMap> comparator, ConceptManager conceptMgr,
+                                                     Path directory, long memoryLimit) {
+        return new ExternalSort(conceptMgr, directory, comparator, memoryLimit).sort(answers);
+    }
+
+    private FunctionalIterator<ConceptMap> sort(FunctionalIterator<? extends ConceptMap> answers) {
+        List<ConceptMap> run = new ArrayList<>();
+        try {
+            while (answers.hasNext()) {
+                ConceptMap answer = answers.next();
+                run.add(answer);
+                memory += memoryEstimate(answer);
+                if (run.size() == RUN_SIZE) {
+                    runs.add(sortAsync(run));
+                    run = new ArrayList<>();
+                    if (memory > memoryLimit) spill();
+                }
+            }
+            if (runs.isEmpty() && spilledRuns.isEmpty()) {
+                run.sort(comparator);
+                return iterate(run);
+            }
+            if (!run.isEmpty()) runs.add(sortAsync(run));
+            List<FunctionalIterator<ConceptMap>> sortedRuns = new ArrayList<>(spilledRuns);
+            sortedRuns.addAll(joinRuns());
+            return merge(sortedRuns);
+        } catch (RuntimeException e) {
+            spilledRuns.forEach(SpilledRun::recycle);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<List<ConceptMap>> sortAsync(List<ConceptMap> run) {
+        return CompletableFuture.supplyAsync(() -> {
+            run.sort(comparator);
+            return run;
+        }, async2());
+    }
+
+    private List<FunctionalIterator<ConceptMap>> joinRuns() {
+        try {
+            CompletableFuture.allOf(runs.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException exception) {
+            throw TypeDBException.of(exception);
+        }
+        List<FunctionalIterator<ConceptMap>> sortedRuns = new ArrayList<>();
+        runs.forEach(run -> sortedRuns.add(iterate(run.join())));
+        runs.clear();
+        return sortedRuns;
+    }
+
+    private FunctionalIterator<ConceptMap> merge(List<FunctionalIterator<ConceptMap>> sortedRuns) {
+        return iterate(sortedRuns).mergeMap(
+                run -> run.mapSorted(answer -> new SortedAnswer(answer, comparator), ASC), ASC
+        ).map(SortedAnswer::answer);
+    }
+
+    /**
+     * The file is unlinked as soon as it is opened, and is only written and read through its channel, so it does not
+     * outlive its run, even if the server does not shut down cleanly. Where an open file cannot be deleted, it is
+     * deleted once its run is consumed or recycled.
+     */
+    private void spill() {
+        Path file = null;
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(directory);
+            file = Files.createTempFile(directory, FILE_PREFIX, null);
+            channel = FileChannel.open(file, READ, WRITE);
+            boolean isDeleted = mayDelete(file);
+            long count = 0;
+            // the stream is only flushed, since closing it would close the channel the run is read back from
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            FunctionalIterator<ConceptMap> merged = merge(joinRuns());
+            while (merged.hasNext()) {
+                write(output, merged.next());
+                count++;
+            }
+            output.flush();
+            channel.position(0);
+            spilledRuns.add(new SpilledRun(isDeleted ? null : file, channel, count));
+            memory = 0;
+        } catch (IOException e) {
+            try {
+                if (channel != null) channel.close();
+                if (file != null) Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // the spill failure is reported below
+            }
+            throw TypeDBException.of(SORT_SPILL_FAILED, directory);
+        }
+    }
+
+    private static boolean mayDelete(Path file) {
+        try {
+            Files.delete(file);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long memoryEstimate(ConceptMap answer) {
+        long estimate = ANSWER_MEMORY_ESTIMATE;
+        for (Concept concept : answer.concepts().values()) {
+            estimate += CONCEPT_MEMORY_ESTIMATE;
+            if (concept.isThing()) estimate += concept.asThing().getIID().length();
+        }
+        return estimate;
+    }
+
+    private void write(DataOutputStream output, ConceptMap answer) throws IOException {
+        writeVarInt(output, answer.concepts().size());
+        for (Map.Entry<Retrievable, ? extends Concept> entry : answer.concepts().entrySet()) {
+            writeVarInt(output, variableIndices.computeIfAbsent(entry.getKey(), id -> {
+                variables.add(id);
+                return variables.size() - 1;
+            }));
+            Concept concept = entry.getValue();
+            if (concept.isThing()) {
+                byte[] iid = concept.asThing().getIID().getBytes();
+                writeVarInt(output, THING_CODE);
+                writeVarInt(output, iid.length);
+                output.write(iid);
+            } else {
+                writeVarInt(output, THING_CODE + 1 + typeIndices.computeIfAbsent(concept.asType(), type -> {
+                    types.add(type);
+                    return types.size() - 1;
+                }));
+            }
+        }
+    }
+
+    private ConceptMap read(DataInputStream input) throws IOException {
+        int size = readVarInt(input);
+        Map<Retrievable, Concept> concepts = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Retrievable id = variables.get(readVarInt(input));
+            int code = readVarInt(input);
+            if (code == THING_CODE) {
+                byte[] iid = new byte[readVarInt(input)];
+                input.readFully(iid);
+                VertexIID.Thing thingIID = VertexIID.Thing.of(ByteArray.of(iid));
+                concepts.put(id, ThingImpl.of(conceptMgr.graph().data().convertToReadable(thingIID)));
+            } else {
+                concepts.put(id, types.get(code - THING_CODE - 1));
+            }
+        }
+        return new ConceptMap(concepts);
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private class SpilledRun extends AbstractFunctionalIterator<ConceptMap> {
+
+        private final Path undeletedFile;
+        private final FileChannel channel;
+        private long remaining;
+        private DataInputStream input;
+        private ConceptMap next;
+        private boolean isRecycled;
+
+        private SpilledRun(@Nullable Path undeletedFile, FileChannel channel, long count) {
+            this.undeletedFile = undeletedFile;
+            this.channel = channel;
+            this.remaining = count;
+            this.input = null;
+            this.next = null;
+            this.isRecycled = false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            else if (remaining == 0) {
+                recycle();
+                return false;
+            }
+            try {
+                if (input == null) input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                next = read(input);
+                remaining--;
+                return true;
+            } catch (IOException e) {
+                recycle();
+                throw TypeDBException.of(SORT_SPILL_FAILED, directory);
+            }
+        }
+
+        @Override
+        public ConceptMap next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            ConceptMap answer = next;
+            next = null;
+            return answer;
+        }
+
+        @Override
+        public void recycle() {
+            remaining = 0;
+            if (isRecycled) return;
+            isRecycled = true;
+            try {
+                channel.close();
+                if (undeletedFile != null) Files.deleteIfExists(undeletedFile);
+            } catch (IOException ignored) {
+                // the run is no longer read, and there is nothing left to release
+            }
+        }
+    }
+
+    private static class SortedAnswer implements Comparable<SortedAnswer> {
+
+        private final ConceptMap answer;
+        private final Comparator<ConceptMap> comparator;
+
+        private SortedAnswer(ConceptMap answer, Comparator<ConceptMap> comparator) {
+            this.answer = answer;
+            this.comparator = comparator;
+        }
+
+        private ConceptMap answer() {
+            return answer;
+        }
+
+        @Override
+        public int compareTo(SortedAnswer other) {
+            return comparator.compare(answer, other.answer);
+        }
+    }
+}
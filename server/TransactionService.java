@@ -19,6 +19,7 @@ package com.vaticle.typedb.core.server;
 
 import com.vaticle.factory.tracing.client.FactoryTracingThreadStatic;
 import com.vaticle.typedb.core.TypeDB;
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Context;
@@ -36,13 +37,12 @@ import com.vaticle.typedb.core.server.query.QueryService;
 import com.vaticle.typedb.protocol.TransactionProto;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -55,8 +55,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
-import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 import static com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.continueTraceOnThread;
 import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILLEGAL_ARGUMENT;
@@ -82,11 +83,20 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 public class TransactionService implements StreamObserver<TransactionProto.Transaction.Client>, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(TransactionService.class);
+    private static final Metrics.Counter ANSWERS_STREAMED = Metrics.counter(
+            "typedb_answers_streamed_total", "Answers sent to clients in response stream parts.");
+    private static final Metrics.Summary STREAM_ANSWERS = Metrics.summary(
+            "typedb_response_stream_answers", "Answers per completed response stream.");
     private static final String TRACE_PREFIX = "transaction_services.";
-    private static final int MAX_NETWORK_LATENCY_MILLIS = 3_000;
+    private static final int RES_PART_TARGET_BYTES = 64 * 1024;
+    private static final int RES_PART_INITIAL_ANSWERS = 16;
+    private static final int RES_PART_MAX_ANSWERS = 4_096;
+    private static final long RES_PART_MAX_NANOS = MILLISECONDS.toNanos(1);
+    private static final long STREAM_CONTINUE_MAX_BYTES = 4L * 1024 * 1024;
 
     private final TypeDBService typeDBSvc;
     private final StreamObserver<TransactionProto.Transaction.Server> responder;
+    private final BooleanSupplier isTransportReady;
     private final ConcurrentMap<UUID, ResponseStream<?>> streams;
     private final AtomicBoolean isRPCAlive;
     private final AtomicBoolean isTransactionOpen;
@@ -97,12 +107,11 @@ public class TransactionService implements StreamObserver<TransactionProto.Trans
     private volatile Options.Transaction options;
     private volatile Services services;
     private volatile ScheduledFuture<?> scheduledTimeout;
-    private volatile int networkLatencyMillis;
 
     private class Services {
         private final ConceptService concept = new ConceptService(TransactionService.this, transaction.concepts());
         private final LogicService logic = new LogicService(TransactionService.this, transaction.logic());
-        private final QueryService query = new QueryService(TransactionService.this, transaction.query());
+        private final QueryService query = new QueryService(TransactionService.this, transaction.query(), transaction.concepts());
         private final ThingService thing = new ThingService(TransactionService.this, transaction.concepts());
         private final TypeService type = new TypeService(TransactionService.this, transaction.concepts());
         private final RuleService rule = new RuleService(TransactionService.this, transaction.logic());
@@ -111,6 +120,11 @@ public class TransactionService implements StreamObserver<TransactionProto.Trans
     public TransactionService(TypeDBService typeDBSvc, StreamObserver<TransactionProto.Transaction.Server> responder) {
         this.typeDBSvc = typeDBSvc;
         this.responder = SynchronizedStreamObserver.of(responder);
+        if (responder instanceof ServerCallStreamObserver) {
+            this.isTransportReady = ((ServerCallStreamObserver<TransactionProto.Transaction.Server>) responder)::isReady;
+        } else {
+            this.isTransportReady = () -> true;
+        }
         this.streams = new ConcurrentHashMap<>();
         this.isRPCAlive = new AtomicBoolean(true);
         this.isTransactionOpen = new AtomicBoolean(false);
@@ -200,7 +214,6 @@ public class TransactionService implements StreamObserver<TransactionProto.Trans
     private void open(TransactionProto.Transaction.Req request) {
         if (isTransactionOpen.get()) throw TypeDBException.of(TRANSACTION_ALREADY_OPENED);
         TransactionProto.Transaction.Open.Req openReq = request.getOpenReq();
-        networkLatencyMillis = Math.min(openReq.getNetworkLatencyMillis(), MAX_NETWORK_LATENCY_MILLIS);
         sessionSvc = sessionService(typeDBSvc, openReq);
         sessionSvc.register(this);
         options = new Options.Transaction().parent(sessionSvc.options());
@@ -253,12 +266,26 @@ public class TransactionService implements StreamObserver<TransactionProto.Trans
 
     public <T> void stream(Iterator<T> iterator, UUID requestID, Options.Query options,
                            Function<List<T>, TransactionProto.Transaction.ResPart> resPartFn) {
-        stream(iterator, requestID, options.prefetchSize(), options.prefetch(), resPartFn);
+        stream(iterator, requestID, options.prefetchSize(), options.prefetch(), t -> 1, resPartFn);
+    }
+
+    /**
+     * Streams items that each hold several answers, such as batches, counting the prefetch size and the streamed
+     * answers by the size of each item.
+     */
+    public <T> void stream(Iterator<T> iterator, UUID requestID, Options.Query options, ToIntFunction<T> sizeFn,
+                           Function<List<T>, TransactionProto.Transaction.ResPart> resPartFn) {
+        stream(iterator, requestID, options.prefetchSize(), options.prefetch(), sizeFn, resPartFn);
     }
 
     private <T> void stream(Iterator<T> iterator, UUID requestID, int prefetchSize, boolean prefetch,
                             Function<List<T>, TransactionProto.Transaction.ResPart> resPartFn) {
-        ResponseStream<T> stream = new ResponseStream<>(iterator, requestID, prefetchSize, resPartFn);
+        stream(iterator, requestID, prefetchSize, prefetch, t -> 1, resPartFn);
+    }
+
+    private <T> void stream(Iterator<T> iterator, UUID requestID, int prefetchSize, boolean prefetch,
+                            ToIntFunction<T> sizeFn, Function<List<T>, TransactionProto.Transaction.ResPart> resPartFn) {
+        ResponseStream<T> stream = new ResponseStream<>(iterator, requestID, prefetchSize, sizeFn, resPartFn);
         streams.compute(requestID, (key, oldValue) -> {
             if (oldValue == null) return stream;
             else throw TypeDBException.of(DUPLICATE_REQUEST, requestID);
@@ -364,49 +391,86 @@ public class TransactionService implements StreamObserver<TransactionProto.Trans
                 ((StatusRuntimeException) error).getStatus().getCode().equals(Status.CANCELLED.getCode());
     }
 
+    /**
+     * Streams answers in parts sized by their serialised bytes: the number of answers per part adapts to the bytes per
+     * answer of the parts already sent, while a part that takes longer than a millisecond to collect is sent early.
+     */
     private class ResponseStream<T> {
 
         private final Function<List<T>, TransactionProto.Transaction.ResPart> resPartFn;
+        private final ToIntFunction<T> sizeFn;
         private final Iterator<T> iterator;
         private final UUID requestID;
         private final int prefetchSize;
+        private final List<T> resPartItems;
+        private double bytesPerAnswer;
+        private long streamed;
 
-        ResponseStream(Iterator<T> iterator, UUID requestID, int prefetchSize,
+        ResponseStream(Iterator<T> iterator, UUID requestID, int prefetchSize, ToIntFunction<T> sizeFn,
                        Function<List<T>, TransactionProto.Transaction.ResPart> resPartFn) {
             this.iterator = iterator;
             this.requestID = requestID;
             if (prefetchSize < 1) throw TypeDBException.of(RPC_PREFETCH_SIZE_TOO_SMALL, prefetchSize);
             this.prefetchSize = prefetchSize;
+            this.sizeFn = sizeFn;
             this.resPartFn = resPartFn;
+            this.resPartItems = new ArrayList<>();
+            this.bytesPerAnswer = 0;
         }
 
+        /**
+         * After the prefetched answers and the CONTINUE state, streaming goes on for as long as the transport is ready
+         * to send, up to a bound in bytes, while the client's next stream request is in flight.
+         */
         private void streamResParts() {
-            streamResPartsWhile(i -> i < prefetchSize && iterator.hasNext());
+            streamResPartsWhile(prefetchSize, Long.MAX_VALUE, false);
             if (mayClose()) return;
 
             respondStreamState(CONTINUE);
-            Instant compensationEndTime = Instant.now().plusMillis(networkLatencyMillis);
-            streamResPartsWhile(i -> iterator.hasNext() && Instant.now().isBefore(compensationEndTime));
+            streamResPartsWhile(Long.MAX_VALUE, STREAM_CONTINUE_MAX_BYTES, true);
             mayClose();
         }
 
-        private void streamResPartsWhile(Predicate<Integer> predicate) {
-            List<T> answers = new ArrayList<>();
-            Instant startTime = Instant.now();
-            for (int i = 0; predicate.test(i); i++) {
-                answers.add(iterator.next());
-                Instant currentTime = Instant.now();
-                if (Duration.between(startTime, currentTime).toMillis() >= 1) {
-                    respond(resPartFn.apply(answers));
-                    answers.clear();
-                    startTime = currentTime;
-                }
+        private void streamResPartsWhile(long maxAnswers, long maxBytes, boolean whileTransportReady) {
+            long answers = 0;
+            long bytes = 0;
+            while (answers < maxAnswers && bytes < maxBytes && (!whileTransportReady || isTransportReady.getAsBoolean()) &&
+                    iterator.hasNext()) {
+                int size = collectResPart(Math.min(maxAnswers - answers, resPartAnswers()));
+                TransactionProto.Transaction.ResPart resPart = resPartFn.apply(resPartItems);
+                resPartItems.clear();
+                respond(resPart);
+                int resPartBytes = resPart.getSerializedSize();
+                if (bytesPerAnswer == 0) bytesPerAnswer = (double) resPartBytes / size;
+                else bytesPerAnswer += ((double) resPartBytes / size - bytesPerAnswer) / 4;
+                answers += size;
+                bytes += resPartBytes;
+                streamed += size;
+                ANSWERS_STREAMED.add(size);
             }
-            if (!answers.isEmpty()) respond(resPartFn.apply(answers));
+        }
+
+        private long resPartAnswers() {
+            if (bytesPerAnswer == 0) return RES_PART_INITIAL_ANSWERS;
+            else return Math.max(1, Math.min(RES_PART_MAX_ANSWERS, (long) (RES_PART_TARGET_BYTES / bytesPerAnswer)));
+        }
+
+        private int collectResPart(long maxAnswers) {
+            int size = 0;
+            long startTime = System.nanoTime();
+            do {
+                T item = iterator.next();
+                resPartItems.add(item);
+                size += sizeFn.applyAsInt(item);
+            } while (size < maxAnswers && System.nanoTime() - startTime < RES_PART_MAX_NANOS && iterator.hasNext());
+            return size;
         }
 
         private boolean mayClose() {
-            if (!iterator.hasNext()) respondStreamState(DONE);
+            if (!iterator.hasNext()) {
+                respondStreamState(DONE);
+                STREAM_ANSWERS.observe(streamed);
+            }
             return !iterator.hasNext();
         }
 
@@ -23,6 +23,7 @@ import com.vaticle.factory.tracing.client.FactoryTracing;
 import com.vaticle.factory.tracing.client.FactoryTracingThreadStatic;
 import com.vaticle.typedb.common.concurrent.NamedThreadFactory;
 import com.vaticle.typedb.common.util.Java;
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.concurrent.executor.Executors;
@@ -76,6 +77,7 @@ public class TypeDBServer implements AutoCloseable {
     protected final io.grpc.Server server;
     protected final boolean debug;
     protected TypeDBService typeDBService;
+    protected MetricsService metricsService;
 
     private TypeDBServer(CoreConfig config, boolean debug) {
         this(config, debug, new CoreFactory(), new CoreLogback());
@@ -90,6 +92,7 @@ public class TypeDBServer implements AutoCloseable {
         verifyDataDir();
         configureLogging(this.logback, this.config);
         configureTracing();
+        configureMetrics();
 
         if (debug) logger().info("Running {} in debug mode.", name());
 
@@ -150,6 +153,14 @@ public class TypeDBServer implements AutoCloseable {
         }
     }
 
+    private void configureMetrics() {
+        if (config.server().metrics().enable()) {
+            assert config.server().metrics().address().isPresent();
+            Metrics.enable();
+            metricsService = new MetricsService(config.server().metrics().address().get());
+        }
+    }
+
     protected io.grpc.Server rpcServer() {
         assert Executors.isInitialised();
 
@@ -186,6 +197,7 @@ public class TypeDBServer implements AutoCloseable {
     protected void start() {
         try {
             server.start();
+            if (metricsService != null) metricsService.start();
             logger().info("{} is now running and will keep this process alive.", name());
             logger().info("You can press CTRL+C to shutdown this server.");
             logger().info("");
@@ -217,6 +229,7 @@ public class TypeDBServer implements AutoCloseable {
             typeDBService.close();
             server.shutdown();
             server.awaitTermination();
+            if (metricsService != null) metricsService.close();
             databaseMgr.close();
             System.runFinalization();
             logger().info("{} has been shutdown", name());
@@ -272,6 +285,8 @@ public class TypeDBServer implements AutoCloseable {
         Instant end = Instant.now();
         server.logger().info("version: {}", Version.VERSION);
         server.logger().info("listening to address: {}:{}", server.address().getHostString(), server.address().getPort());
+        server.config.server().metrics().address().ifPresent(address -> server.logger().info(
+                "serving metrics at: http://{}:{}/metrics", address.getHostString(), address.getPort()));
         server.logger().info("data directory configured to: {}", server.dataDir());
         server.logger().info("bootup completed in: {} ms", Duration.between(start, end).toMillis());
         server.logger().info("...");
@@ -283,7 +298,8 @@ public class TypeDBServer implements AutoCloseable {
                 .setLevel(ch.qos.logback.classic.Level.WARN);
 
         MigratorClient migrator = new MigratorClient(subcmdExport.port());
-        boolean success = migrator.exportData(subcmdExport.database(), subcmdExport.file());
+        boolean success = migrator.exportData(subcmdExport.database(), subcmdExport.file(),
+                subcmdExport.shardsPerType(), subcmdExport.compress());
         System.exit(success ? 0 : 1);
     }
 
@@ -292,7 +308,7 @@ public class TypeDBServer implements AutoCloseable {
                 .setLevel(ch.qos.logback.classic.Level.WARN);
 
         MigratorClient migrator = new MigratorClient(subcmdImport.port());
-        boolean success = migrator.importData(subcmdImport.database(), subcmdImport.file());
+        boolean success = migrator.importData(subcmdImport.database(), subcmdImport.file(), subcmdImport.bulkLoad());
         System.exit(success ? 0 : 1);
     }
 }
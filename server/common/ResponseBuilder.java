@@ -33,8 +33,13 @@ import com.vaticle.typedb.core.concept.type.EntityType;
 import com.vaticle.typedb.core.concept.type.RelationType;
 import com.vaticle.typedb.core.concept.type.RoleType;
 import com.vaticle.typedb.core.concept.type.ThingType;
+import com.vaticle.typedb.core.graph.vertex.AttributeVertex;
+import com.vaticle.typedb.core.graph.vertex.ThingVertex;
+import com.vaticle.typedb.core.graph.vertex.TypeVertex;
+import com.vaticle.typedb.core.graph.vertex.Vertex;
 import com.vaticle.typedb.core.reasoner.answer.Explanation;
 import com.vaticle.typedb.core.reasoner.answer.PartialExplanation.ConclusionAnswer;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typedb.protocol.AnswerProto;
 import com.vaticle.typedb.protocol.ConceptProto;
 import com.vaticle.typedb.protocol.CoreDatabaseProto.CoreDatabase;
@@ -190,6 +195,63 @@ public class ResponseBuilder {
                     )));
         }
 
+        /**
+         * Encodes the response parts of one match stream straight from vertex batches, reusing its builders from one
+         * part to the next. Only the types of things are built into concepts, once per part.
+         */
+        public static class MatchResPartEncoder {
+
+            private final com.vaticle.typedb.core.concept.ConceptManager conceptMgr;
+            private final Map<TypeVertex, ConceptProto.Type> types;
+            private final QueryProto.QueryManager.Match.ResPart.Builder matchResPart;
+            private final AnswerProto.ConceptMap.Builder conceptMap;
+            private final ConceptProto.Concept.Builder concept;
+            private final ConceptProto.Thing.Builder thing;
+
+            public MatchResPartEncoder(com.vaticle.typedb.core.concept.ConceptManager conceptMgr) {
+                this.conceptMgr = conceptMgr;
+                this.types = new HashMap<>();
+                this.matchResPart = QueryProto.QueryManager.Match.ResPart.newBuilder();
+                this.conceptMap = AnswerProto.ConceptMap.newBuilder();
+                this.concept = ConceptProto.Concept.newBuilder();
+                this.thing = ConceptProto.Thing.newBuilder();
+            }
+
+            public TransactionProto.Transaction.ResPart resPart(UUID reqID, List<VertexBatch> batches) {
+                types.clear();
+                matchResPart.clear();
+                for (VertexBatch batch : batches) {
+                    for (int row = 0; row < batch.size(); row++) matchResPart.addAnswers(conceptMap(batch, row));
+                }
+                return queryMgrResPart(reqID, QueryProto.QueryManager.ResPart.newBuilder().setMatchResPart(matchResPart));
+            }
+
+            private AnswerProto.ConceptMap conceptMap(VertexBatch batch, int row) {
+                conceptMap.clear();
+                for (int column = 0; column < batch.ids().size(); column++) {
+                    conceptMap.putMap(batch.ids().get(column).name(), protoConcept(batch.get(column, row)));
+                }
+                conceptMap.setExplainables(AnswerProto.Explainables.getDefaultInstance());
+                return conceptMap.build();
+            }
+
+            private ConceptProto.Concept protoConcept(Vertex<?, ?> vertex) {
+                concept.clear();
+                if (vertex.isThing()) concept.setThing(protoThing(vertex.asThing()));
+                else concept.setType(protoType(vertex.asType(), types, conceptMgr));
+                return concept.build();
+            }
+
+            private ConceptProto.Thing protoThing(ThingVertex vertex) {
+                thing.clear();
+                thing.setIid(ByteString.copyFrom(vertex.iid().bytes().getBytes()))
+                        .setType(protoType(vertex.type(), types, conceptMgr))
+                        .setInferred(vertex.isInferred());
+                if (vertex.isAttribute()) thing.setValue(Thing.Attribute.attributeValue(vertex.asAttribute()));
+                return thing.build();
+            }
+        }
+
         public static TransactionProto.Transaction.Res matchAggregateRes(UUID reqID, Numeric answer) {
             return queryMgrRes(reqID, QueryProto.QueryManager.Res.newBuilder().setMatchAggregateRes(
                     QueryProto.QueryManager.MatchAggregate.Res.newBuilder().setAnswer(numeric(answer))
@@ -348,6 +410,11 @@ public class ResponseBuilder {
             return protoType.build();
         }
 
+        public static ConceptProto.Type protoType(TypeVertex vertex, Map<TypeVertex, ConceptProto.Type> types,
+                                                  com.vaticle.typedb.core.concept.ConceptManager conceptMgr) {
+            return types.computeIfAbsent(vertex, v -> protoType(conceptMgr.concept(v).asType()));
+        }
+
         private static TransactionProto.Transaction.Res typeRes(UUID reqID, ConceptProto.Type.Res.Builder res) {
             return TransactionProto.Transaction.Res.newBuilder().setReqId(UUIDAsByteString(reqID)).setTypeRes(res).build();
         }
@@ -662,6 +729,26 @@ public class ResponseBuilder {
                 ));
             }
 
+            public static ConceptProto.Attribute.Value attributeValue(AttributeVertex<?> attribute) {
+                ConceptProto.Attribute.Value.Builder builder = ConceptProto.Attribute.Value.newBuilder();
+
+                if (attribute.isString()) {
+                    builder.setString(attribute.asString().value());
+                } else if (attribute.isLong()) {
+                    builder.setLong(attribute.asLong().value());
+                } else if (attribute.isBoolean()) {
+                    builder.setBoolean(attribute.asBoolean().value());
+                } else if (attribute.isDateTime()) {
+                    builder.setDateTime(attribute.asDateTime().value().toInstant(ZoneOffset.UTC).toEpochMilli());
+                } else if (attribute.isDouble()) {
+                    builder.setDouble(attribute.asDouble().value());
+                } else {
+                    throw TypeDBException.of(ErrorMessage.Server.BAD_VALUE_TYPE);
+                }
+
+                return builder.build();
+            }
+
             public static TransactionProto.Transaction.ResPart getOwnersResPart(
                     UUID reqID, List<? extends com.vaticle.typedb.core.concept.type.ThingType> owners) {
                 return typeResPart(reqID, ConceptProto.Type.ResPart.newBuilder().setAttributeTypeGetOwnersResPart(
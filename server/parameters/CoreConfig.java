@@ -65,14 +65,39 @@ public class CoreConfig {
     public static class Server {
 
         private final InetSocketAddress address;
+        private final Metrics metrics;
 
-        protected Server(InetSocketAddress address) {
+        protected Server(InetSocketAddress address, Metrics metrics) {
             this.address = address;
+            this.metrics = metrics;
         }
 
         public InetSocketAddress address() {
             return address;
         }
+
+        public Metrics metrics() {
+            return metrics;
+        }
+
+        public static class Metrics {
+
+            private final boolean enable;
+            private final InetSocketAddress address;
+
+            Metrics(boolean enable, @Nullable InetSocketAddress address) {
+                this.enable = enable;
+                this.address = address;
+            }
+
+            public boolean enable() {
+                return enable;
+            }
+
+            public Optional<InetSocketAddress> address() {
+                return Optional.ofNullable(address);
+            }
+        }
     }
 
     public static class Storage {
@@ -83,19 +83,60 @@ public class CoreConfigParser extends YAMLParser.Value.Compound<CoreConfig> {
 
         protected static final Predefined<InetSocketAddress> address =
                 predefined("address", "Address to listen for TypeDB Clients on.", INET_SOCKET_ADDRESS);
-        private static final Set<Predefined<?>> parsers = set(address);
+        protected static final Predefined<CoreConfig.Server.Metrics> metrics =
+                predefined(Metrics.name, Metrics.description, new Metrics());
+        private static final Set<Predefined<?>> parsers = set(address, metrics);
 
         @Override
         public CoreConfig.Server parse(YAML yaml, String path) {
             if (yaml.isMap()) {
                 validatePredefinedKeys(parsers, yaml.asMap().keys(), path);
-                return new CoreConfig.Server(address.parse(yaml.asMap(), path));
+                CoreConfig.Server.Metrics serverMetrics = yaml.asMap().containsKey(metrics.key())
+                        ? metrics.parse(yaml.asMap(), path)
+                        : new CoreConfig.Server.Metrics(false, null);
+                return new CoreConfig.Server(address.parse(yaml.asMap(), path), serverMetrics);
             } else throw TypeDBException.of(CONFIG_YAML_MUST_BE_MAP, path);
         }
 
         @Override
         public List<com.vaticle.typedb.core.server.parameters.util.Help> helpList(String path) {
-            return list(address.help(path));
+            return list(address.help(path), metrics.help(path));
+        }
+
+        /**
+         * The metrics section was added after configurations already in use were written, so it may be left out, as
+         * may the address within it.
+         */
+        protected static class Metrics extends Compound<CoreConfig.Server.Metrics> {
+
+            private static final String name = "metrics";
+            private static final String description = "Server metrics endpoint configuration.";
+            private static final InetSocketAddress DEFAULT_ADDRESS = new InetSocketAddress("0.0.0.0", 4104);
+
+            private static final Predefined<Boolean> enable =
+                    predefined("enable", "Enable the Prometheus-format metrics endpoint.", BOOLEAN);
+            private static final Predefined<InetSocketAddress> address =
+                    predefined("address", "Address to serve metrics on, at the '/metrics' path.", INET_SOCKET_ADDRESS);
+            private static final Set<Predefined<?>> parsers = set(enable, address);
+
+            @Override
+            public CoreConfig.Server.Metrics parse(YAML yaml, String path) {
+                if (yaml.isMap()) {
+                    validatePredefinedKeys(parsers, yaml.asMap().keys(), path);
+                    if (enable.parse(yaml.asMap(), path)) {
+                        return new CoreConfig.Server.Metrics(true, yaml.asMap().containsKey(address.key())
+                                ? address.parse(yaml.asMap(), path)
+                                : DEFAULT_ADDRESS);
+                    } else {
+                        return new CoreConfig.Server.Metrics(false, null);
+                    }
+                } else throw TypeDBException.of(CONFIG_SECTION_MUST_BE_MAP, path);
+            }
+
+            @Override
+            public List<com.vaticle.typedb.core.server.parameters.util.Help> helpList(String path) {
+                return list(enable.help(path), address.help(path));
+            }
         }
     }
 
@@ -97,11 +97,13 @@ public abstract class ServerSubcommand {
         private final String database;
         private final Path file;
         private final int port;
+        private final boolean bulkLoad;
 
-        Import(String database, Path file, int port) {
+        Import(String database, Path file, int port, boolean bulkLoad) {
             this.database = database;
             this.file = file;
             this.port = port;
+            this.bulkLoad = bulkLoad;
         }
 
         public String database() {
@@ -116,6 +118,10 @@ public abstract class ServerSubcommand {
             return port;
         }
 
+        public boolean bulkLoad() {
+            return bulkLoad;
+        }
+
         @Override
         public boolean isImport() {
             return true;
@@ -132,11 +138,15 @@ public abstract class ServerSubcommand {
         private final String database;
         private final Path file;
         private final int port;
+        private final int shardsPerType;
+        private final boolean compress;
 
-        public Export(String database, Path file, int port) {
+        public Export(String database, Path file, int port, int shardsPerType, boolean compress) {
             this.database = database;
             this.file = file;
             this.port = port;
+            this.shardsPerType = shardsPerType;
+            this.compress = compress;
         }
 
         public String database() {
@@ -151,6 +161,14 @@ public abstract class ServerSubcommand {
             return port;
         }
 
+        public int shardsPerType() {
+            return shardsPerType;
+        }
+
+        public boolean compress() {
+            return compress;
+        }
+
         @Override
         public boolean isExport() {
             return true;
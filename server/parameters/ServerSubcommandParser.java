@@ -45,9 +45,9 @@ public class ServerSubcommandParser {
     }
 
     private static void validateUnrecognisedOptions(Set<OptionParser> recognisedParsers, Set<Option> options) {
-        recognisedParsers.forEach(parser -> {
-            if (iterate(options).noneMatch(option -> option.name().equals(parser.name()))) {
-                throw TypeDBException.of(CLI_OPTION_UNRECOGNISED, parser);
+        options.forEach(option -> {
+            if (iterate(recognisedParsers).noneMatch(parser -> parser.name().equals(option.name()))) {
+                throw TypeDBException.of(CLI_OPTION_UNRECOGNISED, option.name());
             }
         });
     }
@@ -109,7 +109,10 @@ public class ServerSubcommandParser {
         private static final OptionParser.Path filePath =
                 new OptionParser.Path("file", "Path to data file to import (.typedb format).");
         private static final OptionParser.Int port = new OptionParser.Int("port", "TypeDB's GRPC port.");
-        private static final Set<OptionParser> parsers = set(database, filePath, port);
+        private static final OptionParser.Flag bulkLoad = new OptionParser.Flag("bulk-load",
+                "Ingest data directly as SST files. The database must be empty and have no other writers.");
+        private static final Set<OptionParser> requiredParsers = set(database, filePath, port);
+        private static final Set<OptionParser> parsers = set(database, filePath, port, bulkLoad);
 
         public Import() {
             super(tokens, description);
@@ -117,15 +120,15 @@ public class ServerSubcommandParser {
 
         @Override
         protected ServerSubcommand.Import parse(Set<Option> options) {
-            validateRequiredOptions(parsers, options);
+            validateRequiredOptions(requiredParsers, options);
             validateUnrecognisedOptions(parsers, options);
             return new ServerSubcommand.Import(database.parse(options).get(), filePath.parse(options).get(),
-                    port.parse(options).get());
+                    port.parse(options).get(), bulkLoad.parse(options));
         }
 
         @Override
         public List<Help> helpList() {
-            return list(database.help(), filePath.help(), port.help());
+            return list(database.help(), filePath.help(), port.help(), bulkLoad.help());
         }
     }
 
@@ -139,7 +142,11 @@ public class ServerSubcommandParser {
         private static final OptionParser.Path filePath =
                 new OptionParser.Path("file", "Path to data file to export to.");
         private static final OptionParser.Int port = new OptionParser.Int("port", "TypeDB's GRPC port.");
-        private static final Set<OptionParser> parsers = set(database, filePath, port);
+        private static final OptionParser.Int shardsPerType = new OptionParser.Int("shards-per-type",
+                "Export in parallel, into a manifest and separate shard files with up to this many shards per type.");
+        private static final OptionParser.Flag compress = new OptionParser.Flag("compress", "Compress shard files.");
+        private static final Set<OptionParser> requiredParsers = set(database, filePath, port);
+        private static final Set<OptionParser> parsers = set(database, filePath, port, shardsPerType, compress);
 
         public Export() {
             super(tokens, description);
@@ -147,15 +154,15 @@ public class ServerSubcommandParser {
 
         @Override
         protected ServerSubcommand.Export parse(Set<Option> options) {
-            validateRequiredOptions(parsers, options);
+            validateRequiredOptions(requiredParsers, options);
             validateUnrecognisedOptions(parsers, options);
             return new ServerSubcommand.Export(database.parse(options).get(), filePath.parse(options).get(),
-                    port.parse(options).get());
+                    port.parse(options).get(), shardsPerType.parse(options).orElse(0), compress.parse(options));
         }
 
         @Override
         public List<Help> helpList() {
-            return list(database.help(), filePath.help(), port.help());
+            return list(database.help(), filePath.help(), port.help(), shardsPerType.help(), compress.help());
         }
     }
 }
@@ -18,19 +18,23 @@
 package com.vaticle.typedb.core.server.query;
 
 import com.vaticle.factory.tracing.client.FactoryTracingThreadStatic;
+import com.vaticle.typedb.common.collection.Either;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Context;
 import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.concept.ConceptManager;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
 import com.vaticle.typedb.core.concept.answer.ConceptMapGroup;
 import com.vaticle.typedb.core.concept.answer.NumericGroup;
+import com.vaticle.typedb.core.query.PreparedMatch;
 import com.vaticle.typedb.core.query.QueryManager;
 import com.vaticle.typedb.core.reasoner.answer.Explanation;
 import com.vaticle.typedb.core.server.TransactionService;
+import com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager.MatchResPartEncoder;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typedb.protocol.QueryProto;
 import com.vaticle.typedb.protocol.TransactionProto;
-import com.vaticle.typeql.lang.TypeQL;
 import com.vaticle.typeql.lang.query.TypeQLDefine;
 import com.vaticle.typeql.lang.query.TypeQLDelete;
 import com.vaticle.typeql.lang.query.TypeQLInsert;
@@ -38,6 +42,9 @@ import com.vaticle.typeql.lang.query.TypeQLMatch;
 import com.vaticle.typeql.lang.query.TypeQLUndefine;
 import com.vaticle.typeql.lang.query.TypeQLUpdate;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.vaticle.factory.tracing.client.FactoryTracingThreadStatic.traceOnThread;
@@ -58,12 +65,23 @@ import static com.vaticle.typedb.core.server.common.ResponseBuilder.QueryManager
 
 public class QueryService {
 
+    private static final int MAX_PREPARED_MATCHES = 256;
+
     private final QueryManager queryMgr;
+    private final ConceptManager conceptMgr;
     private final TransactionService transactionSvc;
+    private final Map<String, PreparedMatch> preparedMatches;
 
-    public QueryService(TransactionService transactionSvc, QueryManager queryMgr) {
+    public QueryService(TransactionService transactionSvc, QueryManager queryMgr, ConceptManager conceptMgr) {
         this.queryMgr = queryMgr;
+        this.conceptMgr = conceptMgr;
         this.transactionSvc = transactionSvc;
+        this.preparedMatches = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedMatch> eldest) {
+                return size() > MAX_PREPARED_MATCHES;
+            }
+        });
     }
 
     public void execute(TransactionProto.Transaction.Req req) {
@@ -112,62 +130,83 @@ public class QueryService {
     }
 
     private void define(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLDefine query = TypeQL.parseQuery(queryStr).asDefine();
+        TypeQLDefine query = queryMgr.parse(queryStr).asDefine();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
         queryMgr.define(query, context);
         transactionSvc.respond(defineRes(reqID));
     }
 
     private void undefine(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLUndefine query = TypeQL.parseQuery(queryStr).asUndefine();
+        TypeQLUndefine query = queryMgr.parse(queryStr).asUndefine();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
         queryMgr.undefine(query, context);
         transactionSvc.respond(undefineRes(reqID));
     }
 
+    /**
+     * In a data session, where the schema cannot change, a match query is prepared the first time the transaction
+     * receives it, so that repeating it skips type inference.
+     */
     private void match(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLMatch query = TypeQL.parseQuery(queryStr).asMatch();
-        Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
-        FunctionalIterator<? extends ConceptMap> answers = queryMgr.match(query, context);
-        transactionSvc.stream(answers, reqID, context.options(), a -> matchResPart(reqID, a));
+        Either<FunctionalIterator<VertexBatch>, FunctionalIterator<? extends ConceptMap>> answers;
+        Context.Query context;
+        if (transactionSvc.context().sessionType().isData()) {
+            PreparedMatch prepared = preparedMatches.get(queryStr);
+            if (prepared == null) {
+                prepared = queryMgr.prepare(queryMgr.parse(queryStr).asMatch());
+                preparedMatches.put(queryStr, prepared);
+            }
+            context = new Context.Query(transactionSvc.context(), options.query(prepared.query()), prepared.query());
+            answers = queryMgr.matchBatchedOrAnswers(prepared, new ConceptMap(), context);
+        } else {
+            TypeQLMatch query = queryMgr.parse(queryStr).asMatch();
+            context = new Context.Query(transactionSvc.context(), options.query(query), query);
+            answers = queryMgr.matchBatchedOrAnswers(query, context);
+        }
+        if (answers.isFirst()) {
+            MatchResPartEncoder encoder = new MatchResPartEncoder(conceptMgr);
+            transactionSvc.stream(answers.first(), reqID, context.options(), VertexBatch::size, b -> encoder.resPart(reqID, b));
+        } else {
+            transactionSvc.stream(answers.second(), reqID, context.options(), a -> matchResPart(reqID, a));
+        }
     }
 
     private void matchAggregate(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLMatch.Aggregate query = TypeQL.parseQuery(queryStr).asMatchAggregate();
+        TypeQLMatch.Aggregate query = queryMgr.parse(queryStr).asMatchAggregate();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
         transactionSvc.respond(matchAggregateRes(reqID, queryMgr.match(query, context)));
     }
 
     private void matchGroup(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLMatch.Group query = TypeQL.parseQuery(queryStr).asMatchGroup();
+        TypeQLMatch.Group query = queryMgr.parse(queryStr).asMatchGroup();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
         FunctionalIterator<ConceptMapGroup> answers = queryMgr.match(query, context);
         transactionSvc.stream(answers, reqID, context.options(), a -> matchGroupResPart(reqID, a));
     }
 
     private void matchGroupAggregate(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLMatch.Group.Aggregate query = TypeQL.parseQuery(queryStr).asMatchGroupAggregate();
+        TypeQLMatch.Group.Aggregate query = queryMgr.parse(queryStr).asMatchGroupAggregate();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
         FunctionalIterator<NumericGroup> answers = queryMgr.match(query, context);
         transactionSvc.stream(answers, reqID, context.options(), a -> matchGroupAggregateResPart(reqID, a));
     }
 
     private void insert(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLInsert query = TypeQL.parseQuery(queryStr).asInsert();
+        TypeQLInsert query = queryMgr.parse(queryStr).asInsert();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
         FunctionalIterator<ConceptMap> answers = queryMgr.insert(query, context);
         transactionSvc.stream(answers, reqID, context.options(), a -> insertResPart(reqID, a));
     }
 
     private void delete(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLDelete query = TypeQL.parseQuery(queryStr).asDelete();
+        TypeQLDelete query = queryMgr.parse(queryStr).asDelete();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
         queryMgr.delete(query, context);
         transactionSvc.respond(deleteRes(reqID));
     }
 
     private void update(String queryStr, Options.Query options, UUID reqID) {
-        TypeQLUpdate query = TypeQL.parseQuery(queryStr).asUpdate();
+        TypeQLUpdate query = queryMgr.parse(queryStr).asUpdate();
         Context.Query context = new Context.Query(transactionSvc.context(), options.query(query), query);
         FunctionalIterator<ConceptMap> answers = queryMgr.update(query, context);
         transactionSvc.stream(answers, reqID, context.options(), a -> updateResPart(reqID, a));
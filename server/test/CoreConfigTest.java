@@ -52,6 +52,7 @@ public class CoreConfigTest {
         CoreConfig config = CoreConfigFactory.config(new CoreConfigParser());
         assertTrue(config.storage().dataDir().toString().endsWith("server/data"));
         assertEquals(new InetSocketAddress("0.0.0.0", 1729), config.server().address());
+        assertFalse(config.server().metrics().enable());
         assertEquals(500 * Bytes.MB, config.storage().databaseCache().dataSize());
         assertEquals(500 * Bytes.MB, config.storage().databaseCache().indexSize());
         assertFalse(config.vaticleFactory().enable());
@@ -72,6 +73,7 @@ public class CoreConfigTest {
         CoreConfig config = CoreConfigFactory.config(configMinimalAbsPaths, new HashSet<>(), new CoreConfigParser());
         assertTrue(config.storage().dataDir().isAbsolute());
         assertEquals(new InetSocketAddress("0.0.0.0", 1730), config.server().address());
+        assertFalse(config.server().metrics().enable());
         assertEquals(200 * Bytes.MB, config.storage().databaseCache().dataSize());
         assertEquals(700 * Bytes.MB, config.storage().databaseCache().indexSize());
         assertFalse(config.vaticleFactory().enable());
@@ -111,6 +113,14 @@ public class CoreConfigTest {
         }
     }
 
+    @Test
+    public void metrics_address_defaults_when_enabled() {
+        Path configMetrics = Util.getTypedbDir().resolve("server/test/config/config-metrics-default-address.yml");
+        CoreConfig config = CoreConfigFactory.config(configMetrics, new HashSet<>(), new CoreConfigParser());
+        assertTrue(config.server().metrics().enable());
+        assertEquals(new InetSocketAddress("0.0.0.0", 4104), config.server().metrics().address().get());
+    }
+
     @Test
     public void config_file_missing_debugger_throws() {
         Path configMissingLogDebugger = Util.getTypedbDir().resolve("server/test/config/config-missing-debugger.yml");
@@ -168,6 +178,7 @@ public class CoreConfigTest {
                 set(
                     new Option("storage.data", "server/alt-data"),
                     new Option("server.address", "0.0.0.0:1730"),
+                    new Option("server.metrics.enable", "true"),
                     new Option("log.output.file.directory", "server/alt-logs"),
                     new Option("log.logger.default.level", "info"),
                     new Option("log.logger.typedb.output", "[file]")
@@ -176,6 +187,8 @@ public class CoreConfigTest {
         );
         assertTrue(config.storage().dataDir().toString().endsWith("server/alt-data"));
         assertEquals(new InetSocketAddress("0.0.0.0", 1730), config.server().address());
+        assertTrue(config.server().metrics().enable());
+        assertEquals(new InetSocketAddress("0.0.0.0", 4104), config.server().metrics().address().get());
         assertFalse(config.vaticleFactory().enable());
         assertTrue(config.log().output().outputs().containsKey("stdout"));
         assertTrue(config.log().output().outputs().containsKey("file"));
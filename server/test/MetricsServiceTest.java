@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.server.test;
+
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
+import com.vaticle.typedb.core.server.MetricsService;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsServiceTest {
+
+    @Test
+    public void metrics_are_rendered_in_prometheus_format() {
+        Metrics.counter("test_render_total", Metrics.label("kind", "a\"b"), "Rendered counter.").add(3);
+        Metrics.summary("test_render_seconds", "Rendered summary.").observe(0.5);
+        String rendered = Metrics.prometheus();
+        assertTrue(rendered.contains("# HELP test_render_total Rendered counter.\n# TYPE test_render_total counter\n"));
+        assertTrue(rendered.contains("test_render_total{kind=\"a\\\"b\"} 3\n"));
+        assertTrue(rendered.contains("# TYPE test_render_seconds summary\n"));
+        assertTrue(rendered.contains("test_render_seconds_count 1\n"));
+        assertTrue(rendered.contains("test_render_seconds_sum 0.5\n"));
+    }
+
+    @Test
+    public void metrics_are_served_over_http() throws IOException {
+        Metrics.counter("test_served_total", "Served counter.").increment();
+        try (MetricsService service = new MetricsService(new InetSocketAddress("127.0.0.1", 0))) {
+            service.start();
+            URL url = new URL("http", "127.0.0.1", service.address().getPort(), "/metrics");
+
+            HttpURLConnection get = (HttpURLConnection) url.openConnection();
+            assertEquals(200, get.getResponseCode());
+            assertTrue(get.getContentType().startsWith("text/plain; version=0.0.4"));
+            String body;
+            try (InputStream input = get.getInputStream()) {
+                body = new String(input.readAllBytes(), UTF_8);
+            }
+            assertTrue(body.contains("test_served_total 1\n"));
+
+            HttpURLConnection post = (HttpURLConnection) url.openConnection();
+            post.setRequestMethod("POST");
+            assertEquals(405, post.getResponseCode());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.eclipsesource.json.WriterConfig;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares a JMH JSON result file ({@code -rf json}) against the committed baseline, failing when any
+ * benchmark regressed by more than the baseline's tolerance. In {@code record} mode, the results replace the
+ * baseline instead; baselines are only meaningful when recorded on the same hardware that compares against them.
+ *
+ * Usage: {@code compare|record <results.json> <baseline.json>}
+ */
+public class BaselineComparator {
+
+    private static final double DEFAULT_TOLERANCE = 0.15;
+
+    private static class Score {
+
+        private final double value;
+        private final String unit;
+        private final boolean higherIsBetter;
+
+        private Score(double value, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+
+        private double regression(Score baseline) {
+            if (baseline.value == 0) return 0;
+            double change = (value - baseline.value) / baseline.value;
+            return higherIsBetter ? -change : change;
+        }
+
+        private JsonObject toJson() {
+            return Json.object().add("score", value).add("unit", unit).add("higher-is-better", higherIsBetter);
+        }
+    }
+
+    private static class Comparison {
+
+        private int regressions;
+        private int unrecorded;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !(args[0].equals("compare") || args[0].equals("record"))) {
+            System.err.println("Usage: compare|record <results.json> <baseline.json>");
+            System.exit(2);
+        }
+        Map<String, Score> results = readResults(Paths.get(args[1]));
+        Path baselineFile = Paths.get(args[2]);
+        if (args[0].equals("record")) {
+            record(results, baselineFile);
+        } else {
+            Comparison comparison = compare(results, baselineFile);
+            if (comparison.unrecorded > 0) {
+                System.err.println("Warning: " + comparison.unrecorded + " benchmark(s) have no baseline, and were " +
+                                           "not checked. Record one on the comparing hardware with: " +
+                                           "record <results.json> <baseline.json>");
+            }
+            if (comparison.regressions > 0) {
+                System.err.println(comparison.regressions + " benchmark(s) regressed beyond tolerance.");
+                System.exit(1);
+            }
+        }
+    }
+
+    private static Map<String, Score> readResults(Path file) throws IOException {
+        Map<String, Score> results = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            for (JsonValue value : Json.parse(reader).asArray()) {
+                JsonObject result = value.asObject();
+                JsonObject metric = result.get("primaryMetric").asObject();
+                results.put(key(result), new Score(metric.get("score").asDouble(), metric.get("scoreUnit").asString(),
+                                                   result.get("mode").asString().equals("thrpt")));
+            }
+        }
+        return results;
+    }
+
+    private static String key(JsonObject result) {
+        StringBuilder key = new StringBuilder(result.get("benchmark").asString());
+        JsonValue params = result.get("params");
+        if (params != null && params.isObject()) {
+            key.append(params.asObject().names().isEmpty() ? "" : ":");
+            for (JsonObject.Member param : params.asObject()) {
+                key.append(param.getName()).append("=").append(param.getValue().asString()).append(",");
+            }
+            if (key.charAt(key.length() - 1) == ',') key.setLength(key.length() - 1);
+        }
+        return key.toString();
+    }
+
+    private static void record(Map<String, Score> results, Path baselineFile) throws IOException {
+        double tolerance = DEFAULT_TOLERANCE;
+        if (Files.exists(baselineFile)) tolerance = readBaseline(baselineFile).getDouble("tolerance", DEFAULT_TOLERANCE);
+        JsonObject benchmarks = Json.object();
+        results.forEach((key, score) -> benchmarks.add(key, score.toJson()));
+        JsonObject baseline = Json.object().add("tolerance", tolerance).add("benchmarks", benchmarks);
+        try (Writer writer = Files.newBufferedWriter(baselineFile, UTF_8)) {
+            baseline.writeTo(writer, WriterConfig.PRETTY_PRINT);
+        }
+        System.out.println("Recorded " + results.size() + " benchmark(s) to " + baselineFile);
+    }
+
+    private static Comparison compare(Map<String, Score> results, Path baselineFile) throws IOException {
+        JsonObject baseline = readBaseline(baselineFile);
+        double tolerance = baseline.getDouble("tolerance", DEFAULT_TOLERANCE);
+        JsonValue benchmarks = baseline.get("benchmarks");
+        Comparison comparison = new Comparison();
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            JsonValue expected = benchmarks == null ? null : benchmarks.asObject().get(entry.getKey());
+            Score score = entry.getValue();
+            if (expected == null) {
+                comparison.unrecorded++;
+                System.out.println(String.format("%-100s %12.3f %s (no baseline)", entry.getKey(), score.value, score.unit));
+                continue;
+            }
+            JsonObject base = expected.asObject();
+            Score baseScore = new Score(base.getDouble("score", 0), base.getString("unit", score.unit),
+                                        base.getBoolean("higher-is-better", score.higherIsBetter));
+            if (!baseScore.unit.equals(score.unit)) {
+                System.out.println(String.format("%-100s unit changed from %s to %s, skipped", entry.getKey(), baseScore.unit, score.unit));
+                continue;
+            }
+            double regression = score.regression(baseScore);
+            boolean regressed = regression > tolerance;
+            if (regressed) comparison.regressions++;
+            System.out.println(String.format("%-100s %12.3f %s (baseline %.3f, %+.1f%%)%s", entry.getKey(), score.value,
+                                             score.unit, baseScore.value, regression * 100, regressed ? " REGRESSED" : ""));
+        }
+        return comparison;
+    }
+
+    private static JsonObject readBaseline(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            return Json.parse(reader).asObject();
+        }
+    }
+}
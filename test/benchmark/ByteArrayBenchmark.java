@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.exception.TypeDBCheckedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeDoubleAsSorted;
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeLong;
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeLongAsSorted;
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeStringAsSorted;
+import static com.vaticle.typedb.core.common.collection.ByteArray.join;
+import static com.vaticle.typedb.core.encoding.Encoding.ValueType.STRING_ENCODING;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteArrayBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private long[] longs;
+    private double[] doubles;
+    private String[] strings;
+    private ByteArray[] sortedLongs;
+    private ByteArray[] sortedStrings;
+    private ByteArray[] keys;
+    private int next;
+
+    @Setup
+    public void setup() throws TypeDBCheckedException {
+        Random random = new Random(SyntheticData.DEFAULT_SEED);
+        longs = new long[VALUES];
+        doubles = new double[VALUES];
+        strings = new String[VALUES];
+        sortedLongs = new ByteArray[VALUES];
+        sortedStrings = new ByteArray[VALUES];
+        keys = new ByteArray[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            longs[i] = random.nextLong();
+            doubles[i] = random.nextDouble();
+            strings[i] = Long.toString(random.nextLong(), 36);
+            sortedLongs[i] = encodeLongAsSorted(longs[i]);
+            sortedStrings[i] = encodeStringAsSorted(strings[i], STRING_ENCODING);
+            keys[i] = join(ByteArray.of(new byte[]{(byte) i}), sortedLongs[i], sortedStrings[i]);
+        }
+    }
+
+    private int next() {
+        next = (next + 1) & (VALUES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public ByteArray encode_long() {
+        return encodeLong(longs[next()]);
+    }
+
+    @Benchmark
+    public ByteArray encode_long_as_sorted() {
+        return encodeLongAsSorted(longs[next()]);
+    }
+
+    @Benchmark
+    public long decode_sorted_as_long() {
+        return sortedLongs[next()].decodeSortedAsLong();
+    }
+
+    @Benchmark
+    public ByteArray encode_double_as_sorted() {
+        return encodeDoubleAsSorted(doubles[next()]);
+    }
+
+    @Benchmark
+    public ByteArray encode_string_as_sorted() throws TypeDBCheckedException {
+        return encodeStringAsSorted(strings[next()], STRING_ENCODING);
+    }
+
+    @Benchmark
+    public String decode_sorted_as_string() {
+        return sortedStrings[next()].decodeSortedAsString(STRING_ENCODING);
+    }
+
+    @Benchmark
+    public ByteArray join_key() {
+        int i = next();
+        return join(ByteArray.of(new byte[]{(byte) i}), sortedLongs[i], sortedStrings[i]);
+    }
+
+    @Benchmark
+    public void compare_and_hash_keys(Blackhole blackhole) {
+        int i = next();
+        ByteArray key = keys[i];
+        blackhole.consume(key.compareTo(keys[(i + 1) & (VALUES - 1)]));
+        blackhole.consume(key.view(1).hashCode());
+    }
+}
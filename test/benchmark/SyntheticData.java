@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.test.benchmark;
+
+import com.vaticle.typedb.core.TypeDB;
+import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.database.CoreDatabaseManager;
+import com.vaticle.typeql.lang.TypeQL;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Random;
+
+import static com.vaticle.typedb.core.common.collection.Bytes.MB;
+
+/**
+ * Generates a deterministic synthetic dataset: the same seed and sizes always produce the same database,
+ * so that benchmark runs on different commits measure the same work.
+ */
+public class SyntheticData {
+
+    public static final long DEFAULT_SEED = 20220101L;
+    public static final String DATABASE = "benchmark";
+
+    public static final String SCHEMA = "define " +
+            "name sub attribute, value string;" +
+            "age sub attribute, value long;" +
+            "salary sub attribute, value double;" +
+            "person sub entity, owns name, owns age, plays friendship:friend, plays employment:employee," +
+            "    plays colleagues:colleague;" +
+            "company sub entity, owns name, plays employment:employer;" +
+            "friendship sub relation, relates friend;" +
+            "employment sub relation, relates employer, relates employee, owns salary;" +
+            "colleagues sub relation, relates colleague;" +
+            "rule colleagues-from-employment: when {" +
+            "    (employer: $c, employee: $x) isa employment; (employer: $c, employee: $y) isa employment;" +
+            "    not { $x is $y; };" +
+            "} then { (colleague: $x, colleague: $y) isa colleagues; };" +
+            "rule employer-shares-name: when {" +
+            "    $c isa company, has name $n; (employer: $c, employee: $x) isa employment;" +
+            "} then { $x has $n; };";
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ru", "sa", "ti", "vo", "ze", "qu"};
+
+    private final long seed;
+    private final int batches;
+    private final int peoplePerBatch;
+
+    public SyntheticData(long seed, int batches, int peoplePerBatch) {
+        this.seed = seed;
+        this.batches = batches;
+        this.peoplePerBatch = peoplePerBatch;
+    }
+
+    public static Path resetDirectory(String name) {
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir")).resolve("typedb-benchmark-" + name);
+        try {
+            if (Files.exists(directory)) {
+                Files.walk(directory).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return directory;
+    }
+
+    public static CoreDatabaseManager open(Path directory) {
+        return CoreDatabaseManager.open(new Options.Database().dataDir(directory)
+                .reasonerDebuggerDir(directory.resolve("logs"))
+                .storageDataCacheSize(64 * MB).storageIndexCacheSize(64 * MB));
+    }
+
+    public static void defineSchema(CoreDatabaseManager databaseMgr, String database) {
+        databaseMgr.create(database);
+        try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                transaction.query().define(TypeQL.parseQuery(SCHEMA).asDefine());
+                transaction.commit();
+            }
+        }
+    }
+
+    public void load(CoreDatabaseManager databaseMgr, String database) {
+        defineSchema(databaseMgr, database);
+        Random random = new Random(seed);
+        try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.DATA)) {
+            for (int batch = 0; batch < batches; batch++) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(TypeQL.parseQuery(batch(random, batch)).asInsert());
+                    transaction.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Each batch is a self-contained insert: a company, its employees, and a sparse friendship graph
+     * between the people of the batch.
+     */
+    private String batch(Random random, int batch) {
+        StringBuilder insert = new StringBuilder("insert ");
+        insert.append("$c isa company, has name \"company-").append(batch).append("\";");
+        for (int i = 0; i < peoplePerBatch; i++) {
+            insert.append("$p").append(i).append(" isa person, has name \"").append(name(random))
+                    .append("\", has age ").append(18 + random.nextInt(60)).append(";");
+            if (random.nextInt(4) != 0) {
+                insert.append("(employer: $c, employee: $p").append(i).append(") isa employment, has salary ")
+                        .append(20_000 + random.nextInt(80_000) + random.nextInt(100) / 100.0).append(";");
+            }
+        }
+        for (int i = 0; i < peoplePerBatch * 2; i++) {
+            int first = random.nextInt(peoplePerBatch), second = random.nextInt(peoplePerBatch);
+            if (first == second) continue;
+            insert.append("(friend: $p").append(first).append(", friend: $p").append(second).append(") isa friendship;");
+        }
+        return insert.toString();
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 2 + random.nextInt(3);
+        for (int i = 0; i < length; i++) name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        return name.toString();
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_SEED;
+        int batches = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int peoplePerBatch = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        Path directory = args.length > 3 ? Paths.get(args[3]) : resetDirectory("data");
+        try (CoreDatabaseManager databaseMgr = open(directory)) {
+            new SyntheticData(seed, batches, peoplePerBatch).load(databaseMgr, DATABASE);
+        }
+        System.out.println("Synthetic database '" + DATABASE + "' written to " + directory);
+    }
+}
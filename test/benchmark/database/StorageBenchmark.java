@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.database;
+
+import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.collection.KeyValue;
+import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator.Forwardable;
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.common.parameters.Order;
+import com.vaticle.typedb.core.encoding.Storage;
+import com.vaticle.typedb.core.encoding.iid.VertexIID;
+import com.vaticle.typedb.core.encoding.key.Key;
+import com.vaticle.typedb.core.test.benchmark.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.parameters.Arguments.Session.Type.DATA;
+import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.READ;
+import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
+
+/**
+ * Measures the storage layer directly, below the graph: tracked writes and commit, full prefix scans and
+ * seeks into a sorted prefix iterator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    private static final Label PERSON = Label.of("person");
+    private static final int SEEK_TARGETS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        @Param({"20"})
+        public int batches;
+
+        @Param({"100"})
+        public int peoplePerBatch;
+
+        CoreDatabaseManager databaseMgr;
+        CoreSession session;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            databaseMgr = SyntheticData.open(SyntheticData.resetDirectory("storage"));
+            new SyntheticData(SyntheticData.DEFAULT_SEED, batches, peoplePerBatch).load(databaseMgr, SyntheticData.DATABASE);
+            session = databaseMgr.session(SyntheticData.DATABASE, DATA);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            session.close();
+            databaseMgr.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+
+        CoreTransaction transaction;
+        Storage.Data storage;
+        Key.Prefix<VertexIID.Thing> personPrefix;
+        VertexIID.Thing[] seekTargets;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setup(Database database) {
+            transaction = database.session.transaction(READ);
+            storage = transaction.graphMgr.data().storage();
+            personPrefix = VertexIID.Thing.prefix(transaction.graphMgr.schema().getType(PERSON).iid());
+            VertexIID.Thing[] persons = storage.iterate(personPrefix, ASC).map(KeyValue::key).toList()
+                    .toArray(new VertexIID.Thing[0]);
+            Random random = new Random(SyntheticData.DEFAULT_SEED);
+            seekTargets = new VertexIID.Thing[SEEK_TARGETS];
+            for (int i = 0; i < SEEK_TARGETS; i++) seekTargets[i] = persons[random.nextInt(persons.length)];
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            transaction.close();
+        }
+
+        VertexIID.Thing nextTarget() {
+            next = (next + 1) & (SEEK_TARGETS - 1);
+            return seekTargets[next];
+        }
+    }
+
+    @Benchmark
+    public long prefix_scan(Reader reader) {
+        return reader.storage.iterate(reader.personPrefix, ASC).count();
+    }
+
+    @Benchmark
+    public KeyValue<VertexIID.Thing, ByteArray> forward_seek(Reader reader) {
+        Forwardable<KeyValue<VertexIID.Thing, ByteArray>, Order.Asc> iterator = reader.storage.iterate(reader.personPrefix, ASC);
+        iterator.forward(KeyValue.of(reader.nextTarget(), null));
+        KeyValue<VertexIID.Thing, ByteArray> next = iterator.next();
+        iterator.recycle();
+        return next;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void put_tracked_and_commit(Database database) {
+        try (CoreTransaction transaction = database.session.transaction(WRITE)) {
+            Storage.Data storage = transaction.graphMgr.data().storage();
+            VertexIID.Type person = transaction.graphMgr.schema().getType(PERSON).iid();
+            for (int i = 0; i < 1_000; i++) {
+                storage.putTracked(VertexIID.Thing.generate(storage.dataKeyGenerator(), person, PERSON));
+            }
+            transaction.commit();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.logic.resolvable;
+
+import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.concept.ConceptManager;
+import com.vaticle.typedb.core.database.CoreDatabaseManager;
+import com.vaticle.typedb.core.database.CoreSession;
+import com.vaticle.typedb.core.database.CoreTransaction;
+import com.vaticle.typedb.core.logic.LogicManager;
+import com.vaticle.typedb.core.logic.Rule;
+import com.vaticle.typedb.core.pattern.Conjunction;
+import com.vaticle.typedb.core.pattern.Disjunction;
+import com.vaticle.typedb.core.test.benchmark.SyntheticData;
+import com.vaticle.typeql.lang.TypeQL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.parameters.Arguments.Session.Type.SCHEMA;
+
+/**
+ * Measures the reasoner's rule matching: extracting concludables from a conjunction, and unifying
+ * concludables with every rule conclusion in the synthetic schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnificationBenchmark {
+
+    private static final Map<String, String> CONJUNCTIONS = new HashMap<String, String>() {{
+        put("relation", "{ ($role: $p) isa $rel; $p isa person; }");
+        put("colleagues", "{ (colleague: $x, colleague: $y) isa colleagues; $x has name $n; }");
+        put("has", "{ $x isa person, has name $n; $n = \"company-0\"; }");
+    }};
+
+    @Param({"relation", "colleagues", "has"})
+    public String conjunction;
+
+    private CoreDatabaseManager databaseMgr;
+    private CoreSession session;
+    private CoreTransaction transaction;
+    private ConceptManager conceptMgr;
+    private Conjunction resolved;
+    private Set<Concludable> concludables;
+    private List<Rule> rules;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        databaseMgr = SyntheticData.open(SyntheticData.resetDirectory("unification"));
+        SyntheticData.defineSchema(databaseMgr, SyntheticData.DATABASE);
+        session = databaseMgr.session(SyntheticData.DATABASE, SCHEMA);
+        transaction = session.transaction(Arguments.Transaction.Type.READ);
+        conceptMgr = transaction.concepts();
+        LogicManager logicMgr = transaction.logic();
+        Disjunction disjunction = Disjunction.create(TypeQL.parsePattern(CONJUNCTIONS.get(conjunction)).asConjunction().normalise());
+        logicMgr.typeInference().applyCombination(disjunction);
+        resolved = disjunction.conjunctions().get(0);
+        concludables = Concludable.create(resolved);
+        rules = logicMgr.rules().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transaction.close();
+        session.close();
+        databaseMgr.close();
+    }
+
+    @Benchmark
+    public Set<Concludable> create_concludables() {
+        return Concludable.create(resolved);
+    }
+
+    @Benchmark
+    public void unify_with_rules(Blackhole blackhole) {
+        for (Concludable concludable : concludables) {
+            for (Rule rule : rules) {
+                concludable.unify(rule.conclusion(), conceptMgr).forEachRemaining(blackhole::consume);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal;
+
+import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.database.CoreDatabaseManager;
+import com.vaticle.typedb.core.database.CoreSession;
+import com.vaticle.typedb.core.database.CoreTransaction;
+import com.vaticle.typedb.core.pattern.Conjunction;
+import com.vaticle.typedb.core.pattern.Disjunction;
+import com.vaticle.typedb.core.test.benchmark.SyntheticData;
+import com.vaticle.typedb.core.traversal.planner.Planner;
+import com.vaticle.typeql.lang.TypeQL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.vaticle.typedb.core.common.parameters.Arguments.Session.Type.DATA;
+
+/**
+ * Measures graph traversal over the synthetic dataset: {@code GraphIterator} answer production with a
+ * warm plan cache, and the latency of planning a traversal from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraversalBenchmark {
+
+    private static final Map<String, String> QUERIES = new HashMap<String, String>() {{
+        put("ownership", "{ $p isa person, has name $n; }");
+        put("friends-of-adults", "{ $p isa person, has age $a; $a > 40; (friend: $p, friend: $f) isa friendship; $f has name $n; }");
+        put("employee-friends", "{ (employer: $c, employee: $p) isa employment, has salary $s; (friend: $p, friend: $q) isa friendship; }");
+    }};
+
+    @Param({"ownership", "friends-of-adults", "employee-friends"})
+    public String query;
+
+    @Param({"20"})
+    public int batches;
+
+    @Param({"100"})
+    public int peoplePerBatch;
+
+    private CoreDatabaseManager databaseMgr;
+    private CoreSession session;
+    private CoreTransaction transaction;
+    private Conjunction conjunction;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        databaseMgr = SyntheticData.open(SyntheticData.resetDirectory("traversal"));
+        new SyntheticData(SyntheticData.DEFAULT_SEED, batches, peoplePerBatch).load(databaseMgr, SyntheticData.DATABASE);
+        session = databaseMgr.session(SyntheticData.DATABASE, DATA);
+        transaction = session.transaction(Arguments.Transaction.Type.READ);
+        Disjunction disjunction = Disjunction.create(TypeQL.parsePattern(QUERIES.get(query)).asConjunction().normalise());
+        transaction.logic().typeInference().applyCombination(disjunction);
+        conjunction = disjunction.conjunctions().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transaction.close();
+        session.close();
+        databaseMgr.close();
+    }
+
+    @Benchmark
+    public long graph_iterator() {
+        return transaction.traversal().iterator(conjunction.traversal()).count();
+    }
+
+    @Benchmark
+    public boolean planner_optimise() {
+        GraphTraversal.Thing traversal = conjunction.traversal();
+        Planner planner = Planner.create(traversal.structure(), traversal.modifiers());
+        planner.tryOptimise(transaction.traversal().graph(), true);
+        return planner.isOptimal();
+    }
+}
@@ -18,11 +18,20 @@
 
 package com.vaticle.typedb.core.test.integration;
 
+import com.vaticle.typedb.common.collection.Either;
 import com.vaticle.typedb.core.TypeDB;
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Context;
+import com.vaticle.typedb.core.common.parameters.Options;
 import com.vaticle.typedb.core.common.parameters.Options.Database;
+import com.vaticle.typedb.core.concept.Concept;
 import com.vaticle.typedb.core.concept.answer.ConceptMap;
+import com.vaticle.typedb.core.concept.answer.ConceptMapGroup;
+import com.vaticle.typedb.core.concept.answer.Numeric;
+import com.vaticle.typedb.core.concept.answer.NumericGroup;
 import com.vaticle.typedb.core.concept.thing.Attribute;
 import com.vaticle.typedb.core.concept.thing.Entity;
 import com.vaticle.typedb.core.concept.type.AttributeType;
@@ -30,7 +39,10 @@ import com.vaticle.typedb.core.concept.type.EntityType;
 import com.vaticle.typedb.core.concept.type.RelationType;
 import com.vaticle.typedb.core.concept.type.RoleType;
 import com.vaticle.typedb.core.database.CoreDatabaseManager;
+import com.vaticle.typedb.core.query.PreparedMatch;
 import com.vaticle.typedb.core.test.integration.util.Util;
+import com.vaticle.typedb.core.traversal.common.Identifier;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typeql.lang.TypeQL;
 import com.vaticle.typeql.lang.query.TypeQLDefine;
 import com.vaticle.typeql.lang.query.TypeQLDelete;
@@ -43,9 +55,19 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.vaticle.typedb.common.collection.Collections.list;
+import static com.vaticle.typedb.common.collection.Collections.map;
+import static com.vaticle.typedb.common.collection.Collections.pair;
 import static com.vaticle.typedb.core.common.collection.Bytes.MB;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typedb.core.test.integration.util.Util.assertNotNulls;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
@@ -53,6 +75,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class QueryTest {
 
@@ -308,4 +331,663 @@ public class QueryTest {
             }
         }
     }
+
+    @Test
+    public void test_query_count() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String queryString = "insert " +
+                            "$o isa organisation, has name 'vaticle'; " +
+                            "$t isa team, has name 'engineers', has symbol 'vaticle/engineers'; " +
+                            "$u1 isa user, has name 'butler', has email 'butler@vaticle.com'; " +
+                            "$u2 isa user, has name 'alfred', has email 'alfred@vaticle.com', has email 'alfred@typedb.com';";
+                    transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(2, transaction.query().match(TypeQL.parseQuery("match $x isa user; count;").asMatchAggregate()).asLong());
+                    assertEquals(4, transaction.query().match(TypeQL.parseQuery("match $x isa entity; count;").asMatchAggregate()).asLong());
+                    assertEquals(4, transaction.query().match(TypeQL.parseQuery("match $x isa name; count;").asMatchAggregate()).asLong());
+                    assertEquals(3, transaction.query().match(TypeQL.parseQuery("match $x isa user, has email $e; count;").asMatchAggregate()).asLong());
+                    assertEquals(4, transaction.query().match(TypeQL.parseQuery("match $x has name $n; count;").asMatchAggregate()).asLong());
+                    // patterns that cannot be answered from statistics
+                    assertEquals(1, transaction.query().match(TypeQL.parseQuery("match $x isa user, has name 'butler'; count;").asMatchAggregate()).asLong());
+                    assertEquals(3, transaction.query().match(TypeQL.parseQuery("match $x isa user, has email $e, has name $n; count;").asMatchAggregate()).asLong());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_aggregate_attributes() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String queryString = "insert $a -7 isa index; $b 3 isa index; $c 12 isa index; $d 40 isa priority;";
+                    transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(-7, transaction.query().match(TypeQL.parseQuery("match $x isa index; min $x;").asMatchAggregate()).asLong());
+                    assertEquals(12, transaction.query().match(TypeQL.parseQuery("match $x isa index; max $x;").asMatchAggregate()).asLong());
+                    assertEquals(8, transaction.query().match(TypeQL.parseQuery("match $x isa index; sum $x;").asMatchAggregate()).asLong());
+                    assertEquals(8.0 / 3, transaction.query().match(TypeQL.parseQuery("match $x isa index; mean $x;").asMatchAggregate()).asDouble(), 0.0001);
+                    assertTrue(transaction.query().match(TypeQL.parseQuery("match $x isa run; max $x;").asMatchAggregate()).isNaN());
+                }
+            }
+
+            // every attribute type is numeric, and the double one has no instances to sum
+            String numericDatabase = "numeric-attributes";
+            typedb.create(numericDatabase);
+            try (TypeDB.Session session = typedb.session(numericDatabase, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().define(TypeQL.parseQuery("define score sub attribute, value long; weight sub attribute, value double;").asDefine());
+                    transaction.commit();
+                }
+            }
+            try (TypeDB.Session session = typedb.session(numericDatabase, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(TypeQL.parseQuery("insert $a 5 isa score; $b 6 isa score;").asInsert());
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Numeric sum = transaction.query().match(TypeQL.parseQuery("match $x isa attribute; sum $x;").asMatchAggregate());
+                    assertTrue(sum.isLong());
+                    assertEquals(11, sum.asLong());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_prepared_match() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String queryString = "insert " +
+                            "$u1 isa user, has name 'butler', has email 'butler@vaticle.com'; " +
+                            "$u2 isa user, has name 'alfred', has email 'alfred@vaticle.com', has email 'alfred@typedb.com';";
+                    transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    PreparedMatch prepared = transaction.query().prepare(TypeQL.parseQuery("match $u isa user, has name $n, has email $e;").asMatch());
+                    assertEquals(3, transaction.query().match(prepared, new ConceptMap()).count());
+
+                    Identifier.Variable.Name name = Identifier.Variable.name("n");
+                    List<? extends ConceptMap> names = transaction.query().match(TypeQL.parseQuery("match $n isa name;").asMatch()).toList();
+                    assertEquals(2, names.size());
+                    for (ConceptMap answer : names) {
+                        String value = answer.get(name).asAttribute().asString().getValue();
+                        ConceptMap parameters = new ConceptMap(map(pair(name, answer.get(name))));
+                        List<? extends ConceptMap> answers = transaction.query().match(prepared, parameters).toList();
+                        assertEquals(value.equals("alfred") ? 2 : 1, answers.size());
+                        assertTrue(iterate(answers).allMatch(a -> a.get(name).equals(answer.get(name))));
+
+                        List<? extends ConceptMap> valueAnswers = transaction.query().match(
+                                prepared, new ConceptMap(), map(pair(name, value))
+                        ).toList();
+                        assertEquals(new HashSet<>(answers), new HashSet<>(valueAnswers));
+                    }
+                    assertEquals(0, transaction.query().match(prepared, new ConceptMap(), map(pair(name, "robin"))).count());
+                    assertEquals(0, transaction.query().match(prepared, new ConceptMap(), map(pair(name, 10L))).count());
+                    try {
+                        transaction.query().match(prepared, new ConceptMap(), map(pair(name, new Object()))).count();
+                        fail();
+                    } catch (TypeDBException e) {
+                        // expected
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_sort_limit_and_spill() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            int users = 20_000;
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                for (int batch = 0; batch < users; batch += 1_000) {
+                    try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        for (int i = batch; i < batch + 1_000; i++) {
+                            String queryString = String.format("insert $u isa user, has name 'user-%05d';", i);
+                            transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                        }
+                        transaction.commit();
+                    }
+                }
+
+                Options.Transaction spillAll = new Options.Transaction().sortMemoryLimit(0);
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ, spillAll)) {
+                    Identifier.Variable.Name name = Identifier.Variable.name("n");
+                    List<? extends ConceptMap> top = transaction.query().match(TypeQL.parseQuery(
+                            "match $u isa user, has name $n; sort $n desc; offset 1; limit 2;").asMatch()).toList();
+                    assertEquals(2, top.size());
+                    assertEquals("user-19998", top.get(0).get(name).asAttribute().asString().getValue());
+                    assertEquals("user-19997", top.get(1).get(name).asAttribute().asString().getValue());
+
+                    // the spilled runs are read back from files that are already unlinked from the database directory
+                    FunctionalIterator<? extends ConceptMap> answers = transaction.query().match(TypeQL.parseQuery(
+                            "match $n isa name; sort $n;").asMatch());
+                    assertTrue(answers.hasNext());
+                    Path spillDirectory = dataDir.resolve(database).resolve("spill");
+                    assertTrue(Files.isDirectory(spillDirectory));
+                    assertNoSpillFiles(spillDirectory);
+                    List<? extends ConceptMap> sorted = answers.toList();
+                    assertNoSpillFiles(spillDirectory);
+                    assertEquals(users, sorted.size());
+                    for (int i = 0; i < users; i++) {
+                        assertEquals(String.format("user-%05d", i), sorted.get(i).get(name).asAttribute().asString().getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_parallel_split() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().define(TypeQL.parseQuery("define " +
+                            "tag sub attribute, value long; " +
+                            "member sub entity, owns tag; senior sub member; guest sub member; " +
+                            "board sub entity, owns tag;").asDefine());
+                    transaction.commit();
+                }
+            }
+
+            // members and seniors are split into several ranges each, which meet at the boundary of their type
+            // prefixes, while the few guests are too small a type to be split
+            int members = 6_000;
+            int guests = 100;
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                for (int batch = 0; batch < members; batch += 1_000) {
+                    try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        for (int i = batch; i < batch + 1_000; i++) {
+                            transaction.query().insert(TypeQL.parseQuery(String.format(
+                                    "insert $m isa member, has tag %d; $s isa senior, has tag %d;", i, i + members
+                            )).asInsert());
+                        }
+                        transaction.commit();
+                    }
+                }
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < guests; i++) {
+                        transaction.query().insert(TypeQL.parseQuery(String.format("insert $g isa guest, has tag %d;", i)).asInsert());
+                    }
+                    // a single board owns every tag, so its adjacency is split instead of its own scan
+                    transaction.query().insert(TypeQL.parseQuery("insert $b isa board;").asInsert());
+                    transaction.commit();
+                }
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(TypeQL.parseQuery("match $b isa board; $t isa tag; insert $b has $t;").asInsert());
+                    transaction.commit();
+                }
+
+                String board;
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    StringBuilder iid = new StringBuilder("0x");
+                    ConceptMap answer = transaction.query().match(TypeQL.parseQuery("match $b isa board;").asMatch()).next();
+                    for (byte b : answer.get("b").asThing().getIID().getBytes()) iid.append(String.format("%02x", b));
+                    board = iid.toString();
+                }
+
+                String[] queries = new String[]{
+                        "match $m isa member, has tag $t;",
+                        "match $m isa member;",
+                        "match $t isa tag; $t > 5000;",
+                        "match $b iid " + board + "; $b has tag $t;",
+                        "match $b iid " + board + "; $b has tag $t; get $t;",
+                };
+                for (String queryString : queries) {
+                    Set<ConceptMap> unsplit;
+                    Set<ConceptMap> split;
+                    try (TypeDB.Transaction transaction = session.transaction(
+                            Arguments.Transaction.Type.READ, new Options.Transaction().parallel(false))) {
+                        unsplit = transaction.query().match(TypeQL.parseQuery(queryString).asMatch()).toSet();
+                    }
+                    try (TypeDB.Transaction transaction = session.transaction(
+                            Arguments.Transaction.Type.READ, new Options.Transaction().parallel(true))) {
+                        split = transaction.query().match(TypeQL.parseQuery(queryString).asMatch()).toSet();
+                    }
+                    assertFalse(unsplit.isEmpty());
+                    assertEquals(queryString, unsplit, split);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_sort_parallel() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            // priorities are inserted out of order and shared by several users, so the partitions are split over
+            // several IID ranges of the priorities, and equal priorities are merged from different partitions
+            int users = 12_000;
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                for (int batch = 0; batch < users; batch += 1_000) {
+                    try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        for (int i = batch; i < batch + 1_000; i++) {
+                            String queryString = String.format(
+                                    "insert $u isa user, has name 'user-%05d', has priority %d;", i, (i * 7919L) % 6_000
+                            );
+                            transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                        }
+                        transaction.commit();
+                    }
+                }
+
+                Identifier.Variable.Name priority = Identifier.Variable.name("p");
+                Identifier.Variable.Name name = Identifier.Variable.name("n");
+                String[] queries = new String[]{
+                        "match $u isa user, has priority $p; sort $p;",
+                        "match $u isa user, has priority $p; sort $p desc;",
+                        "match $u isa user, has name $n, has priority $p; sort $n;",
+                };
+                for (String queryString : queries) {
+                    Identifier.Variable.Name sorted = queryString.endsWith("sort $n;") ? name : priority;
+                    List<? extends ConceptMap> serial;
+                    List<? extends ConceptMap> parallel;
+                    try (TypeDB.Transaction transaction = session.transaction(
+                            Arguments.Transaction.Type.READ, new Options.Transaction().parallel(false))) {
+                        serial = transaction.query().match(TypeQL.parseQuery(queryString).asMatch()).toList();
+                    }
+                    try (TypeDB.Transaction transaction = session.transaction(
+                            Arguments.Transaction.Type.READ, new Options.Transaction().parallel(true))) {
+                        parallel = transaction.query().match(TypeQL.parseQuery(queryString).asMatch()).toList();
+                    }
+                    assertEquals(users, serial.size());
+                    // answers with equal sort values may come in either order, but the sorted values may not
+                    assertEquals(iterate(serial).map(answer -> answer.get(sorted)).toList(),
+                            iterate(parallel).map(answer -> answer.get(sorted)).toList());
+                    assertEquals(new HashSet<>(serial), new HashSet<>(parallel));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_group_sorted() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            // names and full names share their values, so attributes of either type with an equal value are
+            // sorted next to each other in no particular order, and must still each form a single group
+            int users = 200;
+            int values = 20;
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < users; i++) {
+                        String queryString = String.format(
+                                "insert $u isa user, has name 'value-%02d', has full-name 'value-%02d';", i % values, (i * 7) % values
+                        );
+                        transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    }
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    String match = "match $u isa user, has $a;";
+                    List<ConceptMapGroup> unsorted = transaction.query().match(
+                            TypeQL.parseQuery(match + " group $a;").asMatchGroup()).toList();
+                    List<ConceptMapGroup> sorted = transaction.query().match(
+                            TypeQL.parseQuery(match + " sort $a; group $a;").asMatchGroup()).toList();
+                    assertEquals(2 * values, unsorted.size());
+                    assertEquals(unsorted.size(), sorted.size());
+                    assertEquals(unsorted.size(), iterate(sorted).map(ConceptMapGroup::owner).toSet().size());
+                    assertEquals(groupedAnswers(unsorted), groupedAnswers(sorted));
+
+                    List<NumericGroup> counts = transaction.query().match(
+                            TypeQL.parseQuery(match + " sort $a; group $a; count;").asMatchGroupAggregate()).toList();
+                    assertEquals(2 * values, counts.size());
+                    for (NumericGroup count : counts) assertEquals(users / values, count.numeric().asLong());
+                }
+            }
+        }
+    }
+
+    private static Map<Concept, Set<ConceptMap>> groupedAnswers(List<ConceptMapGroup> groups) {
+        Map<Concept, Set<ConceptMap>> answers = new HashMap<>();
+        for (ConceptMapGroup group : groups) answers.put(group.owner(), new HashSet<>(group.conceptMaps()));
+        return answers;
+    }
+
+    @Test
+    public void test_query_match_batched() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            int users = 1_000;
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < users; i++) {
+                        String queryString = String.format("insert $u isa user, has name 'user-%05d';", i);
+                        transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    }
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    TypeQLMatch query = TypeQL.parseQuery("match $u isa user, has name $n;").asMatch();
+                    Optional<FunctionalIterator<VertexBatch>> batches = transaction.query().matchBatched(query);
+                    assertTrue(batches.isPresent());
+                    Set<ConceptMap> batched = new HashSet<>();
+                    batches.get().forEachRemaining(batch -> {
+                        for (int row = 0; row < batch.size(); row++) {
+                            batched.add(transaction.concepts().conceptMap(batch.vertexMap(row)));
+                        }
+                    });
+                    assertEquals(users, batched.size());
+                    assertEquals(transaction.query().match(query).toSet(), batched);
+
+                    assertFalse(transaction.query().matchBatched(TypeQL.parseQuery(
+                            "match $u isa user, has name $n; sort $n;").asMatch()).isPresent());
+
+                    // the same query is answered in batches or as concept maps, depending on what it needs
+                    Context.Query context = new Context.Query(transaction.context(), new Options.Query());
+                    assertTrue(transaction.query().matchBatchedOrAnswers(query, context).isFirst());
+                    TypeQLMatch sorted = TypeQL.parseQuery("match $u isa user, has name $n; sort $n;").asMatch();
+                    Either<FunctionalIterator<VertexBatch>, FunctionalIterator<? extends ConceptMap>> answers =
+                            transaction.query().matchBatchedOrAnswers(sorted, context);
+                    assertTrue(answers.isSecond());
+                    assertEquals(users, answers.second().count());
+
+                    // a prepared query, as the server runs a repeated match query, is answered the same way
+                    Either<FunctionalIterator<VertexBatch>, FunctionalIterator<? extends ConceptMap>> preparedAnswers =
+                            transaction.query().matchBatchedOrAnswers(transaction.query().prepare(query), new ConceptMap(), context);
+                    assertTrue(preparedAnswers.isFirst());
+                    assertEquals(users, preparedAnswers.first().stream().mapToLong(VertexBatch::size).sum());
+                    preparedAnswers = transaction.query().matchBatchedOrAnswers(transaction.query().prepare(sorted), new ConceptMap(), context);
+                    assertTrue(preparedAnswers.isSecond());
+                    assertEquals(users, preparedAnswers.second().count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_cached_patterns() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            String disjunction = "match $x isa user; {$x has name 'butler';} or {$x has symbol 'alfred';};";
+            String negation = "match $x isa user; not {$x has symbol 'alfred';};";
+            String symbols = "match $x has symbol $s;";
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    String queryString = "insert $u1 isa user, has name 'butler'; $u2 isa user, has name 'alfred';";
+                    transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    transaction.commit();
+                }
+
+                // incoherent patterns are rejected on the first lookup, and on every lookup after it
+                for (int i = 0; i < 2; i++) {
+                    try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                        assertUnsatisfiable(transaction, disjunction);
+                        assertUnsatisfiable(transaction, negation);
+                    }
+                }
+
+                // a coherent pattern gives the same answers whether or not it is already cached
+                String coherent = "match $x isa user, has name $n; not {$n 'butler';};";
+                for (int i = 0; i < 2; i++) {
+                    try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                        List<? extends ConceptMap> answers = transaction.query().match(TypeQL.parseQuery(coherent).asMatch()).toList();
+                        assertEquals(1, answers.size());
+                        assertEquals("alfred", answers.get(0).get("n").asAttribute().asString().getValue());
+                    }
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(0, transaction.query().match(TypeQL.parseQuery(symbols).asMatch()).count());
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().define(TypeQL.parseQuery("define user owns symbol;").asDefine());
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(TypeQL.parseQuery("insert $u isa user, has name 'cedric', has symbol 'alfred';").asInsert());
+                    transaction.commit();
+                }
+
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(2, transaction.query().match(TypeQL.parseQuery(disjunction).asMatch()).count());
+                    assertEquals(2, transaction.query().match(TypeQL.parseQuery(negation).asMatch()).count());
+                    // the owners inferred for 'symbol' before the schema write must not be reused
+                    assertEquals(1, transaction.query().match(TypeQL.parseQuery(symbols).asMatch()).count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_cached_patterns_on_schema_commit() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().define(TypeQL.parseQuery("define " +
+                            "renamed sub attribute, value string; removed sub attribute, value string; " +
+                            "owned sub attribute, value string; unaffected sub attribute, value string; " +
+                            "owner sub entity;").asDefine());
+                    transaction.commit();
+                }
+            }
+
+            String renamed = "match $x isa renamed;";
+            String removed = "match $x isa removed;";
+            String owned = "match $x isa owned;";
+            String unaffected = "match $x isa unaffected;";
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    for (String query : list(renamed, removed, owned, unaffected)) {
+                        assertEquals(0, transaction.query().match(TypeQL.parseQuery(query).asMatch()).count());
+                    }
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.concepts().getAttributeType("renamed").setLabel("relabelled");
+                    transaction.query().undefine(TypeQL.parseQuery("undefine removed sub attribute;").asUndefine());
+                    transaction.query().define(TypeQL.parseQuery("define owner owns owned;").asDefine());
+                    transaction.commit();
+                }
+            }
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    // patterns of types that were renamed or removed are evicted, so they no longer resolve
+                    assertUnsatisfiable(transaction, renamed);
+                    assertUnsatisfiable(transaction, removed);
+
+                    long misses = patternMisses();
+                    transaction.query().match(TypeQL.parseQuery(unaffected).asMatch()).count();
+                    assertEquals(misses, patternMisses());
+                    transaction.query().match(TypeQL.parseQuery(owned).asMatch()).count();
+                    assertEquals(misses + 1, patternMisses());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_negation_hash_join() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (TypeDB.DatabaseManager typedb = CoreDatabaseManager.open(options)) {
+            typedb.create(database);
+
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    TypeQLDefine query = TypeQL.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.tql")), UTF_8));
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            int users = 1_000;
+            try (TypeDB.Session session = typedb.session(database, Arguments.Session.Type.DATA)) {
+                try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < users; i++) {
+                        String queryString = i % 20 == 0
+                                ? String.format("insert $u isa user, has name 'user-%05d', has full-name 'full-%05d';", i, i)
+                                : String.format("insert $u isa user, has name 'user-%05d';", i);
+                        transaction.query().insert(TypeQL.parseQuery(queryString).asInsert());
+                    }
+                    transaction.commit();
+                }
+
+                // the negation has far fewer answers than the conjunction, so it is answered once as a hash anti-join,
+                // while the nested negation keeps the same answers but can only be probed once per answer
+                String hashJoined = "match $u isa user, has name $n; not { $u has full-name $f; };";
+                String probed = "match $u isa user, has name $n; not { $u has full-name $f; not { $f 'none'; }; };";
+                for (boolean parallel : new boolean[]{false, true}) {
+                    Options.Transaction transactionOptions = new Options.Transaction().parallel(parallel);
+                    try (TypeDB.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ, transactionOptions)) {
+                        Set<ConceptMap> hashJoinAnswers = transaction.query().match(TypeQL.parseQuery(hashJoined).asMatch()).toSet();
+                        Set<ConceptMap> probedAnswers = transaction.query().match(TypeQL.parseQuery(probed).asMatch()).toSet();
+                        assertEquals(users - users / 20, hashJoinAnswers.size());
+                        assertEquals(probedAnswers, hashJoinAnswers);
+
+                        List<? extends ConceptMap> sortedHashJoinAnswers = transaction.query().match(
+                                TypeQL.parseQuery(hashJoined + " sort $n;").asMatch()).toList();
+                        List<? extends ConceptMap> sortedProbedAnswers = transaction.query().match(
+                                TypeQL.parseQuery(probed + " sort $n;").asMatch()).toList();
+                        assertEquals(sortedProbedAnswers, sortedHashJoinAnswers);
+                        assertEquals(hashJoinAnswers.size(), sortedHashJoinAnswers.size());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertNoSpillFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static long patternMisses() {
+        String misses = "typedb_query_cache_lookups_total{stage=\"pattern\",result=\"miss\"} ";
+        return iterate(Metrics.prometheus().split("\n")).filter(line -> line.startsWith(misses))
+                .map(line -> Long.parseLong(line.substring(misses.length()))).first().orElse(0L);
+    }
+
+    private static void assertUnsatisfiable(TypeDB.Transaction transaction, String query) {
+        try {
+            transaction.query().match(TypeQL.parseQuery(query).asMatch()).toList();
+        } catch (TypeDBException e) {
+            return;
+        }
+        fail("Incoherent pattern was not rejected: " + query);
+    }
 }
@@ -36,7 +36,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.vaticle.typedb.core.common.collection.Bytes.MB;
 import static junit.framework.TestCase.fail;
@@ -387,4 +389,58 @@ public class IsolationTest {
             fail();
         }
     }
+
+    @Test
+    public void concurrent_conflicting_commits_admit_exactly_one() throws InterruptedException, ExecutionException {
+        try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.DATA)) {
+            for (int round = 0; round < 10; round++) {
+                List<TypeDB.Transaction> txns = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE);
+                    txn.query().insert(TypeQL.parseQuery("insert $x isa company, has address 'contended-" + round + "';"));
+                    txns.add(txn);
+                }
+                AtomicInteger committed = commitConcurrently(txns);
+                assertEquals(1, committed.get());
+            }
+        }
+    }
+
+    @Test
+    public void concurrent_disjoint_commits_all_succeed() throws InterruptedException, ExecutionException {
+        try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.DATA)) {
+            for (int round = 0; round < 10; round++) {
+                List<TypeDB.Transaction> txns = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE);
+                    txn.query().insert(TypeQL.parseQuery("insert $x isa company, has address 'disjoint-" + round + "-" + i + "';"));
+                    txns.add(txn);
+                }
+                AtomicInteger committed = commitConcurrently(txns);
+                assertEquals(txns.size(), committed.get());
+            }
+        }
+    }
+
+    private static AtomicInteger commitConcurrently(List<TypeDB.Transaction> txns) throws InterruptedException, ExecutionException {
+        AtomicInteger committed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> commits = new ArrayList<>();
+        for (TypeDB.Transaction txn : txns) {
+            commits.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                    txn.commit();
+                    committed.incrementAndGet();
+                } catch (TypeDBException e) {
+                    // isolation violation
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        start.countDown();
+        CompletableFuture.allOf(commits.toArray(new CompletableFuture[0])).get();
+        return committed;
+    }
 }
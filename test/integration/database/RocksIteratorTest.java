@@ -19,8 +19,12 @@
 package com.vaticle.typedb.core.database;
 
 import com.vaticle.typedb.core.TypeDB;
+import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.collection.KeyValue;
+import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.common.parameters.Order;
 import com.vaticle.typedb.core.concept.type.AttributeType;
 import com.vaticle.typedb.core.concept.type.impl.AttributeTypeImpl;
 import com.vaticle.typedb.core.encoding.Storage;
@@ -47,6 +51,7 @@ import static com.vaticle.typedb.core.common.parameters.Order.Desc.DESC;
 import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.READ;
 import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.WRITE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class RocksIteratorTest {
 
@@ -68,6 +73,8 @@ public class RocksIteratorTest {
         TypeDB.Session session = dbMgr.session(database, Arguments.Session.Type.SCHEMA);
         try (TypeDB.Transaction transaction = session.transaction(WRITE)) {
             transaction.concepts().putAttributeType("string-value", AttributeType.ValueType.STRING);
+            transaction.concepts().putAttributeType("long-string-value", AttributeType.ValueType.STRING);
+            transaction.concepts().putAttributeType("retained-string-value", AttributeType.ValueType.STRING);
             transaction.commit();
         }
         session.close();
@@ -127,4 +134,74 @@ public class RocksIteratorTest {
             assertEquals(strings, values);
         }
     }
+
+    @Test
+    public void attributesLargerThanBuffersRetrievedAscending() {
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            StringBuilder string = new StringBuilder();
+            for (int j = 0; j < 20; j++) string.append(UUID.randomUUID());
+            strings.add(string.toString());
+        }
+
+        try (TypeDB.Transaction transaction = session.transaction(WRITE)) {
+            AttributeType.String stringValueType = transaction.concepts().getAttributeType("long-string-value").asString();
+            for (String string : strings) {
+                stringValueType.put(string);
+            }
+            transaction.commit();
+        }
+
+        strings.sort(Comparator.naturalOrder());
+        try (CoreTransaction transaction = session.transaction(READ)) {
+            Storage.Data storage = transaction.graphMgr.data().storage();
+            AttributeType.String stringValueType = transaction.concepts().getAttributeType("long-string-value").asString();
+            VertexIID.Type iid = ((AttributeTypeImpl) stringValueType).vertex.iid();
+            Key.Prefix<VertexIID.Thing> iteratePrefix = VertexIID.Thing.Attribute.String.prefix(iid);
+            List<String> values = storage.iterate(iteratePrefix, ASC)
+                    .map(kv -> kv.key().asAttribute().asString().value()).toList();
+            assertEquals(strings, values);
+        }
+    }
+
+    @Test
+    public void retainedEntriesSurviveAdvancing() {
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            StringBuilder string = new StringBuilder();
+            for (int j = 0; j <= i % 20; j++) string.append(UUID.randomUUID());
+            strings.add(string.toString());
+        }
+
+        try (TypeDB.Transaction transaction = session.transaction(WRITE)) {
+            AttributeType.String stringValueType = transaction.concepts().getAttributeType("retained-string-value").asString();
+            for (String string : strings) {
+                stringValueType.put(string);
+            }
+            transaction.commit();
+        }
+
+        strings.sort(Comparator.naturalOrder());
+        try (CoreTransaction transaction = session.transaction(READ)) {
+            Storage.Data storage = transaction.graphMgr.data().storage();
+            AttributeType.String stringValueType = transaction.concepts().getAttributeType("retained-string-value").asString();
+            VertexIID.Type iid = ((AttributeTypeImpl) stringValueType).vertex.iid();
+            Key.Prefix<VertexIID.Thing> iteratePrefix = VertexIID.Thing.Attribute.String.prefix(iid);
+
+            // entries are collected before any of them are read, so each must own its bytes
+            List<KeyValue<VertexIID.Thing, ByteArray>> entries = storage.iterate(iteratePrefix, ASC).toList();
+            List<String> values = new ArrayList<>();
+            for (KeyValue<VertexIID.Thing, ByteArray> entry : entries) {
+                values.add(entry.key().asAttribute().asString().value());
+            }
+            assertEquals(strings, values);
+
+            SortedIterator.Forwardable<KeyValue<VertexIID.Thing, ByteArray>, Order.Asc> iterator = storage.iterate(iteratePrefix, ASC);
+            KeyValue<VertexIID.Thing, ByteArray> peeked = iterator.peek();
+            assertSame(peeked, iterator.next());
+            iterator.next();
+            assertEquals(strings.get(0), peeked.key().asAttribute().asString().value());
+            iterator.recycle();
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.database;
+
+import com.vaticle.typedb.core.TypeDB;
+import com.vaticle.typedb.core.common.parameters.Arguments;
+import com.vaticle.typedb.core.common.parameters.Options;
+import com.vaticle.typedb.core.encoding.key.Key;
+import com.vaticle.typedb.core.test.integration.util.Util;
+import com.vaticle.typedb.core.traversal.planner.PlanStore.Plan;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static com.vaticle.typedb.common.collection.Collections.list;
+import static com.vaticle.typedb.common.collection.Collections.set;
+import static com.vaticle.typedb.core.common.collection.Bytes.MB;
+import static com.vaticle.typedb.core.common.parameters.Arguments.Transaction.Type.WRITE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RocksPlanStoreTest {
+
+    private static final Path dataDir = Paths.get(System.getProperty("user.dir")).resolve("plan-store-test");
+    private static final Path logDir = dataDir.resolve("logs");
+    private static final Options.Database options = new Options.Database().dataDir(dataDir).reasonerDebuggerDir(logDir)
+            .storageIndexCacheSize(MB).storageDataCacheSize(MB);
+    private static final String database = "plan-store-test";
+
+    private final Factory factory = new CoreFactory();
+    private CoreDatabaseManager dbMgr;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(dataDir);
+        dbMgr = factory.databaseManager(options);
+        dbMgr.create(database);
+    }
+
+    @After
+    public void tearDown() {
+        dbMgr.close();
+    }
+
+    private static Plan plan(String vertex, long snapshot, String... typeDependencies) {
+        return new Plan(list(vertex, "$x"), snapshot, 1.5, set(typeDependencies));
+    }
+
+    private static Plan openPlan(String vertex, long snapshot) {
+        return new Plan(list(vertex, "$x"), snapshot, 1.5, null);
+    }
+
+    private RocksPlanStore planStore(int maxPlans) {
+        CoreDatabase db = dbMgr.get(database);
+        return new RocksPlanStore(db.rocksData, db.rocksDataPartitionMgr.get(Key.Partition.METADATA), maxPlans);
+    }
+
+    @Test
+    public void plans_are_encoded_and_decoded() {
+        Plan anchored = plan("$y", 7, "person", "marriage:husband");
+        Plan decoded = Plan.decode(anchored.encode());
+        assertEquals(anchored, decoded);
+        assertEquals(Optional.of(set("person", "marriage:husband")), decoded.typeDependencies());
+
+        Plan open = openPlan("$y", 7);
+        decoded = Plan.decode(open.encode());
+        assertEquals(open, decoded);
+        assertFalse(decoded.typeDependencies().isPresent());
+    }
+
+    @Test
+    public void plans_are_restored_when_the_database_is_reopened() {
+        dbMgr.get(database).planStore.put("anchored", plan("$y", 3, "person"));
+        dbMgr.get(database).planStore.put("open", openPlan("$z", 4));
+        dbMgr.close();
+
+        dbMgr = factory.databaseManager(options);
+        RocksPlanStore planStore = dbMgr.get(database).planStore;
+        assertEquals(Optional.of(plan("$y", 3, "person")), planStore.get("anchored"));
+        assertEquals(Optional.of(openPlan("$z", 4)), planStore.get("open"));
+        assertFalse(planStore.get("missing").isPresent());
+    }
+
+    @Test
+    public void only_the_most_recently_written_plans_are_kept() {
+        RocksPlanStore planStore = planStore(3);
+        for (int i = 0; i < 5; i++) planStore.put("plan-" + i, plan("$y", i, "person"));
+        assertFalse(planStore.get("plan-0").isPresent());
+        assertFalse(planStore.get("plan-1").isPresent());
+        for (int i = 2; i < 5; i++) assertTrue(planStore.get("plan-" + i).isPresent());
+
+        // rewriting a plan makes it the most recent, rather than taking another place in the store
+        planStore.put("plan-2", plan("$y", 5, "person"));
+        planStore.put("plan-5", plan("$y", 6, "person"));
+        assertFalse(planStore.get("plan-3").isPresent());
+        assertEquals(Optional.of(plan("$y", 5, "person")), planStore.get("plan-2"));
+        assertTrue(planStore.get("plan-4").isPresent());
+        assertTrue(planStore.get("plan-5").isPresent());
+        planStore.close();
+
+        planStore = planStore(3);
+        planStore.put("plan-6", plan("$y", 7, "person"));
+        assertFalse(planStore.get("plan-4").isPresent());
+        assertTrue(planStore.get("plan-2").isPresent());
+        assertTrue(planStore.get("plan-5").isPresent());
+        assertTrue(planStore.get("plan-6").isPresent());
+        planStore.close();
+    }
+
+    @Test
+    public void schema_commits_remove_the_plans_of_renamed_and_deleted_types() {
+        try (TypeDB.Session session = dbMgr.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (TypeDB.Transaction transaction = session.transaction(WRITE)) {
+                transaction.concepts().putEntityType("person");
+                transaction.concepts().putEntityType("company");
+                transaction.concepts().putEntityType("animal");
+                transaction.commit();
+            }
+            RocksPlanStore planStore = dbMgr.get(database).planStore;
+            planStore.put("person", plan("$y", 1, "person"));
+            planStore.put("company", plan("$y", 1, "company"));
+            planStore.put("animal", plan("$y", 1, "animal"));
+            planStore.put("open", openPlan("$y", 1));
+
+            try (TypeDB.Transaction transaction = session.transaction(WRITE)) {
+                transaction.concepts().getEntityType("person").setLabel("human");
+                transaction.commit();
+            }
+            assertFalse(planStore.get("person").isPresent());
+            assertFalse(planStore.get("open").isPresent());
+            assertTrue(planStore.get("company").isPresent());
+            assertTrue(planStore.get("animal").isPresent());
+
+            try (TypeDB.Transaction transaction = session.transaction(WRITE)) {
+                transaction.concepts().getEntityType("company").delete();
+                transaction.commit();
+            }
+            assertFalse(planStore.get("company").isPresent());
+            assertTrue(planStore.get("animal").isPresent());
+        }
+    }
+}
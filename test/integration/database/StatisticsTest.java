@@ -23,6 +23,7 @@ import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.common.parameters.Options.Database;
 import com.vaticle.typedb.core.graph.ThingGraph;
+import com.vaticle.typedb.core.graph.vertex.TypeVertex;
 import com.vaticle.typedb.core.encoding.key.StatisticsKey;
 import com.vaticle.typedb.core.test.integration.util.Util;
 import com.vaticle.typeql.lang.TypeQL;
@@ -37,9 +38,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeLongAsSorted;
 import static com.vaticle.typedb.core.common.collection.Bytes.MB;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
 
 public class StatisticsTest {
 
@@ -110,6 +113,16 @@ public class StatisticsTest {
                 assertEquals(batches, statistics.thingVertexCount(Label.of("employee", "employment")));
                 assertEquals(batches * 11, statistics.thingVertexTransitiveCount(txn.graphMgr.schema().getType(Label.of("thing"))));
                 assertEquals(batches * 4, statistics.thingVertexTransitiveCount(txn.graphMgr.schema().getType(Label.of("role", "relation"))));
+                assertEquals(batches * 2, statistics.rolePlayerCount(
+                        txn.graphMgr.schema().getType(Label.of("friendship")),
+                        txn.graphMgr.schema().getType(Label.of("friend", "friendship")),
+                        txn.graphMgr.schema().getType(Label.of("person"))
+                ));
+                assertEquals(batches, statistics.rolePlayerCount(
+                        txn.graphMgr.schema().getType(Label.of("employment")),
+                        txn.graphMgr.schema().getType(Label.of("employer", "employment")),
+                        txn.graphMgr.schema().getType(Label.of("company"))
+                ));
             }
 
             try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
@@ -143,6 +156,16 @@ public class StatisticsTest {
                 assertEquals(batches * 11 - 2, statistics.thingVertexTransitiveCount(txn.graphMgr.schema().getType(Label.of("thing"))));
                 // deleted one friendship:friend, one employment:employee, one employment:employer
                 assertEquals(batches * 4 - 3, statistics.thingVertexTransitiveCount(txn.graphMgr.schema().getType(Label.of("role", "relation"))));
+                assertEquals(batches * 2 - 1, statistics.rolePlayerCount(
+                        txn.graphMgr.schema().getType(Label.of("friendship")),
+                        txn.graphMgr.schema().getType(Label.of("friend", "friendship")),
+                        txn.graphMgr.schema().getType(Label.of("person"))
+                ));
+                assertEquals(batches - 1, statistics.rolePlayerCount(
+                        txn.graphMgr.schema().getType(Label.of("employment")),
+                        txn.graphMgr.schema().getType(Label.of("employer", "employment")),
+                        txn.graphMgr.schema().getType(Label.of("company"))
+                ));
             }
         }
     }
@@ -355,6 +378,123 @@ public class StatisticsTest {
         }
     }
 
+    @Test
+    public void histograms_estimate_value_ranges() throws InterruptedException, ExecutionException {
+        try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(TypeQL.parseQuery("define age sub attribute, value long;").asDefine());
+                txn.commit();
+            }
+        }
+        int values = 2048;
+        try (CoreSession session = databaseMgr.session(database, Arguments.Session.Type.DATA)) {
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < values; i++) txn.query().insert(TypeQL.parseQuery("insert $a " + i + " isa age;"));
+                txn.commit();
+            }
+            databaseMgr.databases.get(database).statisticsCorrector().submitCorrection().get();
+
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < 100; i++) txn.query().insert(TypeQL.parseQuery("insert $a " + (values + i) + " isa age;"));
+                txn.commit();
+            }
+
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                ThingGraph.Statistics statistics = txn.graphMgr.data().stats();
+                TypeVertex age = txn.graphMgr.schema().getType(Label.of("age"));
+                long depth = values / 64;
+                assertEquals(values + 100, statistics.distinctValueCount(age));
+                assertEquals(values / 2, statistics.valueRangeEstimate(age, null, encodeLongAsSorted(values / 2 - 1)), depth);
+                assertEquals(values / 4, statistics.valueRangeEstimate(age, encodeLongAsSorted(values / 4), encodeLongAsSorted(values / 2 - 1)), depth);
+                // values committed after the histogram was built land in its last bucket
+                assertEquals(100, statistics.valueRangeEstimate(age, encodeLongAsSorted(values), null), depth);
+            }
+        }
+    }
+
+    @Test
+    public void rebuilt_histograms_keep_bucket_counts_consistent() throws InterruptedException, ExecutionException {
+        try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (TypeDB.Transaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(TypeQL.parseQuery("define height sub attribute, value long;").asDefine());
+                txn.commit();
+            }
+        }
+        int values = 2048;
+        try (CoreSession session = databaseMgr.session(database, Arguments.Session.Type.DATA)) {
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < values; i++) txn.query().insert(TypeQL.parseQuery("insert $h " + i + " isa height;"));
+                txn.commit();
+            }
+            databaseMgr.databases.get(database).statisticsCorrector().submitCorrection().get();
+
+            // enough new values make the histogram stale, so that it is rebuilt over every value
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = values; i < values * 4; i++) txn.query().insert(TypeQL.parseQuery("insert $h " + i + " isa height;"));
+                txn.commit();
+            }
+            databaseMgr.databases.get(database).statisticsCorrector().submitCorrection().get();
+
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                ThingGraph.Statistics statistics = txn.graphMgr.data().stats();
+                TypeVertex height = txn.graphMgr.schema().getType(Label.of("height"));
+                long depth = values * 4 / 64;
+                assertEquals(values * 4, statistics.valueRangeEstimate(height, null, null));
+                assertEquals(values * 2, statistics.valueRangeEstimate(height, null, encodeLongAsSorted(values * 2 - 1)), depth);
+            }
+        }
+    }
+
+    @Test
+    public void reboot_backfills_role_player_counts() {
+        int batches = 10;
+        try (CoreSession session = databaseMgr.session(database, Arguments.Session.Type.DATA)) {
+            for (int i = 0; i < batches; i++) {
+                try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    txn.query().insert(TypeQL.parseQuery("insert " +
+                            "$x isa person; $y isa person; $c isa company, has address 'address-" + i + "';" +
+                            "(friend: $x, friend: $y) isa friendship;" +
+                            "(employee: $x, employer: $c) isa employment;"));
+                    txn.commit();
+                }
+            }
+            // statistics written before role players were counted have neither the counts nor the version
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.dataStorage.iterate(StatisticsKey.rolePlayerCountPrefix()).forEachRemaining(kv ->
+                        txn.dataStorage.deleteUntracked(kv.key())
+                );
+                txn.dataStorage.deleteUntracked(StatisticsKey.version());
+                txn.commit();
+            }
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                assertFalse(txn.graphMgr.data().stats().hasRolePlayerCounts());
+            }
+        }
+        databaseMgr.close();
+        databaseMgr = CoreDatabaseManager.open(options);
+        try (CoreSession session = databaseMgr.session(database, Arguments.Session.Type.DATA)) {
+            try (CoreTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                ThingGraph.Statistics statistics = txn.graphMgr.data().stats();
+                assertTrue(statistics.hasRolePlayerCounts());
+                assertEquals(batches * 2, statistics.rolePlayerCount(
+                        txn.graphMgr.schema().getType(Label.of("friendship")),
+                        txn.graphMgr.schema().getType(Label.of("friend", "friendship")),
+                        txn.graphMgr.schema().getType(Label.of("person"))
+                ));
+                assertEquals(batches, statistics.rolePlayerCount(
+                        txn.graphMgr.schema().getType(Label.of("employment")),
+                        txn.graphMgr.schema().getType(Label.of("employee", "employment")),
+                        txn.graphMgr.schema().getType(Label.of("person"))
+                ));
+                assertEquals(0, statistics.rolePlayerCount(
+                        txn.graphMgr.schema().getType(Label.of("employment")),
+                        txn.graphMgr.schema().getType(Label.of("employer", "employment")),
+                        txn.graphMgr.schema().getType(Label.of("person"))
+                ));
+            }
+        }
+    }
+
     @Test
     public void reboot_counts_correct() {
         int batches = 500;
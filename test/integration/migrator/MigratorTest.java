@@ -20,6 +20,7 @@ package com.vaticle.typedb.core.migrator;
 
 import com.google.protobuf.Parser;
 import com.vaticle.typedb.core.TypeDB;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.parameters.Arguments;
 import com.vaticle.typedb.core.common.parameters.Options.Database;
 import com.vaticle.typedb.core.database.CoreDatabaseManager;
@@ -80,7 +81,83 @@ public class MigratorTest {
         }
     }
 
+    @Test
+    public void test_bulk_load_import_export_data() throws IOException {
+        Util.resetDirectory(dataDir);
+        try (CoreDatabaseManager databaseMgr = CoreDatabaseManager.open(options)) {
+            databaseMgr.create(database);
+            String schema = new String(Files.readAllBytes(schemaPath), UTF_8);
+            runSchema(databaseMgr, schema);
+            new DataImporter(databaseMgr, database, dataPath, Version.VERSION, true).run();
+            new DataExporter(databaseMgr, database, exportDataPath, Version.VERSION).run();
+            assertEquals(getChecksums(dataPath), getChecksums(exportDataPath));
+        }
+    }
+
+    @Test
+    public void test_bulk_load_round_trip() throws IOException {
+        Util.resetDirectory(dataDir);
+        String reloadedDatabase = "typedb-reloaded";
+        Path bulkExportPath = dataDir.resolve("exported-data-bulk.typedb");
+        try (CoreDatabaseManager databaseMgr = CoreDatabaseManager.open(options)) {
+            String schema = new String(Files.readAllBytes(schemaPath), UTF_8);
+            databaseMgr.create(database);
+            runSchema(databaseMgr, database, schema);
+            new DataImporter(databaseMgr, database, dataPath, Version.VERSION, true).run();
+            new DataExporter(databaseMgr, database, bulkExportPath, Version.VERSION).run();
+
+            databaseMgr.create(reloadedDatabase);
+            runSchema(databaseMgr, reloadedDatabase, schema);
+            new DataImporter(databaseMgr, reloadedDatabase, bulkExportPath, Version.VERSION, true).run();
+            new DataExporter(databaseMgr, reloadedDatabase, exportDataPath, Version.VERSION).run();
+            assertEquals(getChecksums(dataPath), getChecksums(exportDataPath));
+        }
+    }
+
+    @Test
+    public void test_bulk_load_into_non_empty_database_fails() throws IOException {
+        Util.resetDirectory(dataDir);
+        try (CoreDatabaseManager databaseMgr = CoreDatabaseManager.open(options)) {
+            databaseMgr.create(database);
+            String schema = new String(Files.readAllBytes(schemaPath), UTF_8);
+            runSchema(databaseMgr, schema);
+            new DataImporter(databaseMgr, database, dataPath, Version.VERSION).run();
+            try {
+                new DataImporter(databaseMgr, database, dataPath, Version.VERSION, true).run();
+            } catch (TypeDBException e) {
+                new DataExporter(databaseMgr, database, exportDataPath, Version.VERSION).run();
+                assertEquals(getChecksums(dataPath), getChecksums(exportDataPath));
+                return;
+            }
+            fail("Bulk load into a non-empty database was not rejected");
+        }
+    }
+
+    @Test
+    public void test_sharded_export_import_data() throws IOException {
+        Util.resetDirectory(dataDir);
+        String shardedDatabase = "typedb-sharded";
+        Path manifestPath = dataDir.resolve("exported-data-sharded.typedb");
+        try (CoreDatabaseManager databaseMgr = CoreDatabaseManager.open(options)) {
+            String schema = new String(Files.readAllBytes(schemaPath), UTF_8);
+            databaseMgr.create(database);
+            runSchema(databaseMgr, database, schema);
+            new DataImporter(databaseMgr, database, dataPath, Version.VERSION).run();
+            new DataExporter(databaseMgr, database, manifestPath, Version.VERSION, 4, true).run();
+
+            databaseMgr.create(shardedDatabase);
+            runSchema(databaseMgr, shardedDatabase, schema);
+            new DataImporter(databaseMgr, shardedDatabase, manifestPath, Version.VERSION).run();
+            new DataExporter(databaseMgr, shardedDatabase, exportDataPath, Version.VERSION).run();
+            assertEquals(getChecksums(dataPath), getChecksums(exportDataPath));
+        }
+    }
+
     private void runSchema(TypeDB.DatabaseManager databaseMgr, String schema) {
+        runSchema(databaseMgr, database, schema);
+    }
+
+    private void runSchema(TypeDB.DatabaseManager databaseMgr, String database, String schema) {
         try (TypeDB.Session session = databaseMgr.session(database, Arguments.Session.Type.SCHEMA)) {
             try (TypeDB.Transaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
                 TypeQLDefine query = TypeQL.parseQuery(schema);
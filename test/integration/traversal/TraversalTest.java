@@ -50,9 +50,11 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.common.collection.Collections.map;
 import static com.vaticle.typedb.common.collection.Collections.pair;
 import static com.vaticle.typedb.common.collection.Collections.set;
@@ -63,6 +65,7 @@ import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
 import static com.vaticle.typedb.core.common.parameters.Order.Desc.DESC;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class TraversalTest {
@@ -275,6 +278,69 @@ public class TraversalTest {
         }
     }
 
+    @Test
+    public void sorted_partitions_interleave() {
+        try (CoreTransaction transaction = session.transaction(WRITE)) {
+            TypeQLDefine query = TypeQL.parseQuery("define person sub entity, owns age; age sub attribute, value long;");
+            transaction.query().define(query);
+            transaction.commit();
+        }
+        session.close();
+
+        session = databaseMgr.session(database, Arguments.Session.Type.DATA);
+        int count = 200;
+        try (CoreTransaction transaction = session.transaction(WRITE)) {
+            for (int i = 0; i < count; i++) {
+                transaction.query().insert(TypeQL.parseQuery("insert $x isa person, has age " + i + ";").asInsert());
+            }
+            transaction.commit();
+        }
+        try (CoreTransaction transaction = session.transaction(READ)) {
+            /*
+            match $x isa person, has age $a; sort $a asc;
+            */
+            GraphProcedure.Builder proc = new GraphProcedure.Builder();
+
+            ProcedureVertex.Thing a = proc.namedThing(0, "a");
+            a.props().types(set(Label.of("age")));
+
+            ProcedureVertex.Thing x = proc.namedThing(1, "x");
+            x.props().types(set(Label.of("person")));
+
+            proc.backwardHas(a, x);
+
+            Traversal.Parameters params = new Traversal.Parameters();
+            Modifiers modifiers = new Modifiers();
+            Identifier.Variable.Retrievable aId = a.id().asVariable().asRetrievable();
+            modifiers.filter(Modifiers.Filter.create(set(aId, x.id().asVariable().asRetrievable())));
+            modifiers.sorting(Modifiers.Sorting.create(singletonList(aId), map(pair(aId, ASC))));
+
+            GraphProcedure procedure = proc.build();
+            List<FunctionalIterator<VertexMap>> partitions = procedure.iterators(
+                    transaction.traversal().graph(), params, modifiers, 2
+            );
+            assertEquals(2, partitions.size());
+
+            // pull from both partitions in turn: each must make progress before the other is exhausted
+            List<List<Long>> values = list(new ArrayList<>(), new ArrayList<>());
+            while (partitions.get(0).hasNext() || partitions.get(1).hasNext()) {
+                for (int i = 0; i < 2; i++) {
+                    if (partitions.get(i).hasNext()) {
+                        values.get(i).add((Long) partitions.get(i).next().get(aId).asThing().asAttribute().value());
+                    }
+                }
+            }
+            assertFalse(values.get(0).isEmpty());
+            assertFalse(values.get(1).isEmpty());
+            assertEquals(count, values.get(0).size() + values.get(1).size());
+            for (List<Long> partition : values) {
+                for (int i = 1; i < partition.size(); i++) assertTrue(partition.get(i - 1) < partition.get(i));
+            }
+            assertTrue(values.get(1).get(0) < values.get(0).get(values.get(0).size() - 1));
+            assertTrue(values.get(0).get(0) < values.get(1).get(values.get(1).size() - 1));
+        }
+    }
+
     @Test
     public void roleplayer_scoping_test_1() {
         preparePostsSchemaAndData();
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.common;
+
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VertexMapSetTest {
+
+    // with the smallest budget, a stripe spills every few thousand keys, so this many keys spill and merge every stripe
+    private static final int SPILLED_KEYS = 1_000_000;
+    private static final int MAX_SPILLED_FILES_PER_STRIPE = 8;
+    private static final int STRIPES = 16;
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("vertex-map-set-test");
+
+    @Test
+    public void keys_are_added_once_in_memory() {
+        VertexMapSet set = new VertexMapSet(Collections.emptyList(), directory);
+        for (int i = 0; i < 10_000; i++) assertTrue(set.add(key(i)));
+        for (int i = 0; i < 10_000; i++) assertFalse(set.add(key(i)));
+        assertEquals(0, set.spilledFiles());
+        set.close();
+    }
+
+    @Test
+    public void keys_are_added_once_after_spilling_and_merging() {
+        VertexMapSet set = new VertexMapSet(Collections.emptyList(), directory, 0);
+        boolean merged = false;
+        int spilledFiles = 0;
+        for (int i = 0; i < SPILLED_KEYS; i++) {
+            assertTrue(set.add(key(i)));
+            if (i % 1_000 == 0) {
+                // the number of files only drops when a stripe merges its files into one
+                merged |= set.spilledFiles() < spilledFiles;
+                spilledFiles = set.spilledFiles();
+            }
+        }
+        assertTrue(merged);
+        assertTrue(set.spilledFiles() <= STRIPES * MAX_SPILLED_FILES_PER_STRIPE);
+
+        // keys in memory, in spilled files and in merged files are all found again
+        for (int i = 0; i < SPILLED_KEYS; i += 7) assertFalse(set.add(key(i)));
+        // keys never added pass the Bloom filters, or are not found in the blocks they probe
+        for (int i = SPILLED_KEYS; i < SPILLED_KEYS + 100_000; i++) assertTrue(set.add(key(i)));
+        set.close();
+    }
+
+    @Test
+    public void keys_of_different_lengths_are_distinct() {
+        VertexMapSet set = new VertexMapSet(Collections.emptyList(), directory, 0);
+        Random random = new Random(0);
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            byte[] key = new byte[1 + random.nextInt(40)];
+            random.nextBytes(key);
+            keys.add(key);
+        }
+        int added = 0;
+        for (byte[] key : keys) {
+            if (set.add(key)) added++;
+        }
+        assertEquals(keys.stream().map(ByteBuffer::wrap).distinct().count(), added);
+        for (byte[] key : keys) assertFalse(set.add(key));
+        set.close();
+    }
+
+    @Test
+    public void concurrent_adds_admit_each_key_once() throws InterruptedException {
+        VertexMapSet set = new VertexMapSet(Collections.emptyList(), directory, 0);
+        int threads = 4;
+        int keys = 200_000;
+        AtomicInteger added = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < keys; i++) {
+                    if (set.add(key(i))) added.incrementAndGet();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        assertEquals(keys, added.get());
+        set.close();
+    }
+
+    @Test
+    public void closing_the_last_reference_closes_spilled_files() throws IOException {
+        long openFiles = openFiles();
+        VertexMapSet set = new VertexMapSet(Collections.emptyList(), directory, 0);
+        for (int i = 0; i < SPILLED_KEYS / 10; i++) set.add(key(i));
+        assertTrue(set.spilledFiles() > 0);
+
+        set.retain();
+        set.close();
+        assertFalse(set.add(key(0)));
+        set.close();
+        if (openFiles >= 0) assertEquals(openFiles, openFiles());
+        try {
+            set.add(key(0));
+            fail();
+        } catch (TypeDBException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void spilled_files_are_unlinked_from_the_directory() throws IOException {
+        VertexMapSet set = new VertexMapSet(Collections.emptyList(), directory, 0);
+        for (int i = 0; i < SPILLED_KEYS / 10; i++) set.add(key(i));
+        assertTrue(set.spilledFiles() > 0);
+        assertTrue(Files.isDirectory(directory));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        set.close();
+    }
+
+    @Test
+    public void keys_stay_in_memory_when_spilling_fails() throws IOException {
+        Files.createDirectories(directory);
+        Path notDirectory = directory.resolve("not-a-directory");
+        Files.write(notDirectory, new byte[0]);
+        VertexMapSet set = new VertexMapSet(Collections.emptyList(), notDirectory, 0);
+        int added = 0;
+        try {
+            while (added < SPILLED_KEYS) {
+                set.add(key(added));
+                added++;
+            }
+            fail();
+        } catch (TypeDBException e) {
+            // the key that failed to spill was added before the spill
+            added++;
+        }
+        for (int i = 0; i < added; i++) assertFalse(set.add(key(i)));
+        set.close();
+        Files.delete(notDirectory);
+    }
+
+    private static long openFiles() throws IOException {
+        Path descriptors = Paths.get("/proc/self/fd");
+        if (!Files.isDirectory(descriptors)) return -1;
+        try (Stream<Path> files = Files.list(descriptors)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] key(int i) {
+        return ByteBuffer.allocate(2 * Long.BYTES).putLong(i).putLong(i * 0x9e3779b97f4a7c15L).array();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.planner;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.CountDownLatch;
+
+import static com.vaticle.typedb.core.traversal.planner.GraphPlanner.OBSERVATION_MIN_BRANCHES;
+import static com.vaticle.typedb.core.traversal.planner.GraphPlanner.OBSERVATION_WINDOW;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ObservedCostTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void mean_is_only_given_after_enough_branches() {
+        ObservedCost observedCost = new ObservedCost();
+        observedCost.record(OBSERVATION_MIN_BRANCHES - 1, 10 * (OBSERVATION_MIN_BRANCHES - 1));
+        assertFalse(observedCost.mean().isPresent());
+        observedCost.record(1, 10);
+        assertEquals(10.0, observedCost.mean().getAsDouble(), DELTA);
+    }
+
+    @Test
+    public void concurrent_recordings_are_all_counted() throws InterruptedException {
+        ObservedCost observedCost = new ObservedCost();
+        int threads = 8;
+        int recordings = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> recorders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread recorder = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < recordings; i++) observedCost.record(1, 3);
+            });
+            recorder.start();
+            recorders.add(recorder);
+        }
+        start.countDown();
+        for (Thread recorder : recorders) recorder.join();
+
+        // the window is well below the number of branches recorded, so the mean is taken over all of them once
+        assertTrue(threads * recordings >= OBSERVATION_WINDOW);
+        assertEquals(3.0, observedCost.mean().getAsDouble(), DELTA);
+    }
+
+    @Test
+    public void decayed_observations_follow_changes_in_fan_out() {
+        ObservedCost observedCost = new ObservedCost();
+        observedCost.record(OBSERVATION_WINDOW, 2 * OBSERVATION_WINDOW);
+        assertEquals(2.0, observedCost.mean().getAsDouble(), DELTA);
+
+        // after the decay, the older fan-out weighs half as much as the branches recorded since
+        observedCost.record(OBSERVATION_WINDOW / 2, 10 * (OBSERVATION_WINDOW / 2));
+        OptionalDouble mean = observedCost.mean();
+        assertEquals(6.0, mean.getAsDouble(), DELTA);
+        for (int i = 0; i < 8; i++) {
+            observedCost.record(OBSERVATION_WINDOW / 2, 10 * (OBSERVATION_WINDOW / 2));
+            mean = observedCost.mean();
+        }
+        assertTrue(mean.getAsDouble() > 9.9);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.planner;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class VertexOrderHeuristicTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void exact_order_matches_brute_force_on_small_graphs() {
+        Random random = new Random(0);
+        for (int graph = 0; graph < 500; graph++) {
+            int size = 2 + random.nextInt(6);
+            int sortedCount = random.nextInt(Math.min(3, size));
+            List<List<Integer>> insFrom = new ArrayList<>();
+            for (int i = 0; i < size; i++) insFrom.add(new ArrayList<>());
+            // a random spanning tree keeps the graph connected, and extra edges add filtering
+            for (int i = 1; i < size; i++) addEdge(insFrom, random.nextInt(i), i, random);
+            for (int extra = random.nextInt(size); extra > 0; extra--) {
+                addEdge(insFrom, random.nextInt(size), random.nextInt(size), random);
+            }
+            VertexOrderHeuristic heuristic = heuristic(insFrom, random, sortedCount);
+
+            int[] exact = heuristic.exact();
+            assertNotNull(exact);
+            for (int i = 0; i < sortedCount; i++) assertEquals(i, exact[i]);
+            assertEquals(bruteForce(heuristic, insFrom, sortedCount), heuristic.cost(exact), DELTA);
+        }
+    }
+
+    @Test
+    public void disconnected_graphs_are_ordered_without_the_exact_search() {
+        Random random = new Random(0);
+        List<List<Integer>> insFrom = new ArrayList<>();
+        for (int i = 0; i < 4; i++) insFrom.add(new ArrayList<>());
+        insFrom.get(1).add(0);
+        insFrom.get(3).add(2);
+        VertexOrderHeuristic heuristic = heuristic(insFrom, random, 0);
+
+        assertNull(heuristic.exact());
+        int[] order = heuristic.orderIndices();
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        assertEquals(Arrays.toString(new int[]{0, 1, 2, 3}), Arrays.toString(sorted));
+    }
+
+    private static void addEdge(List<List<Integer>> insFrom, int from, int to, Random random) {
+        if (from == to) return;
+        if (random.nextBoolean()) insFrom.get(to).add(from);
+        else insFrom.get(from).add(to);
+    }
+
+    private static VertexOrderHeuristic heuristic(List<List<Integer>> edges, Random random, int sortedCount) {
+        int size = edges.size();
+        double[] costs = new double[size];
+        int[][] insFrom = new int[size][];
+        double[][] insCost = new double[size][];
+        for (int i = 0; i < size; i++) {
+            costs[i] = 1 + random.nextInt(10_000);
+            insFrom[i] = edges.get(i).stream().mapToInt(Integer::intValue).toArray();
+            insCost[i] = new double[insFrom[i].length];
+            for (int in = 0; in < insFrom[i].length; in++) insCost[i][in] = random.nextDouble() * 100;
+        }
+        return new VertexOrderHeuristic(costs, insFrom, insCost, sortedCount);
+    }
+
+    private static double bruteForce(VertexOrderHeuristic heuristic, List<List<Integer>> insFrom, int sortedCount) {
+        int size = insFrom.size();
+        boolean[][] adjacent = new boolean[size][size];
+        for (int to = 0; to < size; to++) {
+            for (int from : insFrom.get(to)) {
+                adjacent[from][to] = true;
+                adjacent[to][from] = true;
+            }
+        }
+        int[] order = new int[size];
+        boolean[] used = new boolean[size];
+        for (int i = 0; i < sortedCount; i++) {
+            order[i] = i;
+            used[i] = true;
+        }
+        return bruteForce(heuristic, adjacent, order, used, sortedCount);
+    }
+
+    private static double bruteForce(VertexOrderHeuristic heuristic, boolean[][] adjacent, int[] order,
+                                     boolean[] used, int position) {
+        if (position == order.length) return heuristic.cost(order);
+        double best = Double.POSITIVE_INFINITY;
+        for (int vertex = 0; vertex < order.length; vertex++) {
+            if (used[vertex] || (position > 0 && !isAdjacent(adjacent, order, position, vertex))) continue;
+            order[position] = vertex;
+            used[vertex] = true;
+            best = Math.min(best, bruteForce(heuristic, adjacent, order, used, position + 1));
+            used[vertex] = false;
+        }
+        return best;
+    }
+
+    private static boolean isAdjacent(boolean[][] adjacent, int[] order, int position, int vertex) {
+        for (int i = 0; i < position; i++) {
+            if (adjacent[order[i]][vertex]) return true;
+        }
+        return false;
+    }
+}
@@ -28,6 +28,7 @@ import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.graph.vertex.TypeVertex;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.common.Modifiers;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
 import com.vaticle.typedb.core.traversal.planner.Planner;
 import com.vaticle.typedb.core.traversal.predicate.Predicate;
@@ -38,6 +39,7 @@ import com.vaticle.typeql.lang.common.TypeQLArg;
 import com.vaticle.typeql.lang.common.TypeQLToken;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -152,7 +154,7 @@ public abstract class GraphTraversal extends Traversal {
         public void initialise(TraversalCache cache) {
             assert planner == null;
             this.cache = cache;
-            planner = this.cache.getPlanner(structure, modifiers, sm -> Planner.create(sm.first(), sm.second()));
+            planner = this.cache.getPlanner(structure, modifiers, sm -> Planner.create(sm.first(), sm.second(), cache.planStore()));
         }
 
         @Override
@@ -163,6 +165,14 @@ public abstract class GraphTraversal extends Traversal {
             return iter;
         }
 
+        List<FunctionalIterator<VertexMap>> permutationIterators(GraphManager graphMgr, int partitions) {
+            assert planner != null && cache != null;
+            planner.tryOptimise(graphMgr, false);
+            List<FunctionalIterator<VertexMap>> iterators = planner.procedure().iterators(graphMgr, parameters, modifiers, partitions);
+            cache.mayUpdatePlanner(structure, modifiers, planner);
+            return iterators;
+        }
+
         FunctionalProducer<VertexMap> permutationProducer(GraphManager graphMgr, int parallelisation) {
             assert planner != null && cache != null;
             planner.tryOptimise(graphMgr, false);
@@ -171,6 +181,22 @@ public abstract class GraphTraversal extends Traversal {
             return producer;
         }
 
+        FunctionalProducer<VertexBatch> permutationBatchProducer(GraphManager graphMgr, int parallelisation, int batchSize) {
+            assert planner != null && cache != null;
+            planner.tryOptimise(graphMgr, false);
+            FunctionalProducer<VertexBatch> producer = planner.procedure().batchProducer(graphMgr, parameters, modifiers, parallelisation, batchSize);
+            cache.mayUpdatePlanner(structure, modifiers, planner);
+            return producer;
+        }
+
+        FunctionalIterator<VertexBatch> permutationBatchIterator(GraphManager graphMgr, int batchSize) {
+            assert planner != null && cache != null;
+            planner.tryOptimise(graphMgr, false);
+            FunctionalIterator<VertexBatch> iterator = planner.procedure().batchIterator(graphMgr, parameters, modifiers, batchSize);
+            cache.mayUpdatePlanner(structure, modifiers, planner);
+            return iterator;
+        }
+
         public void equalThings(Identifier.Variable thing1, Identifier.Variable thing2) {
             structure.equalEdge(structure.thingVertex(thing1), structure.thingVertex(thing2));
         }
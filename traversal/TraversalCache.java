@@ -20,20 +20,56 @@ package com.vaticle.typedb.core.traversal;
 
 import com.vaticle.typedb.common.collection.Pair;
 import com.vaticle.typedb.core.common.cache.CommonCache;
+import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.traversal.common.Modifiers;
+import com.vaticle.typedb.core.traversal.planner.PlanStore;
 import com.vaticle.typedb.core.traversal.planner.Planner;
 import com.vaticle.typedb.core.traversal.structure.Structure;
 
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 public class TraversalCache {
 
     private final CommonCache<Pair<Structure, Modifiers>, Planner> activePlanners;
     private final CommonCache<Pair<Structure, Modifiers>, Planner> optimalPlanners;
+    private final PlanStore planStore;
 
     public TraversalCache() {
+        this((PlanStore) null);
+    }
+
+    public TraversalCache(@Nullable PlanStore planStore) {
         activePlanners = new CommonCache<>(30);
         optimalPlanners = new CommonCache<>(10_000);
+        this.planStore = planStore;
+    }
+
+    /**
+     * Creates the cache for a new schema, carrying over the planners of the previous cache whose structures do not
+     * depend on any of the modified types.
+     */
+    public TraversalCache(TraversalCache previous, Set<Label> modifiedTypes) {
+        this(previous.planStore);
+        previous.activePlanners.forEach((key, planner) -> {
+            if (isUnaffected(key.first(), modifiedTypes)) activePlanners.put(key, planner);
+        });
+        previous.optimalPlanners.forEach((key, planner) -> {
+            if (isUnaffected(key.first(), modifiedTypes)) optimalPlanners.put(key, planner);
+        });
+    }
+
+    private static boolean isUnaffected(Structure structure, Set<Label> modifiedTypes) {
+        Optional<Set<Label>> dependencies = structure.typeDependencies();
+        return dependencies.isPresent() && Collections.disjoint(dependencies.get(), modifiedTypes);
+    }
+
+    @Nullable
+    public PlanStore planStore() {
+        return planStore;
     }
 
     public Planner getPlanner(Structure structure, Modifiers modifiers, Function<Pair<Structure, Modifiers>, Planner> constructor) {
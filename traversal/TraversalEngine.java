@@ -23,8 +23,10 @@ import com.vaticle.typedb.core.concurrent.producer.FunctionalProducer;
 import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.graph.vertex.TypeVertex;
 import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -53,6 +55,21 @@ public class TraversalEngine {
         return traversal.permutationIterator(graphMgr);
     }
 
+    public List<FunctionalIterator<VertexMap>> iterators(GraphTraversal.Thing traversal, int partitions) {
+        traversal.initialise(cache);
+        return traversal.permutationIterators(graphMgr, partitions);
+    }
+
+    public FunctionalProducer<VertexBatch> batchProducer(GraphTraversal.Thing traversal, int parallelisation, int batchSize) {
+        traversal.initialise(cache);
+        return traversal.permutationBatchProducer(graphMgr, parallelisation, batchSize);
+    }
+
+    public FunctionalIterator<VertexBatch> batchIterator(GraphTraversal.Thing traversal, int batchSize) {
+        traversal.initialise(cache);
+        return traversal.permutationBatchIterator(graphMgr, batchSize);
+    }
+
     public FunctionalIterator<VertexMap> iterator(GraphTraversal.Type traversal) {
         return traversal.permutationIterator(graphMgr);
     }
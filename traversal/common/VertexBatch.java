@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.common;
+
+import com.vaticle.typedb.core.graph.vertex.Vertex;
+import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers of a procedure laid out by column: for each retrieved identifier, the vertex it takes in each answer. An
+ * answer is written into the next row, one column at a time, and only becomes part of the batch once appended.
+ */
+public class VertexBatch {
+
+    private final List<Retrievable> ids;
+    private final Vertex<?, ?>[][] columns;
+    private final int capacity;
+    private int size;
+
+    public VertexBatch(List<Retrievable> ids, int capacity) {
+        this.ids = ids;
+        this.columns = new Vertex<?, ?>[ids.size()][capacity];
+        this.capacity = capacity;
+        this.size = 0;
+    }
+
+    public List<Retrievable> ids() {
+        return ids;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public Vertex<?, ?> get(int column, int row) {
+        assert row < size;
+        return columns[column][row];
+    }
+
+    /**
+     * @return the vertex written to the given column of the next row, which is not yet appended
+     */
+    public Vertex<?, ?> pending(int column) {
+        return columns[column][size];
+    }
+
+    public void put(int column, Vertex<?, ?> vertex) {
+        columns[column][size] = vertex;
+    }
+
+    public void append() {
+        assert !isFull();
+        size++;
+    }
+
+    public VertexMap vertexMap(int row) {
+        assert row < size;
+        Map<Retrievable, Vertex<?, ?>> map = new HashMap<>();
+        for (int column = 0; column < columns.length; column++) map.put(ids.get(column), columns[column][row]);
+        return VertexMap.of(map);
+    }
+}
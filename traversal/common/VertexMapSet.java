@@ -0,0 +1,621 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.common;
+
+import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.exception.TypeDBException;
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.DISTINCT_SPILL_FAILED;
+import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.RESOURCE_CLOSED;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * A set of the answers of a procedure, used to make them distinct. Each answer is kept as one key, the IIDs of its
+ * vertices concatenated in the order of the given identifiers, appended to byte array pages and indexed by a
+ * primitive open-addressing table. Past the memory budget, the keys of a stripe are sorted and spilled to a file in
+ * the given directory, which is probed through a Bloom filter and a sparse index kept in memory.
+ */
+@ThreadSafe
+public class VertexMapSet {
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    private static final int STRIPE_BITS = 4;
+
+    private final List<Retrievable> ids;
+    private final Stripe[] stripes;
+    private final AtomicInteger references;
+
+    public VertexMapSet(List<Retrievable> ids, Path directory) {
+        this(ids, directory, DEFAULT_MEMORY_BUDGET);
+    }
+
+    public VertexMapSet(List<Retrievable> ids, Path directory, long memoryBudget) {
+        this.ids = ids;
+        this.stripes = new Stripe[1 << STRIPE_BITS];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe(directory, memoryBudget / stripes.length);
+        this.references = new AtomicInteger(1);
+    }
+
+    /**
+     * Takes another reference to this set, for another user that will close it.
+     */
+    public VertexMapSet retain() {
+        references.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * Releases a reference to this set. Once every reference is released, the files of its spilled keys are closed,
+     * and the set can no longer be used.
+     */
+    public void close() {
+        if (references.decrementAndGet() == 0) {
+            for (Stripe stripe : stripes) stripe.close();
+        }
+    }
+
+    /**
+     * @return the given iterator, which releases one reference to this set when it is recycled
+     */
+    public <T> FunctionalIterator<T> closeOnRecycle(FunctionalIterator<T> iterator) {
+        return new AbstractFunctionalIterator<T>() {
+
+            private final AtomicBoolean isRecycled = new AtomicBoolean(false);
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void recycle() {
+                iterator.recycle();
+                if (isRecycled.compareAndSet(false, true)) close();
+            }
+        };
+    }
+
+    /**
+     * @return true if the answer was not in the set before
+     */
+    public boolean add(VertexMap vertexMap) {
+        ByteArray[] iids = new ByteArray[ids.size()];
+        for (int i = 0; i < iids.length; i++) iids[i] = vertexMap.get(ids.get(i)).iid().bytes();
+        return add(key(iids));
+    }
+
+    /**
+     * @return true if the pending row of the batch, whose columns follow the order of this set's identifiers, was
+     * not in the set before
+     */
+    public boolean add(VertexBatch batch) {
+        assert batch.ids().equals(ids);
+        ByteArray[] iids = new ByteArray[ids.size()];
+        for (int i = 0; i < iids.length; i++) iids[i] = batch.pending(i).iid().bytes();
+        return add(key(iids));
+    }
+
+    boolean add(byte[] key) {
+        long hash = hash(key);
+        return stripes[(int) (hash >>> (Long.SIZE - STRIPE_BITS))].add(key, hash);
+    }
+
+    int spilledFiles() {
+        int files = 0;
+        for (Stripe stripe : stripes) files += stripe.spilledFiles();
+        return files;
+    }
+
+    private static byte[] key(ByteArray[] iids) {
+        int length = 0;
+        for (ByteArray iid : iids) length += varIntLength(iid.length()) + iid.length();
+        byte[] key = new byte[length];
+        int pos = 0;
+        for (ByteArray iid : iids) {
+            pos = writeVarInt(key, pos, iid.length());
+            iid.copyTo(key, pos);
+            pos += iid.length();
+        }
+        return key;
+    }
+
+    private static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static int writeVarInt(byte[] bytes, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int readVarInt(byte[] bytes, int[] pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static class Stripe {
+
+        private static final int PAGE_SIZE = 1 << 16;
+        private static final int INITIAL_CAPACITY = 64;
+        private static final long MIN_MEMORY_BUDGET = 4L * PAGE_SIZE;
+        private static final int MAX_SPILLED_FILES = 8;
+
+        private final Path directory;
+        private final long memoryBudget;
+        private final List<SpilledKeys> spilled;
+        private byte[][] spilling;
+        private boolean isSpilling;
+        private boolean isClosed;
+        private List<byte[]> pages;
+        private int pageOffset;
+        private long[] addresses;
+        private int[] hashes;
+        private int size;
+        private long pagesMemory;
+
+        private Stripe(Path directory, long memoryBudget) {
+            this.directory = directory;
+            this.memoryBudget = Math.max(memoryBudget, MIN_MEMORY_BUDGET);
+            this.spilled = new ArrayList<>();
+            this.spilling = null;
+            this.isSpilling = false;
+            this.isClosed = false;
+            reset();
+        }
+
+        private void reset() {
+            this.pages = new ArrayList<>();
+            this.pageOffset = 0;
+            this.addresses = null;
+            this.hashes = null;
+            this.size = 0;
+            this.pagesMemory = 0;
+        }
+
+        /**
+         * Keys are checked and inserted under the stripe's monitor, but a spill only swaps the table out under it:
+         * the swapped out keys are written, and merged with earlier files, after it is released. Until then, they
+         * are probed in memory, and no other spill of the stripe starts.
+         */
+        boolean add(byte[] key, long hash) {
+            byte[][] spilledKeys;
+            List<SpilledKeys> merged;
+            synchronized (this) {
+                if (isClosed) throw TypeDBException.of(RESOURCE_CLOSED);
+                if (addresses == null) {
+                    addresses = new long[INITIAL_CAPACITY];
+                    hashes = new int[INITIAL_CAPACITY];
+                }
+                int slot = slot(key, (int) hash);
+                if (addresses[slot] != 0) return false;
+                if (spilling != null && Arrays.binarySearch(spilling, key, Arrays::compareUnsigned) >= 0) return false;
+                for (SpilledKeys keys : spilled) {
+                    if (keys.contains(key, hash)) return false;
+                }
+                addresses[slot] = append(key) + 1;
+                hashes[slot] = (int) hash;
+                size++;
+                if (spilling == null && pagesMemory + (long) addresses.length * (Long.BYTES + Integer.BYTES) > memoryBudget) {
+                    spilledKeys = sortedKeys();
+                    merged = spilled.size() < MAX_SPILLED_FILES ? null : new ArrayList<>(spilled);
+                    spilling = spilledKeys;
+                    isSpilling = true;
+                    reset();
+                } else {
+                    if (size * 2 > addresses.length) grow();
+                    return true;
+                }
+            }
+            spill(spilledKeys, merged);
+            return true;
+        }
+
+        private int slot(byte[] key, int hash) {
+            int mask = addresses.length - 1;
+            int slot = hash & mask;
+            while (addresses[slot] != 0 && (hashes[slot] != hash || !equalsAt(addresses[slot] - 1, key))) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private long append(byte[] key) {
+            int length = varIntLength(key.length) + key.length;
+            if (pages.isEmpty() || pageOffset + length > pages.get(pages.size() - 1).length) {
+                pages.add(new byte[Math.max(PAGE_SIZE, length)]);
+                pagesMemory += Math.max(PAGE_SIZE, length);
+                pageOffset = 0;
+            }
+            byte[] page = pages.get(pages.size() - 1);
+            long address = ((long) (pages.size() - 1) << Integer.SIZE) | pageOffset;
+            int pos = writeVarInt(page, pageOffset, key.length);
+            System.arraycopy(key, 0, page, pos, key.length);
+            pageOffset = pos + key.length;
+            return address;
+        }
+
+        private boolean equalsAt(long address, byte[] key) {
+            byte[] page = pages.get((int) (address >>> Integer.SIZE));
+            int[] pos = {(int) address};
+            int length = readVarInt(page, pos);
+            return Arrays.equals(page, pos[0], pos[0] + length, key, 0, key.length);
+        }
+
+        private byte[] keyAt(long address) {
+            byte[] page = pages.get((int) (address >>> Integer.SIZE));
+            int[] pos = {(int) address};
+            int length = readVarInt(page, pos);
+            return Arrays.copyOfRange(page, pos[0], pos[0] + length);
+        }
+
+        private void grow() {
+            long[] oldAddresses = addresses;
+            int[] oldHashes = hashes;
+            addresses = new long[oldAddresses.length * 2];
+            hashes = new int[oldAddresses.length * 2];
+            int mask = addresses.length - 1;
+            for (int i = 0; i < oldAddresses.length; i++) {
+                if (oldAddresses[i] == 0) continue;
+                int slot = oldHashes[i] & mask;
+                while (addresses[slot] != 0) slot = (slot + 1) & mask;
+                addresses[slot] = oldAddresses[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+
+        private byte[][] sortedKeys() {
+            byte[][] keys = new byte[size][];
+            int i = 0;
+            for (long address : addresses) {
+                if (address != 0) keys[i++] = keyAt(address - 1);
+            }
+            Arrays.sort(keys, Arrays::compareUnsigned);
+            return keys;
+        }
+
+        /**
+         * Once a stripe has spilled too many times, its spilled keys are merged into a single file, so that the
+         * number of files to probe, and to keep open, stays bounded. The files of the stripe are only closed once
+         * no spill is reading them. If writing fails, the failure is thrown to the add that spilled, and the keys
+         * stay in memory, where they are still probed, but the stripe spills no more.
+         */
+        private void spill(byte[][] keys, @Nullable List<SpilledKeys> merged) {
+            SpilledKeys written;
+            try {
+                if (merged == null) {
+                    written = SpilledKeys.write(directory, Arrays.asList(keys).iterator(), keys.length);
+                } else {
+                    List<Iterator<byte[]>> runs = new ArrayList<>();
+                    long count = keys.length;
+                    runs.add(Arrays.asList(keys).iterator());
+                    for (SpilledKeys spilledKeys : merged) {
+                        runs.add(spilledKeys.iterator());
+                        count += spilledKeys.count;
+                    }
+                    written = SpilledKeys.write(directory, new MergedKeys(runs), count);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    isSpilling = false;
+                    if (isClosed) closeSpilled();
+                }
+                throw e;
+            }
+            synchronized (this) {
+                isSpilling = false;
+                if (isClosed) {
+                    written.close();
+                    closeSpilled();
+                    return;
+                }
+                if (merged != null) spilled.removeAll(merged);
+                spilled.add(written);
+                spilling = null;
+            }
+            // the merged files are no longer probed, as they left the stripe under its monitor
+            if (merged != null) merged.forEach(SpilledKeys::close);
+        }
+
+        synchronized int spilledFiles() {
+            return spilled.size();
+        }
+
+        synchronized void close() {
+            if (isClosed) return;
+            isClosed = true;
+            // a spill in progress may be merging the spilled files, so it closes them once it is done
+            if (!isSpilling) closeSpilled();
+            spilling = null;
+            reset();
+        }
+
+        private void closeSpilled() {
+            assert Thread.holdsLock(this);
+            spilled.forEach(SpilledKeys::close);
+            spilled.clear();
+        }
+    }
+
+    private static class MergedKeys implements Iterator<byte[]> {
+
+        private final PriorityQueue<PeekedKeys> queue;
+
+        private MergedKeys(List<Iterator<byte[]>> sortedKeys) {
+            this.queue = new PriorityQueue<>((first, second) -> Arrays.compareUnsigned(first.next, second.next));
+            for (Iterator<byte[]> keys : sortedKeys) {
+                if (keys.hasNext()) queue.add(new PeekedKeys(keys));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            PeekedKeys keys = queue.poll();
+            byte[] next = keys.next;
+            if (keys.iterator.hasNext()) {
+                keys.next = keys.iterator.next();
+                queue.add(keys);
+            }
+            return next;
+        }
+
+        private static class PeekedKeys {
+
+            private final Iterator<byte[]> iterator;
+            private byte[] next;
+
+            private PeekedKeys(Iterator<byte[]> iterator) {
+                this.iterator = iterator;
+                this.next = iterator.next();
+            }
+        }
+    }
+
+    private static class SpilledKeys {
+
+        private static final String FILE_PREFIX = "typedb-distinct-";
+        private static final int INDEX_INTERVAL = 64;
+        private static final int BLOOM_BITS_PER_KEY = 10;
+        private static final int BLOOM_HASHES = 4;
+
+        private final Path file;
+        private final FileChannel channel;
+        private final long count;
+        private final long[] bloom;
+        private final byte[][] indexKeys;
+        private final long[] indexOffsets;
+
+        private SpilledKeys(Path file, FileChannel channel, long count, long[] bloom, byte[][] indexKeys,
+                            long[] indexOffsets) {
+            this.file = file;
+            this.channel = channel;
+            this.count = count;
+            this.bloom = bloom;
+            this.indexKeys = indexKeys;
+            this.indexOffsets = indexOffsets;
+        }
+
+        /**
+         * The file is unlinked as soon as it is written, and only read through its open channel, so it does not
+         * outlive the set. Where an open file cannot be deleted, it is deleted on exit instead.
+         */
+        private static SpilledKeys write(Path directory, Iterator<byte[]> sortedKeys, long count) {
+            Path file = null;
+            try {
+                Files.createDirectories(directory);
+                file = Files.createTempFile(directory, FILE_PREFIX, null);
+                long[] bloom = new long[(int) Math.max(1, (count * BLOOM_BITS_PER_KEY + Long.SIZE - 1) / Long.SIZE)];
+                int blocks = (int) ((count + INDEX_INTERVAL - 1) / INDEX_INTERVAL);
+                byte[][] indexKeys = new byte[blocks][];
+                long[] indexOffsets = new long[blocks + 1];
+                long offset = 0;
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                    byte[] length = new byte[5];
+                    for (int i = 0; sortedKeys.hasNext(); i++) {
+                        byte[] key = sortedKeys.next();
+                        if (i % INDEX_INTERVAL == 0) {
+                            indexKeys[i / INDEX_INTERVAL] = key;
+                            indexOffsets[i / INDEX_INTERVAL] = offset;
+                        }
+                        addToBloom(bloom, hash(key));
+                        int lengthSize = writeVarInt(length, 0, key.length);
+                        output.write(length, 0, lengthSize);
+                        output.write(key);
+                        offset += lengthSize + key.length;
+                    }
+                }
+                indexOffsets[blocks] = offset;
+                FileChannel channel = FileChannel.open(file, READ);
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit();
+                }
+                return new SpilledKeys(file, channel, count, bloom, indexKeys, indexOffsets);
+            } catch (IOException e) {
+                try {
+                    if (file != null) Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // the spill failure is reported below
+                }
+                throw TypeDBException.of(DISTINCT_SPILL_FAILED, file);
+            }
+        }
+
+        private static void addToBloom(long[] bloom, long hash) {
+            long bits = (long) bloom.length * Long.SIZE;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                long bit = Math.floorMod((int) hash + i * (int) (hash >>> Integer.SIZE), bits);
+                bloom[(int) (bit / Long.SIZE)] |= 1L << (bit % Long.SIZE);
+            }
+        }
+
+        private boolean mayContain(long hash) {
+            long bits = (long) bloom.length * Long.SIZE;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                long bit = Math.floorMod((int) hash + i * (int) (hash >>> Integer.SIZE), bits);
+                if ((bloom[(int) (bit / Long.SIZE)] & (1L << (bit % Long.SIZE))) == 0) return false;
+            }
+            return true;
+        }
+
+        private boolean contains(byte[] key, long hash) {
+            if (!mayContain(hash)) return false;
+            int block = floorBlock(key);
+            if (block < 0) return false;
+            byte[] bytes = readBlock(block);
+            int[] pos = {0};
+            while (pos[0] < bytes.length) {
+                int length = readVarInt(bytes, pos);
+                if (Arrays.equals(bytes, pos[0], pos[0] + length, key, 0, key.length)) return true;
+                pos[0] += length;
+            }
+            return false;
+        }
+
+        private int floorBlock(byte[] key) {
+            int low = 0;
+            int high = indexKeys.length - 1;
+            int floor = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (Arrays.compareUnsigned(indexKeys[mid], key) <= 0) {
+                    floor = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return floor;
+        }
+
+        private byte[] readBlock(int block) {
+            long offset = indexOffsets[block];
+            ByteBuffer buffer = ByteBuffer.allocate((int) (indexOffsets[block + 1] - offset));
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) break;
+                }
+            } catch (IOException e) {
+                throw TypeDBException.of(DISTINCT_SPILL_FAILED, file);
+            }
+            return buffer.array();
+        }
+
+        private Iterator<byte[]> iterator() {
+            List<byte[]> block = new ArrayList<>();
+            return new Iterator<byte[]>() {
+
+                private int nextBlock = 0;
+                private int nextKey = 0;
+
+                @Override
+                public boolean hasNext() {
+                    if (nextKey < block.size()) return true;
+                    else if (nextBlock == indexKeys.length) return false;
+                    byte[] bytes = readBlock(nextBlock++);
+                    block.clear();
+                    nextKey = 0;
+                    int[] pos = {0};
+                    while (pos[0] < bytes.length) {
+                        int length = readVarInt(bytes, pos);
+                        block.add(Arrays.copyOfRange(bytes, pos[0], pos[0] + length));
+                        pos[0] += length;
+                    }
+                    return true;
+                }
+
+                @Override
+                public byte[] next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return block.get(nextKey++);
+                }
+            };
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw TypeDBException.of(DISTINCT_SPILL_FAILED, file);
+            }
+        }
+    }
+}
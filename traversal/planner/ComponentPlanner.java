@@ -23,6 +23,7 @@ import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.common.Modifiers;
 import com.vaticle.typedb.core.traversal.structure.Structure;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 import static com.vaticle.typedb.common.util.Objects.className;
@@ -30,10 +31,10 @@ import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.ILL
 
 public interface ComponentPlanner extends Planner {
 
-    static ComponentPlanner create(Structure structure, Modifiers modifiers) {
+    static ComponentPlanner create(Structure structure, Modifiers modifiers, @Nullable PlanStore planStore) {
         assert structure.splitDisjoint().size() == 1;
         if (structure.vertices().size() == 1) return VertexPlanner.create(structure.vertices().iterator().next());
-        else return GraphPlanner.create(structure, modifiers);
+        else return GraphPlanner.create(structure, modifiers, planStore);
     }
 
     Set<Identifier> vertices();
@@ -18,13 +18,17 @@
 
 package com.vaticle.typedb.core.traversal.planner;
 
+import com.vaticle.typedb.core.common.diagnostics.Metrics;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.optimiser.Optimiser;
 import com.vaticle.typedb.core.common.optimiser.OptimiserConstraint;
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.encoding.Encoding;
 import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.common.Modifiers;
 import com.vaticle.typedb.core.traversal.graph.TraversalEdge;
+import com.vaticle.typedb.core.traversal.graph.TraversalVertex;
 import com.vaticle.typedb.core.traversal.procedure.GraphProcedure;
 import com.vaticle.typedb.core.traversal.structure.Structure;
 import com.vaticle.typedb.core.traversal.structure.StructureEdge;
@@ -32,19 +36,22 @@ import com.vaticle.typedb.core.traversal.structure.StructureVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static com.vaticle.typedb.common.collection.Collections.list;
@@ -52,51 +59,82 @@ import static com.vaticle.typedb.core.common.exception.ErrorMessage.Internal.UNE
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typedb.core.concurrent.executor.Executors.async2;
 import static java.lang.Math.abs;
+import static java.lang.Math.max;
 import static java.time.Duration.between;
-import static java.util.Comparator.comparing;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.Comparator.naturalOrder;
 
 public class GraphPlanner implements ComponentPlanner {
 
     private static final Logger LOG = LoggerFactory.getLogger(GraphPlanner.class);
 
     static final long DEFAULT_TIME_LIMIT_MILLIS = 100;
-    static final long HIGHER_TIME_LIMIT_MILLIS = 200;
     static final double OBJECTIVE_PLANNER_COST_MAX_CHANGE = 0.2;
     static final double OBJECTIVE_VARIABLE_COST_MAX_CHANGE = 2.0;
     static final double OBJECTIVE_VARIABLE_TO_PLANNER_COST_MIN_CHANGE = 0.02;
     static final double INIT_ZERO = 0.01;
+    static final long OBSERVATION_MIN_BRANCHES = 32;
+    static final long OBSERVATION_WINDOW = 4096;
+    static final long OBSERVATIONS_PER_COST_UPDATE = 256;
+    static final long PLAN_MAX_SNAPSHOT_AGE = 1024;
+
+    private static final Metrics.Summary OPTIMISATIONS = Metrics.summary(
+            "typedb_planner_optimisation_seconds", "Time spent in the query plan optimiser.");
+    private static final String PLANS = "typedb_planner_plans_total";
+    private static final String PLANS_HELP = "Optimiser runs by the optimality of the plan they produced.";
+    private static final Metrics.Counter OPTIMAL_PLANS = Metrics.counter(PLANS, Metrics.label("optimal", "true"), PLANS_HELP);
+    private static final Metrics.Counter SUBOPTIMAL_PLANS = Metrics.counter(PLANS, Metrics.label("optimal", "false"), PLANS_HELP);
+    private static final Metrics.Counter RESTORED_PLANS = Metrics.counter(
+            "typedb_planner_restored_plans_total", "Query plans restored from the plan store instead of being optimised.");
 
     private final Optimiser optimiser;
     private final Map<Identifier, PlannerVertex<?>> vertices;
     private final Set<PlannerEdge<?, ?>> edges;
     private final AtomicBoolean isOptimising;
+    private final AtomicLong observations;
+    private final PlanStore planStore;
+    private final String fingerprint;
+    private final Set<Label> typeDependencies;
 
     protected volatile GraphProcedure procedure;
     private volatile CompletableFuture<Void> backgroundOptimisation;
     private volatile boolean isUpToDate;
     private volatile boolean isVertexOrderInitialised;
+    private volatile boolean isRestored;
     private volatile long snapshot;
+    private volatile long observationsLastApplied;
 
     private volatile double totalCostLastRecorded;
     private double totalCost;
     private final Modifiers modifiers;
 
-    private GraphPlanner(Modifiers modifiers) {
+    private GraphPlanner(Modifiers modifiers, @Nullable PlanStore planStore, @Nullable String fingerprint,
+                         @Nullable Set<Label> typeDependencies) {
         this.modifiers = modifiers;
+        this.planStore = planStore;
+        this.fingerprint = fingerprint;
+        this.typeDependencies = typeDependencies;
         optimiser = new Optimiser();
         vertices = new HashMap<>();
         edges = new HashSet<>();
         isOptimising = new AtomicBoolean(false);
+        observations = new AtomicLong(0);
+        observationsLastApplied = 0;
         isUpToDate = false;
         isVertexOrderInitialised = false;
+        isRestored = false;
         totalCostLastRecorded = INIT_ZERO;
         totalCost = INIT_ZERO;
         snapshot = -1L;
     }
 
-    static GraphPlanner create(Structure structure, Modifiers modifiers) {
-        GraphPlanner planner = new GraphPlanner(modifiers);
+    static GraphPlanner create(Structure structure, Modifiers modifiers, @Nullable PlanStore planStore) {
+        String fingerprint = null;
+        Set<Label> typeDependencies = null;
+        if (planStore != null) {
+            fingerprint = fingerprint(structure, modifiers.sorting());
+            typeDependencies = structure.typeDependencies().orElse(null);
+        }
+        GraphPlanner planner = new GraphPlanner(modifiers, planStore, fingerprint, typeDependencies);
         Set<StructureVertex<?>> registeredVertices = new HashSet<>();
         Set<StructureEdge<?, ?>> registeredEdges = new HashSet<>();
         structure.vertices().forEach(vertex -> planner.registerVertex(vertex, registeredVertices, registeredEdges));
@@ -105,6 +143,42 @@ public class GraphPlanner implements ComponentPlanner {
         return planner;
     }
 
+    /**
+     * A canonical description of the structure and its sorting, built from identifiers, labels and encodings only,
+     * so that it is stable across restarts.
+     */
+    private static String fingerprint(Structure structure, Modifiers.Sorting sorting) {
+        List<String> vertices = new ArrayList<>();
+        for (StructureVertex<?> vertex : structure.vertices()) {
+            if (vertex.isThing()) {
+                TraversalVertex.Properties.Thing props = vertex.asThing().props();
+                vertices.add(vertex.id() + " thing " + props.hasIID() + " " + sorted(props.types()) + " " + sorted(props.predicates()));
+            } else {
+                TraversalVertex.Properties.Type props = vertex.asType().props();
+                vertices.add(vertex.id() + " type " + sorted(props.labels()) + " " + props.isAbstract() + " " +
+                        sorted(iterate(props.valueTypes()).map(Encoding.ValueType::name).toList()) + " " + props.regex().orElse(""));
+            }
+        }
+        List<String> edges = new ArrayList<>();
+        for (StructureEdge<?, ?> edge : structure.edges()) {
+            String string = edge.toString();
+            if (edge.isNative()) string += " " + edge.asNative().isTransitive();
+            if (edge.isNative() && edge.asNative().isRolePlayer()) {
+                string += " " + sorted(edge.asNative().asRolePlayer().types()) + " " + edge.asNative().asRolePlayer().repetition();
+            }
+            edges.add(string);
+        }
+        vertices.sort(naturalOrder());
+        edges.sort(naturalOrder());
+        return String.join("; ", vertices) + " | " + String.join("; ", edges) + " | " + sorting.variables();
+    }
+
+    private static List<String> sorted(Collection<?> elements) {
+        List<String> strings = iterate(elements).map(Objects::toString).toList();
+        strings.sort(naturalOrder());
+        return strings;
+    }
+
     private void registerVertex(StructureVertex<?> structureVertex, Set<StructureVertex<?>> registeredVertices,
                                 Set<StructureEdge<?, ?>> registeredEdges) {
         if (registeredVertices.contains(structureVertex)) return;
@@ -222,6 +296,10 @@ public class GraphPlanner implements ComponentPlanner {
         return edges;
     }
 
+    void observed(long branches) {
+        observations.addAndGet(branches);
+    }
+
     void setOutOfDate() {
         isUpToDate = false;
     }
@@ -232,7 +310,7 @@ public class GraphPlanner implements ComponentPlanner {
 
     @Override
     public boolean isOptimal() {
-        return optimiser.isOptimal();
+        return optimiser.isOptimal() || isRestored;
     }
 
     private boolean isError() {
@@ -243,27 +321,65 @@ public class GraphPlanner implements ComponentPlanner {
         return optimiser;
     }
 
+    /**
+     * The first call plans with the vertex order heuristic, and returns without waiting for the solver. The solver
+     * is only started by later calls, when the planner is reused, and then refines the plan in the background.
+     */
     @Override
     public void tryOptimise(GraphManager graphMgr, boolean singleUse) {
-        long timeLimitMillis = singleUse ? HIGHER_TIME_LIMIT_MILLIS : DEFAULT_TIME_LIMIT_MILLIS;
-        if (backgroundOptimisation == null) startFirstOptimise(graphMgr, timeLimitMillis);
-        else if (isOptimising.compareAndSet(false, true)) startReOptimise(graphMgr, timeLimitMillis);
-
-        try {
-            backgroundOptimisation.get(timeLimitMillis + 10, MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException ignored) {
-            LOG.trace("Query plan did not finish updating in " + timeLimitMillis + " ms.");
-        }
+        if (backgroundOptimisation == null) startFirstOptimise(graphMgr);
+        else if (!singleUse && isOptimising.compareAndSet(false, true)) startReOptimise(graphMgr, DEFAULT_TIME_LIMIT_MILLIS);
     }
 
-    private synchronized void startFirstOptimise(GraphManager graphMgr, long timeLimitMillis) {
+    private synchronized void startFirstOptimise(GraphManager graphMgr) {
         if (backgroundOptimisation == null) {
             isOptimising.set(true);
             updateTraversalCosts(graphMgr);
-            updateOptimiser();
-            createProcedure();
-            backgroundOptimisation = CompletableFuture.runAsync(() -> optimise(timeLimitMillis), async2());
+            if (!mayRestore()) {
+                updateOptimiser();
+                createProcedure();
+                isUpToDate = true;
+            }
+            backgroundOptimisation = CompletableFuture.completedFuture(null);
+            isOptimising.set(false);
+        }
+    }
+
+    /**
+     * Adopts the stored plan for this structure, unless it was optimised with statistics that are newer than ours, or
+     * too many snapshots older, or the total cost has drifted significantly since. A restored plan is treated as
+     * optimal until the costs change, at which point it is re-optimised.
+     */
+    private boolean mayRestore() {
+        if (planStore == null) return false;
+        Optional<PlanStore.Plan> plan = planStore.get(fingerprint);
+        if (!plan.isPresent() || !isRestorable(plan.get().snapshot(), snapshot) ||
+                totalCostChangeSignificant(plan.get().totalCost(), totalCost)) {
+            return false;
+        }
+        Map<String, PlannerVertex<?>> vertexByID = new HashMap<>();
+        vertices.values().forEach(vertex -> vertexByID.put(vertex.id().toString(), vertex));
+        List<String> vertexOrder = plan.get().vertexOrder();
+        if (vertexByID.size() != vertices.size() || vertexOrder.size() != vertices.size() ||
+                !vertexByID.keySet().containsAll(vertexOrder)) {
+            return false;
         }
+
+        updateOptimiserCoefficients();
+        updateOptimiserConstraints();
+        for (int i = 0; i < vertexOrder.size(); i++) vertexByID.get(vertexOrder.get(i)).setOrder(i);
+        isVertexOrderInitialised = true;
+        setOptimiserValues();
+        linearise();
+        createProcedure();
+        isUpToDate = true;
+        isRestored = true;
+        RESTORED_PLANS.increment();
+        return true;
+    }
+
+    static boolean isRestorable(long planSnapshot, long snapshot) {
+        return planSnapshot <= snapshot && snapshot - planSnapshot <= PLAN_MAX_SNAPSHOT_AGE;
     }
 
     private void startReOptimise(GraphManager graphMgr, long timeLimitMillis) {
@@ -273,7 +389,10 @@ public class GraphPlanner implements ComponentPlanner {
             isOptimising.set(false);
             return;
         }
-        if (!isUpToDate()) updateOptimiser();
+        if (!isUpToDate()) {
+            isRestored = false;
+            updateOptimiser();
+        }
 
         backgroundOptimisation = backgroundOptimisation.thenRunAsync(() -> optimise(timeLimitMillis), async2());
     }
@@ -283,12 +402,18 @@ public class GraphPlanner implements ComponentPlanner {
         start = Instant.now();
         optimiser.optimise(timeLimitMillis);
         endSolver = Instant.now();
+        OPTIMISATIONS.observe(between(start, endSolver).toNanos() / 1_000_000_000.0);
+        if (isOptimal()) OPTIMAL_PLANS.increment();
+        else SUBOPTIMAL_PLANS.increment();
         if (isError()) throwPlanningError();
 
         linearise();
 
         createProcedure();
         end = Instant.now();
+        if (optimiser.isOptimal() && planStore != null) {
+            planStore.put(fingerprint, PlanStore.Plan.of(vertices, snapshot, totalCost, typeDependencies));
+        }
 
         isUpToDate = true;
         printDebug(start, endSolver, end);
@@ -317,7 +442,7 @@ public class GraphPlanner implements ComponentPlanner {
     private void updateOptimiser() {
         updateOptimiserCoefficients();
         updateOptimiserConstraints();
-        if (!isVertexOrderInitialised) initialiseVertexOrderGreedy();
+        if (!isVertexOrderInitialised) initialiseVertexOrderHeuristic();
         setOptimiserValues();
         linearise();
         if (LOG.isTraceEnabled()) LOG.trace(optimiser.toString());
@@ -337,10 +462,16 @@ public class GraphPlanner implements ComponentPlanner {
         edges.forEach(PlannerEdge::updateOptimiserCoefficients);
     }
 
+    /**
+     * Recomputes the costs when the statistics have moved on, or when enough traversals have been observed that the
+     * observed edge costs may have diverged from the model.
+     */
     private void updateTraversalCosts(GraphManager graphMgr) {
-        if (snapshot < graphMgr.data().stats().snapshot()) {
+        long observed = observations.get();
+        if (snapshot < graphMgr.data().stats().snapshot() || observed - observationsLastApplied >= OBSERVATIONS_PER_COST_UPDATE) {
             // TODO: we should not include the graph's uncommitted writes, but only the persisted counts in the costs
-            snapshot = graphMgr.data().stats().snapshot();
+            snapshot = max(snapshot, graphMgr.data().stats().snapshot());
+            observationsLastApplied = observed;
             computeTotalCost(graphMgr);
 
             if (!isUpToDate) {
@@ -391,7 +522,11 @@ public class GraphPlanner implements ComponentPlanner {
 
     private boolean totalCostChangeSignificant() {
         assert totalCostLastRecorded > 0;
-        return abs((totalCost / totalCostLastRecorded) - 1) >= OBJECTIVE_PLANNER_COST_MAX_CHANGE;
+        return totalCostChangeSignificant(totalCostLastRecorded, totalCost);
+    }
+
+    private static boolean totalCostChangeSignificant(double totalCostPrevious, double totalCostNext) {
+        return abs((totalCostNext / totalCostPrevious) - 1) >= OBJECTIVE_PLANNER_COST_MAX_CHANGE;
     }
 
     private void throwPlanningError() {
@@ -437,23 +572,11 @@ public class GraphPlanner implements ComponentPlanner {
         return str.toString();
     }
 
-    private void initialiseVertexOrderGreedy() {
-        Set<PlannerVertex<?>> unorderedVertices = new HashSet<>(vertices.values());
-        int vertexOrder;
-        for (vertexOrder = 0; vertexOrder < modifiers.sorting().variables().size(); vertexOrder++) {
-            PlannerVertex<?> vertex = vertices.get(modifiers.sorting().variables().get(vertexOrder));
-            vertex.setOrder(vertexOrder);
-            unorderedVertices.remove(vertex);
-        }
-        while (!unorderedVertices.isEmpty()) {
-            PlannerVertex<?> vertex = unorderedVertices.stream().min(comparing(
-                    v -> v.ins().stream().filter(e -> !unorderedVertices.contains(e.from()))
-                            .mapToDouble(PlannerEdge.Directional::safeCost).min().orElse(v.safeCost())
-            )).get();
-            unorderedVertices.remove(vertex);
-            vertex.setOrder(vertexOrder++);
-        }
-        assert vertexOrder == vertices.size();
+    private void initialiseVertexOrderHeuristic() {
+        List<PlannerVertex<?>> sortedVertices = iterate(modifiers.sorting().variables()).<PlannerVertex<?>>map(vertices::get).toList();
+        List<PlannerVertex<?>> vertexOrder = new VertexOrderHeuristic(vertices.values(), sortedVertices).order();
+        for (int i = 0; i < vertexOrder.size(); i++) vertexOrder.get(i).setOrder(i);
+        assert vertexOrder.size() == vertices.size();
         isVertexOrderInitialised = true;
     }
 }
@@ -25,6 +25,7 @@ import com.vaticle.typedb.core.traversal.procedure.GraphProcedure;
 import com.vaticle.typedb.core.traversal.procedure.PermutationProcedure;
 import com.vaticle.typedb.core.traversal.structure.Structure;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -50,8 +51,8 @@ public class MultiPlanner implements Planner {
         if (iterate(planners).allMatch(Planner::isOptimal)) createProcedure();
     }
 
-    static MultiPlanner create(List<Structure> structures, Modifiers modifiers) {
-        return new MultiPlanner(iterate(structures).map(structure -> ComponentPlanner.create(structure, modifiers)).toList(), modifiers);
+    static MultiPlanner create(List<Structure> structures, Modifiers modifiers, @Nullable PlanStore planStore) {
+        return new MultiPlanner(iterate(structures).map(structure -> ComponentPlanner.create(structure, modifiers, planStore)).toList(), modifiers);
     }
 
     @Override
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.planner;
+
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.vaticle.typedb.core.traversal.planner.GraphPlanner.OBSERVATION_MIN_BRANCHES;
+import static com.vaticle.typedb.core.traversal.planner.GraphPlanner.OBSERVATION_WINDOW;
+
+/**
+ * The fan-out observed for a directional planner edge, as the number of vertices its branches produced over the
+ * number of branches. Iterators count their branches locally and record them here in bulk, so that recording neither
+ * blocks the traversal nor loses concurrent recordings.
+ */
+class ObservedCost {
+
+    private final AtomicLong branches;
+    private final AtomicLong vertices;
+
+    ObservedCost() {
+        this.branches = new AtomicLong(0);
+        this.vertices = new AtomicLong(0);
+    }
+
+    void record(long branches, long vertices) {
+        this.branches.addAndGet(branches);
+        this.vertices.addAndGet(vertices);
+    }
+
+    /**
+     * @return the mean number of vertices per branch, once enough branches have been recorded. Past the observation
+     * window, half of the recorded branches and vertices are discarded, so that the mean follows changes in the data.
+     */
+    OptionalDouble mean() {
+        // a recording in between the two reads is only partly seen, which barely moves the mean
+        long branches = this.branches.get();
+        long vertices = this.vertices.get();
+        if (branches < OBSERVATION_MIN_BRANCHES) return OptionalDouble.empty();
+        if (branches >= OBSERVATION_WINDOW && this.branches.compareAndSet(branches, branches - branches / 2)) {
+            this.vertices.addAndGet(-vertices / 2);
+        }
+        return OptionalDouble.of((double) vertices / branches);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.planner;
+
+import com.vaticle.typedb.core.common.collection.ByteArray;
+import com.vaticle.typedb.core.common.parameters.Label;
+import com.vaticle.typedb.core.traversal.common.Identifier;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeLong;
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeString;
+import static com.vaticle.typedb.core.common.collection.ByteArray.encodeUnsignedShort;
+import static com.vaticle.typedb.core.common.collection.ByteArray.join;
+import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingInt;
+
+/**
+ * A durable store of optimal vertex orders for graph planners, keyed by the fingerprint of the planned structure.
+ */
+public interface PlanStore {
+
+    Optional<Plan> get(String fingerprint);
+
+    void put(String fingerprint, Plan plan);
+
+    /**
+     * Removes the plans that may depend on any of the given types, which have been created, modified, renamed or
+     * deleted by a schema commit.
+     */
+    void invalidate(Set<Label> modifiedTypes);
+
+    /**
+     * The vertex order of an optimal plan, tagged with the statistics snapshot and total cost it was optimised with,
+     * and the scoped labels of the types the planned structure depends on, which are null if it depends on the whole
+     * schema.
+     */
+    class Plan {
+
+        private static final int UNANCHORED = 0xFFFF;
+
+        private final List<String> vertexOrder;
+        private final long snapshot;
+        private final double totalCost;
+        private final Set<String> typeDependencies;
+
+        public Plan(List<String> vertexOrder, long snapshot, double totalCost, @Nullable Set<String> typeDependencies) {
+            this.vertexOrder = vertexOrder;
+            this.snapshot = snapshot;
+            this.totalCost = totalCost;
+            this.typeDependencies = typeDependencies;
+        }
+
+        static Plan of(Map<Identifier, PlannerVertex<?>> vertices, long snapshot, double totalCost,
+                       @Nullable Set<Label> typeDependencies) {
+            List<PlannerVertex<?>> ordered = new ArrayList<>(vertices.values());
+            ordered.sort(comparingInt(PlannerVertex::getOrder));
+            return new Plan(
+                    iterate(ordered).map(v -> v.id().toString()).toList(), snapshot, totalCost,
+                    typeDependencies == null ? null : iterate(typeDependencies).map(Label::scopedName).toSet()
+            );
+        }
+
+        public List<String> vertexOrder() {
+            return vertexOrder;
+        }
+
+        public long snapshot() {
+            return snapshot;
+        }
+
+        public double totalCost() {
+            return totalCost;
+        }
+
+        public Optional<Set<String>> typeDependencies() {
+            return Optional.ofNullable(typeDependencies);
+        }
+
+        public boolean isAffectedBy(Set<Label> modifiedTypes) {
+            return typeDependencies == null || iterate(modifiedTypes).anyMatch(l -> typeDependencies.contains(l.scopedName()));
+        }
+
+        public ByteArray encode() {
+            List<ByteArray> bytes = new ArrayList<>();
+            bytes.add(encodeLong(snapshot));
+            bytes.add(encodeLong(Double.doubleToLongBits(totalCost)));
+            bytes.add(encodeUnsignedShort(vertexOrder.size()));
+            vertexOrder.forEach(id -> encodeSized(id, bytes));
+            if (typeDependencies == null) bytes.add(encodeUnsignedShort(UNANCHORED));
+            else {
+                assert typeDependencies.size() < UNANCHORED;
+                bytes.add(encodeUnsignedShort(typeDependencies.size()));
+                typeDependencies.forEach(label -> encodeSized(label, bytes));
+            }
+            return join(bytes.toArray(new ByteArray[0]));
+        }
+
+        private static void encodeSized(String string, List<ByteArray> bytes) {
+            ByteArray stringBytes = encodeString(string, UTF_8);
+            bytes.add(encodeUnsignedShort(stringBytes.length()));
+            bytes.add(stringBytes);
+        }
+
+        public static Plan decode(ByteArray bytes) {
+            long snapshot = bytes.view(0, 8).decodeLong();
+            double totalCost = Double.longBitsToDouble(bytes.view(8, 16).decodeLong());
+            int size = bytes.view(16, 18).decodeUnsignedShort();
+            List<String> vertexOrder = new ArrayList<>(size);
+            int position = 18;
+            for (int i = 0; i < size; i++) position = decodeSized(bytes, position, vertexOrder);
+            int dependencies = bytes.view(position, position + 2).decodeUnsignedShort();
+            position += 2;
+            Set<String> typeDependencies = null;
+            if (dependencies != UNANCHORED) {
+                List<String> labels = new ArrayList<>(dependencies);
+                for (int i = 0; i < dependencies; i++) position = decodeSized(bytes, position, labels);
+                typeDependencies = new HashSet<>(labels);
+            }
+            assert position == bytes.length();
+            return new Plan(vertexOrder, snapshot, totalCost, typeDependencies);
+        }
+
+        private static int decodeSized(ByteArray bytes, int position, List<String> strings) {
+            int length = bytes.view(position, position + 2).decodeUnsignedShort();
+            position += 2;
+            strings.add(bytes.view(position, position + length).decodeString(UTF_8));
+            return position + length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Plan that = (Plan) o;
+            return this.vertexOrder.equals(that.vertexOrder) && this.snapshot == that.snapshot &&
+                    this.totalCost == that.totalCost && Objects.equals(this.typeDependencies, that.typeDependencies);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(vertexOrder, snapshot, totalCost, typeDependencies);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.vaticle.typedb.core.traversal.common.Modifiers;
 import com.vaticle.typedb.core.traversal.procedure.PermutationProcedure;
 import com.vaticle.typedb.core.traversal.structure.Structure;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
@@ -30,9 +31,13 @@ import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 public interface Planner {
 
     static Planner create(Structure structure, Modifiers modifiers) {
+        return create(structure, modifiers, null);
+    }
+
+    static Planner create(Structure structure, Modifiers modifiers, @Nullable PlanStore planStore) {
         List<Structure> structures = splitStructure(structure, modifiers);
-        if (structures.size() == 1) return ComponentPlanner.create(structures.get(0), modifiers);
-        else return MultiPlanner.create(structures, modifiers);
+        if (structures.size() == 1) return ComponentPlanner.create(structures.get(0), modifiers, planStore);
+        else return MultiPlanner.create(structures, modifiers, planStore);
     }
 
     /**
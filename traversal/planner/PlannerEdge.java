@@ -32,6 +32,7 @@ import com.vaticle.typeql.lang.common.TypeQLToken;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
@@ -110,7 +111,9 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
 
     void computeCost(GraphManager graphMgr) {
         forward.computeCost(graphMgr);
+        forward.mayApplyObservedCost();
         backward.computeCost(graphMgr);
+        backward.mayApplyObservedCost();
     }
 
     void updateOptimiserCoefficients() {
@@ -151,14 +154,16 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
         private final long tieBreaker;
         private static final AtomicLong nextTieBreaker = new AtomicLong(0);
 
-        double cost;
+        volatile double cost;
         double costLastRecorded;
+        private final ObservedCost observedCost;
 
         Directional(VERTEX_DIR_FROM from, VERTEX_DIR_TO to, Encoding.Direction.Edge direction, String symbol) {
             super(from, to, symbol);
             this.planner = from.planner;
             this.direction = direction;
             this.costLastRecorded = INIT_ZERO;
+            this.observedCost = new ObservedCost();
 
             this.isInitialised = false;
 
@@ -237,6 +242,24 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
 
         abstract void computeCost(GraphManager graphMgr);
 
+        /**
+         * Records the total number of vertices that traversing this edge produced over a number of branches, each
+         * from a single vertex.
+         */
+        public void observe(long branches, long vertices) {
+            observedCost.record(branches, vertices);
+            planner.observed(branches);
+        }
+
+        /**
+         * Replaces the cost estimated from statistics with the observed mean fan-out, once enough traversals of this
+         * edge have been observed.
+         */
+        private void mayApplyObservedCost() {
+            OptionalDouble observed = observedCost.mean();
+            if (observed.isPresent()) cost = observed.getAsDouble();
+        }
+
         public double safeCost() {
             return max(cost, INIT_ZERO);
         }
@@ -1215,6 +1238,8 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
 
             public static class RolePlayer extends Thing {
 
+                private static final int MAX_ROLE_PLAYER_COMBINATIONS = 1024;
+
                 private final Set<Label> roleTypes;
                 private final int repetition;
 
@@ -1231,6 +1256,16 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                     backward = new Backward(to.asThing(), from.asThing());
                 }
 
+                /**
+                 * Role player counts are kept per relation, role and player type, so only use them when the number
+                 * of type combinations to look up is small. Databases that predate these counts have none, in which
+                 * case the costs fall back to the per role type counts.
+                 */
+                private boolean isRolePlayerCountable(GraphManager graphMgr, Set<Label> relationTypes, Set<Label> playerTypes) {
+                    return graphMgr.data().stats().hasRolePlayerCounts() &&
+                            (long) relationTypes.size() * roleTypes.size() * playerTypes.size() <= MAX_ROLE_PLAYER_COMBINATIONS;
+                }
+
                 public abstract class Directional extends Thing.Directional {
 
                     Directional(PlannerVertex.Thing from, PlannerVertex.Thing to, Encoding.Direction.Edge direction) {
@@ -1269,6 +1304,16 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                             return;
                         }
 
+                        if (isRolePlayerCountable(graphMgr, from.props().types(), to.props().types())) {
+                            double div = graphMgr.data().stats().thingVertexSum(from.props().types());
+                            // a count that is missing, or transiently negative, falls back to the role type estimate
+                            long rolePlayers = graphMgr.data().stats().rolePlayerSum(from.props().types(), roleTypes, to.props().types());
+                            if (div > 0 && rolePlayers > 0) {
+                                cost = rolePlayers / div;
+                                return;
+                            }
+                        }
+
                         cost = 0;
                         Set<TypeVertex> roleTypeVertices = iterate(this.roleTypes()).map(graphMgr.schema()::getType).toSet();
                         for (TypeVertex roleType : roleTypeVertices) {
@@ -1295,8 +1340,16 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                             return;
                         }
 
-                        cost = 0;
                         double div = graphMgr.data().stats().thingVertexSum(from.props().types());
+                        if (div > 0 && isRolePlayerCountable(graphMgr, to.props().types(), from.props().types())) {
+                            long rolePlayers = graphMgr.data().stats().rolePlayerSum(to.props().types(), roleTypes, from.props().types());
+                            if (rolePlayers > 0) {
+                                cost = rolePlayers / div;
+                                return;
+                            }
+                        }
+
+                        cost = 0;
                         if (div > 0) cost = graphMgr.data().stats().thingVertexSum(roleTypes) / div;
                         assert !Double.isNaN(cost);
                     }
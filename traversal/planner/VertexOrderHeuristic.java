@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.planner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.Math.log;
+
+/**
+ * Orders the vertices of a graph planner without the solver, estimating the cost of an order like the optimiser's
+ * objective does: a starting vertex costs its own size, and any other vertex costs its cheapest incoming edge from
+ * the vertices ordered before it, reduced by the filtering of the other selected incoming edges.
+ *
+ * Small graphs are ordered exactly, with dynamic programming over the connected subsets of vertices. Larger graphs,
+ * and graphs that are not connected, are ordered greedily and then improved by swapping adjacent vertices, for a
+ * bounded number of rounds.
+ */
+class VertexOrderHeuristic {
+
+    static final int EXACT_MAX_VERTICES = 12;
+    private static final int LOCAL_SEARCH_MAX_ROUNDS = 8;
+
+    private final List<PlannerVertex<?>> vertices;
+    private final int sortedCount;
+    private final double[] costs;
+    private final int[][] insFrom;
+    private final double[][] insCost;
+    private final int[] adjacency;
+
+    VertexOrderHeuristic(Collection<PlannerVertex<?>> vertices, List<PlannerVertex<?>> sortedVertices) {
+        this.vertices = new ArrayList<>(sortedVertices);
+        for (PlannerVertex<?> vertex : vertices) {
+            if (!sortedVertices.contains(vertex)) this.vertices.add(vertex);
+        }
+        Map<PlannerVertex<?>, Integer> index = new HashMap<>();
+        for (int i = 0; i < this.vertices.size(); i++) index.put(this.vertices.get(i), i);
+
+        int size = this.vertices.size();
+        this.sortedCount = sortedVertices.size();
+        this.costs = new double[size];
+        this.insFrom = new int[size][];
+        this.insCost = new double[size][];
+        for (int i = 0; i < size; i++) {
+            PlannerVertex<?> vertex = this.vertices.get(i);
+            costs[i] = vertex.safeCost();
+            insFrom[i] = new int[vertex.ins().size()];
+            insCost[i] = new double[vertex.ins().size()];
+            int in = 0;
+            for (PlannerEdge.Directional<?, ?> edge : vertex.ins()) {
+                insFrom[i][in] = index.get(edge.from());
+                insCost[i][in] = edge.safeCost();
+                in++;
+            }
+        }
+        this.adjacency = adjacency(insFrom);
+    }
+
+    /**
+     * Creates a heuristic over vertices identified by their position, where the first {@code sortedCount} vertices
+     * are already ordered, and {@code insFrom[i][k]} is the source of the k-th incoming edge of vertex i, with cost
+     * {@code insCost[i][k]}.
+     */
+    VertexOrderHeuristic(double[] costs, int[][] insFrom, double[][] insCost, int sortedCount) {
+        this.vertices = null;
+        this.sortedCount = sortedCount;
+        this.costs = costs;
+        this.insFrom = insFrom;
+        this.insCost = insCost;
+        this.adjacency = adjacency(insFrom);
+    }
+
+    private static int[] adjacency(int[][] insFrom) {
+        int[] adjacency = new int[insFrom.length];
+        if (insFrom.length > EXACT_MAX_VERTICES) return adjacency;
+        for (int i = 0; i < insFrom.length; i++) {
+            for (int from : insFrom[i]) {
+                adjacency[i] |= 1 << from;
+                adjacency[from] |= 1 << i;
+            }
+        }
+        return adjacency;
+    }
+
+    List<PlannerVertex<?>> order() {
+        assert vertices != null;
+        List<PlannerVertex<?>> order = new ArrayList<>(vertices.size());
+        for (int i : orderIndices()) order.add(vertices.get(i));
+        return order;
+    }
+
+    int[] orderIndices() {
+        if (costs.length <= EXACT_MAX_VERTICES) {
+            int[] exact = exact();
+            if (exact != null) return exact;
+        }
+        return localSearch(greedy());
+    }
+
+    /**
+     * @return the cheapest order in which every vertex after the first is adjacent to one ordered before it, or null
+     * if the vertices are not connected, so no such order exists
+     */
+    int[] exact() {
+        int size = costs.length;
+        int sortedSet = (1 << sortedCount) - 1;
+        double sortedCost = 0;
+        for (int i = 0; i < sortedCount; i++) sortedCost += cost(i, (1 << i) - 1);
+
+        double[] best = new double[1 << size];
+        int[] last = new int[1 << size];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        best[sortedSet] = sortedCost;
+        for (int set = sortedSet; set < best.length; set++) {
+            if (best[set] == Double.POSITIVE_INFINITY) continue;
+            for (int i = sortedCount; i < size; i++) {
+                int next = set | (1 << i);
+                if (next == set || (set != 0 && (adjacency[i] & set) == 0)) continue;
+                double cost = best[set] + cost(i, set);
+                if (cost < best[next]) {
+                    best[next] = cost;
+                    last[next] = i;
+                }
+            }
+        }
+
+        int full = best.length - 1;
+        if (best[full] == Double.POSITIVE_INFINITY) return null;
+        int[] order = new int[size];
+        for (int i = 0; i < sortedCount; i++) order[i] = i;
+        int position = size - 1;
+        for (int set = full; set != sortedSet; set &= ~(1 << last[set])) {
+            // every reachable set other than the sorted one was reached by adding its last vertex
+            assert (set & (1 << last[set])) != 0 && best[set & ~(1 << last[set])] < Double.POSITIVE_INFINITY;
+            order[position--] = last[set];
+        }
+        assert position == sortedCount - 1;
+        return order;
+    }
+
+    private int[] greedy() {
+        int size = costs.length;
+        int[] order = new int[size];
+        boolean[] ordered = new boolean[size];
+        for (int i = 0; i < sortedCount; i++) {
+            order[i] = i;
+            ordered[i] = true;
+        }
+        for (int position = sortedCount; position < size; position++) {
+            int next = -1;
+            double nextCost = Double.POSITIVE_INFINITY;
+            boolean nextIsAdjacent = false;
+            for (int vertex = 0; vertex < size; vertex++) {
+                if (ordered[vertex]) continue;
+                boolean isAdjacent = isAdjacent(vertex, ordered);
+                double cost = cost(vertex, ordered);
+                if (next == -1 || (isAdjacent && !nextIsAdjacent) || (isAdjacent == nextIsAdjacent && cost < nextCost)) {
+                    next = vertex;
+                    nextCost = cost;
+                    nextIsAdjacent = isAdjacent;
+                }
+            }
+            order[position] = next;
+            ordered[next] = true;
+        }
+        return order;
+    }
+
+    private int[] localSearch(int[] order) {
+        double cost = cost(order);
+        boolean improved = true;
+        for (int round = 0; round < LOCAL_SEARCH_MAX_ROUNDS && improved; round++) {
+            improved = false;
+            for (int i = sortedCount; i < order.length - 1; i++) {
+                swap(order, i, i + 1);
+                double swappedCost = cost(order);
+                if (swappedCost < cost) {
+                    cost = swappedCost;
+                    improved = true;
+                } else {
+                    swap(order, i, i + 1);
+                }
+            }
+        }
+        return order;
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int swapped = order[i];
+        order[i] = order[j];
+        order[j] = swapped;
+    }
+
+    private boolean isAdjacent(int vertex, boolean[] ordered) {
+        for (int from : insFrom[vertex]) {
+            if (ordered[from]) return true;
+        }
+        return false;
+    }
+
+    double cost(int[] order) {
+        boolean[] ordered = new boolean[order.length];
+        double cost = 0;
+        for (int vertex : order) {
+            cost += cost(vertex, ordered);
+            ordered[vertex] = true;
+        }
+        return cost;
+    }
+
+    private double cost(int vertex, int orderedSet) {
+        boolean[] ordered = new boolean[costs.length];
+        for (int i = 0; i < costs.length; i++) ordered[i] = (orderedSet & (1 << i)) != 0;
+        return cost(vertex, ordered);
+    }
+
+    private double cost(int vertex, boolean[] ordered) {
+        int selected = 0;
+        int minimalIn = -1;
+        for (int in = 0; in < insFrom[vertex].length; in++) {
+            if (ordered[insFrom[vertex][in]]) {
+                selected++;
+                if (minimalIn == -1 || insCost[vertex][in] < insCost[vertex][minimalIn]) minimalIn = in;
+            }
+        }
+        if (selected == 0) return log(1 + costs[vertex]);
+
+        // every selected edge other than the cheapest one filters the answers it produces
+        double filter = 1.0;
+        for (int in = 0; in < insFrom[vertex].length; in++) {
+            if (in != minimalIn && ordered[insFrom[vertex][in]]) {
+                filter *= Math.min(1.0, insCost[vertex][in] / Math.max(1.0, costs[vertex]));
+            }
+        }
+        return log(selected) + log(1 + insCost[vertex][minimalIn] * filter);
+    }
+}
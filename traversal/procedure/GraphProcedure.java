@@ -18,22 +18,32 @@
 
 package com.vaticle.typedb.core.traversal.procedure;
 
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator.Forwardable;
 import com.vaticle.typedb.core.common.parameters.Label;
 import com.vaticle.typedb.core.common.parameters.Order;
 import com.vaticle.typedb.core.concurrent.producer.FunctionalProducer;
+import com.vaticle.typedb.core.concurrent.producer.Producers;
 import com.vaticle.typedb.core.encoding.Encoding;
+import com.vaticle.typedb.core.encoding.iid.VertexIID;
 import com.vaticle.typedb.core.graph.GraphManager;
+import com.vaticle.typedb.core.graph.vertex.ThingVertex;
+import com.vaticle.typedb.core.graph.vertex.TypeVertex;
+import com.vaticle.typedb.core.graph.vertex.Vertex;
 import com.vaticle.typedb.core.traversal.Traversal;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.common.Modifiers;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
+import com.vaticle.typedb.core.traversal.common.VertexMapSet;
 import com.vaticle.typedb.core.traversal.graph.TraversalVertex;
 import com.vaticle.typedb.core.traversal.planner.ComponentPlanner;
 import com.vaticle.typedb.core.traversal.planner.GraphPlanner;
 import com.vaticle.typedb.core.traversal.planner.PlannerEdge;
 import com.vaticle.typedb.core.traversal.planner.PlannerVertex;
 import com.vaticle.typedb.core.traversal.predicate.Predicate;
+import com.vaticle.typedb.core.traversal.scanner.GraphBatchIterator;
 import com.vaticle.typedb.core.traversal.scanner.GraphIterator;
 import com.vaticle.typedb.core.traversal.structure.Structure;
 import com.vaticle.typedb.core.traversal.structure.StructureEdge;
@@ -43,13 +53,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
 import static com.vaticle.typedb.core.concurrent.producer.Producers.async;
@@ -58,6 +71,7 @@ import static java.util.Comparator.comparing;
 public class GraphProcedure implements PermutationProcedure {
 
     private static final Logger LOG = LoggerFactory.getLogger(GraphProcedure.class);
+    private static final double ADJACENCY_SPLIT_MIN_BRANCH_SIZE = 1024;
 
     private final ProcedureVertex<?, ?>[] vertices;
     private Set<ProcedureVertex<?, ?>> startVertices;
@@ -119,16 +133,90 @@ public class GraphProcedure implements PermutationProcedure {
         }
         Optional<Order> order = modifiers.sorting().order(initialVertex().id());
         boolean sortByValue = order.isPresent();
-        if (initialVertex().id().isRetrievable() && modifiers.filter().variables().contains(initialVertex().id().asVariable().asRetrievable())) {
+        if (parallelisation > 1 && !sortByValue && initialVertex().isThing()) {
+            if (initialVertex().asThing().isRangeSplittable()) {
+                return rangeSplitProducer(graphMgr, params, modifiers, parallelisation);
+            } else if (isAdjacencySplittable()) {
+                return adjacencySplitProducer(graphMgr, params, modifiers, parallelisation);
+            }
+        }
+        if (isRetrieved(initialVertex(), modifiers)) {
             return async(initialVertex().iterator(graphMgr, params, order.orElse(ASC), sortByValue)
-                    // TODO we can reduce the size of the distinct() set if the traversal engine doesn't overgenerate as much
                     .map(v -> new GraphIterator(graphMgr, v, this, params, modifiers).distinct()), parallelisation);
         } else {
-            return async(initialVertex().iterator(graphMgr, params, order.orElse(ASC), sortByValue)
-                    .map(v -> new GraphIterator(graphMgr, v, this, params, modifiers)), parallelisation)
-                    // TODO we can reduce the size of the distinct() set if the traversal engine doesn't overgenerate as much
-                    .distinct();
+            VertexMapSet produced = new VertexMapSet(retrievedIds(modifiers), graphMgr.data().storage().spillDirectory());
+            return async(produced.closeOnRecycle(initialVertex().iterator(graphMgr, params, order.orElse(ASC), sortByValue)
+                    .map(v -> new GraphIterator(graphMgr, v, this, params, modifiers))), parallelisation)
+                    .filter(produced::add);
+        }
+    }
+
+    private static boolean isRetrieved(ProcedureVertex<?, ?> vertex, Modifiers modifiers) {
+        return vertex.id().isRetrievable() && modifiers.filter().variables().contains(vertex.id().asVariable().asRetrievable());
+    }
+
+    public List<Identifier.Variable.Retrievable> retrievedIds(Modifiers modifiers) {
+        List<Identifier.Variable.Retrievable> ids = new ArrayList<>();
+        for (ProcedureVertex<?, ?> vertex : vertices) {
+            if (isRetrieved(vertex, modifiers)) ids.add(vertex.id().asVariable().asRetrievable());
         }
+        return ids;
+    }
+
+    /**
+     * Each job scans one IID range of the initial vertex's instances, instead of all jobs being fed from one scan.
+     */
+    private FunctionalProducer<VertexMap> rangeSplitProducer(GraphManager graphMgr, Traversal.Parameters params,
+                                                             Modifiers modifiers, int parallelisation) {
+        FunctionalIterator<Forwardable<? extends ThingVertex, Order.Asc>> ranges =
+                iterate(initialVertex().asThing().iteratorRanges(graphMgr, params, parallelisation));
+        if (isRetrieved(initialVertex(), modifiers)) {
+            return async(ranges.map(range -> range.flatMap(
+                    v -> new GraphIterator(graphMgr, v, this, params, modifiers).distinct()
+            )), parallelisation);
+        } else {
+            VertexMapSet produced = new VertexMapSet(retrievedIds(modifiers), graphMgr.data().storage().spillDirectory());
+            return async(produced.closeOnRecycle(ranges.map(range -> range.flatMap(
+                    v -> new GraphIterator(graphMgr, v, this, params, modifiers)
+            ))), parallelisation).filter(produced::add);
+        }
+    }
+
+    /**
+     * A single bound initial vertex yields one job, so we split the adjacency of its first hop instead, when that hop
+     * is expected to fan out widely to instances of a single type.
+     */
+    private boolean isAdjacencySplittable() {
+        if (!initialVertex().asThing().props().hasIID() || vertexCount() < 2 || !vertex(1).isThing()) return false;
+        ProcedureVertex.Thing next = vertex(1).asThing();
+        if (next.ins().size() != 1 || next.id().isScoped() || next.props().hasIID() ||
+                !next.props().predicates().isEmpty() || next.props().types().size() != 1) {
+            return false;
+        }
+        ProcedureEdge<?, ?> edge = next.ins().iterator().next();
+        return edge.from().equals(initialVertex()) && edge instanceof ProcedureEdge.Native.Thing &&
+                !edge.isRolePlayer() && edge.expectedBranchSize() >= ADJACENCY_SPLIT_MIN_BRANCH_SIZE;
+    }
+
+    /**
+     * The adjacency is split by the instance ranges of the first hop's type, so the split is only as even as the
+     * initial vertex's neighbours are spread over that type.
+     */
+    private FunctionalProducer<VertexMap> adjacencySplitProducer(GraphManager graphMgr, Traversal.Parameters params,
+                                                                 Modifiers modifiers, int parallelisation) {
+        Optional<? extends ThingVertex> initial = initialVertex().asThing().iterator(graphMgr, params, ASC, false).first();
+        if (initial.isEmpty()) return Producers.empty();
+        TypeVertex type = graphMgr.schema().getType(vertex(1).asThing().props().types().iterator().next());
+        List<VertexIID.Thing> lowerBounds = graphMgr.data().rangeLowerBounds(type, parallelisation);
+        List<FunctionalIterator<VertexMap>> iterators = new ArrayList<>(lowerBounds.size());
+        for (int i = 0; i < lowerBounds.size(); i++) {
+            iterators.add(new GraphIterator(
+                    graphMgr, initial.get(), this, params, modifiers,
+                    i == 0 ? null : lowerBounds.get(i), i + 1 < lowerBounds.size() ? lowerBounds.get(i + 1) : null
+            ));
+        }
+        VertexMapSet produced = new VertexMapSet(retrievedIds(modifiers), graphMgr.data().storage().spillDirectory());
+        return async(produced.closeOnRecycle(iterate(iterators)), parallelisation).filter(produced::add);
     }
 
     @Override
@@ -140,16 +228,152 @@ public class GraphProcedure implements PermutationProcedure {
         }
         Optional<Order> order = modifiers.sorting().order(initialVertex().id());
         boolean sortByValue = order.isPresent();
-        if (initialVertex().id().isRetrievable() && modifiers.filter().variables().contains(initialVertex().id().asVariable().asRetrievable())) {
+        if (isRetrieved(initialVertex(), modifiers)) {
             return initialVertex().iterator(graphMgr, params, order.orElse(ASC), sortByValue)
-                    // TODO we can reduce the size of the distinct() set if the traversal engine doesn't overgenerate as much
                     .flatMap(v -> new GraphIterator(graphMgr, v, this, params, modifiers).distinct());
         } else {
-            // TODO we can reduce the size of the distinct() set if the traversal engine doesn't overgenerate as much
-            return initialVertex().iterator(graphMgr, params, order.orElse(ASC), sortByValue)
+            VertexMapSet produced = new VertexMapSet(retrievedIds(modifiers), graphMgr.data().storage().spillDirectory());
+            return produced.closeOnRecycle(initialVertex().iterator(graphMgr, params, order.orElse(ASC), sortByValue)
                     .flatMap(v -> new GraphIterator(graphMgr, v, this, params, modifiers))
-                    // TODO we can reduce the size of the distinct() set if the traversal engine doesn't overgenerate as much
-                    .distinct();
+                    .filter(produced::add));
+        }
+    }
+
+    /**
+     * The partitions share a single scan of the initial vertex, each taking the next initial vertex whenever it needs
+     * one. Every partition thus yields a sorted subsequence of the serial answers spanning the whole sort order, so
+     * that a merge of the partitions consumes from all of them at once.
+     */
+    @Override
+    public List<FunctionalIterator<VertexMap>> iterators(GraphManager graphMgr, Traversal.Parameters params,
+                                                         Modifiers modifiers, int partitions) {
+        if (partitions <= 1 || initialVertex().isThing() && initialVertex().asThing().props().hasIID()) {
+            return list(iterator(graphMgr, params, modifiers));
+        }
+        Optional<Order> order = modifiers.sorting().order(initialVertex().id());
+        SharedScan<? extends Vertex<?, ?>> scan = new SharedScan<>(
+                initialVertex().iterator(graphMgr, params, order.orElse(ASC), order.isPresent()), partitions
+        );
+        // answers from different initial vertices may coincide, so the partitions share their distinct set
+        VertexMapSet produced = new VertexMapSet(retrievedIds(modifiers), graphMgr.data().storage().spillDirectory());
+        List<FunctionalIterator<VertexMap>> iterators = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            FunctionalIterator<? extends Vertex<?, ?>> initials = scan.partition();
+            if (isRetrieved(initialVertex(), modifiers)) {
+                iterators.add(initials.flatMap(v -> new GraphIterator(graphMgr, v, this, params, modifiers).distinct()));
+            } else {
+                iterators.add(produced.retain().closeOnRecycle(initials.flatMap(
+                        v -> new GraphIterator(graphMgr, v, this, params, modifiers)
+                ).filter(produced::add)));
+            }
+        }
+        produced.close();
+        return iterators;
+    }
+
+    /**
+     * Each job collects the answers of one IID range of the initial vertex's instances into batches, when the scan can
+     * be split. Otherwise, the answers are collected into batches by a single job.
+     */
+    @Override
+    public FunctionalProducer<VertexBatch> batchProducer(GraphManager graphMgr, Traversal.Parameters params,
+                                                         Modifiers modifiers, int parallelisation, int batchSize) {
+        if (parallelisation > 1 && modifiers.sorting().order(initialVertex().id()).isEmpty() &&
+                initialVertex().isThing() && initialVertex().asThing().isRangeSplittable()) {
+            List<Identifier.Variable.Retrievable> ids = retrievedIds(modifiers);
+            FunctionalIterator<Forwardable<? extends ThingVertex, Order.Asc>> ranges =
+                    iterate(initialVertex().asThing().iteratorRanges(graphMgr, params, parallelisation));
+            if (isRetrieved(initialVertex(), modifiers)) {
+                return async(ranges.map(range -> new GraphBatchIterator(
+                        range.map(v -> new GraphIterator(graphMgr, v, this, params, modifiers)),
+                        ids, batchSize, () -> new VertexMapSet(ids, graphMgr.data().storage().spillDirectory())
+                )), parallelisation);
+            } else {
+                VertexMapSet produced = new VertexMapSet(ids, graphMgr.data().storage().spillDirectory());
+                return async(produced.closeOnRecycle(ranges.map(range -> new GraphBatchIterator(
+                        range.map(v -> new GraphIterator(graphMgr, v, this, params, modifiers)),
+                        ids, batchSize, produced::retain
+                ))), parallelisation);
+            }
+        } else {
+            return async(batchIterator(graphMgr, params, modifiers, batchSize));
+        }
+    }
+
+    @Override
+    public FunctionalIterator<VertexBatch> batchIterator(GraphManager graphMgr, Traversal.Parameters params,
+                                                         Modifiers modifiers, int batchSize) {
+        Optional<Order> order = modifiers.sorting().order(initialVertex().id());
+        List<Identifier.Variable.Retrievable> ids = retrievedIds(modifiers);
+        FunctionalIterator<GraphIterator> iterators = initialVertex()
+                .iterator(graphMgr, params, order.orElse(ASC), order.isPresent())
+                .map(v -> new GraphIterator(graphMgr, v, this, params, modifiers));
+        if (isRetrieved(initialVertex(), modifiers)) {
+            return new GraphBatchIterator(
+                    iterators, ids, batchSize, () -> new VertexMapSet(ids, graphMgr.data().storage().spillDirectory())
+            );
+        } else {
+            VertexMapSet produced = new VertexMapSet(ids, graphMgr.data().storage().spillDirectory());
+            return new GraphBatchIterator(produced.closeOnRecycle(iterators), ids, batchSize, produced::retain);
+        }
+    }
+
+    static class SharedScan<T> {
+
+        private final FunctionalIterator<T> scan;
+        private int open;
+
+        SharedScan(FunctionalIterator<T> scan, int partitions) {
+            this.scan = scan;
+            this.open = partitions;
+        }
+
+        FunctionalIterator<T> partition() {
+            return new Partition();
+        }
+
+        private synchronized T take() {
+            return scan.hasNext() ? scan.next() : null;
+        }
+
+        private synchronized void release() {
+            if (--open == 0) scan.recycle();
+        }
+
+        private class Partition extends AbstractFunctionalIterator<T> {
+
+            private T next;
+            private boolean isDone;
+
+            private Partition() {
+                this.next = null;
+                this.isDone = false;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !isDone) {
+                    next = take();
+                    if (next == null) recycle();
+                }
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                T taken = next;
+                next = null;
+                return taken;
+            }
+
+            @Override
+            public void recycle() {
+                if (!isDone) {
+                    isDone = true;
+                    release();
+                }
+            }
         }
     }
 
@@ -23,8 +23,11 @@ import com.vaticle.typedb.core.concurrent.producer.FunctionalProducer;
 import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.traversal.Traversal;
 import com.vaticle.typedb.core.traversal.common.Modifiers;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
 
+import java.util.List;
+
 public interface PermutationProcedure {
 
     FunctionalProducer<VertexMap> producer(GraphManager graphMgr, Traversal.Parameters params,
@@ -32,4 +35,21 @@ public interface PermutationProcedure {
 
     FunctionalIterator<VertexMap> iterator(GraphManager graphMgr, Traversal.Parameters params,
                                            Modifiers modifiers);
+
+    /**
+     * Answers the same as {@link #iterator}, split across at most {@code partitions} iterators that each keep its
+     * order, so that sorted answers can be merged back together.
+     */
+    List<FunctionalIterator<VertexMap>> iterators(GraphManager graphMgr, Traversal.Parameters params,
+                                                  Modifiers modifiers, int partitions);
+
+    /**
+     * Answers the same as {@link #producer}, collected into batches of at most {@code batchSize} answers, whose
+     * columns are the retrieved vertices in the order of the procedure.
+     */
+    FunctionalProducer<VertexBatch> batchProducer(GraphManager graphMgr, Traversal.Parameters params,
+                                                  Modifiers modifiers, int parallelisation, int batchSize);
+
+    FunctionalIterator<VertexBatch> batchIterator(GraphManager graphMgr, Traversal.Parameters params,
+                                                  Modifiers modifiers, int batchSize);
 }
@@ -87,6 +87,7 @@ public abstract class ProcedureEdge<
 
     private final Encoding.Direction.Edge direction;
     private final int hash;
+    private PlannerEdge.Directional<?, ?> plannerEdge;
 
     private ProcedureEdge(VERTEX_FROM from, VERTEX_TO to, Encoding.Direction.Edge direction, String symbol) {
         super(from, to, symbol);
@@ -97,15 +98,18 @@ public abstract class ProcedureEdge<
     public static ProcedureEdge<?, ?> of(ProcedureVertex<?, ?> from, ProcedureVertex<?, ?> to,
                                          PlannerEdge.Directional<?, ?> plannerEdge) {
         Encoding.Direction.Edge dir = plannerEdge.direction();
+        ProcedureEdge<?, ?> edge;
         if (plannerEdge.isEqual()) {
-            return new Equal(from, to, dir);
+            edge = new Equal(from, to, dir);
         } else if (plannerEdge.isPredicate()) {
-            return new Predicate(from.asThing(), to.asThing(), dir, plannerEdge.asPredicate().predicate());
+            edge = new Predicate(from.asThing(), to.asThing(), dir, plannerEdge.asPredicate().predicate());
         } else if (plannerEdge.isNative()) {
-            return Native.of(from, to, plannerEdge.asNative());
+            edge = Native.of(from, to, plannerEdge.asNative());
         } else {
             throw TypeDBException.of(UNRECOGNISED_VALUE);
         }
+        edge.plannerEdge = plannerEdge;
+        return edge;
     }
 
     public static ProcedureEdge<?, ?> of(ProcedureVertex<?, ?> from, ProcedureVertex<?, ?> to,
@@ -134,6 +138,25 @@ public abstract class ProcedureEdge<
         return direction;
     }
 
+    /**
+     * Reports the number of vertices that a number of branches of this edge produced to the planner edge it was
+     * created from, if any, so that the planner can correct its cost estimate.
+     */
+    public void observe(long branches, long vertices) {
+        if (plannerEdge != null) plannerEdge.observe(branches, vertices);
+    }
+
+    public boolean isObserved() {
+        return plannerEdge != null;
+    }
+
+    /**
+     * The planner's current estimate of the number of vertices one branch of this edge produces, or 0 if unknown.
+     */
+    public double expectedBranchSize() {
+        return plannerEdge == null ? 0 : plannerEdge.safeCost();
+    }
+
     public boolean onlyStartsFromAttributeType() {
         return false;
     }
@@ -58,6 +58,7 @@ import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
 import static com.vaticle.typedb.core.common.iterator.sorted.SortedIterators.Forwardable.emptySorted;
 import static com.vaticle.typedb.core.common.iterator.sorted.SortedIterators.Forwardable.iterateSorted;
 import static com.vaticle.typedb.core.common.iterator.sorted.SortedIterators.Forwardable.merge;
+import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
 import static com.vaticle.typedb.core.encoding.Encoding.ValueType.BOOLEAN;
 import static com.vaticle.typedb.core.encoding.Encoding.ValueType.DATETIME;
 import static com.vaticle.typedb.core.encoding.Encoding.ValueType.DOUBLE;
@@ -135,6 +136,7 @@ public abstract class ProcedureVertex<
     public static class Thing extends ProcedureVertex<ThingVertex, Properties.Thing> {
 
         private static final Set<PredicateOperator> optimisablePredicates = set(LTE, GTE);
+        private static final long RANGE_MIN_INSTANCES = 1024;
 
         private Boolean isScope;
 
@@ -181,6 +183,35 @@ public abstract class ProcedureVertex<
             else return iterateAndFilterFromTypes(graphMgr, parameters, order, forceValueSort);
         }
 
+        public boolean isRangeSplittable() {
+            return !props().hasIID() && iterate(props().predicates()).noneMatch(p -> p.operator().equals(EQ));
+        }
+
+        /**
+         * Splits the ascending scan of this vertex's type instances into disjoint IID ranges that can be iterated
+         * concurrently, with at most {@code ranges} per type. Sorted attribute types with predicates are scanned
+         * whole, as their predicates are applied by seeking to a value.
+         */
+        public List<Forwardable<? extends ThingVertex, Order.Asc>> iteratorRanges(
+                GraphManager graphMgr, Traversal.Parameters parameters, int ranges
+        ) {
+            assert isRangeSplittable();
+            FunctionalIterator<TypeVertex> types = iterate(props().types()).map(graphMgr.schema()::getType);
+            if (id().isVariable()) types = types.filter(t -> !t.encoding().equals(ROLE_TYPE));
+            List<Forwardable<? extends ThingVertex, Order.Asc>> iterators = new ArrayList<>();
+            types.forEachRemaining(type -> {
+                long typeRanges = Math.min(ranges, graphMgr.data().stats().thingVertexCount(type) / RANGE_MIN_INSTANCES);
+                boolean seeksByValue = type.isAttributeType() && !type.valueType().equals(STRING) && !props().predicates().isEmpty();
+                List<Forwardable<ThingVertex, Order.Asc>> vertexIters = typeRanges <= 1 || seeksByValue
+                        ? list(graphMgr.data().getReadable(type, ASC))
+                        : graphMgr.data().getReadableRanges(type, (int) typeRanges);
+                vertexIters.forEach(iter -> iterators.add(
+                        mergeAndFilterPredicatesOnVertices(graphMgr, list(new Pair<>(type, iter)), parameters, ASC)
+                ));
+            });
+            return iterators;
+        }
+
         <ORDER extends Order> Forwardable<? extends ThingVertex, ORDER> iterateAndFilterFromIID(
                 GraphManager graphMgr, Traversal.Parameters parameters, ORDER order
         ) {
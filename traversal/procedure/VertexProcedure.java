@@ -18,13 +18,16 @@
 
 package com.vaticle.typedb.core.traversal.procedure;
 
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
 import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
 import com.vaticle.typedb.core.common.parameters.Order;
 import com.vaticle.typedb.core.concurrent.producer.FunctionalProducer;
 import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.graph.vertex.Vertex;
 import com.vaticle.typedb.core.traversal.Traversal;
+import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.common.Modifiers;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
 import com.vaticle.typedb.core.traversal.structure.StructureEdge;
 import com.vaticle.typedb.core.traversal.structure.StructureVertex;
@@ -33,8 +36,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
+import static com.vaticle.typedb.common.collection.Collections.list;
 import static com.vaticle.typedb.common.collection.Collections.map;
 import static com.vaticle.typedb.common.collection.Collections.pair;
 import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
@@ -75,6 +80,12 @@ public class VertexProcedure implements PermutationProcedure {
                                                   Modifiers modifiers) {
         LOG.trace(params.toString());
         LOG.trace(this.toString());
+        return answerVertices(graphMgr, params, modifiers)
+                .map(v -> VertexMap.of(map(pair(vertex.id().asVariable().asRetrievable(), v))));
+    }
+
+    private FunctionalIterator<Vertex<?, ?>> answerVertices(GraphManager graphMgr, Traversal.Parameters params,
+                                                            Modifiers modifiers) {
         assert vertex.id().isRetrievable() && modifiers.filter().variables().contains(vertex.id().asVariable().asRetrievable());
         Optional<Order> order = modifiers.sorting().order(vertex.id());
         FunctionalIterator<? extends Vertex<?, ?>> iterator = vertex.iterator(graphMgr, params, order.orElse(ASC), order.isPresent());
@@ -84,13 +95,34 @@ public class VertexProcedure implements PermutationProcedure {
 
         return iterator.map(v -> {
             if (v.isThing() && v.asThing().isAttribute() && v.asThing().asAttribute().isValue()) {
-                return VertexMap.of(map(pair(vertex.id().asVariable().asRetrievable(), v.asThing().asAttribute().asValue().toAttribute())));
+                return v.asThing().asAttribute().asValue().toAttribute();
             } else {
-                return VertexMap.of(map(pair(vertex.id().asVariable().asRetrievable(), v)));
+                return v;
             }
         });
     }
 
+    @Override
+    public List<FunctionalIterator<VertexMap>> iterators(GraphManager graphMgr, Traversal.Parameters params,
+                                                         Modifiers modifiers, int partitions) {
+        return list(iterator(graphMgr, params, modifiers));
+    }
+
+    @Override
+    public FunctionalProducer<VertexBatch> batchProducer(GraphManager graphMgr, Traversal.Parameters params,
+                                                         Modifiers modifiers, int parallelisation, int batchSize) {
+        return async(batchIterator(graphMgr, params, modifiers, batchSize));
+    }
+
+    @Override
+    public FunctionalIterator<VertexBatch> batchIterator(GraphManager graphMgr, Traversal.Parameters params,
+                                                         Modifiers modifiers, int batchSize) {
+        LOG.trace(params.toString());
+        LOG.trace(this.toString());
+        return new VertexBatchIterator(answerVertices(graphMgr, params, modifiers),
+                list(vertex.id().asVariable().asRetrievable()), batchSize);
+    }
+
     @Override
     public String toString() {
         StringBuilder str = new StringBuilder();
@@ -107,4 +139,38 @@ public class VertexProcedure implements PermutationProcedure {
         return str.toString();
     }
 
+    private static class VertexBatchIterator extends AbstractFunctionalIterator<VertexBatch> {
+
+        private final FunctionalIterator<Vertex<?, ?>> vertices;
+        private final List<Identifier.Variable.Retrievable> ids;
+        private final int batchSize;
+
+        private VertexBatchIterator(FunctionalIterator<Vertex<?, ?>> vertices,
+                                    List<Identifier.Variable.Retrievable> ids, int batchSize) {
+            this.vertices = vertices;
+            this.ids = ids;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return vertices.hasNext();
+        }
+
+        @Override
+        public VertexBatch next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            VertexBatch batch = new VertexBatch(ids, batchSize);
+            while (!batch.isFull() && vertices.hasNext()) {
+                batch.put(0, vertices.next());
+                batch.append();
+            }
+            return batch;
+        }
+
+        @Override
+        public void recycle() {
+            vertices.recycle();
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2022 Vaticle
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.vaticle.typedb.core.traversal.scanner;
+
+import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
+import com.vaticle.typedb.core.common.iterator.FunctionalIterator;
+import com.vaticle.typedb.core.traversal.common.Identifier.Variable.Retrievable;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
+import com.vaticle.typedb.core.traversal.common.VertexMapSet;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Collects the answers of a sequence of graph iterators into batches, writing each answer straight into the columns
+ * of the batch. When a distinct set is supplied, it is asked for again with each graph iterator, and answers already
+ * in it are dropped before they are appended. Each set supplied holds a reference, which is closed once its graph
+ * iterator is done.
+ */
+public class GraphBatchIterator extends AbstractFunctionalIterator<VertexBatch> {
+
+    private final FunctionalIterator<GraphIterator> iterators;
+    private final List<Retrievable> ids;
+    private final int batchSize;
+    private final Supplier<VertexMapSet> distinctSupplier;
+    private GraphIterator iterator;
+    private VertexMapSet distinct;
+    private VertexBatch next;
+
+    public GraphBatchIterator(FunctionalIterator<GraphIterator> iterators, List<Retrievable> ids, int batchSize,
+                              @Nullable Supplier<VertexMapSet> distinctSupplier) {
+        this.iterators = iterators;
+        this.ids = ids;
+        this.batchSize = batchSize;
+        this.distinctSupplier = distinctSupplier;
+        this.iterator = null;
+        this.distinct = null;
+        this.next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) next = fetchBatch();
+        return next != null;
+    }
+
+    private VertexBatch fetchBatch() {
+        VertexBatch batch = new VertexBatch(ids, batchSize);
+        while (!batch.isFull()) {
+            if (iterator == null || !iterator.hasNext()) {
+                mayCloseDistinct();
+                if (!iterators.hasNext()) break;
+                iterator = iterators.next();
+                if (distinctSupplier != null) distinct = distinctSupplier.get();
+            } else {
+                iterator.next(batch);
+                if (distinct == null || distinct.add(batch)) batch.append();
+            }
+        }
+        return batch.isEmpty() ? null : batch;
+    }
+
+    @Override
+    public VertexBatch next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        VertexBatch batch = next;
+        next = null;
+        return batch;
+    }
+
+    private void mayCloseDistinct() {
+        if (distinct != null) {
+            distinct.close();
+            distinct = null;
+        }
+    }
+
+    @Override
+    public void recycle() {
+        if (iterator != null) iterator.recycle();
+        iterators.recycle();
+        mayCloseDistinct();
+    }
+}
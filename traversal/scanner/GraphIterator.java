@@ -18,17 +18,21 @@
 
 package com.vaticle.typedb.core.traversal.scanner;
 
+import com.vaticle.typedb.core.common.collection.ByteArray;
 import com.vaticle.typedb.core.common.collection.KeyValue;
 import com.vaticle.typedb.core.common.exception.TypeDBException;
 import com.vaticle.typedb.core.common.iterator.AbstractFunctionalIterator;
 import com.vaticle.typedb.core.common.iterator.sorted.SortedIterator.Forwardable;
 import com.vaticle.typedb.core.common.parameters.Order;
+import com.vaticle.typedb.core.encoding.iid.VertexIID;
 import com.vaticle.typedb.core.graph.GraphManager;
 import com.vaticle.typedb.core.graph.vertex.ThingVertex;
 import com.vaticle.typedb.core.graph.vertex.Vertex;
+import com.vaticle.typedb.core.graph.vertex.impl.ThingVertexImpl;
 import com.vaticle.typedb.core.traversal.Traversal;
 import com.vaticle.typedb.core.traversal.common.Identifier;
 import com.vaticle.typedb.core.traversal.common.Modifiers;
+import com.vaticle.typedb.core.traversal.common.VertexBatch;
 import com.vaticle.typedb.core.traversal.common.VertexMap;
 import com.vaticle.typedb.core.traversal.procedure.GraphProcedure;
 import com.vaticle.typedb.core.traversal.procedure.ProcedureEdge;
@@ -36,6 +40,7 @@ import com.vaticle.typedb.core.traversal.procedure.ProcedureVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -62,6 +67,7 @@ import static com.vaticle.typedb.core.common.parameters.Order.Asc.ASC;
 public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
 
     private static final Logger LOG = LoggerFactory.getLogger(GraphIterator.class);
+    private static final int BRANCH_SAMPLE_INTERVAL = 16;
 
     private final GraphManager graphMgr;
     private final GraphProcedure procedure;
@@ -70,6 +76,8 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
     private final Map<Identifier.Variable, Scope> scopes;
     private final Map<ProcedureVertex<?, ?>, VertexTraverser> vertexTraversers;
     private final Vertex<?, ?> initial;
+    private final VertexIID.Thing splitLowerBound;
+    private final VertexIID.Thing splitUpperBound;
     private final SortedSet<ProcedureVertex<?, ?>> toTraverse;
     private final SortedSet<ProcedureVertex<?, ?>> toRevisit;
     private Direction direction;
@@ -81,11 +89,23 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
 
     public GraphIterator(GraphManager graphMgr, Vertex<?, ?> initial, GraphProcedure procedure,
                          Traversal.Parameters params, Modifiers modifiers) {
+        this(graphMgr, initial, procedure, params, modifiers, null, null);
+    }
+
+    /**
+     * Restricts the vertices of the procedure's second vertex to the IID range between the given bounds, so that
+     * the traversal from a single initial vertex can be split across several iterators.
+     */
+    public GraphIterator(GraphManager graphMgr, Vertex<?, ?> initial, GraphProcedure procedure,
+                         Traversal.Parameters params, Modifiers modifiers,
+                         @Nullable VertexIID.Thing splitLowerBound, @Nullable VertexIID.Thing splitUpperBound) {
         this.graphMgr = graphMgr;
         this.procedure = procedure;
         this.params = params;
         this.initial = initial;
         this.modifiers = modifiers;
+        this.splitLowerBound = splitLowerBound;
+        this.splitUpperBound = splitUpperBound;
         this.toTraverse = new TreeSet<>(Comparator.comparing(ProcedureVertex::order));
         this.toRevisit = new TreeSet<>(Comparator.comparing(ProcedureVertex::order));
         this.scopes = new HashMap<>();
@@ -147,22 +167,43 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
         return toVertexMap();
     }
 
+    /**
+     * Writes the next answer into the pending row of the batch, without appending it, so that the caller may still
+     * discard it. The columns of the batch follow {@link GraphProcedure#retrievedIds(Modifiers)}.
+     */
+    public void next(VertexBatch batch) {
+        if (!hasNext()) throw new NoSuchElementException();
+        iteratorState = IteratorState.EMPTY;
+        int column = 0;
+        for (ProcedureVertex<?, ?> procedureVertex : procedure.vertices()) {
+            if (isRetrieved(procedureVertex)) batch.put(column++, answerVertex(procedureVertex));
+        }
+    }
+
     private VertexMap toVertexMap() {
         Map<Identifier.Variable.Retrievable, Vertex<?, ?>> answer = new HashMap<>();
         for (ProcedureVertex<?, ?> procedureVertex : procedure.vertices()) {
-            if (procedureVertex.id().isRetrievable() && modifiers.filter().variables().contains(procedureVertex.id().asVariable().asRetrievable())) {
-                Vertex<?, ?> vertex = vertexTraversers.get(procedureVertex).vertex();
-                if (vertex.isThing() && vertex.asThing().isAttribute() && vertex.asThing().asAttribute().isValue()) {
-                    answer.put(procedureVertex.id().asVariable().asRetrievable(), vertex.asThing().asAttribute().asValue().toAttribute());
-                } else {
-                    answer.put(procedureVertex.id().asVariable().asRetrievable(), vertex);
-                }
+            if (isRetrieved(procedureVertex)) {
+                answer.put(procedureVertex.id().asVariable().asRetrievable(), answerVertex(procedureVertex));
             }
         }
 
         return VertexMap.of(answer);
     }
 
+    private boolean isRetrieved(ProcedureVertex<?, ?> procedureVertex) {
+        return procedureVertex.id().isRetrievable() && modifiers.filter().variables().contains(procedureVertex.id().asVariable().asRetrievable());
+    }
+
+    private Vertex<?, ?> answerVertex(ProcedureVertex<?, ?> procedureVertex) {
+        Vertex<?, ?> vertex = vertexTraversers.get(procedureVertex).vertex();
+        if (vertex.isThing() && vertex.asThing().isAttribute() && vertex.asThing().asAttribute().isValue()) {
+            return vertex.asThing().asAttribute().asValue().toAttribute();
+        } else {
+            return vertex;
+        }
+    }
+
     @Override
     public boolean hasNext() {
         try {
@@ -193,8 +234,14 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
         }
     }
 
+    /**
+     * The fan-outs sampled by the traversers are only reported once the iterator is exhausted. An iterator that is
+     * recycled early, under a limit, has mostly finished the branches that turned out small, so its samples are
+     * dropped instead.
+     */
     private void setCompleted() {
         iteratorState = IteratorState.COMPLETED;
+        vertexTraversers.values().forEach(VertexTraverser::reportSamples);
         recycle();
     }
 
@@ -262,6 +309,10 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
         vertexTraversers.values().forEach(VertexTraverser::clear);
     }
 
+    private boolean isSplit(ProcedureVertex<?, ?> procedureVertex) {
+        return (splitLowerBound != null || splitUpperBound != null) && procedureVertex.equals(procedure.vertex(1));
+    }
+
     private class VertexTraverser {
 
         private final ProcedureVertex<?, ?> procedureVertex;
@@ -273,6 +324,12 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
         private Forwardable<Vertex<?, ?>, ? extends Order> iterator;
         private Vertex<?, ?> vertex;
         private boolean anyAnswerFound;
+        private final ProcedureEdge<?, ?> sampledEdge;
+        private long branches;
+        private boolean isSampling;
+        private long sampledVertices;
+        private long sampledBranches;
+        private long sampledBranchVertices;
 
         private VertexTraverser(ProcedureVertex<?, ?> procedureVertex) {
             this.procedureVertex = procedureVertex;
@@ -280,6 +337,13 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
             this.implicitDependees = new HashSet<>();
             this.anyAnswerFound = false;
             this.lastDependee = procedureVertex.ins().stream().map(ProcedureEdge::from).max(Comparator.comparing(ProcedureVertex::order)).orElse(null);
+            ProcedureEdge<?, ?> onlyIn = procedureVertex.ins().size() == 1 ? procedureVertex.ins().iterator().next() : null;
+            // a split branch only sees part of the fan-out, so it is not representative
+            this.sampledEdge = onlyIn != null && onlyIn.isObserved() && !isSplit(procedureVertex) ? onlyIn : null;
+            this.branches = 0;
+            this.isSampling = false;
+            this.sampledBranches = 0;
+            this.sampledBranchVertices = 0;
             Optional<Order> explicitOrder = modifiers.sorting().order(procedureVertex.id());
             if (explicitOrder.isPresent()) {
                 order = explicitOrder.get();
@@ -299,14 +363,27 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
             Forwardable<Vertex<?, ?>, ? extends Order> iterator = getIterator();
             while (iterator.hasNext()) {
                 vertex = getIterator().next();
+                if (isSampling) sampledVertices++;
                 if (verifyLoops()) {
                     anyAnswerFound = true;
                     return true;
                 }
             }
+            if (isSampling) {
+                // only branches that were fully traversed are sampled
+                sampledBranches++;
+                sampledBranchVertices += sampledVertices;
+                isSampling = false;
+            }
             return false;
         }
 
+        private void reportSamples() {
+            if (sampledBranches > 0) sampledEdge.observe(sampledBranches, sampledBranchVertices);
+            sampledBranches = 0;
+            sampledBranchVertices = 0;
+        }
+
         private Vertex<?, ?> vertex() {
             return vertex;
         }
@@ -340,6 +417,7 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
             clearCurrentVertex();
             clearScopes();
             anyAnswerFound = false;
+            isSampling = false;
         }
 
         private void clearCurrentVertex() {
@@ -362,7 +440,11 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
             if (iterator == null) {
                 if (procedureVertex.equals(procedure.initialVertex())) iterator = createIteratorFromInitial();
                 else if (procedureVertex.isStartVertex()) iterator = createIteratorFromStart();
-                else iterator = createIteratorFromEdges();
+                else {
+                    iterator = createIteratorFromEdges();
+                    isSampling = sampledEdge != null && branches++ % BRANCH_SAMPLE_INTERVAL == 0;
+                    sampledVertices = 0;
+                }
                 // TODO: we may only need to find one valid answer if all dependents are not included in the filter and also find an answer
             }
             return iterator;
@@ -385,8 +467,18 @@ public class GraphIterator extends AbstractFunctionalIterator<VertexMap> {
         private Forwardable<Vertex<?, ?>, Order.Asc> createIteratorFromEdges() {
             List<Forwardable<Vertex<?, ?>, Order.Asc>> iterators = new ArrayList<>();
             procedureVertex.ins().forEach(edge -> iterators.add(branch(vertexTraversers.get(edge.from()).vertex(), edge)));
-            if (iterators.size() == 1) return iterators.get(0);
-            else return intersect(iterate(iterators), ASC);
+            Forwardable<Vertex<?, ?>, Order.Asc> iterator;
+            if (iterators.size() == 1) iterator = iterators.get(0);
+            else iterator = intersect(iterate(iterators), ASC);
+            if (isSplit(procedureVertex)) return applySplit(iterator);
+            else return iterator;
+        }
+
+        private Forwardable<Vertex<?, ?>, Order.Asc> applySplit(Forwardable<Vertex<?, ?>, Order.Asc> iterator) {
+            if (splitLowerBound != null) iterator.forward(ThingVertexImpl.Target.of(graphMgr.data(), splitLowerBound));
+            if (splitUpperBound == null) return iterator;
+            ByteArray upperBound = splitUpperBound.bytes();
+            return iterator.takeWhile(v -> v.iid().bytes().compareTo(upperBound) < 0);
         }
 
         private Forwardable<Vertex<?, ?>, Order.Asc> branch(Vertex<?, ?> fromVertex, ProcedureEdge<?, ?> edge) {
@@ -31,6 +31,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.vaticle.typedb.core.common.iterator.Iterators.iterate;
@@ -77,6 +78,39 @@ public class Structure {
         return edges;
     }
 
+    /**
+     * Returns the type labels that this structure is constrained by, if every vertex is constrained to a set of
+     * types, either directly by its labels or transitively through 'isa' and 'sub' edges to such a vertex. A
+     * schema change to none of these types, nor to any of their subtypes, cannot affect what this structure may
+     * match. Otherwise, the structure is open to any type, and depends on the whole schema.
+     */
+    public Optional<Set<Label>> typeDependencies() {
+        Set<Label> labels = new HashSet<>();
+        Set<StructureVertex<?>> anchored = new HashSet<>();
+        for (StructureVertex<?> vertex : vertices.values()) {
+            Set<Label> types = vertex.isThing() ? vertex.asThing().props().types() : vertex.asType().props().labels();
+            if (!types.isEmpty()) anchored.add(vertex);
+            labels.addAll(types);
+        }
+        for (StructureEdge<?, ?> edge : edges) {
+            if (edge.isNative() && edge.asNative().isRolePlayer()) labels.addAll(edge.asNative().asRolePlayer().types());
+        }
+        boolean changed = true;
+        while (changed && anchored.size() < vertices.size()) {
+            changed = false;
+            for (StructureEdge<?, ?> edge : edges) {
+                if (!edge.isNative() || anchored.contains(edge.from()) || !anchored.contains(edge.to())) continue;
+                Encoding.Edge encoding = edge.asNative().encoding();
+                if (encoding == Encoding.Edge.ISA || encoding == Encoding.Edge.Type.SUB) {
+                    anchored.add(edge.from());
+                    changed = true;
+                }
+            }
+        }
+        if (anchored.size() < vertices.size()) return Optional.empty();
+        else return Optional.of(labels);
+    }
+
     public void equalEdge(StructureVertex<?> from, StructureVertex<?> to) {
         StructureEdge.Equal edge = new StructureEdge.Equal(from, to);
         recordEdge(edge);